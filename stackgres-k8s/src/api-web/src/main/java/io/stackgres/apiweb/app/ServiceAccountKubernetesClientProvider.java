@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2020 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.app;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.stackgres.common.KubernetesClientFactory;
+
+/**
+ * Create clients for the REST API service account. Unlike {@link KubernetesClientProvider} it
+ * does not depend on the request, so it can be used outside of it.
+ */
+@ApplicationScoped
+@ServiceAccountClient
+public class ServiceAccountKubernetesClientProvider implements KubernetesClientFactory {
+
+  @Override
+  public KubernetesClient create() {
+    return new DefaultKubernetesClient();
+  }
+
+}
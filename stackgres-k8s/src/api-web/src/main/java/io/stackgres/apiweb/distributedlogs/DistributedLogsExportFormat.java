@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.distributedlogs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.stackgres.apiweb.dto.cluster.ClusterLogEntryDto;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+
+/**
+ * Formats in which the distributed logs can be exported, one entry per line.
+ */
+public enum DistributedLogsExportFormat {
+
+  NDJSON("ndjson", "application/x-ndjson") {
+    @Override
+    public void writeHeader(Writer writer) {
+      // NDJSON has no header
+    }
+
+    @Override
+    public void write(Writer writer, ObjectMapper objectMapper, ClusterLogEntryDto entry)
+        throws IOException {
+      writer.write(objectMapper.writeValueAsString(entry));
+      writer.write('\n');
+    }
+  },
+  CSV("csv", "text/csv") {
+    @Override
+    public void writeHeader(Writer writer) throws IOException {
+      writer.write(Seq.seq(CSV_COLUMNS).map(Tuple2::v1).toString(","));
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void write(Writer writer, ObjectMapper objectMapper, ClusterLogEntryDto entry)
+        throws IOException {
+      writer.write(Seq.seq(CSV_COLUMNS)
+          .map(column -> column.v2.apply(entry))
+          .map(DistributedLogsExportFormat::csvValue)
+          .toString(","));
+      writer.write("\r\n");
+    }
+  };
+
+  private static final ImmutableList<Tuple2<String, Function<ClusterLogEntryDto, Object>>>
+      CSV_COLUMNS = ImmutableList.of(
+          Tuple.tuple("logTime", ClusterLogEntryDto::getLogTime),
+          Tuple.tuple("logTimeIndex", ClusterLogEntryDto::getLogTimeIndex),
+          Tuple.tuple("logType", ClusterLogEntryDto::getLogType),
+          Tuple.tuple("podName", ClusterLogEntryDto::getPodName),
+          Tuple.tuple("role", ClusterLogEntryDto::getRole),
+          Tuple.tuple("errorLevel", ClusterLogEntryDto::getErrorLevel),
+          Tuple.tuple("message", ClusterLogEntryDto::getMessage),
+          Tuple.tuple("userName", ClusterLogEntryDto::getUserName),
+          Tuple.tuple("databaseName", ClusterLogEntryDto::getDatabaseName),
+          Tuple.tuple("processId", ClusterLogEntryDto::getProcessId),
+          Tuple.tuple("connectionFrom", ClusterLogEntryDto::getConnectionFrom),
+          Tuple.tuple("sessionId", ClusterLogEntryDto::getSessionId),
+          Tuple.tuple("sessionLineNum", ClusterLogEntryDto::getSessionLineNum),
+          Tuple.tuple("commandTag", ClusterLogEntryDto::getCommandTag),
+          Tuple.tuple("sessionStartTime", ClusterLogEntryDto::getSessionStartTime),
+          Tuple.tuple("virtualTransactionId", ClusterLogEntryDto::getVirtualTransactionId),
+          Tuple.tuple("transactionId", ClusterLogEntryDto::getTransactionId),
+          Tuple.tuple("sqlStateCode", ClusterLogEntryDto::getSqlStateCode),
+          Tuple.tuple("detail", ClusterLogEntryDto::getDetail),
+          Tuple.tuple("hint", ClusterLogEntryDto::getHint),
+          Tuple.tuple("internalQuery", ClusterLogEntryDto::getInternalQuery),
+          Tuple.tuple("internalQueryPos", ClusterLogEntryDto::getInternalQueryPos),
+          Tuple.tuple("context", ClusterLogEntryDto::getContext),
+          Tuple.tuple("query", ClusterLogEntryDto::getQuery),
+          Tuple.tuple("queryPos", ClusterLogEntryDto::getQueryPos),
+          Tuple.tuple("location", ClusterLogEntryDto::getLocation),
+          Tuple.tuple("applicationName", ClusterLogEntryDto::getApplicationName));
+
+  private final String formatName;
+  private final String mediaType;
+
+  DistributedLogsExportFormat(String formatName, String mediaType) {
+    this.formatName = formatName;
+    this.mediaType = mediaType;
+  }
+
+  public String getFormatName() {
+    return formatName;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  public abstract void writeHeader(Writer writer) throws IOException;
+
+  /**
+   * Write an entry. JSON formats serialize it with the specified object mapper, that should be
+   * the one used by the REST API so that exported entries match the ones returned by it.
+   */
+  public abstract void write(Writer writer, ObjectMapper objectMapper, ClusterLogEntryDto entry)
+      throws IOException;
+
+  public static Optional<DistributedLogsExportFormat> fromFormatName(String formatName) {
+    return Arrays.stream(values())
+        .filter(format -> format.formatName.equals(formatName))
+        .findFirst();
+  }
+
+  private static String csvValue(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+
+}
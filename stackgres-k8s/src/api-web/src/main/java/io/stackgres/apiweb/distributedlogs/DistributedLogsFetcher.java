@@ -5,6 +5,7 @@
 
 package io.stackgres.apiweb.distributedlogs;
 
+import java.io.IOException;
 import java.util.List;
 
 import io.stackgres.apiweb.dto.cluster.ClusterLogEntryDto;
@@ -13,4 +14,18 @@ public interface DistributedLogsFetcher {
 
   List<ClusterLogEntryDto> logs(DistributedLogsQueryParameters parameters);
 
+  /**
+   * Pass to the consumer all the log entries that match the parameters. Entries are fetched in
+   * pages of {@code records} entries, each page starting after the time and index of the last
+   * entry of the previous page, so that only one page is kept in memory at a time and no
+   * connection is held while the consumer is blocked.
+   */
+  void export(DistributedLogsQueryParameters parameters, LogEntryConsumer consumer)
+      throws IOException;
+
+  @FunctionalInterface
+  interface LogEntryConsumer {
+    void accept(ClusterLogEntryDto entry) throws IOException;
+  }
+
 }
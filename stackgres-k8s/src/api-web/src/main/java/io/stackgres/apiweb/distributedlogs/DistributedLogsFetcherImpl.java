@@ -5,9 +5,10 @@
 
 package io.stackgres.apiweb.distributedlogs;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -34,6 +35,7 @@ import org.jooq.Select;
 import org.jooq.conf.ParamType;
 import org.jooq.impl.DSL;
 import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,14 +63,36 @@ public class DistributedLogsFetcherImpl implements DistributedLogsFetcher {
 
   @Override
   public List<ClusterLogEntryDto> logs(DistributedLogsQueryParameters parameters) {
+    return Seq.seq(fetch(parameters))
+        .map(record -> record.into(MappedClusterLogEntryDto.class))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  public void export(DistributedLogsQueryParameters parameters, LogEntryConsumer consumer)
+      throws IOException {
+    DistributedLogsQueryParameters pageParameters = parameters;
+    while (true) {
+      List<Record> page = fetch(pageParameters);
+      for (Record record : page) {
+        consumer.accept(record.into(MappedClusterLogEntryDto.class));
+      }
+      if (page.size() < parameters.getRecords()) {
+        return;
+      }
+      Record last = page.get(page.size() - 1);
+      pageParameters = ImmutableDistributedLogsQueryParameters.copyOf(parameters)
+          .withFromTimeAndIndex(Tuple.tuple(
+              last.get(DistributedLogsQueryGenerator.LOG_TIME, OffsetDateTime.class)
+                  .toInstant(),
+              last.get(DistributedLogsQueryGenerator.LOG_TIME_INDEX, Integer.class)))
+          .withIsFromInclusive(false);
+    }
+  }
+
+  private List<Record> fetch(DistributedLogsQueryParameters parameters) {
     try (Connection connection = getConnection(parameters.getCluster());
         DSLContext context = DSL.using(connection)) {
-      connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
-      connection.setReadOnly(true);
-      connection.setAutoCommit(true);
-      try (PreparedStatement statement = connection.prepareStatement("SET TIME ZONE 'UTC'")) {
-        statement.execute();
-      }
       Select<Record> query = new DistributedLogsQueryGenerator(context, parameters)
           .generateQuery();
       if (LOGGER.isTraceEnabled()) {
@@ -94,9 +118,7 @@ public class DistributedLogsFetcherImpl implements DistributedLogsFetcher {
             parameters.getFullTextSearchQuery(),
             context.explain(query).toString().replace("\n", "\t"));
       }
-      return Seq.seq(query.fetch())
-          .map(record -> record.into(MappedClusterLogEntryDto.class))
-          .collect(ImmutableList.toImmutableList());
+      return query.fetch();
     } catch (SQLException ex) {
       final String databaseName = FluentdUtil.databaseName(
           parameters.getCluster().getMetadata().getNamespace(),
@@ -6,23 +6,57 @@
 package io.stackgres.apiweb.distributedlogs;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.sql.Statement;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
-import org.postgresql.PGProperty;
+import io.stackgres.common.CdiUtil;
+import io.stackgres.common.PostgresConnectionPool;
+import io.stackgres.common.PostgresConnectionPoolMetrics;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
 
+/**
+ * Connections used to read the distributed logs. The session of each pooled connection is
+ * initialized once as read only, repeatable read and with the UTC time zone.
+ */
 @ApplicationScoped
 public class PostgresConnectionManager {
 
+  private final PostgresConnectionPool pool;
+
+  @Inject
+  public PostgresConnectionManager(@RegistryType(type = MetricRegistry.Type.APPLICATION)
+      MetricRegistry registry) {
+    this.pool = new PostgresConnectionPool(PostgresConnectionManager::initializeSession);
+    PostgresConnectionPoolMetrics.register(registry, "distributedlogs_connection_pool_", pool);
+  }
+
+  public PostgresConnectionManager() {
+    CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
+    this.pool = null;
+  }
+
   public Connection getConnection(String host, String username, String password, String database)
       throws SQLException {
-    Properties properties = new Properties();
-    PGProperty.USER.set(properties, username);
-    PGProperty.PASSWORD.set(properties, password);
-    return DriverManager.getConnection("jdbc:postgresql://" + host + "/" + database, properties);
+    return pool.getConnection(host, username, password, database);
+  }
+
+  @PreDestroy
+  public void close() {
+    pool.close();
+  }
+
+  private static void initializeSession(Connection connection) throws SQLException {
+    connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    connection.setReadOnly(true);
+    connection.setAutoCommit(true);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SET TIME ZONE 'UTC'");
+    }
   }
 
 }
@@ -19,6 +19,9 @@ public class DbOpsMinorVersionUpgrade {
   @JsonProperty("method")
   private String method;
 
+  @JsonProperty("maxUnavailableReplicas")
+  private Integer maxUnavailableReplicas;
+
   public String getMethod() {
     return method;
   }
@@ -27,6 +30,14 @@ public class DbOpsMinorVersionUpgrade {
     this.method = method;
   }
 
+  public Integer getMaxUnavailableReplicas() {
+    return maxUnavailableReplicas;
+  }
+
+  public void setMaxUnavailableReplicas(Integer maxUnavailableReplicas) {
+    this.maxUnavailableReplicas = maxUnavailableReplicas;
+  }
+
   @Override
   public String toString() {
     return StackGresUtil.toPrettyYaml(this);
@@ -19,6 +19,9 @@ public class DbOpsRestart {
   @JsonProperty("method")
   private String method;
 
+  @JsonProperty("maxUnavailableReplicas")
+  private Integer maxUnavailableReplicas;
+
   @JsonProperty("restartPrimaryFirst")
   private Boolean restartPrimaryFirst;
 
@@ -30,6 +33,14 @@ public class DbOpsRestart {
     this.method = method;
   }
 
+  public Integer getMaxUnavailableReplicas() {
+    return maxUnavailableReplicas;
+  }
+
+  public void setMaxUnavailableReplicas(Integer maxUnavailableReplicas) {
+    this.maxUnavailableReplicas = maxUnavailableReplicas;
+  }
+
   public Boolean getRestartPrimaryFirst() {
     return restartPrimaryFirst;
   }
@@ -13,13 +13,19 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.stackgres.apiweb.dto.cluster.ClusterDto;
 import io.stackgres.apiweb.transformer.ClusterTransformer;
+import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.LabelFactory;
 import io.stackgres.common.StackGresContext;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.resource.CustomResourceScanner;
 import io.stackgres.common.resource.PodFinder;
+import io.stackgres.common.resource.ResyncWatcher;
 import org.jooq.lambda.Seq;
 
 @ApplicationScoped
@@ -29,6 +35,7 @@ public class ClusterDtoScanner implements CustomResourceScanner<ClusterDto> {
   private PodFinder podFinder;
   private ClusterTransformer clusterTransformer;
   private LabelFactory<StackGresCluster> labelFactory;
+  private KubernetesClientFactory clientFactory;
 
   @Override
   public List<ClusterDto> getResources() {
@@ -64,6 +71,54 @@ public class ClusterDtoScanner implements CustomResourceScanner<ClusterDto> {
             .toList());
   }
 
+  /**
+   * Watch the clusters and send each change with the pods of the cluster. The pods are looked up
+   * with a client created when the watch starts since the events are received outside of the
+   * request, the client is closed together with the watch.
+   */
+  @Override
+  public Watch watch(String namespace, String resourceVersion, Watcher<ClusterDto> watcher) {
+    final KubernetesClient client = clientFactory.create();
+    try {
+      final Watch watch = clusterScanner.watch(namespace, resourceVersion,
+          new ResyncWatcher<StackGresCluster>() {
+            @Override
+            public void eventReceived(Action action, StackGresCluster cluster) {
+              watcher.eventReceived(action, clusterTransformer.toResourceWithPods(cluster,
+                  client.pods()
+                      .inNamespace(cluster.getMetadata().getNamespace())
+                      .withLabels(labelFactory.patroniClusterLabels(cluster))
+                      .list()
+                      .getItems()));
+            }
+
+            @Override
+            public void onResync() {
+              if (watcher instanceof ResyncWatcher) {
+                ((ResyncWatcher<ClusterDto>) watcher).onResync();
+              }
+            }
+
+            @Override
+            public void onClose() {
+              watcher.onClose();
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+              watcher.onClose(cause);
+            }
+          });
+      return () -> {
+        watch.close();
+        client.close();
+      };
+    } catch (RuntimeException ex) {
+      client.close();
+      throw ex;
+    }
+  }
+
   private Transformer createTransformer() {
     return new Transformer(Seq.seq(getAllClusterPods())
         .groupBy(pod -> pod.getMetadata().getLabels().get(StackGresContext.CLUSTER_UID_KEY)));
@@ -105,4 +160,9 @@ public class ClusterDtoScanner implements CustomResourceScanner<ClusterDto> {
   public void setLabelFactory(LabelFactory<StackGresCluster> labelFactory) {
     this.labelFactory = labelFactory;
   }
+
+  @Inject
+  public void setClientFactory(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+  }
 }
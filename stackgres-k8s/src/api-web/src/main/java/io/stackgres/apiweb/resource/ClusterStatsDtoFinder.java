@@ -5,15 +5,20 @@
 
 package io.stackgres.apiweb.resource;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaimVolumeSource;
 import io.fabric8.kubernetes.api.model.Pod;
@@ -27,8 +32,8 @@ import io.stackgres.common.StackgresClusterContainers;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.resource.CustomResourceFinder;
 import io.stackgres.common.resource.PersistentVolumeClaimFinder;
-import io.stackgres.common.resource.PodExecutor;
 import io.stackgres.common.resource.PodFinder;
+import io.stackgres.common.resource.PodShellExecutor;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jooq.lambda.Seq;
 import org.jooq.lambda.tuple.Tuple;
@@ -42,10 +47,26 @@ public class ClusterStatsDtoFinder
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ClusterStatsDtoFinder.class);
 
+  private static final Duration STATS_TTL = Duration.ofSeconds(3);
+
+  private static final String STATS_SCRIPT = Seq.seq(PatroniStatsScripts.getScripts())
+      .map(tt -> "echo \"" + tt.v1.getName() + ":$( (" + tt.v2
+          + ") 2>&1 | tr -d '\\n')\"\n")
+      .toString();
+
+  /**
+   * Stats of each pod are shared by all the requests received within the TTL, concurrent
+   * requests for the same pod wait for the same collection.
+   */
+  private final Cache<String, ImmutableMap<PatroniStatsScripts, String>> podStatsCache =
+      CacheBuilder.newBuilder()
+          .expireAfterWrite(STATS_TTL)
+          .build();
+
   private ManagedExecutor managedExecutor;
   private CustomResourceFinder<StackGresCluster> clusterFinder;
   private PodFinder podFinder;
-  private PodExecutor podExecutor;
+  private PodShellExecutor podShellExecutor;
   private PersistentVolumeClaimFinder persistentVolumeClaimFinder;
   private ClusterLabelFactory clusterLabelFactory;
   private ClusterStatsTransformer clusterStatsTransformer;
@@ -76,11 +97,18 @@ public class ClusterStatsDtoFinder
 
   private ImmutableMap<PatroniStatsScripts, String> getPodStats(Pod pod) {
     try {
-      return Seq.seq(podExecutor.exec(pod, StackgresClusterContainers.PATRONI, "sh", "-c",
-          Seq.seq(PatroniStatsScripts.getScripts())
-              .map(tt -> "echo \"" + tt.v1.getName() + ":$( (" + tt.v2
-                  + ") 2>&1 | tr -d '\\n')\"\n")
-              .toString()))
+      return podStatsCache.get(pod.getMetadata().getNamespace() + "/"
+          + pod.getMetadata().getName() + "/" + pod.getMetadata().getUid(),
+          () -> collectPodStats(pod));
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      return ImmutableMap.<PatroniStatsScripts, String>of();
+    }
+  }
+
+  private ImmutableMap<PatroniStatsScripts, String> collectPodStats(Pod pod) {
+    try {
+      return Seq.seq(podShellExecutor.exec(pod, StackgresClusterContainers.PATRONI,
+          STATS_SCRIPT))
           .peek(line -> {
             if (LOGGER.isTraceEnabled() && line.endsWith("#failed")) {
               LOGGER.trace("An error accurred while retrieving stats for pod {}.{}: {}",
@@ -136,8 +164,8 @@ public class ClusterStatsDtoFinder
   }
 
   @Inject
-  public void setPodExecutor(PodExecutor podExecutor) {
-    this.podExecutor = podExecutor;
+  public void setPodShellExecutor(PodShellExecutor podShellExecutor) {
+    this.podShellExecutor = podShellExecutor;
   }
 
   @Inject
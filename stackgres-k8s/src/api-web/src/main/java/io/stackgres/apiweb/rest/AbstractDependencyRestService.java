@@ -5,6 +5,7 @@
 
 package io.stackgres.apiweb.rest;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -15,7 +16,10 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.quarkus.security.Authenticated;
 import io.stackgres.apiweb.dto.ResourceDto;
@@ -46,6 +50,12 @@ public abstract class AbstractDependencyRestService
   @Inject
   DependencyResourceTransformer<T, R> transformer;
 
+  @Inject
+  EntityTagEvaluator entityTagEvaluator;
+
+  @Context
+  Request request;
+
   public abstract boolean belongsToCluster(R resource, StackGresCluster cluster);
 
   /**
@@ -58,7 +68,9 @@ public abstract class AbstractDependencyRestService
   @Override
   public List<T> list() {
     List<StackGresCluster> clusters = clusterScanner.getResources();
-    return Seq.seq(scanner.getResources())
+    List<R> resources = scanner.getResources();
+    evaluateEntityTag(Seq.<HasMetadata>seq(resources).append(clusters).toList());
+    return Seq.seq(resources)
         .map(resource -> transformer.toResource(resource, Seq.seq(clusters)
             .filter(cluster -> belongsToCluster(resource, cluster))
             .map(cluster -> StackGresUtil.getRelativeId(
@@ -83,16 +95,29 @@ public abstract class AbstractDependencyRestService
   public T get(@PathParam("namespace") String namespace, @PathParam("name") String name) {
     List<StackGresCluster> clusters = clusterScanner.getResources();
     return finder.findByNameAndNamespace(name, namespace)
-        .map(resource -> transformer.toResource(resource, Seq.seq(clusters)
-            .filter(cluster -> belongsToCluster(resource, cluster))
-            .map(cluster -> StackGresUtil.getRelativeId(
-                cluster.getMetadata().getName(),
-                cluster.getMetadata().getNamespace(),
-                resource.getMetadata().getNamespace()))
-            .toList()))
+        .map(resource -> {
+          evaluateEntityTag(Seq.<HasMetadata>of(resource).append(clusters).toList());
+          return transformer.toResource(resource, Seq.seq(clusters)
+              .filter(cluster -> belongsToCluster(resource, cluster))
+              .map(cluster -> StackGresUtil.getRelativeId(
+                  cluster.getMetadata().getName(),
+                  cluster.getMetadata().getNamespace(),
+                  resource.getMetadata().getNamespace()))
+              .toList());
+        })
         .orElseThrow(NotFoundException::new);
   }
 
+  /**
+   * Answer with 304 if the resources, or the clusters that reference them, have not changed since
+   * the entity tag sent by the client.
+   */
+  protected void evaluateEntityTag(Collection<? extends HasMetadata> resources) {
+    if (request != null && entityTagEvaluator != null) {
+      entityTagEvaluator.evaluate(request, resources);
+    }
+  }
+
   /**
    * Creates a resource of type <code>{R}</code>.
    * @param resource the resource to create
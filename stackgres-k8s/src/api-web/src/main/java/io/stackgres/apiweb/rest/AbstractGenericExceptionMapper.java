@@ -29,6 +29,10 @@ public class AbstractGenericExceptionMapper<T extends Throwable> implements Exce
       statusCode = ((WebApplicationException) cause).getResponse().getStatus();
     }
 
+    if (statusCode == Status.NOT_MODIFIED.getStatusCode()) {
+      return ((WebApplicationException) cause).getResponse();
+    }
+
     if (cause instanceof UnauthorizedException) {
       return new UnauthorizedExceptionMapper().toResponse((UnauthorizedException) cause);
     }
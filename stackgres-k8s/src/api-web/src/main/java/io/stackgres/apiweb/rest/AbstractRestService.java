@@ -5,17 +5,29 @@
 
 package io.stackgres.apiweb.rest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import javax.inject.Inject;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
-
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.quarkus.security.Authenticated;
 import io.stackgres.apiweb.dto.ResourceDto;
@@ -40,6 +52,12 @@ public abstract class AbstractRestService<T extends ResourceDto, R extends Custo
   @Inject
   ResourceTransformer<T, R> transformer;
 
+  @Inject
+  EntityTagEvaluator entityTagEvaluator;
+
+  @Context
+  Request request;
+
   /**
    * Looks for all resources of type <code>{R}</code> that are installed in the kubernetes cluster.
    * @return a list with the installed resources
@@ -49,7 +67,9 @@ public abstract class AbstractRestService<T extends ResourceDto, R extends Custo
   @Authenticated
   @Override
   public List<T> list() {
-    return Seq.seq(scanner.getResources())
+    List<R> resources = scanner.getResources();
+    evaluateEntityTag(resources);
+    return Seq.seq(resources)
         .map(transformer::toDto)
         .toList();
   }
@@ -67,10 +87,43 @@ public abstract class AbstractRestService<T extends ResourceDto, R extends Custo
   @Override
   public T get(@PathParam("namespace") String namespace, @PathParam("name") String name) {
     return finder.findByNameAndNamespace(name, namespace)
-        .map(transformer::toDto)
+        .map(resource -> {
+          evaluateEntityTag(List.of(resource));
+          return transformer.toDto(resource);
+        })
         .orElseThrow(NotFoundException::new);
   }
 
+  /**
+   * Stream the changes of the resources of type <code>{R}</code> as server sent events. When no
+   * resource version is specified an event is sent first for each existing resource.
+   * @param namespace the namespace to watch or all namespaces if not specified
+   * @param resourceVersion the resource version after which the changes are sent
+   * @param lastEventId the id of the last event received by a reconnecting client, takes
+   *     precedence over the resource version
+   */
+  @Path("/watch")
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  @Authenticated
+  public void watch(@QueryParam("namespace") String namespace,
+      @QueryParam("resourceVersion") String resourceVersion,
+      @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+      @Context SseEventSink eventSink, @Context Sse sse) {
+    new ResourceEventStream<T, R>(eventSink, sse, transformer::toDto)
+        .start(watcher -> scanner.watch(namespace,
+            Optional.ofNullable(lastEventId).orElse(resourceVersion), watcher));
+  }
+
+  /**
+   * Answer with 304 if the resources have not changed since the entity tag sent by the client.
+   */
+  protected void evaluateEntityTag(Collection<? extends HasMetadata> resources) {
+    if (request != null && entityTagEvaluator != null) {
+      entityTagEvaluator.evaluate(request, resources);
+    }
+  }
+
   /**
    * Creates a resource of type <code>{R}</code>.
    * @param resource the resource to create
@@ -5,6 +5,10 @@
 
 package io.stackgres.apiweb.rest;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -12,7 +16,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.RequestScoped;
@@ -26,16 +35,25 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
 import io.quarkus.security.Authenticated;
+import io.stackgres.apiweb.distributedlogs.DistributedLogsExportFormat;
 import io.stackgres.apiweb.distributedlogs.DistributedLogsFetcher;
 import io.stackgres.apiweb.distributedlogs.DistributedLogsQueryParameters;
 import io.stackgres.apiweb.distributedlogs.FullTextSearchQuery;
@@ -50,7 +68,10 @@ import io.stackgres.apiweb.dto.cluster.ClusterScriptFrom;
 import io.stackgres.apiweb.dto.cluster.ClusterSpec;
 import io.stackgres.apiweb.dto.cluster.ClusterStatsDto;
 import io.stackgres.apiweb.resource.ResourceTransactionHandler;
+import io.stackgres.apiweb.transformer.ClusterTransformer;
 import io.stackgres.common.CdiUtil;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.LabelFactory;
 import io.stackgres.common.PatroniUtil;
 import io.stackgres.common.StackGresUtil;
 import io.stackgres.common.crd.ConfigMapKeySelector;
@@ -59,12 +80,14 @@ import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.resource.CustomResourceFinder;
 import io.stackgres.common.resource.CustomResourceScanner;
 import io.stackgres.common.resource.ResourceFinder;
+import io.stackgres.common.resource.ResourceScanner;
 import io.stackgres.common.resource.ResourceUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.lambda.Seq;
 import org.jooq.lambda.tuple.Tuple;
@@ -79,6 +102,7 @@ public class ClusterResource
     extends AbstractRestService<ClusterDto, StackGresCluster> {
 
   private static final String DEFAULT_SCRIPT_KEY = "script";
+  private static final int EXPORT_PAGE_RECORDS = 1000;
 
   private final CustomResourceScanner<ClusterDto> clusterScanner;
   private final CustomResourceFinder<ClusterDto> clusterFinder;
@@ -89,6 +113,12 @@ public class ClusterResource
   private final ResourceFinder<Secret> secretFinder;
   private final ResourceFinder<ConfigMap> configMapFinder;
   private final ResourceFinder<Service> serviceFinder;
+  private final ResourceScanner<Service> serviceScanner;
+  private final ClusterTransformer clusterTransformer;
+  private final LabelFactory<StackGresCluster> labelFactory;
+  private final ManagedExecutor managedExecutor;
+  private final ObjectMapper objectMapper;
+  private final KubernetesClientFactory clientFactory;
 
   @Inject
   public ClusterResource(
@@ -100,7 +130,13 @@ public class ClusterResource
       ResourceTransactionHandler<ConfigMap> configMapTransactionHandler,
       ResourceFinder<Secret> secretFinder,
       ResourceFinder<ConfigMap> configMapFinder,
-      ResourceFinder<Service> serviceFinder) {
+      ResourceFinder<Service> serviceFinder,
+      ResourceScanner<Service> serviceScanner,
+      ClusterTransformer clusterTransformer,
+      LabelFactory<StackGresCluster> labelFactory,
+      ManagedExecutor managedExecutor,
+      ObjectMapper objectMapper,
+      KubernetesClientFactory clientFactory) {
     this.clusterScanner = clusterScanner;
     this.clusterFinder = clusterFinder;
     this.clusterResourceStatsFinder = clusterResourceStatsFinder;
@@ -110,6 +146,12 @@ public class ClusterResource
     this.secretFinder = secretFinder;
     this.configMapFinder = configMapFinder;
     this.serviceFinder = serviceFinder;
+    this.serviceScanner = serviceScanner;
+    this.clusterTransformer = clusterTransformer;
+    this.labelFactory = labelFactory;
+    this.managedExecutor = managedExecutor;
+    this.objectMapper = objectMapper;
+    this.clientFactory = clientFactory;
   }
 
   public ClusterResource() {
@@ -123,6 +165,12 @@ public class ClusterResource
     this.secretFinder = null;
     this.configMapFinder = null;
     this.serviceFinder = null;
+    this.serviceScanner = null;
+    this.clusterTransformer = null;
+    this.labelFactory = null;
+    this.managedExecutor = null;
+    this.objectMapper = null;
+    this.clientFactory = null;
   }
 
   @Operation(
@@ -136,10 +184,30 @@ public class ClusterResource
   @Authenticated
   @Override
   public List<ClusterDto> list() {
-    return Seq.seq(clusterScanner.getResources())
-        .map(this::setSecrets)
-        .map(this::setConfigMaps)
-        .map(this::setInfo)
+    final List<ClusterDto> clusters = clusterScanner.getResources();
+    final Set<String> namespaces = Seq.seq(clusters)
+        .map(cluster -> cluster.getMetadata().getNamespace())
+        .toSet();
+    final Set<Tuple2<String, String>> secretNames = Seq.seq(clusters)
+        .flatMap(cluster -> scriptFromNames(cluster,
+            scriptFrom -> Optional.ofNullable(scriptFrom.getSecretKeyRef())
+            .map(SecretKeySelector::getName)))
+        .toSet();
+    final Set<Tuple2<String, String>> configMapNames = Seq.seq(clusters)
+        .flatMap(cluster -> scriptFromNames(cluster,
+            scriptFrom -> Optional.ofNullable(scriptFrom.getConfigMapKeyRef())
+            .map(ConfigMapKeySelector::getName)))
+        .toSet();
+    final CompletableFuture<NamespacedResources<Secret>> secrets =
+        findByNames(secretFinder, secretNames);
+    final CompletableFuture<NamespacedResources<ConfigMap>> configMaps =
+        findByNames(configMapFinder, configMapNames);
+    final CompletableFuture<NamespacedResources<Service>> services =
+        scanNamespaces(serviceScanner, namespaces);
+    return Seq.seq(clusters)
+        .map(cluster -> setSecrets(cluster, join(secrets)::find))
+        .map(cluster -> setConfigMaps(cluster, join(configMaps)::find))
+        .map(cluster -> setInfo(cluster, join(services)::find))
         .toList();
   }
 
@@ -155,12 +223,56 @@ public class ClusterResource
   @Override
   public ClusterDto get(String namespace, String name) {
     return clusterFinder.findByNameAndNamespace(name, namespace)
-        .map(this::setSecrets)
-        .map(this::setConfigMaps)
-        .map(this::setInfo)
+        .map(cluster -> setSecrets(cluster, secretFinder::findByNameAndNamespace))
+        .map(cluster -> setConfigMaps(cluster, configMapFinder::findByNameAndNamespace))
+        .map(cluster -> setInfo(cluster, serviceFinder::findByNameAndNamespace))
         .orElseThrow(NotFoundException::new);
   }
 
+  /**
+   * Stream the changes of the clusters as server sent events with the same pods, scripts and
+   * info that {@link #list()} and {@link #get(String, String)} return. The events are received
+   * outside of the request so those resources are looked up with a client created for the
+   * caller when the request arrives, that is closed together with the watch.
+   */
+  @Operation(
+      responses = {
+          @ApiResponse(responseCode = "200", description = "OK")
+      })
+  @CommonApiResponses
+  @Authenticated
+  @Override
+  public void watch(String namespace, String resourceVersion, String lastEventId,
+      SseEventSink eventSink, Sse sse) {
+    final KubernetesClient client = clientFactory.create();
+    new ResourceEventStream<ClusterDto, StackGresCluster>(eventSink, sse, cluster -> Optional
+        .of(clusterTransformer.toResourceWithPods(cluster, client.pods()
+            .inNamespace(cluster.getMetadata().getNamespace())
+            .withLabels(labelFactory.patroniClusterLabels(cluster))
+            .list()
+            .getItems()))
+        .map(dto -> setSecrets(dto, (name, secretNamespace) -> Optional.ofNullable(
+            client.secrets().inNamespace(secretNamespace).withName(name).get())))
+        .map(dto -> setConfigMaps(dto, (name, configMapNamespace) -> Optional.ofNullable(
+            client.configMaps().inNamespace(configMapNamespace).withName(name).get())))
+        .map(dto -> setInfo(dto, (name, serviceNamespace) -> Optional.ofNullable(
+            client.services().inNamespace(serviceNamespace).withName(name).get())))
+        .orElseThrow())
+        .start(watcher -> {
+          try {
+            final Watch watch = scanner.watch(namespace,
+                Optional.ofNullable(lastEventId).orElse(resourceVersion), watcher);
+            return () -> {
+              watch.close();
+              client.close();
+            };
+          } catch (RuntimeException ex) {
+            client.close();
+            throw ex;
+          }
+        });
+  }
+
   @Operation(
       responses = {
           @ApiResponse(responseCode = "200", description = "OK")
@@ -199,8 +311,72 @@ public class ClusterResource
     super.delete(resource);
   }
 
+  /**
+   * Return the namespace and name of the resources referenced by the scripts of the cluster.
+   */
+  private Seq<Tuple2<String, String>> scriptFromNames(ClusterDto resource,
+      Function<ClusterScriptFrom, Optional<String>> nameExtractor) {
+    return Seq.seq(Optional.ofNullable(resource.getSpec())
+        .map(ClusterSpec::getInitData)
+        .map(ClusterInitData::getScripts)
+        .stream()
+        .flatMap(List::stream)
+        .map(ClusterScriptEntry::getScriptFrom)
+        .filter(Objects::nonNull)
+        .map(nameExtractor)
+        .flatMap(Optional::stream)
+        .map(name -> Tuple.tuple(resource.getMetadata().getNamespace(), name)));
+  }
+
+  /**
+   * Get the resources by name concurrently so that only the referenced ones are retrieved
+   * without issuing the requests one after another.
+   */
+  private <T extends HasMetadata> CompletableFuture<NamespacedResources<T>> findByNames(
+      ResourceFinder<T> finder, Set<Tuple2<String, String>> namespacedNames) {
+    final List<CompletableFuture<Optional<T>>> futures = Seq.seq(namespacedNames)
+        .map(namespacedName -> CompletableFuture.supplyAsync(
+            () -> finder.findByNameAndNamespace(namespacedName.v2, namespacedName.v1),
+            managedExecutor))
+        .toList();
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> new NamespacedResources<>(Seq.seq(futures)
+            .map(CompletableFuture::join)
+            .flatMap(Seq::seq)
+            .toList()));
+  }
+
+  /**
+   * List the resources of each namespace concurrently so that the clusters can be joined in memory
+   * with the resources they use instead of issuing a request per cluster.
+   */
+  private <T extends HasMetadata> CompletableFuture<NamespacedResources<T>> scanNamespaces(
+      ResourceScanner<T> scanner, Set<String> namespaces) {
+    final List<CompletableFuture<List<T>>> futures = Seq.seq(namespaces)
+        .map(namespace -> CompletableFuture.supplyAsync(
+            () -> scanner.findResourcesInNamespace(namespace), managedExecutor))
+        .toList();
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> new NamespacedResources<>(Seq.seq(futures)
+            .map(CompletableFuture::join)
+            .flatMap(List::stream)
+            .toList()));
+  }
+
+  private <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
   @Nullable
-  private ClusterDto setInfo(ClusterDto resource) {
+  private ClusterDto setInfo(ClusterDto resource,
+      BiFunction<String, String, Optional<Service>> serviceFinder) {
     if (resource.getMetadata() == null) {
       return resource;
     }
@@ -208,9 +384,9 @@ public class ClusterResource
     final String clusterName = resource.getMetadata().getName();
     final ClusterInfoDto info = new ClusterInfoDto();
 
-    serviceFinder.findByNameAndNamespace(PatroniUtil.readWriteName(clusterName), namespace)
+    serviceFinder.apply(PatroniUtil.readWriteName(clusterName), namespace)
         .ifPresent(service -> info.setPrimaryDns(StackGresUtil.getServiceDnsName(service)));
-    serviceFinder.findByNameAndNamespace(PatroniUtil.readOnlyName(clusterName), namespace)
+    serviceFinder.apply(PatroniUtil.readOnlyName(clusterName), namespace)
         .ifPresent(service -> info.setReplicasDns(StackGresUtil.getServiceDnsName(service)));
 
     info.setSuperuserUsername("postgres");
@@ -221,7 +397,8 @@ public class ClusterResource
     return resource;
   }
 
-  private ClusterDto setSecrets(ClusterDto resource) {
+  private ClusterDto setSecrets(ClusterDto resource,
+      BiFunction<String, String, Optional<Secret>> secretFinder) {
     final String namespace = resource.getMetadata().getNamespace();
     Seq.of(Optional.ofNullable(resource.getSpec())
         .map(ClusterSpec::getInitData)
@@ -237,7 +414,7 @@ public class ClusterResource
         .grouped(t -> t.v2.v3.getName())
         .flatMap(t -> {
           Optional<Map<String, String>> secrets = secretFinder
-              .findByNameAndNamespace(t.v1, namespace)
+              .apply(t.v1, namespace)
               .map(Secret::getData);
           return secrets
               .map(s -> t.v2.map(tt -> Tuple.tuple(
@@ -248,7 +425,8 @@ public class ClusterResource
     return resource;
   }
 
-  private ClusterDto setConfigMaps(ClusterDto resource) {
+  private ClusterDto setConfigMaps(ClusterDto resource,
+      BiFunction<String, String, Optional<ConfigMap>> configMapFinder) {
     final String namespace = resource.getMetadata().getNamespace();
     Seq.of(Optional.ofNullable(resource.getSpec())
         .map(ClusterSpec::getInitData)
@@ -264,7 +442,7 @@ public class ClusterResource
         .grouped(t -> t.v2.v3.getName())
         .flatMap(t -> {
           Optional<Map<String, String>> configMaps = configMapFinder
-              .findByNameAndNamespace(t.v1, namespace)
+              .apply(t.v1, namespace)
               .map(ConfigMap::getData);
           return configMaps
               .map(s -> t.v2.map(tt -> Tuple.tuple(
@@ -460,6 +638,76 @@ public class ClusterResource
       @QueryParam("userName") List<String> userName,
       @QueryParam("databaseName") List<String> databaseName,
       @QueryParam("fromInclusive") Boolean fromInclusive) {
+    DistributedLogsQueryParameters logs = logsQueryParameters(namespace, name, records, from,
+        to, sort, text, logType, podName, role, errorLevel, userName, databaseName,
+        fromInclusive);
+
+    return distributedLogsFetcher.logs(logs);
+  }
+
+  /**
+   * Export all the distributed logs that match the query as NDJSON or CSV. Entries are written
+   * to the response as they are read from the distributed logs database.
+   */
+  @Operation(
+      responses = {
+          @ApiResponse(responseCode = "200", description = "OK",
+              content = {
+                  @Content(mediaType = "application/x-ndjson",
+                      schema = @Schema(implementation = ClusterLogEntryDto.class)),
+                  @Content(mediaType = "text/csv")})
+      })
+  @CommonApiResponses
+  @GET
+  @Path("/logs/{namespace}/{name}/export")
+  @Produces({"application/x-ndjson", "text/csv"})
+  @Authenticated
+  public Response exportLogs(
+      @PathParam("namespace") String namespace,
+      @PathParam("name") String name,
+      @QueryParam("format") String format,
+      @QueryParam("from") String from,
+      @QueryParam("to") String to,
+      @QueryParam("sort") String sort,
+      @QueryParam("text") String text,
+      @QueryParam("logType") List<String> logType,
+      @QueryParam("podName") List<String> podName,
+      @QueryParam("role") List<String> role,
+      @QueryParam("errorLevel") List<String> errorLevel,
+      @QueryParam("userName") List<String> userName,
+      @QueryParam("databaseName") List<String> databaseName,
+      @QueryParam("fromInclusive") Boolean fromInclusive) {
+    final DistributedLogsExportFormat exportFormat = DistributedLogsExportFormat
+        .fromFormatName(format != null ? format : DistributedLogsExportFormat.NDJSON
+            .getFormatName())
+        .orElseThrow(() -> new BadRequestException("format only accept "
+            + Seq.of(DistributedLogsExportFormat.values())
+            .map(DistributedLogsExportFormat::getFormatName)
+            .toString(" or ") + " values"));
+
+    DistributedLogsQueryParameters logs = logsQueryParameters(namespace, name,
+        EXPORT_PAGE_RECORDS, from, to, sort, text, logType, podName, role, errorLevel, userName,
+        databaseName, fromInclusive);
+
+    final DistributedLogsFetcher fetcher = distributedLogsFetcher;
+    final ObjectMapper entryMapper = objectMapper;
+    StreamingOutput output = outputStream -> {
+      Writer writer = new BufferedWriter(
+          new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      exportFormat.writeHeader(writer);
+      fetcher.export(logs, entry -> exportFormat.write(writer, entryMapper, entry));
+      writer.flush();
+    };
+    return Response.ok(output, exportFormat.getMediaType())
+        .header("Content-Disposition", "attachment; filename=\""
+            + namespace + "-" + name + "-logs." + exportFormat.getFormatName() + "\"")
+        .build();
+  }
+
+  private DistributedLogsQueryParameters logsQueryParameters(String namespace, String name,
+      Integer records, String from, String to, String sort, String text, List<String> logType,
+      List<String> podName, List<String> role, List<String> errorLevel, List<String> userName,
+      List<String> databaseName, Boolean fromInclusive) {
     final ClusterDto cluster = clusterFinder.findByNameAndNamespace(name, namespace)
         .orElseThrow(NotFoundException::new);
 
@@ -528,7 +776,7 @@ public class ClusterResource
         .isFromInclusive(fromInclusive != null && fromInclusive)
         .build();
 
-    return distributedLogsFetcher.logs(logs);
+    return logs;
   }
 
   private void addFilter(String key, List<String> values,
@@ -540,4 +788,23 @@ public class ClusterResource
     }
   }
 
+  /**
+   * Resources listed from a set of namespaces indexed by namespace and name.
+   */
+  private static class NamespacedResources<T extends HasMetadata> {
+
+    private final Map<Tuple2<String, String>, T> resources;
+
+    NamespacedResources(List<T> resources) {
+      this.resources = Seq.seq(resources)
+          .toMap(resource -> Tuple.tuple(
+              resource.getMetadata().getNamespace(), resource.getMetadata().getName()));
+    }
+
+    Optional<T> find(String name, String namespace) {
+      return Optional.ofNullable(resources.get(Tuple.tuple(namespace, name)));
+    }
+
+  }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Optional;
+
+import javax.enterprise.context.RequestScoped;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+
+import com.google.common.hash.Hashing;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import org.jooq.lambda.Seq;
+
+/**
+ * Evaluate conditional GET requests using an entity tag calculated from the resource versions of
+ * the resources a response is built from. When the tag matches the {@code If-None-Match} header
+ * the request is answered with 304 before transforming and serializing the resources, otherwise
+ * the tag is kept so that {@link EntityTagResponseFilter} can return it in the {@code ETag}
+ * header.
+ */
+@RequestScoped
+public class EntityTagEvaluator {
+
+  private EntityTag entityTag;
+
+  /**
+   * Throw a {@code WebApplicationException} with a 304 response if the resources have not changed
+   * since the tag specified by the client.
+   */
+  public void evaluate(Request request, Collection<? extends HasMetadata> resources) {
+    entityTag = entityTag(resources);
+    Optional.ofNullable(request.evaluatePreconditions(entityTag))
+        .ifPresent(notModified -> {
+          throw new WebApplicationException(notModified.build());
+        });
+  }
+
+  public Optional<EntityTag> getEntityTag() {
+    return Optional.ofNullable(entityTag);
+  }
+
+  /**
+   * Return a weak entity tag that changes when a resource is added, removed or modified.
+   */
+  static EntityTag entityTag(Collection<? extends HasMetadata> resources) {
+    String resourceVersions = Seq.seq(resources)
+        .map(HasMetadata::getMetadata)
+        .map(metadata -> metadata.getNamespace() + "/" + metadata.getName()
+            + "/" + metadata.getUid() + "/" + metadata.getResourceVersion())
+        .sorted()
+        .toString("\n");
+    return new EntityTag(Hashing.sha256()
+        .hashString(resourceVersions, StandardCharsets.UTF_8)
+        .toString(), true);
+  }
+
+}
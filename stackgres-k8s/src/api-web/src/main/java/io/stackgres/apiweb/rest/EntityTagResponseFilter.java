@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.rest;
+
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.Provider;
+
+@Provider
+public class EntityTagResponseFilter implements ContainerResponseFilter {
+
+  @Inject
+  EntityTagEvaluator entityTagEvaluator;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext,
+      ContainerResponseContext responseContext) {
+    if (responseContext.getStatus() == Status.OK.getStatusCode()) {
+      entityTagEvaluator.getEntityTag()
+          .ifPresent(entityTag -> responseContext.getHeaders()
+              .putSingle(HttpHeaders.ETAG, entityTag));
+    }
+  }
+
+}
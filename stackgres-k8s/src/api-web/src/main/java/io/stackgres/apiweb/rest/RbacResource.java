@@ -5,10 +5,6 @@
 
 package io.stackgres.apiweb.rest;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import javax.enterprise.context.RequestScoped;
@@ -23,23 +19,10 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
-import com.google.common.collect.ImmutableList;
-import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReview;
-import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReviewBuilder;
 import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReviewStatus;
-import io.fabric8.kubernetes.client.CustomResource;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.stackgres.apiweb.dto.PermissionsListDto;
+import io.stackgres.apiweb.security.PermissionsEvaluator;
 import io.stackgres.common.crd.CommonDefinition;
-import io.stackgres.common.crd.sgbackup.StackGresBackup;
-import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
-import io.stackgres.common.crd.sgcluster.StackGresCluster;
-import io.stackgres.common.crd.sgdbops.StackGresDbOps;
-import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
-import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
-import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
-import io.stackgres.common.crd.sgprofile.StackGresProfile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -63,10 +46,13 @@ public class RbacResource {
 
   NamespaceResource namespaces;
 
+  PermissionsEvaluator permissionsEvaluator;
+
   @Inject
-  public RbacResource(NamespaceResource namespaces) {
+  public RbacResource(NamespaceResource namespaces, PermissionsEvaluator permissionsEvaluator) {
     super();
     this.namespaces = namespaces;
+    this.permissionsEvaluator = permissionsEvaluator;
   }
 
   @Operation(
@@ -82,32 +68,13 @@ public class RbacResource {
   public Response verb(@PathParam("verb") String verb, @PathParam("resource") String resource,
       @QueryParam("namespace") String namespace, @QueryParam("group") Optional<String> group) {
     LOGGER.debug("User to review access {}", user);
-    // Connect with the serviceaccount permissions
-    try (KubernetesClient client = new DefaultKubernetesClient()) {
-
-      SubjectAccessReview review = new SubjectAccessReviewBuilder()
-          .withNewSpec()
-          .withUser(user)
-          .withNewResourceAttributes()
-          .withNamespace(namespace)
-          .withGroup(group.orElse(CommonDefinition.GROUP))
-          .withResource(resource)
-          .withVerb(verb)
-          .endResourceAttributes()
-          .endSpec()
-          .build();
-
-      review = client.authorization().v1().subjectAccessReview()
-          .create(review);
-
-      LOGGER.debug("{}", review);
-
-      if (Boolean.TRUE.equals(review.getStatus().getAllowed())) {
-        return Response.ok(review.getStatus()).build();
-      } else {
-        return Response.status(Status.FORBIDDEN).entity(review.getStatus()).build();
-      }
+    SubjectAccessReviewStatus status = permissionsEvaluator.review(user, namespace,
+        group.orElse(CommonDefinition.GROUP), resource, verb);
 
+    if (Boolean.TRUE.equals(status.getAllowed())) {
+      return Response.ok(status).build();
+    } else {
+      return Response.status(Status.FORBIDDEN).entity(status).build();
     }
   }
 
@@ -123,76 +90,9 @@ public class RbacResource {
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/can-i")
   public Response caniList() {
-    // Connect with the serviceaccount permissions
-    try (KubernetesClient client = new DefaultKubernetesClient()) {
-
-      List<String> verbs = ImmutableList.of("get", "list", "create", "patch", "delete");
-      List<String> resourcesNamespaced = ImmutableList.of("pods", "secrets",
-          CustomResource.getCRDName(StackGresBackupConfig.class),
-          CustomResource.getCRDName(StackGresBackup.class),
-          CustomResource.getCRDName(StackGresCluster.class),
-          CustomResource.getCRDName(StackGresDistributedLogs.class),
-          CustomResource.getCRDName(StackGresProfile.class),
-          CustomResource.getCRDName(StackGresDbOps.class),
-          CustomResource.getCRDName(StackGresPostgresConfig.class),
-          CustomResource.getCRDName(StackGresPoolingConfig.class));
-      List<String> resourcesUnnamespaced =
-          ImmutableList.of("namespaces", "storageclasses.storage.k8s.io");
-
-      PermissionsListDto permissionsList = new PermissionsListDto();
-      List<PermissionsListDto.Namespaced> listNamespaced = new ArrayList<>();
-      for (String ns : namespaces.get()) {
-        PermissionsListDto.Namespaced permisionsNamespaced = new PermissionsListDto.Namespaced();
-        Map<String, List<String>> resourceNamespace = new HashMap<>();
-        for (String rsNamespaced : resourcesNamespaced) {
-          String[] resource = rsNamespaced.split("\\.", 2);
-          List<String> allowed = accessReview(client, user, ns, resource[0],
-              resource.length == 2 ? resource[1] : "", verbs);
-          resourceNamespace.put(resource[0], allowed);
-        }
-        permisionsNamespaced.setNamespace(ns);
-        permisionsNamespaced.setResources(resourceNamespace);
-        listNamespaced.add(permisionsNamespaced);
-      }
+    PermissionsListDto permissionsList = permissionsEvaluator.permissions(user, namespaces.get());
 
-      Map<String, List<String>> resourceUnamespace = new HashMap<>();
-      for (String rsUnnamespaced : resourcesUnnamespaced) {
-        String[] resource = rsUnnamespaced.split("\\.", 2);
-        List<String> allowed = accessReview(client, user, null, resource[0],
-            resource.length == 2 ? resource[1] : "", verbs);
-        resourceUnamespace.put(resource[0], allowed);
-      }
-
-      permissionsList.setNamespaced(listNamespaced);
-      permissionsList.setUnnamespaced(resourceUnamespace);
-
-      return Response.ok(permissionsList).build();
-    }
-  }
-
-  private List<String> accessReview(KubernetesClient client, String user, String namespace,
-      String resource, String group, List<String> verbs) {
-    List<String> allowed = new ArrayList<>();
-    for (String verb : verbs) {
-      SubjectAccessReview review = new SubjectAccessReviewBuilder()
-          .withNewSpec()
-          .withUser(user)
-          .withNewResourceAttributes()
-          .withNamespace(namespace)
-          .withResource(resource)
-          .withGroup(group)
-          .withVerb(verb)
-          .endResourceAttributes()
-          .endSpec()
-          .build();
-      review = client.authorization().v1().subjectAccessReview()
-          .create(review);
-
-      if (Boolean.TRUE.equals(review.getStatus().getAllowed())) {
-        allowed.add(verb);
-      }
-    }
-    return allowed;
+    return Response.ok(permissionsList).build();
   }
 
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.rest;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.stackgres.apiweb.dto.ResourceDto;
+import io.stackgres.common.resource.ResyncWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Send the changes of the watched resources as server sent events. Each event is named after the
+ * watch action ({@code ADDED}, {@code MODIFIED} or {@code DELETED}), has the resource version as
+ * id and the resource DTO as JSON data. When the watch has to be restarted because the resource
+ * version is too old a {@code RESYNC} event with an empty id is sent, that resets the id the
+ * client sends when reconnecting, and is followed by an {@code ADDED} event for each existing
+ * resource. The watch is closed when the client disconnects.
+ */
+class ResourceEventStream<T extends ResourceDto, R extends HasMetadata>
+    implements ResyncWatcher<R> {
+
+  static final String RESYNC_EVENT = "RESYNC";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResourceEventStream.class);
+
+  private final SseEventSink eventSink;
+  private final Sse sse;
+  private final Function<R, T> transformer;
+  private final AtomicReference<Watch> watch = new AtomicReference<>();
+  private volatile boolean closed = false;
+
+  ResourceEventStream(SseEventSink eventSink, Sse sse, Function<R, T> transformer) {
+    this.eventSink = eventSink;
+    this.sse = sse;
+    this.transformer = transformer;
+  }
+
+  void start(Function<Watcher<R>, Watch> watchFactory) {
+    watch.set(watchFactory.apply(this));
+    if (closed) {
+      close();
+    }
+  }
+
+  @Override
+  public void eventReceived(Action action, R resource) {
+    if (action != Action.ADDED && action != Action.MODIFIED && action != Action.DELETED) {
+      return;
+    }
+    if (eventSink.isClosed()) {
+      close();
+      return;
+    }
+    send(sse.newEventBuilder()
+        .id(resource.getMetadata().getResourceVersion())
+        .name(action.name())
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(transformer.apply(resource))
+        .build());
+  }
+
+  @Override
+  public void onResync() {
+    if (eventSink.isClosed()) {
+      close();
+      return;
+    }
+    send(sse.newEventBuilder()
+        .id("")
+        .name(RESYNC_EVENT)
+        .data("")
+        .build());
+  }
+
+  @Override
+  public void onClose(WatcherException cause) {
+    LOGGER.debug("Watch closed, closing the stream", cause);
+    close();
+  }
+
+  private void send(OutboundSseEvent event) {
+    eventSink.send(event)
+        .whenComplete((result, ex) -> {
+          if (ex != null) {
+            LOGGER.debug("Error sending event, closing the stream", ex);
+            close();
+          }
+        });
+  }
+
+  void close() {
+    closed = true;
+    Optional.ofNullable(watch.getAndSet(null)).ifPresent(Watch::close);
+    eventSink.close();
+  }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2020 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.security;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReview;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReviewBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReview;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReviewBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReviewStatus;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectRulesReviewStatus;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.stackgres.apiweb.dto.PermissionsListDto;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgdbops.StackGresDbOps;
+import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.jooq.lambda.tuple.Tuple5;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluate the permissions of the REST API users.
+ *
+ * <p>The permissions in each namespace are read with a single {@code SelfSubjectRulesReview}
+ * impersonating the user, falling back to a {@code SubjectAccessReview} for each verb when the
+ * rules are incomplete or can not be read. Namespaces are evaluated concurrently with a bounded
+ * parallelism and results are cached per user for a few seconds.
+ */
+@ApplicationScoped
+public class PermissionsEvaluator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PermissionsEvaluator.class);
+
+  private static final int PARALLELISM = 8;
+  private static final String WILDCARD = "*";
+  private static final long CACHE_TTL_SECONDS = 10;
+
+  private static final List<String> VERBS =
+      ImmutableList.of("get", "list", "create", "patch", "delete");
+  private static final List<String> RESOURCES_NAMESPACED = ImmutableList.of("pods", "secrets",
+      CustomResource.getCRDName(StackGresBackupConfig.class),
+      CustomResource.getCRDName(StackGresBackup.class),
+      CustomResource.getCRDName(StackGresCluster.class),
+      CustomResource.getCRDName(StackGresDistributedLogs.class),
+      CustomResource.getCRDName(StackGresProfile.class),
+      CustomResource.getCRDName(StackGresDbOps.class),
+      CustomResource.getCRDName(StackGresPostgresConfig.class),
+      CustomResource.getCRDName(StackGresPoolingConfig.class));
+  private static final List<String> RESOURCES_UNNAMESPACED =
+      ImmutableList.of("namespaces", "storageclasses.storage.k8s.io");
+
+  private final Supplier<KubernetesClient> serviceAccountClientSupplier;
+  private final Function<String, KubernetesClient> userClientFactory;
+
+  private final Cache<Tuple5<String, String, String, String, String>, SubjectAccessReviewStatus>
+      reviewCache = CacheBuilder.newBuilder()
+          .expireAfterWrite(CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+          .maximumSize(100_000)
+          .build();
+  private final Cache<Tuple2<String, List<String>>, PermissionsListDto> permissionsCache =
+      CacheBuilder.newBuilder()
+          .expireAfterWrite(CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+          .maximumSize(1_000)
+          .build();
+
+  private KubernetesClient serviceAccountClient;
+  private ExecutorService executorService;
+
+  public PermissionsEvaluator() {
+    this(DefaultKubernetesClient::new, PermissionsEvaluator::createUserClient);
+  }
+
+  PermissionsEvaluator(Supplier<KubernetesClient> serviceAccountClientSupplier,
+      Function<String, KubernetesClient> userClientFactory) {
+    this.serviceAccountClientSupplier = serviceAccountClientSupplier;
+    this.userClientFactory = userClientFactory;
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+    }
+    if (serviceAccountClient != null) {
+      serviceAccountClient.close();
+    }
+  }
+
+  /**
+   * Review if the user is allowed to perform the verb on the resource.
+   */
+  public SubjectAccessReviewStatus review(String user, String namespace, String group,
+      String resource, String verb) {
+    return getCached(reviewCache, Tuple.tuple(user, namespace, group, resource, verb),
+        () -> subjectAccessReview(user, namespace, group, resource, verb));
+  }
+
+  /**
+   * Return the verbs the user is allowed to perform on the resources used by the web console
+   * in each of the specified namespaces and on the cluster scoped ones.
+   */
+  public PermissionsListDto permissions(String user, List<String> namespaces) {
+    return getCached(permissionsCache, Tuple.tuple(user, ImmutableList.copyOf(namespaces)),
+        () -> evaluatePermissions(user, namespaces));
+  }
+
+  private PermissionsListDto evaluatePermissions(String user, List<String> namespaces) {
+    try (KubernetesClient userClient = userClientFactory.apply(user)) {
+      List<CompletableFuture<PermissionsListDto.Namespaced>> namespacedFutures =
+          Seq.seq(namespaces)
+          .map(namespace -> CompletableFuture.supplyAsync(
+              () -> namespacedPermissions(userClient, user, namespace), getExecutorService()))
+          .toList();
+      List<CompletableFuture<Tuple2<String, List<String>>>> unnamespacedFutures =
+          Seq.seq(RESOURCES_UNNAMESPACED)
+          .map(resource -> CompletableFuture.supplyAsync(
+              () -> resourcePermissions(user, null, resource, Optional.empty()),
+              getExecutorService()))
+          .toList();
+
+      PermissionsListDto permissionsList = new PermissionsListDto();
+      permissionsList.setNamespaced(Seq.seq(namespacedFutures)
+          .map(PermissionsEvaluator::join)
+          .toList());
+      Map<String, List<String>> resourceUnamespace = new HashMap<>();
+      Seq.seq(unnamespacedFutures)
+          .map(PermissionsEvaluator::join)
+          .forEach(allowed -> resourceUnamespace.put(allowed.v1, allowed.v2));
+      permissionsList.setUnnamespaced(resourceUnamespace);
+      return permissionsList;
+    }
+  }
+
+  private PermissionsListDto.Namespaced namespacedPermissions(KubernetesClient userClient,
+      String user, String namespace) {
+    Optional<SubjectRulesReviewStatus> rules = subjectRulesReview(userClient, namespace);
+    Map<String, List<String>> resourceNamespace = new HashMap<>();
+    for (String rsNamespaced : RESOURCES_NAMESPACED) {
+      Tuple2<String, List<String>> allowed = resourcePermissions(
+          user, namespace, rsNamespaced, rules);
+      resourceNamespace.put(allowed.v1, allowed.v2);
+    }
+    PermissionsListDto.Namespaced permisionsNamespaced = new PermissionsListDto.Namespaced();
+    permisionsNamespaced.setNamespace(namespace);
+    permisionsNamespaced.setResources(resourceNamespace);
+    return permisionsNamespaced;
+  }
+
+  private Tuple2<String, List<String>> resourcePermissions(String user, String namespace,
+      String groupResource, Optional<SubjectRulesReviewStatus> rules) {
+    String[] resource = groupResource.split("\\.", 2);
+    String group = resource.length == 2 ? resource[1] : "";
+    List<String> allowed = Seq.seq(VERBS)
+        .filter(verb -> rules
+            .flatMap(status -> isAllowed(status, group, resource[0], verb))
+            .orElseGet(() -> Boolean.TRUE.equals(
+                review(user, namespace, group, resource[0], verb).getAllowed())))
+        .toList();
+    return Tuple.tuple(resource[0], allowed);
+  }
+
+  /**
+   * Return if the rules allow the verb on the resource, or empty if the rules do not allow it
+   * but are incomplete.
+   */
+  private static Optional<Boolean> isAllowed(SubjectRulesReviewStatus status, String group,
+      String resource, String verb) {
+    boolean allowed = Optional.ofNullable(status.getResourceRules())
+        .map(Seq::seq)
+        .orElse(Seq.empty())
+        .filter(rule -> rule.getResourceNames() == null || rule.getResourceNames().isEmpty())
+        .anyMatch(rule -> matches(rule.getApiGroups(), group)
+            && matches(rule.getResources(), resource)
+            && matches(rule.getVerbs(), verb));
+    if (allowed || !Boolean.TRUE.equals(status.getIncomplete())) {
+      return Optional.of(allowed);
+    }
+    return Optional.empty();
+  }
+
+  private static boolean matches(List<String> values, String value) {
+    return values != null && (values.contains(WILDCARD)
+        || values.contains(value));
+  }
+
+  private Optional<SubjectRulesReviewStatus> subjectRulesReview(KubernetesClient userClient,
+      String namespace) {
+    try {
+      SelfSubjectRulesReview review = userClient.authorization().v1().selfSubjectRulesReview()
+          .create(new SelfSubjectRulesReviewBuilder()
+              .withNewSpec()
+              .withNamespace(namespace)
+              .endSpec()
+              .build());
+      return Optional.ofNullable(review.getStatus());
+    } catch (KubernetesClientException ex) {
+      LOGGER.debug("Can not review rules in namespace {}, falling back to access reviews",
+          namespace, ex);
+      return Optional.empty();
+    }
+  }
+
+  private SubjectAccessReviewStatus subjectAccessReview(String user, String namespace,
+      String group, String resource, String verb) {
+    SubjectAccessReview review = new SubjectAccessReviewBuilder()
+        .withNewSpec()
+        .withUser(user)
+        .withNewResourceAttributes()
+        .withNamespace(namespace)
+        .withGroup(group)
+        .withResource(resource)
+        .withVerb(verb)
+        .endResourceAttributes()
+        .endSpec()
+        .build();
+    review = getServiceAccountClient().authorization().v1().subjectAccessReview()
+        .create(review);
+    LOGGER.debug("{}", review);
+    return review.getStatus();
+  }
+
+  private synchronized KubernetesClient getServiceAccountClient() {
+    if (serviceAccountClient == null) {
+      serviceAccountClient = serviceAccountClientSupplier.get();
+    }
+    return serviceAccountClient;
+  }
+
+  private synchronized ExecutorService getExecutorService() {
+    if (executorService == null) {
+      final AtomicInteger threadIndex = new AtomicInteger(0);
+      executorService = Executors.newFixedThreadPool(PARALLELISM, r -> {
+        Thread thread = new Thread(r, "PermissionsEvaluator-" + threadIndex.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return executorService;
+  }
+
+  private static KubernetesClient createUserClient(String user) {
+    return new DefaultKubernetesClient(new ConfigBuilder()
+        .withImpersonateUsername(user)
+        .withImpersonateGroup("system:authenticated")
+        .build());
+  }
+
+  private static <K, V> V getCached(Cache<K, V> cache, K key, Callable<V> loader) {
+    try {
+      return cache.get(key, loader);
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      throw propagate(ex.getCause());
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      throw propagate(ex.getCause());
+    }
+  }
+
+  private static RuntimeException propagate(Throwable ex) {
+    if (ex instanceof RuntimeException) {
+      return (RuntimeException) ex;
+    }
+    return new RuntimeException(ex);
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.stackgres.common.StackGresContext;
+import io.stackgres.common.resource.ResourceUtil;
+
+/**
+ * In memory index of the REST API users credentials by API username. The index is updated
+ * incrementally with the events of an informer that watches the user secrets.
+ */
+class SecretCredentialsIndex implements ResourceEventHandler<Secret> {
+
+  private final Map<String, ImmutableMap<String, UserCredentials>> credentialsByApiUsername =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Return the credentials of the users with the specified API username.
+   */
+  public List<UserCredentials> find(String apiUsername) {
+    return Optional.ofNullable(credentialsByApiUsername.get(apiUsername))
+        .map(credentials -> credentials.values().asList())
+        .orElse(ImmutableList.of());
+  }
+
+  @Override
+  public void onAdd(Secret secret) {
+    UserCredentials.fromSecret(secret).ifPresent(this::add);
+  }
+
+  @Override
+  public void onUpdate(Secret oldSecret, Secret newSecret) {
+    UserCredentials.fromSecret(oldSecret).ifPresent(this::remove);
+    UserCredentials.fromSecret(newSecret).ifPresent(this::add);
+  }
+
+  @Override
+  public void onDelete(Secret secret, boolean deletedFinalStateUnknown) {
+    UserCredentials.fromSecret(secret).ifPresent(this::remove);
+  }
+
+  private void add(UserCredentials credentials) {
+    credentialsByApiUsername.compute(credentials.getApiUsername(), (apiUsername, previous) -> {
+      Map<String, UserCredentials> credentialsBySecretName = new HashMap<>(
+          Optional.ofNullable(previous).orElse(ImmutableMap.of()));
+      credentialsBySecretName.put(credentials.getSecretName(), credentials);
+      return ImmutableMap.copyOf(credentialsBySecretName);
+    });
+  }
+
+  private void remove(UserCredentials credentials) {
+    credentialsByApiUsername.computeIfPresent(credentials.getApiUsername(),
+        (apiUsername, previous) -> {
+          Map<String, UserCredentials> credentialsBySecretName = new HashMap<>(previous);
+          credentialsBySecretName.remove(credentials.getSecretName());
+          return credentialsBySecretName.isEmpty()
+              ? null : ImmutableMap.copyOf(credentialsBySecretName);
+        });
+  }
+
+  static class UserCredentials {
+
+    private final String secretName;
+    private final String apiUsername;
+    private final String k8sUsername;
+    private final byte[] passwordHash;
+
+    private UserCredentials(String secretName, String apiUsername, String k8sUsername,
+        String passwordHash) {
+      this.secretName = secretName;
+      this.apiUsername = apiUsername;
+      this.k8sUsername = k8sUsername;
+      this.passwordHash = passwordHash.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Return the credentials stored in the secret if it is a REST API user secret with both the
+     * k8s username and the password hash set. The API username defaults to the k8s username.
+     */
+    static Optional<UserCredentials> fromSecret(Secret secret) {
+      if (secret.getMetadata().getLabels() == null
+          || !Objects.equals(secret.getMetadata().getLabels().get(StackGresContext.AUTH_KEY),
+              StackGresContext.AUTH_USER_VALUE)
+          || secret.getData() == null
+          || Strings.isNullOrEmpty(secret.getData().get(StackGresContext.REST_K8SUSER_KEY))
+          || Strings.isNullOrEmpty(secret.getData().get(StackGresContext.REST_PASSWORD_KEY))) {
+        return Optional.empty();
+      }
+      String k8sUsername = ResourceUtil.decodeSecret(
+          secret.getData().get(StackGresContext.REST_K8SUSER_KEY));
+      String apiUsername = Optional.ofNullable(
+          secret.getData().get(StackGresContext.REST_APIUSER_KEY))
+          .map(ResourceUtil::decodeSecret)
+          .orElse(k8sUsername);
+      return Optional.of(new UserCredentials(secret.getMetadata().getName(), apiUsername,
+          k8sUsername, ResourceUtil.decodeSecret(
+              secret.getData().get(StackGresContext.REST_PASSWORD_KEY))));
+    }
+
+    String getSecretName() {
+      return secretName;
+    }
+
+    String getApiUsername() {
+      return apiUsername;
+    }
+
+    String getK8sUsername() {
+      return k8sUsername;
+    }
+
+    byte[] getPasswordHash() {
+      return passwordHash;
+    }
+
+  }
+
+}
@@ -5,73 +5,135 @@
 
 package io.stackgres.apiweb.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
-import com.google.common.base.Strings;
 import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.OperationContext;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.SharedInformerFactory;
+import io.quarkus.runtime.StartupEvent;
 import io.quarkus.security.AuthenticationFailedException;
+import io.stackgres.apiweb.app.ServiceAccountClient;
 import io.stackgres.apiweb.config.WebApiProperty;
+import io.stackgres.apiweb.security.SecretCredentialsIndex.UserCredentials;
+import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.StackGresContext;
 import io.stackgres.common.resource.ResourceScanner;
-import io.stackgres.common.resource.ResourceUtil;
+import org.jooq.lambda.Seq;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Verify the credentials of the REST API users against the user secrets. The user secrets are
+ * kept indexed by API username by an informer so that a login does not list the secrets of the
+ * namespace. Secrets are listed only until the informer has completed its initial listing.
+ */
 @ApplicationScoped
 public class SecretVerification {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(SecretVerification.class);
+
+  private final SecretCredentialsIndex credentialsIndex = new SecretCredentialsIndex();
+
   private ResourceScanner<Secret> secretScanner;
+  private KubernetesClientFactory clientFactory;
   private String namespace;
+  private KubernetesClient client;
+  private SharedInformerFactory informerFactory;
+  private volatile SharedIndexInformer<Secret> informer;
 
   @PostConstruct
   public void init() {
     this.namespace = WebApiProperty.RESTAPI_NAMESPACE.getString();
   }
 
+  void onStart(@Observes StartupEvent event) {
+    start();
+  }
+
+  /**
+   * Start the informer that keeps the user secrets indexed.
+   */
+  public synchronized void start() {
+    if (informerFactory != null) {
+      return;
+    }
+    LOGGER.info("Starting index of REST API users in namespace {}", namespace);
+    client = clientFactory.create();
+    informerFactory = client.informers();
+    informer = informerFactory.sharedIndexInformerFor(Secret.class,
+        new OperationContext()
+            .withNamespace(namespace)
+            .withLabels(Map.of(StackGresContext.AUTH_KEY, StackGresContext.AUTH_USER_VALUE)),
+        0);
+    informer.addEventHandler(credentialsIndex);
+    informerFactory.startAllRegisteredInformers();
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (informerFactory == null) {
+      return;
+    }
+    informerFactory.stopAllRegisteredInformers();
+    client.close();
+    informerFactory = null;
+    informer = null;
+  }
+
   /**
    * Get the K8s username if the api Username and password match.
    */
   public String verifyCredentials(String apiUsername, String password) {
     Objects.requireNonNull(apiUsername, StackGresContext.REST_APIUSER_KEY);
     Objects.requireNonNull(password, StackGresContext.REST_PASSWORD_KEY);
-    String passwordHash = TokenUtils.sha256(apiUsername + password);
-    return secretScanner.findResourcesInNamespace(namespace)
+    byte[] passwordHash = TokenUtils.sha256(apiUsername + password)
+        .getBytes(StandardCharsets.UTF_8);
+    return findCredentials(apiUsername)
         .stream()
-        .filter(s -> s.getMetadata().getLabels() != null)
-        .filter(s -> Objects.equals(s.getMetadata().getLabels()
-            .get(StackGresContext.AUTH_KEY), StackGresContext.AUTH_USER_VALUE))
-        .filter(s -> !Strings.isNullOrEmpty(s.getData().get(StackGresContext.REST_K8SUSER_KEY)))
-        .filter(s -> !Strings.isNullOrEmpty(s.getData().get(StackGresContext.REST_PASSWORD_KEY)))
-        .filter(s -> Optional.ofNullable(s.getData().get(StackGresContext.REST_APIUSER_KEY))
-            .map(ResourceUtil::decodeSecret)
-            .map(apiUsername::equals)
-            .orElse(Optional.of(s.getData().get(StackGresContext.REST_K8SUSER_KEY))
-                .map(ResourceUtil::decodeSecret)
-                .map(apiUsername::equals)
-                .orElse(Boolean.FALSE)))
-        .filter(s -> Objects.equals(passwordHash, getStoredPassword(s)))
-        .map(this::getK8sUsername)
+        .filter(credentials -> MessageDigest.isEqual(passwordHash,
+            credentials.getPasswordHash()))
+        .map(UserCredentials::getK8sUsername)
         .findFirst()
         .orElseThrow(AuthenticationFailedException::new);
   }
 
-  private String getStoredPassword(Secret secret) {
-    return decodeKey(secret, StackGresContext.REST_PASSWORD_KEY);
-  }
-
-  private String getK8sUsername(Secret secret) {
-    return decodeKey(secret, StackGresContext.REST_K8SUSER_KEY);
+  private List<UserCredentials> findCredentials(String apiUsername) {
+    if (isIndexSynced()) {
+      return credentialsIndex.find(apiUsername);
+    }
+    return Seq.seq(secretScanner.findResourcesInNamespace(namespace))
+        .map(UserCredentials::fromSecret)
+        .flatMap(Seq::seq)
+        .filter(credentials -> credentials.getApiUsername().equals(apiUsername))
+        .toList();
   }
 
-  private String decodeKey(Secret secret, String key) {
-    return ResourceUtil.decodeSecret(secret.getData().get(key));
+  private boolean isIndexSynced() {
+    return Optional.ofNullable(informer)
+        .map(SharedIndexInformer::hasSynced)
+        .orElse(false);
   }
 
   @Inject
   public void setSecretScanner(ResourceScanner<Secret> secretScanner) {
     this.secretScanner = secretScanner;
   }
+
+  @Inject
+  public void setClientFactory(@ServiceAccountClient KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+  }
 }
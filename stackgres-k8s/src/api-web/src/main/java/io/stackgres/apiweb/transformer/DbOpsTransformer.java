@@ -210,6 +210,7 @@ public class DbOpsTransformer
     StackGresDbOpsRestart transformation =
         new StackGresDbOpsRestart();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     transformation.setRestartPrimaryFirst(source.getRestartPrimaryFirst());
     return transformation;
   }
@@ -222,6 +223,7 @@ public class DbOpsTransformer
     StackGresDbOpsMinorVersionUpgrade transformation =
         new StackGresDbOpsMinorVersionUpgrade();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     return transformation;
   }
 
@@ -233,6 +235,7 @@ public class DbOpsTransformer
     StackGresDbOpsSecurityUpgrade transformation =
         new StackGresDbOpsSecurityUpgrade();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     return transformation;
   }
 
@@ -360,6 +363,7 @@ public class DbOpsTransformer
     DbOpsRestart transformation =
         new DbOpsRestart();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     transformation.setRestartPrimaryFirst(source.getRestartPrimaryFirst());
     return transformation;
   }
@@ -372,6 +376,7 @@ public class DbOpsTransformer
     DbOpsMinorVersionUpgrade transformation =
         new DbOpsMinorVersionUpgrade();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     return transformation;
   }
 
@@ -383,6 +388,7 @@ public class DbOpsTransformer
     DbOpsSecurityUpgrade transformation =
         new DbOpsSecurityUpgrade();
     transformation.setMethod(source.getMethod());
+    transformation.setMaxUnavailableReplicas(source.getMaxUnavailableReplicas());
     return transformation;
   }
 
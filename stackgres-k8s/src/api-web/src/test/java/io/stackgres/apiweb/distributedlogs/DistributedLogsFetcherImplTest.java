@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.distributedlogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.stackgres.apiweb.dto.Metadata;
+import io.stackgres.apiweb.dto.cluster.ClusterDistributedLogs;
+import io.stackgres.apiweb.dto.cluster.ClusterDto;
+import io.stackgres.apiweb.dto.cluster.ClusterLogEntryDto;
+import io.stackgres.apiweb.dto.cluster.ClusterSpec;
+import io.stackgres.common.resource.ResourceFinder;
+import io.stackgres.common.resource.ResourceUtil;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DistributedLogsFetcherImplTest {
+
+  private static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
+
+  private final List<Tuple2<String, List<Object>>> queries = new ArrayList<>();
+
+  private final List<List<Tuple2<Instant, Integer>>> pages = new ArrayList<>();
+
+  @Mock
+  private ResourceFinder<Secret> secretFinder;
+
+  @Mock
+  private PostgresConnectionManager postgresConnectionManager;
+
+  private DistributedLogsFetcherImpl fetcher;
+
+  private ClusterDto cluster;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    cluster = new ClusterDto();
+    cluster.setMetadata(new Metadata());
+    cluster.getMetadata().setNamespace("test");
+    cluster.getMetadata().setName("test");
+    cluster.setSpec(new ClusterSpec());
+    cluster.getSpec().setDistributedLogs(new ClusterDistributedLogs());
+    cluster.getSpec().getDistributedLogs().setDistributedLogs("distributedlogs");
+    when(secretFinder.findByNameAndNamespace("distributedlogs", "test"))
+        .thenReturn(Optional.of(new SecretBuilder()
+            .addToData("superuser-password", ResourceUtil.encodeSecret("test"))
+            .build()));
+    when(postgresConnectionManager.getConnection(
+        "distributedlogs.test", "postgres", "test", "test_test"))
+        .thenAnswer(invocation -> new MockConnection(context -> {
+          if (context.sql().startsWith("explain ")) {
+            return new MockResult[] {new MockResult(0, result(List.of()))};
+          }
+          queries.add(Tuple.tuple(context.sql(), Arrays.asList(context.bindings())));
+          return new MockResult[] {
+              new MockResult(0, result(pages.get(queries.size() - 1)))
+          };
+        }));
+    fetcher = new DistributedLogsFetcherImpl(secretFinder, postgresConnectionManager);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void givenFullPages_shouldFetchEachPageAfterTheLastEntryUntilAShortPage(boolean sortAsc)
+      throws Exception {
+    final int sign = sortAsc ? 1 : -1;
+    pages.add(List.of(entry(0, 0), entry(0, 1)));
+    pages.add(List.of(entry(sign, 0), entry(sign * 2, 0)));
+    pages.add(List.of(entry(sign * 3, 0)));
+    DistributedLogsQueryParameters parameters = parameters(sortAsc);
+    List<ClusterLogEntryDto> entries = new ArrayList<>();
+
+    fetcher.export(parameters, entries::add);
+
+    assertEquals(3, queries.size());
+    assertQuery(parameters, queries.get(0));
+    assertQuery(ImmutableDistributedLogsQueryParameters.copyOf(parameters)
+        .withFromTimeAndIndex(entry(0, 1))
+        .withIsFromInclusive(false), queries.get(1));
+    assertQuery(ImmutableDistributedLogsQueryParameters.copyOf(parameters)
+        .withFromTimeAndIndex(entry(sign * 2, 0))
+        .withIsFromInclusive(false), queries.get(2));
+    assertEquals(Seq.seq(pages).flatMap(Seq::seq).map(Tuple2::v2).toList(),
+        Seq.seq(entries).map(ClusterLogEntryDto::getLogTimeIndex).toList());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void givenAnEmptyLastPage_shouldStop(boolean sortAsc) throws Exception {
+    final int sign = sortAsc ? 1 : -1;
+    pages.add(List.of(entry(0, 0), entry(sign, 0)));
+    pages.add(List.of());
+    DistributedLogsQueryParameters parameters = parameters(sortAsc);
+    List<ClusterLogEntryDto> entries = new ArrayList<>();
+
+    fetcher.export(parameters, entries::add);
+
+    assertEquals(2, queries.size());
+    assertQuery(ImmutableDistributedLogsQueryParameters.copyOf(parameters)
+        .withFromTimeAndIndex(entry(sign, 0))
+        .withIsFromInclusive(false), queries.get(1));
+    assertEquals(2, entries.size());
+  }
+
+  private DistributedLogsQueryParameters parameters(boolean sortAsc) {
+    return ImmutableDistributedLogsQueryParameters.builder()
+        .cluster(cluster)
+        .records(2)
+        .isSortAsc(sortAsc)
+        .isFromInclusive(true)
+        .fromTimeAndIndex(entry(0, 0))
+        .build();
+  }
+
+  private void assertQuery(DistributedLogsQueryParameters expectedParameters,
+      Tuple2<String, List<Object>> query) {
+    List<Tuple2<String, List<Object>>> expectedQueries = new ArrayList<>();
+    DSLContext context = DSL.using(new MockConnection(mockContext -> {
+      expectedQueries.add(Tuple.tuple(mockContext.sql(), Arrays.asList(mockContext.bindings())));
+      return new MockResult[] {new MockResult(0, result(List.of()))};
+    }));
+    new DistributedLogsQueryGenerator(context, expectedParameters).generateQuery().fetch();
+    assertEquals(expectedQueries.get(0), query);
+  }
+
+  private Tuple2<Instant, Integer> entry(int seconds, int index) {
+    return Tuple.tuple(NOW.plusSeconds(seconds), index);
+  }
+
+  private Result<Record> result(List<Tuple2<Instant, Integer>> entries) {
+    DSLContext context = DSL.using(new MockConnection(mockContext -> new MockResult[0]));
+    Result<Record> result = context.newResult(DistributedLogsQueryGenerator.LOG_FIELDS);
+    for (Tuple2<Instant, Integer> entry : entries) {
+      Record record = context.newRecord(DistributedLogsQueryGenerator.LOG_FIELDS);
+      record.set(DistributedLogsQueryGenerator.LOG_TYPE_FIELD, "pg");
+      record.set(DistributedLogsQueryGenerator.LOG_TIME_FIELD,
+          OffsetDateTime.ofInstant(entry.v1, ZoneOffset.UTC));
+      record.set(DistributedLogsQueryGenerator.LOG_TIME_INDEX_FIELD, entry.v2);
+      result.add(record);
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.stackgres.apiweb.config.WebApiProperty;
+import io.stackgres.apiweb.dto.cluster.ClusterDto;
+import io.stackgres.apiweb.transformer.ClusterPodTransformer;
+import io.stackgres.apiweb.transformer.ClusterTransformer;
+import io.stackgres.common.ClusterLabelFactory;
+import io.stackgres.common.ClusterLabelMapper;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.StackGresPropertyContext;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.common.resource.PodFinder;
+import io.stackgres.common.resource.ResyncWatcher;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterDtoScannerTest {
+
+  private final KubernetesServer server = new KubernetesServer(true, true);
+
+  private final ClusterLabelFactory labelFactory =
+      new ClusterLabelFactory(new ClusterLabelMapper());
+
+  @Mock
+  private CustomResourceScanner<StackGresCluster> clusterScanner;
+
+  @Mock
+  private PodFinder podFinder;
+
+  @Mock
+  private StackGresPropertyContext<WebApiProperty> configContext;
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private Watch watch;
+
+  private ClusterDtoScanner dtoScanner;
+
+  private StackGresCluster cluster;
+
+  private PodList podList;
+
+  @BeforeEach
+  void setUp() {
+    server.before();
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    podList = JsonUtil.readFromJson("stackgres_cluster/pods.json", PodList.class);
+    dtoScanner = new ClusterDtoScanner();
+    dtoScanner.setClusterScanner(clusterScanner);
+    dtoScanner.setPodFinder(podFinder);
+    dtoScanner.setClusterTransformer(
+        new ClusterTransformer(configContext, new ClusterPodTransformer()));
+    dtoScanner.setLabelFactory(labelFactory);
+    dtoScanner.setClientFactory(clientFactory);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.after();
+  }
+
+  @Test
+  void watchEventOutsideOfTheRequest_shouldLookUpThePodsWithTheClientCreatedInTheRequest()
+      throws Exception {
+    final String namespace = cluster.getMetadata().getNamespace();
+    KubernetesClient client = spy(server.getClient());
+    podList.getItems().forEach(pod -> {
+      pod.getMetadata().setNamespace(namespace);
+      pod.getMetadata().getLabels().putAll(labelFactory.patroniClusterLabels(cluster));
+      client.pods().inNamespace(namespace).create(pod);
+      client.pods().inNamespace(namespace).updateStatus(pod);
+    });
+    when(clientFactory.create()).thenReturn(client);
+    List<Watcher<StackGresCluster>> watchers = new ArrayList<>();
+    when(clusterScanner.watch(any(), any(), any())).then(invocation -> {
+      watchers.add(invocation.getArgument(2));
+      return watch;
+    });
+    List<String> events = new ArrayList<>();
+    List<ClusterDto> clusters = new ArrayList<>();
+    Watch dtoWatch = dtoScanner.watch(namespace, null, new ResyncWatcher<ClusterDto>() {
+      @Override
+      public void onResync() {
+        events.add("RESYNC");
+      }
+
+      @Override
+      public void eventReceived(Action action, ClusterDto resource) {
+        events.add(action.name());
+        clusters.add(resource);
+      }
+
+      @Override
+      public void onClose(WatcherException cause) {
+        events.add("CLOSED");
+      }
+    });
+
+    CompletableFuture.runAsync(() -> {
+      ((ResyncWatcher<StackGresCluster>) watchers.get(0)).onResync();
+      watchers.get(0).eventReceived(Action.ADDED, cluster);
+    }).get(10, TimeUnit.SECONDS);
+
+    assertEquals(List.of("RESYNC", "ADDED"), events);
+    assertEquals(podList.getItems().size(), clusters.get(0).getPods().size());
+    verify(clientFactory).create();
+    verify(podFinder, never()).findByLabelsAndNamespace(any(), any());
+    verify(client, never()).close();
+
+    dtoWatch.close();
+
+    verify(watch).close();
+    verify(client).close();
+  }
+
+}
@@ -15,11 +15,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -27,18 +33,27 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import javax.enterprise.context.ContextNotActiveException;
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
+import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.Secret;
@@ -46,8 +61,15 @@ import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.client.CustomResourceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
 import io.stackgres.apiweb.config.WebApiProperty;
 import io.stackgres.apiweb.distributedlogs.DistributedLogsFetcher;
+import io.stackgres.apiweb.distributedlogs.DistributedLogsFetcher.LogEntryConsumer;
 import io.stackgres.apiweb.distributedlogs.DistributedLogsQueryParameters;
 import io.stackgres.apiweb.distributedlogs.FullTextSearchQuery;
 import io.stackgres.apiweb.dto.Metadata;
@@ -73,6 +95,7 @@ import io.stackgres.apiweb.transformer.ClusterStatsTransformer;
 import io.stackgres.apiweb.transformer.ClusterTransformer;
 import io.stackgres.common.ClusterLabelFactory;
 import io.stackgres.common.ClusterLabelMapper;
+import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.PatroniUtil;
 import io.stackgres.common.StackGresPropertyContext;
 import io.stackgres.common.StringUtil;
@@ -91,9 +114,10 @@ import io.stackgres.common.crd.sgcluster.StackGresClusterScriptFrom;
 import io.stackgres.common.crd.sgcluster.StackGresClusterSpec;
 import io.stackgres.common.crd.sgcluster.StackGresPodPersistentVolume;
 import io.stackgres.common.resource.PersistentVolumeClaimFinder;
-import io.stackgres.common.resource.PodExecutor;
 import io.stackgres.common.resource.PodFinder;
+import io.stackgres.common.resource.PodShellExecutor;
 import io.stackgres.common.resource.ResourceFinder;
+import io.stackgres.common.resource.ResourceScanner;
 import io.stackgres.common.resource.ResourceUtil;
 import io.stackgres.testutil.JsonUtil;
 import org.eclipse.microprofile.context.ManagedExecutor;
@@ -125,7 +149,7 @@ class ClusterResourceTest
   @Mock
   private PodFinder podFinder;
   @Mock
-  private PodExecutor podExecutor;
+  private PodShellExecutor podShellExecutor;
   @Mock
   private PersistentVolumeClaimFinder persistentVolumeClaimFinder;
 
@@ -144,8 +168,22 @@ class ClusterResourceTest
   @Mock
   private ResourceFinder<Service> serviceFinder;
 
+  @Mock
+  private ResourceScanner<Service> serviceScanner;
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private SseEventSink eventSink;
+
+  @Mock
+  private Sse sse;
+
   private ExecutorService executorService;
 
+  private KubernetesServer server;
+
   private Service servicePrimary;
   private Service serviceReplicas;
   private Secret secret;
@@ -207,6 +245,9 @@ class ClusterResourceTest
   public void tearDown() throws Exception {
     executorService.shutdown();
     executorService.awaitTermination(1, TimeUnit.SECONDS);
+    if (server != null) {
+      server.after();
+    }
   }
 
   @Test
@@ -216,6 +257,93 @@ class ClusterResourceTest
     super.listShouldReturnAllDtos();
   }
 
+  @Test
+  void list_shouldListServicesOnceAndGetOnlyTheReferencedSecretsAndConfigMaps() {
+    clusterMocks();
+    when(scanner.getResources()).thenReturn(customResources.getItems());
+
+    List<ClusterDto> clusters = service.list();
+
+    assertEquals(2, clusters.size());
+    assertEquals("CREATE USER test WITH PASSWORD 'test'", clusters.get(1).getSpec()
+        .getInitData().getScripts().get(1).getScriptFrom().getSecretScript());
+    assertEquals("CREATE DATABASE test WITH OWNER test", clusters.get(1).getSpec()
+        .getInitData().getScripts().get(2).getScriptFrom().getConfigMapScript());
+    verify(serviceScanner).findResourcesInNamespace(getResourceNamespace());
+    verify(serviceFinder, never()).findByNameAndNamespace(anyString(), anyString());
+    verify(secretFinder).findByNameAndNamespace(
+        secret.getMetadata().getName(), getResourceNamespace());
+    verify(configMapFinder).findByNameAndNamespace(
+        configMap.getMetadata().getName(), getResourceNamespace());
+  }
+
+  @Test
+  void watch_shouldSendTheClustersWithScriptsAndInfo() {
+    clusterMocks();
+    OutboundSseEvent.Builder eventBuilder = mockEventBuilder();
+    List<Watcher<StackGresCluster>> watchers = new ArrayList<>();
+    when(scanner.watch(any(), eq("10"), any())).then(invocation -> {
+      watchers.add(invocation.getArgument(2));
+      return mock(Watch.class);
+    });
+    StackGresCluster cluster = customResources.getItems().get(1);
+    when(clientFactory.create()).thenReturn(watchClient(cluster));
+
+    service.watch(null, null, "10", eventSink, sse);
+    watchers.get(0).eventReceived(Action.MODIFIED, cluster);
+
+    ArgumentCaptor<ClusterDto> dto = ArgumentCaptor.forClass(ClusterDto.class);
+    verify(eventBuilder).data(dto.capture());
+    assertEquals("CREATE USER test WITH PASSWORD 'test'", dto.getValue().getSpec()
+        .getInitData().getScripts().get(1).getScriptFrom().getSecretScript());
+    assertEquals("CREATE DATABASE test WITH OWNER test", dto.getValue().getSpec()
+        .getInitData().getScripts().get(2).getScriptFrom().getConfigMapScript());
+    assertNotNull(dto.getValue().getInfo());
+    assertNotNull(dto.getValue().getInfo().getPrimaryDns());
+    assertEquals(podList.getItems().size(), dto.getValue().getPods().size());
+  }
+
+  @Test
+  void watchEventOutsideOfTheRequest_shouldUseTheClientCreatedInTheRequest() throws Exception {
+    clusterMocks();
+    OutboundSseEvent.Builder eventBuilder = mockEventBuilder();
+    List<Watcher<StackGresCluster>> watchers = new ArrayList<>();
+    Watch watch = mock(Watch.class);
+    when(scanner.watch(any(), any(), any())).then(invocation -> {
+      watchers.add(invocation.getArgument(2));
+      return watch;
+    });
+    StackGresCluster cluster = customResources.getItems().get(1);
+    KubernetesClient client = spy(watchClient(cluster));
+    when(clientFactory.create()).thenReturn(client);
+
+    service.watch(null, null, null, eventSink, sse);
+    when(clientFactory.create()).thenThrow(new ContextNotActiveException());
+    when(podFinder.findByLabelsAndNamespace(anyString(), any()))
+        .thenThrow(new ContextNotActiveException());
+    when(secretFinder.findByNameAndNamespace(anyString(), anyString()))
+        .thenThrow(new ContextNotActiveException());
+    when(configMapFinder.findByNameAndNamespace(anyString(), anyString()))
+        .thenThrow(new ContextNotActiveException());
+    when(serviceFinder.findByNameAndNamespace(anyString(), anyString()))
+        .thenThrow(new ContextNotActiveException());
+    CompletableFuture.runAsync(
+        () -> watchers.get(0).eventReceived(Action.MODIFIED, cluster), executorService)
+        .get(10, TimeUnit.SECONDS);
+
+    ArgumentCaptor<ClusterDto> dto = ArgumentCaptor.forClass(ClusterDto.class);
+    verify(eventBuilder).data(dto.capture());
+    assertEquals("CREATE USER test WITH PASSWORD 'test'", dto.getValue().getSpec()
+        .getInitData().getScripts().get(1).getScriptFrom().getSecretScript());
+    assertEquals(podList.getItems().size(), dto.getValue().getPods().size());
+    verify(client, never()).close();
+
+    watchers.get(0).onClose(new WatcherException("closed"));
+
+    verify(watch).close();
+    verify(client).close();
+  }
+
   @Test
   @Override
   void getOfAnExistingDtoShouldReturnTheExistingDto() {
@@ -236,6 +364,22 @@ class ClusterResourceTest
     checkStatsDto(dto);
   }
 
+  @Test
+  void getOfAnExistingDtoStatsTwice_shouldCollectThePodStatsOnce() {
+    clusterMocks();
+    mockPodExecutor();
+
+    when(finder.findByNameAndNamespace(getResourceName(), getResourceNamespace()))
+        .thenReturn(Optional.of(customResources.getItems().get(0)));
+
+    service.stats(getResourceNamespace(), getResourceName());
+    final int collections = mockingDetails(podShellExecutor).getInvocations().size();
+    ClusterStatsDto dto = service.stats(getResourceNamespace(), getResourceName());
+
+    assertEquals(collections, mockingDetails(podShellExecutor).getInvocations().size());
+    checkStatsDto(dto);
+  }
+
   @Test
   void createClusterWithInlineScript_shouldNotFail() {
     dto = getClusterInlineScripts();
@@ -381,6 +525,55 @@ class ClusterResourceTest
     return entry;
   }
 
+  private OutboundSseEvent.Builder mockEventBuilder() {
+    OutboundSseEvent.Builder eventBuilder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+    OutboundSseEvent event = mock(OutboundSseEvent.class);
+    when(sse.newEventBuilder()).thenReturn(eventBuilder);
+    when(eventBuilder.build()).thenReturn(event);
+    when(eventSink.send(event)).thenReturn(CompletableFuture.completedFuture(null));
+    return eventBuilder;
+  }
+
+  /**
+   * Return a client of a mock server with the pods, secrets, configmaps and services of the
+   * cluster.
+   */
+  private KubernetesClient watchClient(StackGresCluster cluster) {
+    server = new KubernetesServer(true, true);
+    server.before();
+    final String namespace = cluster.getMetadata().getNamespace();
+    final KubernetesClient client = server.getClient();
+    client.secrets().inNamespace(namespace).create(new SecretBuilder(secret)
+        .editMetadata().withNamespace(namespace).endMetadata()
+        .build());
+    client.configMaps().inNamespace(namespace).create(new ConfigMapBuilder(configMap)
+        .editMetadata().withNamespace(namespace).endMetadata()
+        .build());
+    Seq.of(servicePrimary, serviceReplicas)
+        .map(clusterService -> new ServiceBuilder(clusterService)
+            .editMetadata()
+            .withNamespace(namespace)
+            .withName(clusterService.getMetadata().getName()
+                .replace(getResourceName(), cluster.getMetadata().getName()))
+            .endMetadata()
+            .build())
+        .forEach(clusterService -> client.services().inNamespace(namespace)
+            .create(clusterService));
+    podList.getItems().stream()
+        .map(pod -> new PodBuilder(pod)
+            .editMetadata()
+            .withNamespace(namespace)
+            .addToLabels(new ClusterLabelFactory(new ClusterLabelMapper())
+                .patroniClusterLabels(cluster))
+            .endMetadata()
+            .build())
+        .forEach(pod -> {
+          client.pods().inNamespace(namespace).create(pod);
+          client.pods().inNamespace(namespace).updateStatus(pod);
+        });
+    return client;
+  }
+
   private void clusterMocks() {
     when(configContext.get(WebApiProperty.GRAFANA_EMBEDDED))
         .thenReturn(Optional.of("true"));
@@ -394,6 +587,8 @@ class ClusterResourceTest
         .thenReturn(Optional.of(secret));
     when(configMapFinder.findByNameAndNamespace(anyString(), anyString()))
         .thenReturn(Optional.of(configMap));
+    when(serviceScanner.findResourcesInNamespace(getResourceNamespace()))
+        .thenReturn(List.of(servicePrimary, serviceReplicas));
     when(podFinder.findResourcesWithLabels(any())).thenReturn(podList.getItems());
     when(podFinder.findByLabelsAndNamespace(anyString(), any()))
         .thenReturn(podList.getItems());
@@ -408,7 +603,7 @@ class ClusterResourceTest
   }
 
   private void mockPodExecutor() {
-    when(podExecutor.exec(any(), anyString(), any())).thenReturn(ImmutableList.of(
+    when(podShellExecutor.exec(any(), anyString(), anyString())).thenReturn(ImmutableList.of(
         "cpuFound:4",
         "cpuQuota:50000",
         "cpuPeriod:100000",
@@ -478,13 +673,14 @@ class ClusterResourceTest
     dtoScanner.setPodFinder(podFinder);
     dtoScanner.setClusterTransformer(clusterTransformer);
     dtoScanner.setLabelFactory(labelFactory);
+    dtoScanner.setClientFactory(clientFactory);
 
     final ClusterStatsTransformer clusterStatsTransformer = new ClusterStatsTransformer(
         new ClusterPodTransformer());
     final ClusterStatsDtoFinder statsDtoFinder = new ClusterStatsDtoFinder();
     statsDtoFinder.setClusterFinder(finder);
     statsDtoFinder.setPodFinder(podFinder);
-    statsDtoFinder.setPodExecutor(podExecutor);
+    statsDtoFinder.setPodShellExecutor(podShellExecutor);
     statsDtoFinder.setPersistentVolumeClaimFinder(persistentVolumeClaimFinder);
     statsDtoFinder.setClusterLabelFactory(labelFactory);
     statsDtoFinder.setClusterStatsTransformer(clusterStatsTransformer);
@@ -495,7 +691,9 @@ class ClusterResourceTest
         dtoFinder,
         statsDtoFinder,
         distributedLogsFetcher, secretTransactionHandler, configMapTransactionHandler,
-        secretFinder, configMapFinder, serviceFinder);
+        secretFinder, configMapFinder, serviceFinder,
+        serviceScanner, clusterTransformer, labelFactory, managedExecutor,
+        new ObjectMapper(), clientFactory);
   }
 
   @Override
@@ -2186,4 +2384,72 @@ class ClusterResourceTest
     assertIterableEquals(logList, logs);
   }
 
+  @Test
+  void exportLogsAsNdjsonShouldWriteOneEntryPerLine() throws Exception {
+    clusterMocks();
+    when(finder.findByNameAndNamespace(getResourceName(), getResourceNamespace()))
+        .thenReturn(Optional.of(customResources.getItems().get(0)));
+    doAnswer(invocation -> {
+      DistributedLogsQueryParameters parameters = invocation.getArgument(0);
+      assertEquals(1000, parameters.getRecords());
+      assertTrue(parameters.isSortAsc());
+      LogEntryConsumer consumer = invocation.getArgument(1);
+      consumer.accept(exportLogEntry(0, "first"));
+      consumer.accept(exportLogEntry(1, "second"));
+      return null;
+    }).when(distributedLogsFetcher).export(any(), any());
+
+    Response response = service.exportLogs(getResourceNamespace(), getResourceName(), null,
+        null, null, "asc", null, null, null, null, null, null, null, null);
+
+    assertEquals("application/x-ndjson", response.getMediaType().toString());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(output);
+    assertEquals(
+        "{\"logTime\":\"2021-01-01T00:00:00Z\",\"logTimeIndex\":0,\"message\":\"first\"}\n"
+        + "{\"logTime\":\"2021-01-01T00:00:00Z\",\"logTimeIndex\":1,\"message\":\"second\"}\n",
+        output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void exportLogsAsCsvShouldQuoteValues() throws Exception {
+    clusterMocks();
+    when(finder.findByNameAndNamespace(getResourceName(), getResourceNamespace()))
+        .thenReturn(Optional.of(customResources.getItems().get(0)));
+    doAnswer(invocation -> {
+      LogEntryConsumer consumer = invocation.getArgument(1);
+      consumer.accept(exportLogEntry(0, "say \"hello\", world"));
+      return null;
+    }).when(distributedLogsFetcher).export(any(), any());
+
+    Response response = service.exportLogs(getResourceNamespace(), getResourceName(), "csv",
+        null, null, null, null, null, null, null, null, null, null, null);
+
+    assertEquals("text/csv", response.getMediaType().toString());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(output);
+    List<String> lines = List.of(output.toString(StandardCharsets.UTF_8).split("\r\n"));
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).startsWith("logTime,logTimeIndex,logType,podName,"));
+    assertTrue(lines.get(1).startsWith(
+        "2021-01-01T00:00:00Z,0,,,,,\"say \"\"hello\"\", world\","));
+  }
+
+  @Test
+  void exportLogsWithUnknownFormatShouldFail() {
+    clusterMocks();
+
+    assertThrows(BadRequestException.class,
+        () -> service.exportLogs(getResourceNamespace(), getResourceName(), "xml",
+            null, null, null, null, null, null, null, null, null, null, null));
+  }
+
+  private ClusterLogEntryDto exportLogEntry(int logTimeIndex, String message) {
+    ClusterLogEntryDto entry = new ClusterLogEntryDto();
+    entry.setLogTime("2021-01-01T00:00:00Z");
+    entry.setLogTimeIndex(logTimeIndex);
+    entry.setMessage(message);
+    return entry;
+  }
+
 }
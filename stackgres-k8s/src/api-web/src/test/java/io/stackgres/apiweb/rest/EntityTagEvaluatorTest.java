@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EntityTagEvaluatorTest {
+
+  @Mock
+  private Request request;
+
+  private EntityTagEvaluator entityTagEvaluator;
+
+  @BeforeEach
+  void setUp() {
+    entityTagEvaluator = new EntityTagEvaluator();
+  }
+
+  @Test
+  void entityTag_shouldNotDependOnTheResourcesOrder() {
+    assertEquals(
+        EntityTagEvaluator.entityTag(List.of(backup("a", "1"), backup("b", "2"))),
+        EntityTagEvaluator.entityTag(List.of(backup("b", "2"), backup("a", "1"))));
+  }
+
+  @Test
+  void entityTag_shouldChangeWhenAResourceChanges() {
+    EntityTag entityTag = EntityTagEvaluator.entityTag(List.of(backup("a", "1")));
+
+    assertTrue(entityTag.isWeak());
+    assertNotEquals(entityTag, EntityTagEvaluator.entityTag(List.of(backup("a", "2"))));
+    assertNotEquals(entityTag, EntityTagEvaluator.entityTag(List.of()));
+    assertNotEquals(entityTag, EntityTagEvaluator.entityTag(
+        List.of(backup("a", "1"), backup("b", "1"))));
+  }
+
+  @Test
+  void unchangedResources_shouldBeAnsweredWithNotModified() {
+    List<StackGresBackup> backups = List.of(backup("a", "1"));
+    EntityTag entityTag = EntityTagEvaluator.entityTag(backups);
+    when(request.evaluatePreconditions(entityTag))
+        .thenReturn(Response.notModified(entityTag));
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> entityTagEvaluator.evaluate(request, backups));
+
+    assertEquals(Status.NOT_MODIFIED.getStatusCode(), ex.getResponse().getStatus());
+    assertEquals(entityTag, ex.getResponse().getEntityTag());
+  }
+
+  @Test
+  void changedResources_shouldKeepTheEntityTagForTheResponse() {
+    List<StackGresBackup> backups = List.of(backup("a", "1"));
+
+    entityTagEvaluator.evaluate(request, backups);
+
+    assertEquals(EntityTagEvaluator.entityTag(backups),
+        entityTagEvaluator.getEntityTag().orElseThrow());
+  }
+
+  private StackGresBackup backup(String name, String resourceVersion) {
+    StackGresBackup backup = new StackGresBackup();
+    backup.setMetadata(new ObjectMetaBuilder()
+        .withNamespace("test")
+        .withName(name)
+        .withUid(name)
+        .withResourceVersion(resourceVersion)
+        .build());
+    return backup;
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.stackgres.apiweb.dto.backup.BackupDto;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.resource.ResyncWatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceEventStreamTest {
+
+  @Mock
+  private SseEventSink eventSink;
+
+  @Mock
+  private Sse sse;
+
+  @Mock
+  private Watch watch;
+
+  private OutboundSseEvent.Builder eventBuilder;
+
+  private ResourceEventStream<BackupDto, StackGresBackup> eventStream;
+
+  private Watcher<StackGresBackup> watcher;
+
+  @BeforeEach
+  void setUp() {
+    eventStream = new ResourceEventStream<>(eventSink, sse, backup -> {
+      BackupDto dto = new BackupDto();
+      dto.getMetadata().setName(backup.getMetadata().getName());
+      return dto;
+    });
+    eventStream.start(watcher -> {
+      this.watcher = watcher;
+      return watch;
+    });
+  }
+
+  @Test
+  void receivedEvent_shouldBeSentWithTheResourceVersionAsId() {
+    eventBuilder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+    OutboundSseEvent event = mock(OutboundSseEvent.class);
+    when(sse.newEventBuilder()).thenReturn(eventBuilder);
+    when(eventBuilder.build()).thenReturn(event);
+    when(eventSink.send(event)).thenReturn(CompletableFuture.completedFuture(null));
+
+    watcher.eventReceived(Action.MODIFIED, backup());
+
+    verify(eventBuilder).id("10");
+    verify(eventBuilder).name("MODIFIED");
+    verify(eventBuilder).data(any(BackupDto.class));
+    verify(eventSink).send(event);
+    verify(watch, never()).close();
+  }
+
+  @Test
+  void resync_shouldSendAnEventWithAnEmptyIdToResetTheLastEventId() {
+    eventBuilder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+    OutboundSseEvent event = mock(OutboundSseEvent.class);
+    when(sse.newEventBuilder()).thenReturn(eventBuilder);
+    when(eventBuilder.build()).thenReturn(event);
+    when(eventSink.send(event)).thenReturn(CompletableFuture.completedFuture(null));
+
+    ((ResyncWatcher<StackGresBackup>) watcher).onResync();
+
+    verify(eventBuilder).id("");
+    verify(eventBuilder).name(ResourceEventStream.RESYNC_EVENT);
+    verify(eventSink).send(event);
+    verify(watch, never()).close();
+  }
+
+  @Test
+  void closedEventSink_shouldCloseTheWatch() {
+    when(eventSink.isClosed()).thenReturn(true);
+
+    watcher.eventReceived(Action.ADDED, backup());
+
+    verify(eventSink, never()).send(any());
+    verify(watch).close();
+  }
+
+  @Test
+  void failedSend_shouldCloseTheWatchAndTheEventSink() {
+    eventBuilder = mock(OutboundSseEvent.Builder.class, RETURNS_SELF);
+    when(sse.newEventBuilder()).thenReturn(eventBuilder);
+    when(eventSink.send(any())).thenReturn(
+        CompletableFuture.failedFuture(new IllegalStateException("closed")));
+
+    watcher.eventReceived(Action.DELETED, backup());
+
+    verify(watch).close();
+    verify(eventSink).close();
+  }
+
+  @Test
+  void closedWatch_shouldCloseTheEventSink() {
+    watcher.onClose(new WatcherException("gone"));
+
+    verify(eventSink).close();
+    verifyNoInteractions(sse);
+  }
+
+  private StackGresBackup backup() {
+    StackGresBackup backup = new StackGresBackup();
+    backup.setMetadata(new ObjectMetaBuilder()
+        .withNamespace("test")
+        .withName("backup")
+        .withResourceVersion("10")
+        .build());
+    return backup;
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2020 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.authorization.v1.ResourceRuleBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReview;
+import io.fabric8.kubernetes.api.model.authorization.v1.SelfSubjectRulesReviewBuilder;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReview;
+import io.fabric8.kubernetes.api.model.authorization.v1.SubjectAccessReviewBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.stackgres.apiweb.dto.PermissionsListDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PermissionsEvaluatorTest {
+
+  private final AtomicInteger userClients = new AtomicInteger(0);
+
+  private KubernetesClient serviceAccountClient;
+  private KubernetesClient userClient;
+  private PermissionsEvaluator permissionsEvaluator;
+
+  @BeforeEach
+  void setUp() {
+    serviceAccountClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
+    userClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
+    when(serviceAccountClient.authorization().v1().subjectAccessReview()
+        .create(any(SubjectAccessReview.class)))
+        .then(invocation -> {
+          SubjectAccessReview review = invocation.getArgument(0);
+          return new SubjectAccessReviewBuilder(review)
+              .withNewStatus()
+              .withAllowed("get".equals(review.getSpec().getResourceAttributes().getVerb()))
+              .endStatus()
+              .build();
+        });
+    permissionsEvaluator = new PermissionsEvaluator(() -> serviceAccountClient, user -> {
+      userClients.incrementAndGet();
+      return userClient;
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    permissionsEvaluator.close();
+  }
+
+  @Test
+  void completeRules_shouldNotRequireAccessReviews() {
+    when(userClient.authorization().v1().selfSubjectRulesReview()
+        .create(any(SelfSubjectRulesReview.class)))
+        .thenReturn(rulesReview(false));
+
+    PermissionsListDto permissions = permissionsEvaluator.permissions("user",
+        List.of("ns1", "ns2"));
+
+    assertEquals(2, permissions.getNamespaced().size());
+    assertEquals("ns1", permissions.getNamespaced().get(0).getNamespace());
+    assertEquals("ns2", permissions.getNamespaced().get(1).getNamespace());
+    assertEquals(List.of("get", "list"),
+        permissions.getNamespaced().get(0).getResources().get("pods"));
+    assertEquals(List.of("get", "list", "create", "patch", "delete"),
+        permissions.getNamespaced().get(0).getResources().get("sgclusters"));
+    assertEquals(List.of(),
+        permissions.getNamespaced().get(0).getResources().get("secrets"));
+    assertEquals(List.of("get"), permissions.getUnnamespaced().get("namespaces"));
+    assertEquals(List.of("get"), permissions.getUnnamespaced().get("storageclasses"));
+    verify(serviceAccountClient.authorization().v1().subjectAccessReview(), times(10))
+        .create(any(SubjectAccessReview.class));
+  }
+
+  @Test
+  void incompleteRules_shouldFallbackToAccessReviewsForVerbsNotAllowed() {
+    when(userClient.authorization().v1().selfSubjectRulesReview()
+        .create(any(SelfSubjectRulesReview.class)))
+        .thenReturn(rulesReview(true));
+
+    PermissionsListDto permissions = permissionsEvaluator.permissions("user", List.of("ns1"));
+
+    assertEquals(List.of("get", "list"),
+        permissions.getNamespaced().get(0).getResources().get("pods"));
+    assertEquals(List.of("get"),
+        permissions.getNamespaced().get(0).getResources().get("secrets"));
+  }
+
+  @Test
+  void failedRulesReview_shouldFallbackToAccessReviews() {
+    when(userClient.authorization().v1().selfSubjectRulesReview()
+        .create(any(SelfSubjectRulesReview.class)))
+        .thenThrow(new KubernetesClientException("Forbidden", 403, null));
+
+    PermissionsListDto permissions = permissionsEvaluator.permissions("user", List.of("ns1"));
+
+    assertEquals(List.of("get"),
+        permissions.getNamespaced().get(0).getResources().get("sgclusters"));
+  }
+
+  @Test
+  void permissions_shouldBeCachedPerUser() {
+    when(userClient.authorization().v1().selfSubjectRulesReview()
+        .create(any(SelfSubjectRulesReview.class)))
+        .thenReturn(rulesReview(false));
+
+    PermissionsListDto permissions = permissionsEvaluator.permissions("user", List.of("ns1"));
+    assertSame(permissions, permissionsEvaluator.permissions("user", List.of("ns1")));
+    assertEquals(1, userClients.get());
+
+    permissionsEvaluator.permissions("other", List.of("ns1"));
+    assertEquals(2, userClients.get());
+  }
+
+  @Test
+  void review_shouldBeCached() {
+    permissionsEvaluator.review("user", "ns1", "stackgres.io", "sgclusters", "get");
+    permissionsEvaluator.review("user", "ns1", "stackgres.io", "sgclusters", "get");
+
+    verify(serviceAccountClient.authorization().v1().subjectAccessReview(), times(1))
+        .create(any(SubjectAccessReview.class));
+    verify(userClient, never()).authorization();
+  }
+
+  private SelfSubjectRulesReview rulesReview(boolean incomplete) {
+    return new SelfSubjectRulesReviewBuilder()
+        .withNewStatus()
+        .withIncomplete(incomplete)
+        .withResourceRules(
+            new ResourceRuleBuilder()
+                .withApiGroups("")
+                .withResources("pods")
+                .withVerbs("get", "list")
+                .build(),
+            new ResourceRuleBuilder()
+                .withApiGroups("stackgres.io")
+                .withResources("*")
+                .withVerbs("*")
+                .build(),
+            new ResourceRuleBuilder()
+                .withApiGroups("")
+                .withResources("secrets")
+                .withResourceNames("some-secret")
+                .withVerbs("*")
+                .build())
+        .endStatus()
+        .build();
+  }
+
+}
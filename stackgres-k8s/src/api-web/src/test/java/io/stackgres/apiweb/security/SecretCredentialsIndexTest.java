@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.apiweb.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.collect.ImmutableMap;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.stackgres.apiweb.security.SecretCredentialsIndex.UserCredentials;
+import io.stackgres.common.StackGresContext;
+import io.stackgres.common.resource.ResourceUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SecretCredentialsIndexTest {
+
+  private SecretCredentialsIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new SecretCredentialsIndex();
+  }
+
+  @Test
+  void addedSecret_shouldBeFoundByK8sUsername() {
+    index.onAdd(userSecret("test", "test", null, "testtest"));
+
+    assertEquals(1, index.find("test").size());
+    UserCredentials credentials = index.find("test").get(0);
+    assertEquals("test", credentials.getK8sUsername());
+    assertArrayEquals(TokenUtils.sha256("testtest").getBytes(StandardCharsets.UTF_8),
+        credentials.getPasswordHash());
+  }
+
+  @Test
+  void addedSecretWithApiUsername_shouldBeFoundByApiUsername() {
+    index.onAdd(userSecret("test", "test2", "test", "testtest"));
+
+    assertEquals("test2", index.find("test").get(0).getK8sUsername());
+    assertTrue(index.find("test2").isEmpty());
+  }
+
+  @Test
+  void updatedSecret_shouldReplaceTheIndexedCredentials() {
+    Secret secret = userSecret("test", "test", null, "testtest");
+    index.onAdd(secret);
+    Secret updatedSecret = userSecret("test", "test", "other", "othertest");
+    index.onUpdate(secret, updatedSecret);
+
+    assertTrue(index.find("test").isEmpty());
+    assertEquals(1, index.find("other").size());
+    assertArrayEquals(TokenUtils.sha256("othertest").getBytes(StandardCharsets.UTF_8),
+        index.find("other").get(0).getPasswordHash());
+  }
+
+  @Test
+  void deletedSecret_shouldBeRemoved() {
+    Secret secret = userSecret("test", "test", null, "testtest");
+    index.onAdd(secret);
+    index.onAdd(userSecret("test-2", "test", null, "testtest2"));
+    index.onDelete(secret, false);
+
+    assertEquals(1, index.find("test").size());
+    assertEquals("test-2", index.find("test").get(0).getSecretName());
+  }
+
+  @Test
+  void secretWithoutUserLabel_shouldNotBeIndexed() {
+    index.onAdd(new SecretBuilder(userSecret("test", "test", null, "testtest"))
+        .editMetadata()
+        .withLabels(ImmutableMap.of(StackGresContext.AUTH_KEY, "wrong"))
+        .endMetadata()
+        .build());
+
+    assertTrue(index.find("test").isEmpty());
+  }
+
+  @Test
+  void secretWithoutPassword_shouldNotBeIndexed() {
+    index.onAdd(new SecretBuilder(userSecret("test", "test", null, "testtest"))
+        .withData(ImmutableMap.of(
+            StackGresContext.REST_K8SUSER_KEY, ResourceUtil.encodeSecret("test")))
+        .build());
+
+    assertTrue(index.find("test").isEmpty());
+  }
+
+  private Secret userSecret(String name, String k8sUsername, String apiUsername,
+      String usernameAndPassword) {
+    ImmutableMap.Builder<String, String> data = ImmutableMap.<String, String>builder()
+        .put(StackGresContext.REST_K8SUSER_KEY, ResourceUtil.encodeSecret(k8sUsername))
+        .put(StackGresContext.REST_PASSWORD_KEY,
+            ResourceUtil.encodeSecret(TokenUtils.sha256(usernameAndPassword)));
+    if (apiUsername != null) {
+      data.put(StackGresContext.REST_APIUSER_KEY, ResourceUtil.encodeSecret(apiUsername));
+    }
+    return new SecretBuilder()
+        .withNewMetadata()
+        .withNamespace("stackgres")
+        .withName(name)
+        .withLabels(ImmutableMap.of(StackGresContext.AUTH_KEY, StackGresContext.AUTH_USER_VALUE))
+        .endMetadata()
+        .withData(data.build())
+        .build();
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks accepting the JMH command line options. Results are written in JSON format
+ * by default and the GC profiler is always enabled so that the allocation rate is reported
+ * together with the throughput.
+ *
+ * <p>Run all of them with:
+ * <pre>
+ * mvn -pl benchmarks -am process-classes -P run-benchmarks
+ * </pre>
+ *
+ * <p>Use {@code -Dbenchmarks.include=<regex>} to select the benchmarks to run and
+ * {@code -Dbenchmarks.result=<file>} to change the result file, {@code target/jmh-result.json}
+ * by default.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    new Runner(new OptionsBuilder()
+        .parent(commandLineOptions)
+        .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.util.Nonbinding;
+import javax.enterprise.util.TypeLiteral;
+
+import org.jooq.lambda.Unchecked;
+
+/**
+ * An {@link Instance} backed by a list of beans, used to wire the discoverers and pipelines that
+ * are looked up through CDI without starting the application. Qualifiers are matched against the
+ * annotations of the bean classes ignoring {@link Nonbinding} members.
+ */
+public class ListInstance<T> implements Instance<T> {
+
+  private final List<T> beans;
+
+  public ListInstance(List<T> beans) {
+    this.beans = List.copyOf(beans);
+  }
+
+  @SafeVarargs
+  public static <T> ListInstance<T> of(T... beans) {
+    List<T> beanList = new ArrayList<>(beans.length);
+    for (T bean : beans) {
+      beanList.add(bean);
+    }
+    return new ListInstance<>(beanList);
+  }
+
+  @Override
+  public Instance<T> select(Annotation... qualifiers) {
+    return new ListInstance<>(beans.stream()
+        .filter(bean -> Arrays.stream(qualifiers)
+            .allMatch(qualifier -> isQualifiedBy(bean, qualifier)))
+        .collect(Collectors.toUnmodifiableList()));
+  }
+
+  @Override
+  public <U extends T> Instance<U> select(Class<U> subtype, Annotation... qualifiers) {
+    return new ListInstance<>(beans.stream()
+        .filter(subtype::isInstance)
+        .map(subtype::cast)
+        .filter(bean -> Arrays.stream(qualifiers)
+            .allMatch(qualifier -> isQualifiedBy(bean, qualifier)))
+        .collect(Collectors.toUnmodifiableList()));
+  }
+
+  /**
+   * Select the beans that are instances of the raw type of the specified type literal. The type
+   * arguments are erased at runtime, so they can not be matched against the beans.
+   */
+  @Override
+  public <U extends T> Instance<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+    return select(subtype.getRawType(), qualifiers);
+  }
+
+  @Override
+  public boolean isUnsatisfied() {
+    return beans.isEmpty();
+  }
+
+  @Override
+  public boolean isAmbiguous() {
+    return beans.size() > 1;
+  }
+
+  @Override
+  public void destroy(T instance) {
+    // beans are not managed
+  }
+
+  @Override
+  public T get() {
+    if (beans.size() != 1) {
+      throw new IllegalStateException("Expected exactly one bean but found " + beans.size());
+    }
+    return beans.get(0);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return beans.iterator();
+  }
+
+  private static boolean isQualifiedBy(Object bean, Annotation qualifier) {
+    Annotation annotation = bean.getClass().getAnnotation(qualifier.annotationType());
+    if (annotation == null) {
+      return false;
+    }
+    for (Method member : qualifier.annotationType().getDeclaredMethods()) {
+      if (member.isAnnotationPresent(Nonbinding.class)) {
+        continue;
+      }
+      if (!Objects.deepEquals(Unchecked.function(member::invoke).apply(annotation),
+          Unchecked.function(member::invoke).apply(qualifier))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.apiweb;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.stackgres.apiweb.distributedlogs.DistributedLogsQueryGenerator;
+import io.stackgres.apiweb.distributedlogs.DistributedLogsQueryParameters;
+import io.stackgres.apiweb.distributedlogs.FullTextSearchQuery;
+import io.stackgres.apiweb.distributedlogs.ImmutableDistributedLogsQueryParameters;
+import io.stackgres.apiweb.dto.cluster.ClusterDto;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DefaultDSLContext;
+import org.jooq.lambda.tuple.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link DistributedLogsQueryGenerator#generateQuery} building and rendering the query
+ * of a page of logs, with and without filters and full text search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistributedLogsQueryGeneratorBenchmark {
+
+  @Param({"simple", "filtered"})
+  String query;
+
+  private final DSLContext context = new DefaultDSLContext(SQLDialect.POSTGRES);
+
+  private DistributedLogsQueryParameters parameters;
+
+  @Setup
+  public void setup() {
+    ImmutableDistributedLogsQueryParameters.Builder builder =
+        ImmutableDistributedLogsQueryParameters.builder()
+            .cluster(new ClusterDto())
+            .records(50)
+            .isSortAsc(false)
+            .isFromInclusive(false);
+    if ("filtered".equals(query)) {
+      builder
+          .fromTimeAndIndex(Tuple.tuple(Instant.EPOCH, 0))
+          .toTimeAndIndex(Tuple.tuple(Instant.now(), 0))
+          .filters(ImmutableMap.of(
+              "logType", ImmutableList.of("pg"),
+              "role", ImmutableList.of("Primary", "Replica"),
+              "errorLevel", ImmutableList.of("ERROR")))
+          .fullTextSearchQuery(new FullTextSearchQuery("connection"));
+    }
+    parameters = builder.build();
+  }
+
+  @Benchmark
+  public String generateQuery() {
+    return new DistributedLogsQueryGenerator(context, parameters).generateQuery().getSQL();
+  }
+
+}
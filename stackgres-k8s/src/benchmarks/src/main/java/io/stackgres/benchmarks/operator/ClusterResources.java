@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.benchmarks.ListInstance;
+import io.stackgres.common.ClusterLabelFactory;
+import io.stackgres.common.ClusterLabelMapper;
+import io.stackgres.common.LabelFactory;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import io.stackgres.operator.conciliation.cluster.ClusterRequiredResourcesGenerator;
+import io.stackgres.operator.conciliation.cluster.ResourceGenerationDiscovererImpl;
+import io.stackgres.operator.conciliation.factory.cluster.ClusterAnnotationDecorator;
+import io.stackgres.operator.conciliation.factory.cluster.DecoratorDiscovererImpl;
+import io.stackgres.operator.conciliation.factory.cluster.OwnerReferenceDecoratorImpl;
+import io.stackgres.operator.conciliation.factory.cluster.dbops.DbOpsRole;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniConfigEndpoints;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniEndpoint;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniFailover;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniRoleGenerator;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniSecret;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniServices;
+import io.stackgres.operator.conciliation.factory.cluster.patroni.PatroniSync;
+import io.stackgres.operator.conciliation.factory.cluster.sidecars.envoy.PrometheusIntegration;
+import io.stackgres.operator.configuration.OperatorPropertyContext;
+import io.stackgres.testutil.JsonUtil;
+
+/**
+ * The {@code test-util} fixtures of a cluster and a {@link ClusterRequiredResourcesGenerator}
+ * wired by hand to read them.
+ *
+ * <p>The generators whose dependencies are only provided by the CDI container (the
+ * StatefulSet, backup and database operation Jobs and CronJobs) are not included.
+ */
+public class ClusterResources {
+
+  private final LabelFactory<StackGresCluster> labelFactory =
+      new ClusterLabelFactory(new ClusterLabelMapper());
+
+  private final StackGresCluster cluster =
+      JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+
+  private final StackGresPostgresConfig postgresConfig =
+      JsonUtil.readFromJson("postgres_config/default_postgres.json",
+          StackGresPostgresConfig.class);
+
+  private final StackGresPoolingConfig poolingConfig =
+      JsonUtil.readFromJson("pooling_config/default.json", StackGresPoolingConfig.class);
+
+  private final StackGresBackupConfig backupConfig =
+      JsonUtil.readFromJson("backup_config/default.json", StackGresBackupConfig.class);
+
+  private final StackGresProfile profile =
+      JsonUtil.readFromJson("stackgres_profiles/size-s.json", StackGresProfile.class);
+
+  private final ClusterRequiredResourcesGenerator generator;
+
+  public ClusterResources() {
+    final String namespace = cluster.getMetadata().getNamespace();
+    // the restore backup is not among the fixtures
+    cluster.getSpec().setInitData(null);
+    List.of(postgresConfig, poolingConfig, backupConfig, profile)
+        .forEach(resource -> resource.getMetadata().setNamespace(namespace));
+    this.generator = new ClusterRequiredResourcesGenerator(
+        new ResourceGenerationDiscovererImpl(ListInstance.of(
+            patroniSecret(),
+            patroniRoleGenerator(),
+            new PatroniSync(labelFactory),
+            new PatroniEndpoint(labelFactory),
+            new PatroniConfigEndpoints(new JsonMapper(), labelFactory),
+            patroniServices(),
+            new PatroniFailover(labelFactory),
+            new PrometheusIntegration(labelFactory),
+            new io.stackgres.operator.conciliation.factory.cluster.sidecars.pgexporter
+                .PrometheusIntegration(labelFactory),
+            dbOpsRole())),
+        StaticResources.customResourceFinder(backupConfig),
+        StaticResources.customResourceFinder(postgresConfig),
+        StaticResources.customResourceFinder(poolingConfig),
+        StaticResources.customResourceFinder(profile),
+        StaticResources.scanner(List.of()),
+        StaticResources.resourceFinder(null),
+        StaticResources.scanner(List.of()),
+        new DecoratorDiscovererImpl(ListInstance.of(
+            new ClusterAnnotationDecorator(),
+            new OwnerReferenceDecoratorImpl())),
+        StaticResources.scanner(List.of()),
+        new OperatorPropertyContext());
+  }
+
+  public StackGresCluster getCluster() {
+    return cluster;
+  }
+
+  public ClusterRequiredResourcesGenerator getGenerator() {
+    return generator;
+  }
+
+  /**
+   * Generate the required resources of the specified number of copies of the cluster fixture.
+   */
+  public List<HasMetadata> getRequiredResources(int clusters) {
+    return IntStream.range(0, clusters)
+        .mapToObj(index -> {
+          StackGresCluster copy = Serialization.clone(cluster);
+          copy.getMetadata().setName(cluster.getMetadata().getName() + "-" + index);
+          copy.getMetadata().setUid(UUID.randomUUID().toString());
+          return copy;
+        })
+        .map(generator::getRequiredResources)
+        .flatMap(List::stream)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private PatroniSecret patroniSecret() {
+    PatroniSecret patroniSecret = new PatroniSecret();
+    patroniSecret.setFactoryFactory(labelFactory);
+    return patroniSecret;
+  }
+
+  private PatroniRoleGenerator patroniRoleGenerator() {
+    PatroniRoleGenerator patroniRoleGenerator = new PatroniRoleGenerator();
+    patroniRoleGenerator.setLabelFactory(labelFactory);
+    return patroniRoleGenerator;
+  }
+
+  private PatroniServices patroniServices() {
+    PatroniServices patroniServices = new PatroniServices();
+    patroniServices.setLabelFactory(labelFactory);
+    return patroniServices;
+  }
+
+  private DbOpsRole dbOpsRole() {
+    DbOpsRole dbOpsRole = new DbOpsRole();
+    dbOpsRole.setLabelFactory(labelFactory);
+    return dbOpsRole;
+  }
+
+}
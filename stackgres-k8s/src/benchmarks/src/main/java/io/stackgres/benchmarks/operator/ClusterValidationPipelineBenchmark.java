@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.storage.StorageClass;
+import io.stackgres.benchmarks.ListInstance;
+import io.stackgres.common.StackGresComponent;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.crd.sgbackup.StackGresBackupList;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresClusterInitData;
+import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import io.stackgres.operator.common.StackGresClusterReview;
+import io.stackgres.operator.validation.cluster.BackupConfigValidator;
+import io.stackgres.operator.validation.cluster.ClusterConstraintValidator;
+import io.stackgres.operator.validation.cluster.ClusterValidationPipeline;
+import io.stackgres.operator.validation.cluster.ClusterValidator;
+import io.stackgres.operator.validation.cluster.DistributedLogsValidator;
+import io.stackgres.operator.validation.cluster.PoolingConfigValidator;
+import io.stackgres.operator.validation.cluster.PostgresConfigValidator;
+import io.stackgres.operator.validation.cluster.ProfileReferenceValidator;
+import io.stackgres.operator.validation.cluster.RestoreConfigValidator;
+import io.stackgres.operator.validation.cluster.ScriptsConfigValidator;
+import io.stackgres.operator.validation.cluster.SslValidator;
+import io.stackgres.operator.validation.cluster.StorageClassValidator;
+import io.stackgres.operatorframework.admissionwebhook.validating.ValidationFailed;
+import io.stackgres.testutil.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the admission webhook validation of an {@code SGCluster} through
+ * {@link ClusterValidationPipeline} with all the cluster validators, using the {@code test-util}
+ * admission review fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterValidationPipelineBenchmark {
+
+  @Param({"valid_creation", "postgres_config_update"})
+  String review;
+
+  private ClusterValidationPipeline pipeline;
+
+  private StackGresClusterReview clusterReview;
+
+  @Setup
+  public void setup() throws ValidationFailed {
+    final StackGresPostgresConfig postgresConfig = JsonUtil.readFromJson(
+        "postgres_config/default_postgres.json", StackGresPostgresConfig.class);
+    clusterReview = JsonUtil.readFromJson("cluster_allow_requests/" + review + ".json",
+        StackGresClusterReview.class);
+    // the review fixtures reference versions that are no longer supported
+    final String postgresVersion = StackGresComponent.POSTGRESQL.findVersion(
+        postgresConfig.getSpec().getPostgresVersion());
+    clusterReview.getRequest().getObject().getSpec().setPostgresVersion(postgresVersion);
+    if (clusterReview.getRequest().getOldObject() != null) {
+      clusterReview.getRequest().getOldObject().getSpec().setPostgresVersion(postgresVersion);
+    }
+    // the restore backup of the review fixtures is not among the backup fixtures
+    final List<StackGresBackup> backups = JsonUtil.readFromJson("stackgres_backup/list.json",
+        StackGresBackupList.class).getItems();
+    Optional.ofNullable(clusterReview.getRequest().getObject().getSpec().getInitData())
+        .map(StackGresClusterInitData::getRestore)
+        .ifPresent(restore -> {
+          backups.get(0).getMetadata().setUid(restore.getFromBackup().getUid());
+          backups.get(0).getStatus().getBackupInformation()
+              .setPostgresVersion(postgresConfig.getSpec().getPostgresVersion() + "0000");
+        });
+    final Secret scriptSecret = new SecretBuilder()
+        .withData(Map.of("test", "Q1JFQVRFIERBVEFCQVNFIHRlc3Q7"))
+        .build();
+    final ClusterConstraintValidator constraintValidator = new ClusterConstraintValidator();
+    constraintValidator.setConstraintValidator(
+        Validation.buildDefaultValidatorFactory().getValidator());
+    constraintValidator.init();
+
+    pipeline = new ClusterValidationPipeline();
+    pipeline.setValidators(ListInstance.<ClusterValidator>of(
+        constraintValidator,
+        new BackupConfigValidator(StaticResources.customResourceFinder(
+            JsonUtil.readFromJson("backup_config/default.json",
+                StackGresBackupConfig.class))),
+        new DistributedLogsValidator(StaticResources.customResourceFinder(
+            JsonUtil.readFromJson("distributedlogs/default.json",
+                StackGresDistributedLogs.class))),
+        new PoolingConfigValidator(StaticResources.customResourceFinder(
+            JsonUtil.readFromJson("pooling_config/default.json",
+                StackGresPoolingConfig.class))),
+        new PostgresConfigValidator(StaticResources.customResourceFinder(postgresConfig)),
+        new ProfileReferenceValidator(StaticResources.customResourceFinder(
+            JsonUtil.readFromJson("stackgres_profiles/size-xs.json",
+                StackGresProfile.class))),
+        new RestoreConfigValidator(StaticResources.scanner(backups)),
+        new ScriptsConfigValidator(StaticResources.resourceFinder(scriptSecret),
+            StaticResources.<ConfigMap>resourceFinder(null)),
+        new SslValidator(StaticResources.<Secret>resourceFinder(null)),
+        new StorageClassValidator(StaticResources.resourceFinder(
+            JsonUtil.readFromJson("storage_class/standard.json", StorageClass.class)))));
+
+    // fail fast if the fixtures are not accepted
+    pipeline.validate(clusterReview);
+  }
+
+  @Benchmark
+  public StackGresClusterReview validate() throws ValidationFailed {
+    pipeline.validate(clusterReview);
+    return clusterReview;
+  }
+
+}
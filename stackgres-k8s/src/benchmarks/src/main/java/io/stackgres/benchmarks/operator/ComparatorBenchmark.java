@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1beta1.CronJob;
+import io.stackgres.operator.conciliation.cluster.ClusterCronJobComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterEndpointComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterJobComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterServiceComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterStatefulSetComparator;
+import io.stackgres.operator.conciliation.comparator.StackGresAbstractComparator;
+import io.stackgres.testutil.JsonUtil;
+import org.jboss.logmanager.LogContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link StackGresAbstractComparator#isResourceContentEqual} for each of the cluster
+ * comparators, both when the differences between the required and the deployed resource are
+ * ignored and when the required resource changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComparatorBenchmark {
+
+  @Param({"statefulset", "services", "endpoints", "jobs", "cronjobs"})
+  String kind;
+
+  @Param({"equal", "changed"})
+  String scenario;
+
+  private StackGresAbstractComparator comparator;
+
+  private HasMetadata required;
+  private HasMetadata deployed;
+
+  @Setup
+  public void setup() {
+    // differences are computed and logged when debug is enabled
+    LogContext.getLogContext().getLogger("io.stackgres").setLevel(Level.INFO);
+    switch (kind) {
+      case "statefulset":
+        setup(new ClusterStatefulSetComparator(), StatefulSet.class);
+        break;
+      case "services":
+        setup(new ClusterServiceComparator(), Service.class);
+        break;
+      case "endpoints":
+        setup(new ClusterEndpointComparator(), Endpoints.class);
+        break;
+      case "jobs":
+        setup(new ClusterJobComparator(), Job.class);
+        break;
+      case "cronjobs":
+        setup(new ClusterCronJobComparator(), CronJob.class);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown kind " + kind);
+    }
+    if ("changed".equals(scenario)) {
+      required.getMetadata().setLabels(Map.of("changed", "true"));
+    }
+  }
+
+  private void setup(StackGresAbstractComparator comparator,
+      Class<? extends HasMetadata> resourceClass) {
+    this.comparator = comparator;
+    this.required = JsonUtil.readFromJson(kind + "/required.json", resourceClass);
+    this.deployed = JsonUtil.readFromJson(kind + "/deployed.json", resourceClass);
+  }
+
+  @Benchmark
+  public boolean isResourceContentEqual() {
+    return comparator.isResourceContentEqual(required, deployed);
+  }
+
+}
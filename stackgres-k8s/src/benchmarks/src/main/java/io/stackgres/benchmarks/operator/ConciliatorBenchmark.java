@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.benchmarks.ListInstance;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.operator.conciliation.Conciliator;
+import io.stackgres.operator.conciliation.ReconciliationResult;
+import io.stackgres.operator.conciliation.cluster.ClusterConciliator;
+import io.stackgres.operator.conciliation.cluster.ClusterCronJobComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterDefaultComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterEndpointComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterJobComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterResourceComparisonDelegator;
+import io.stackgres.operator.conciliation.cluster.ClusterSecretComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterServiceAccountComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterServiceComparator;
+import io.stackgres.operator.conciliation.cluster.ClusterStatefulSetComparator;
+import io.stackgres.operator.conciliation.comparator.ResourceComparator;
+import org.jboss.logmanager.LogContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link Conciliator#evalReconciliationState} computing the creations, patches and
+ * deletions of the resources generated for a number of clusters, using the cluster comparators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConciliatorBenchmark {
+
+  @Param({"1", "10", "50"})
+  int clusters;
+
+  private StackGresCluster cluster;
+
+  private Conciliator<StackGresCluster> conciliator;
+
+  @Setup
+  public void setup() {
+    // differences are computed and logged when debug is enabled
+    LogContext.getLogContext().getLogger("io.stackgres").setLevel(Level.INFO);
+    ClusterResources clusterResources = new ClusterResources();
+    cluster = clusterResources.getCluster();
+    List<HasMetadata> required = clusterResources.getRequiredResources(clusters);
+    List<HasMetadata> deployed = required.stream()
+        .map(Serialization::clone)
+        .collect(Collectors.toCollection(ArrayList::new));
+    // one resource to create, one to patch and one to delete
+    deployed.remove(0);
+    deployed.get(0).getMetadata().setLabels(Map.of("changed", "true"));
+    deployed.add(Serialization.clone(required.get(1)));
+    deployed.get(deployed.size() - 1).getMetadata().setName("removed");
+    List<HasMetadata> deployedResources = List.copyOf(deployed);
+
+    conciliator = new ClusterConciliator();
+    conciliator.setRequiredResourceGenerator(config -> required);
+    conciliator.setDeployedResourcesScanner(config -> deployedResources);
+    conciliator.setResourceComparator(new ClusterResourceComparisonDelegator(
+        ListInstance.<ResourceComparator>of(
+            new ClusterCronJobComparator(),
+            new ClusterEndpointComparator(),
+            new ClusterJobComparator(),
+            new ClusterSecretComparator(),
+            new ClusterServiceAccountComparator(),
+            new ClusterServiceComparator(),
+            new ClusterStatefulSetComparator()),
+        new ClusterDefaultComparator()));
+  }
+
+  @Benchmark
+  public ReconciliationResult evalReconciliationState() {
+    return conciliator.evalReconciliationState(cluster);
+  }
+
+}
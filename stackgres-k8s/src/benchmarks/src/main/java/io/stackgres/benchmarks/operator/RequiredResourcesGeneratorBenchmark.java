@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.operator.conciliation.cluster.ClusterRequiredResourcesGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link ClusterRequiredResourcesGenerator#getRequiredResources} generating the resources
+ * of the {@code test-util} cluster fixture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequiredResourcesGeneratorBenchmark {
+
+  private ClusterRequiredResourcesGenerator generator;
+
+  private StackGresCluster cluster;
+
+  @Setup
+  public void setup() {
+    ClusterResources clusterResources = new ClusterResources();
+    generator = clusterResources.getGenerator();
+    cluster = clusterResources.getCluster();
+  }
+
+  @Benchmark
+  public List<HasMetadata> getRequiredResources() {
+    return generator.getRequiredResources(cluster);
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operator;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.stackgres.common.resource.CustomResourceFinder;
+import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.common.resource.ResourceFinder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finders and scanners that return fixed resources instead of querying the Kubernetes API
+ * server.
+ */
+public final class StaticResources {
+
+  private StaticResources() {
+  }
+
+  /**
+   * Return a finder that finds the specified resource whatever name and namespace is requested.
+   */
+  public static <T> CustomResourceFinder<T> customResourceFinder(T resource) {
+    return (name, namespace) -> Optional.ofNullable(resource);
+  }
+
+  /**
+   * Return a finder that finds the specified resource whatever name and namespace is requested.
+   */
+  public static <T> ResourceFinder<T> resourceFinder(T resource) {
+    return new ResourceFinder<>() {
+      @Override
+      public @NotNull Optional<T> findByName(@NotNull String name) {
+        return Optional.ofNullable(resource);
+      }
+
+      @Override
+      public @NotNull Optional<T> findByNameAndNamespace(@NotNull String name,
+          @NotNull String namespace) {
+        return Optional.ofNullable(resource);
+      }
+    };
+  }
+
+  /**
+   * Return a scanner that returns the specified resources for any namespace. Watching sends an
+   * event for each resource when no resource version is specified and then nothing else.
+   */
+  public static <T> CustomResourceScanner<T> scanner(List<T> resources) {
+    return new CustomResourceScanner<>() {
+      @Override
+      public @NotNull List<T> getResources() {
+        return resources;
+      }
+
+      @Override
+      public @NotNull List<T> getResources(String namespace) {
+        return resources;
+      }
+
+      @Override
+      public @NotNull Optional<List<T>> findResources() {
+        return Optional.of(resources);
+      }
+
+      @Override
+      public @NotNull Optional<List<T>> findResources(String namespace) {
+        return Optional.of(resources);
+      }
+
+      @Override
+      public @NotNull Watch watch(String namespace, String resourceVersion,
+          @NotNull Watcher<T> watcher) {
+        if (resourceVersion == null) {
+          resources.forEach(resource -> watcher.eventReceived(Watcher.Action.ADDED, resource));
+        }
+        return () -> { };
+      }
+    };
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.benchmarks.operatorframework;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.operatorframework.resource.visitor.ResourcePairVisitor;
+import io.stackgres.testutil.JsonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link ResourcePairVisitor} comparing and updating a deployed StatefulSet with the
+ * required one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcePairVisitorBenchmark {
+
+  private StatefulSet required;
+  private StatefulSet deployed;
+  private StatefulSet deployedCopy;
+
+  @Setup
+  public void setup() {
+    required = JsonUtil.readFromJson("statefulset/required.json", StatefulSet.class);
+    deployed = JsonUtil.readFromJson("statefulset/deployed.json", StatefulSet.class);
+    deployedCopy = Serialization.clone(deployed);
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    return ResourcePairVisitor.equals(deployed, deployedCopy);
+  }
+
+  @Benchmark
+  public boolean equalsDifferent() {
+    return ResourcePairVisitor.equals(required, deployed);
+  }
+
+  @Benchmark
+  public HasMetadata update() {
+    return ResourcePairVisitor.update(Serialization.clone(deployed), required);
+  }
+
+}
@@ -5,18 +5,32 @@
 
 package io.stackgres.cluster.app;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.KubernetesClientPool;
 
 @ApplicationScoped
 public class KubernetesClientProvider implements KubernetesClientFactory {
 
+  private KubernetesClientPool pool;
+
+  @PostConstruct
+  public void postConstruct() {
+    pool = new KubernetesClientPool();
+  }
+
   @Override
   public KubernetesClient create() {
-    return new DefaultKubernetesClient();
+    return pool.lease();
+  }
+
+  @PreDestroy
+  public void preDestroy() {
+    pool.close();
   }
 
 }
@@ -23,7 +23,7 @@ public class ReconciliationClockImpl extends AbstractReconciliationClock {
   }
 
   @Override
-  protected void reconcile() {
-    clusterReconciliationCycle.reconcile();
+  protected void reconcile() throws Exception {
+    clusterReconciliationCycle.reconciliationCycle().throwIfFailed();
   }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds a single HTTP client (with its connection pool, dispatcher and, when the API server
+ * supports it, HTTP/2 multiplexed connections) that is shared by all the {@code KubernetesClient}
+ * instances leased from it. Closing a leased client only releases the lease, the HTTP client is
+ * closed when the pool is closed.
+ *
+ * <p>The {@code Config} is loaded again when a client is leased after the refresh interval has
+ * elapsed so that rotated credentials are picked up. A rotated token is set in the config used by
+ * the shared HTTP client, while a change of the master URL or of the TLS certificates replaces
+ * the shared HTTP client for the clients leased from then on. The replaced HTTP client is shut
+ * down once all the clients leased from it have been closed.
+ */
+public class KubernetesClientPool implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KubernetesClientPool.class);
+
+  private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+  private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+  private static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+  private static final int DEFAULT_REQUESTS_PER_SECOND = 0;
+  private static final int DEFAULT_CONFIG_REFRESH_SECONDS = 60;
+
+  private final Supplier<Config> configSupplier;
+  private final long configRefreshNanos;
+  private final RateLimitInterceptor rateLimitInterceptor;
+  private final AtomicInteger leases = new AtomicInteger(0);
+  private volatile SharedHttpClient sharedHttpClient;
+
+  public KubernetesClientPool() {
+    this(() -> new ConfigBuilder().build());
+  }
+
+  public KubernetesClientPool(Config config) {
+    this(() -> config);
+  }
+
+  /**
+   * Create a pool that loads the {@code Config} from the specified supplier when created and then
+   * each time the refresh interval has elapsed.
+   */
+  public KubernetesClientPool(Supplier<Config> configSupplier) {
+    this(configSupplier, Duration.ofSeconds(
+        getInt(StackGresProperty.KUBERNETES_CLIENT_CONFIG_REFRESH_SECONDS,
+            DEFAULT_CONFIG_REFRESH_SECONDS)));
+  }
+
+  KubernetesClientPool(Supplier<Config> configSupplier, Duration configRefreshInterval) {
+    this.configSupplier = configSupplier;
+    this.configRefreshNanos = configRefreshInterval.toNanos();
+    int requestsPerSecond = getInt(StackGresProperty.KUBERNETES_CLIENT_REQUESTS_PER_SECOND,
+        DEFAULT_REQUESTS_PER_SECOND);
+    this.rateLimitInterceptor = requestsPerSecond > 0
+        ? new RateLimitInterceptor(requestsPerSecond) : null;
+    this.sharedHttpClient = createSharedHttpClient(loadConfig());
+  }
+
+  /**
+   * Return a client that share the HTTP client of this pool. The returned client must be closed
+   * as usual, closing it will not close the shared HTTP client.
+   */
+  public KubernetesClient lease() {
+    refreshConfigIfNeeded();
+    SharedHttpClient currentHttpClient;
+    while (true) {
+      currentHttpClient = sharedHttpClient;
+      currentHttpClient.leases.incrementAndGet();
+      if (!currentHttpClient.replaced) {
+        break;
+      }
+      currentHttpClient.release();
+    }
+    int currentLeases = leases.incrementAndGet();
+    LOGGER.trace("Kubernetes client leased, current leases {}", currentLeases);
+    return new LeasedKubernetesClient(currentHttpClient, this);
+  }
+
+  public int getLeases() {
+    return leases.get();
+  }
+
+  @Override
+  public void close() {
+    LOGGER.debug("Closing Kubernetes client pool with {} leases", leases.get());
+    sharedHttpClient.shutdown();
+  }
+
+  private void refreshConfigIfNeeded() {
+    if (System.nanoTime() - sharedHttpClient.loadedNanos < configRefreshNanos) {
+      return;
+    }
+    synchronized (this) {
+      SharedHttpClient currentHttpClient = sharedHttpClient;
+      if (System.nanoTime() - currentHttpClient.loadedNanos < configRefreshNanos) {
+        return;
+      }
+      Config config = loadConfig();
+      if (Objects.equals(currentHttpClient.connectionFingerprint,
+          connectionFingerprint(config))) {
+        if (!Objects.equals(currentHttpClient.config.getOauthToken(), config.getOauthToken())) {
+          LOGGER.debug("Kubernetes client token changed");
+          currentHttpClient.config.setOauthToken(config.getOauthToken());
+        }
+        currentHttpClient.reloaded();
+        return;
+      }
+      LOGGER.info("Kubernetes client master URL or certificates changed,"
+          + " replacing the shared HTTP client");
+      sharedHttpClient = createSharedHttpClient(config);
+      currentHttpClient.replace();
+    }
+  }
+
+  private Config loadConfig() {
+    Config config = configSupplier.get();
+    int maxConcurrentRequests = getInt(
+        StackGresProperty.KUBERNETES_CLIENT_MAX_CONCURRENT_REQUESTS,
+        DEFAULT_MAX_CONCURRENT_REQUESTS);
+    config.setMaxConcurrentRequests(maxConcurrentRequests);
+    config.setMaxConcurrentRequestsPerHost(maxConcurrentRequests);
+    return config;
+  }
+
+  private SharedHttpClient createSharedHttpClient(Config config) {
+    OkHttpClient.Builder httpClientBuilder = HttpClientUtils.createHttpClient(config)
+        .newBuilder()
+        .connectionPool(new ConnectionPool(
+            getInt(StackGresProperty.KUBERNETES_CLIENT_MAX_IDLE_CONNECTIONS,
+                DEFAULT_MAX_IDLE_CONNECTIONS),
+            getInt(StackGresProperty.KUBERNETES_CLIENT_KEEP_ALIVE_SECONDS,
+                DEFAULT_KEEP_ALIVE_SECONDS),
+            TimeUnit.SECONDS));
+    if (rateLimitInterceptor != null) {
+      httpClientBuilder.addInterceptor(rateLimitInterceptor);
+    }
+    return new SharedHttpClient(config, httpClientBuilder.build(),
+        connectionFingerprint(config), System.nanoTime());
+  }
+
+  /**
+   * Return the values of the config that are used to build the HTTP client. The content of the
+   * certificate files is included so that certificates rotated in place are detected.
+   */
+  private static String connectionFingerprint(Config config) {
+    return String.join("\n",
+        String.valueOf(config.getMasterUrl()),
+        String.valueOf(config.isTrustCerts()),
+        String.valueOf(config.getCaCertData()),
+        readFile(config.getCaCertFile()),
+        String.valueOf(config.getClientCertData()),
+        readFile(config.getClientCertFile()),
+        String.valueOf(config.getClientKeyData()),
+        readFile(config.getClientKeyFile()));
+  }
+
+  private static String readFile(String file) {
+    if (file == null) {
+      return "null";
+    }
+    try {
+      return new String(Files.readAllBytes(Path.of(file)), StandardCharsets.ISO_8859_1);
+    } catch (IOException ex) {
+      return file;
+    }
+  }
+
+  private void release(SharedHttpClient httpClient) {
+    httpClient.release();
+    int currentLeases = leases.decrementAndGet();
+    LOGGER.trace("Kubernetes client released, current leases {}", currentLeases);
+  }
+
+  private static int getInt(StackGresProperty property, int defaultValue) {
+    return property.get()
+        .map(Integer::parseInt)
+        .orElse(defaultValue);
+  }
+
+  private static class SharedHttpClient {
+
+    private final Config config;
+    private final OkHttpClient httpClient;
+    private final String connectionFingerprint;
+    private final AtomicInteger leases = new AtomicInteger(0);
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    private volatile long loadedNanos;
+    private volatile boolean replaced = false;
+
+    SharedHttpClient(Config config, OkHttpClient httpClient, String connectionFingerprint,
+        long loadedNanos) {
+      this.config = config;
+      this.httpClient = httpClient;
+      this.connectionFingerprint = connectionFingerprint;
+      this.loadedNanos = loadedNanos;
+    }
+
+    void reloaded() {
+      loadedNanos = System.nanoTime();
+    }
+
+    void replace() {
+      replaced = true;
+      if (leases.get() == 0) {
+        shutdown();
+      }
+    }
+
+    void release() {
+      if (leases.decrementAndGet() == 0 && replaced) {
+        shutdown();
+      }
+    }
+
+    void shutdown() {
+      if (shutdown.compareAndSet(false, true)) {
+        httpClient.dispatcher().cancelAll();
+        httpClient.connectionPool().evictAll();
+        httpClient.dispatcher().executorService().shutdown();
+      }
+    }
+  }
+
+  /**
+   * The unchecked warnings are raised by the raw return types of some methods that
+   * {@code DefaultKubernetesClient} implements and that this class only inherits.
+   */
+  @SuppressWarnings("unchecked")
+  private static class LeasedKubernetesClient extends DefaultKubernetesClient {
+
+    private final SharedHttpClient sharedHttpClient;
+    private final KubernetesClientPool pool;
+    private final AtomicInteger released = new AtomicInteger(0);
+
+    LeasedKubernetesClient(SharedHttpClient sharedHttpClient, KubernetesClientPool pool) {
+      super(sharedHttpClient.httpClient, sharedHttpClient.config);
+      this.sharedHttpClient = sharedHttpClient;
+      this.pool = pool;
+    }
+
+    @Override
+    public void close() {
+      if (released.getAndIncrement() == 0) {
+        pool.release(sharedHttpClient);
+      }
+    }
+  }
+
+  /**
+   * Spread the requests so that no more than the configured number of requests per second are
+   * sent to the API server.
+   */
+  private static class RateLimitInterceptor implements Interceptor {
+
+    private final long intervalNanos;
+    private long nextRequestNanos = System.nanoTime();
+
+    RateLimitInterceptor(int requestsPerSecond) {
+      this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+      long waitNanos = reserve();
+      if (waitNanos > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the rate limiter");
+        }
+      }
+      return chain.proceed(chain.request());
+    }
+
+    private synchronized long reserve() {
+      long now = System.nanoTime();
+      long requestNanos = Math.max(now, nextRequestNanos);
+      nextRequestNanos = requestNanos + intervalNanos;
+      return requestNanos - now;
+    }
+  }
+
+}
@@ -20,7 +20,12 @@ public enum OperatorProperty implements StackGresPropertyReader {
   USE_ARBITRARY_USER("stackgres.useArbitraryUser"),
   EXTENSIONS_REPOSITORY_URLS(
       "stackgres.extensionsRepositoryUrls"),
-  CONFLICT_SLEEP_SECONDS("stackgres.conflictSleepSeconds");
+  CONFLICT_SLEEP_SECONDS("stackgres.conflictSleepSeconds"),
+  RECONCILIATION_WORKERS("stackgres.reconciliationWorkers"),
+  RECONCILIATION_APPLY_CONCURRENCY("stackgres.reconciliationApplyConcurrency"),
+  RECONCILIATION_RESYNC_SECONDS("stackgres.reconciliationResyncSeconds"),
+  RECONCILIATION_MAX_RESYNC_SECONDS("stackgres.reconciliationMaxResyncSeconds"),
+  SERVER_SIDE_APPLY("stackgres.serverSideApply");
 
   private static final Properties APPLICATION_PROPERTIES =
       Unchecked.supplier(() -> StackGresPropertyReader
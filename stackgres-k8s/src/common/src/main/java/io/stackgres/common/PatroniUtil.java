@@ -5,6 +5,13 @@
 
 package io.stackgres.common;
 
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.common.patroni.PatroniStatus;
 import io.stackgres.common.resource.ResourceUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -20,6 +27,7 @@ public final class PatroniUtil {
   public static final String CONFIG_SERVICE = "-config";
   public static final int POSTGRES_SERVICE_PORT = 5432;
   public static final int REPLICATION_SERVICE_PORT = 5433;
+  public static final String STATUS_ANNOTATION = "status";
 
   public static String name(@NotNull String clusterName) {
     return ResourceUtil.resourceName(clusterName);
@@ -33,4 +41,23 @@ public final class PatroniUtil {
     return ResourceUtil.resourceName(clusterName + READ_ONLY_SERVICE);
   }
 
+  /**
+   * Parse the member status that Patroni stores in the annotations of the pod. An empty value is
+   * returned when the annotation is missing or can not be parsed.
+   */
+  public static Optional<PatroniStatus> getPatroniStatus(@NotNull Pod pod) {
+    return Optional.ofNullable(pod.getMetadata())
+        .map(ObjectMeta::getAnnotations)
+        .map(annotations -> annotations.get(STATUS_ANNOTATION))
+        .flatMap(PatroniUtil::readPatroniStatus);
+  }
+
+  private static Optional<PatroniStatus> readPatroniStatus(String status) {
+    try {
+      return Optional.of(Serialization.jsonMapper().readValue(status, PatroniStatus.class));
+    } catch (JsonProcessingException ex) {
+      return Optional.empty();
+    }
+  }
+
 }
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of JDBC connections to PostgreSQL keyed by host, database and user. Each key holds a
+ * bounded number of connections, the session of a connection is initialized once when it is
+ * opened and connections that stay idle longer than the idle timeout are closed.
+ *
+ * <p>Closing a connection obtained from the pool returns it to the pool, a connection that was
+ * left in a transaction is rolled back and a connection that is broken is discarded.
+ */
+public class PostgresConnectionPool implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PostgresConnectionPool.class);
+
+  private static final int DEFAULT_MAX_CONNECTIONS = 4;
+  private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+  private static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration VALIDATION_INTERVAL = Duration.ofSeconds(30);
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+  @FunctionalInterface
+  public interface SessionInitializer {
+    void initialize(Connection connection) throws SQLException;
+  }
+
+  @FunctionalInterface
+  interface ConnectionFactory {
+    Connection create(String url, Properties properties) throws SQLException;
+  }
+
+  private final int maxConnections;
+  private final long idleTimeoutNanos;
+  private final long connectionTimeoutNanos;
+  private final SessionInitializer sessionInitializer;
+  private final ConnectionFactory connectionFactory;
+  private final Map<String, KeyPool> pools = new ConcurrentHashMap<>();
+  private final AtomicLong createdConnections = new AtomicLong(0);
+  private final AtomicLong closedConnections = new AtomicLong(0);
+
+  public PostgresConnectionPool(SessionInitializer sessionInitializer) {
+    this(DEFAULT_MAX_CONNECTIONS, DEFAULT_IDLE_TIMEOUT, DEFAULT_CONNECTION_TIMEOUT,
+        sessionInitializer, DriverManager::getConnection);
+  }
+
+  PostgresConnectionPool(int maxConnections, Duration idleTimeout, Duration connectionTimeout,
+      SessionInitializer sessionInitializer, ConnectionFactory connectionFactory) {
+    this.maxConnections = maxConnections;
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.connectionTimeoutNanos = connectionTimeout.toNanos();
+    this.sessionInitializer = sessionInitializer;
+    this.connectionFactory = connectionFactory;
+  }
+
+  /**
+   * Return a connection to the database of the host as the user, reusing an idle connection of
+   * the pool if any. If all the connections for the key are in use the caller waits for one to
+   * be returned up to the connection timeout.
+   */
+  public Connection getConnection(String host, String username, String password,
+      String database) throws SQLException {
+    evictIdleConnections();
+    final KeyPool pool = pools.computeIfAbsent(
+        host + "/" + database + "/" + username,
+        key -> new KeyPool("jdbc:postgresql://" + host + "/" + database, username));
+    return pool.borrow(password);
+  }
+
+  /**
+   * Close the connections that were idle for longer than the idle timeout.
+   */
+  public void evictIdleConnections() {
+    final long now = System.nanoTime();
+    pools.values().forEach(pool -> pool.evict(
+        connection -> now - connection.lastUsed > idleTimeoutNanos));
+  }
+
+  public int getActiveConnections() {
+    return pools.values().stream().mapToInt(KeyPool::getActive).sum();
+  }
+
+  public int getIdleConnections() {
+    return pools.values().stream().mapToInt(KeyPool::getIdle).sum();
+  }
+
+  public int getWaitingRequests() {
+    return pools.values().stream().mapToInt(KeyPool::getWaiting).sum();
+  }
+
+  public long getCreatedConnections() {
+    return createdConnections.get();
+  }
+
+  public long getClosedConnections() {
+    return closedConnections.get();
+  }
+
+  @Override
+  public void close() {
+    pools.values().forEach(pool -> pool.evict(connection -> true));
+  }
+
+  private void closeQuietly(PooledConnection connection) {
+    closedConnections.incrementAndGet();
+    try {
+      connection.connection.close();
+    } catch (SQLException ex) {
+      LOGGER.debug("Error while closing connection to {}", connection.pool.url, ex);
+    }
+  }
+
+  private class KeyPool {
+    private final String url;
+    private final String username;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private String password;
+    private int generation;
+    private int active;
+    private int waiting;
+
+    private KeyPool(String url, String username) {
+      this.url = url;
+      this.username = username;
+    }
+
+    private synchronized int getActive() {
+      return active;
+    }
+
+    private synchronized int getIdle() {
+      return idle.size();
+    }
+
+    private synchronized int getWaiting() {
+      return waiting;
+    }
+
+    private Connection borrow(String password) throws SQLException {
+      final long deadline = System.nanoTime() + connectionTimeoutNanos;
+      while (true) {
+        final PooledConnection connection;
+        synchronized (this) {
+          if (!Objects.equals(this.password, password)) {
+            this.password = password;
+            generation++;
+            evict(pooledConnection -> true);
+          }
+          while (idle.isEmpty() && active >= maxConnections) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              throw new SQLTimeoutException("Timed out waiting for a connection to " + url);
+            }
+            waiting++;
+            try {
+              Duration wait = Duration.ofNanos(remaining);
+              wait(Math.max(1, wait.toMillis()));
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+              throw new SQLException("Interrupted while waiting for a connection to " + url, ex);
+            } finally {
+              waiting--;
+            }
+          }
+          active++;
+          connection = idle.pollLast();
+        }
+        if (connection == null) {
+          return open().proxy();
+        }
+        if (isValid(connection)) {
+          return connection.proxy();
+        }
+        discard(connection);
+      }
+    }
+
+    private PooledConnection open() throws SQLException {
+      final int currentGeneration;
+      final Properties properties = new Properties();
+      synchronized (this) {
+        currentGeneration = generation;
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+      }
+      Connection connection = null;
+      try {
+        connection = connectionFactory.create(url, properties);
+        sessionInitializer.initialize(connection);
+        createdConnections.incrementAndGet();
+        LOGGER.debug("Opened connection to {}", url);
+        return new PooledConnection(this, connection, currentGeneration);
+      } catch (SQLException | RuntimeException ex) {
+        if (connection != null) {
+          closedConnections.incrementAndGet();
+          connection.close();
+        }
+        synchronized (this) {
+          active--;
+          notifyAll();
+        }
+        throw ex;
+      }
+    }
+
+    private boolean isValid(PooledConnection connection) {
+      if (System.nanoTime() - connection.lastUsed < VALIDATION_INTERVAL.toNanos()) {
+        return true;
+      }
+      try {
+        return connection.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+      } catch (SQLException ex) {
+        return false;
+      }
+    }
+
+    private void release(PooledConnection connection) {
+      boolean reusable;
+      try {
+        reusable = !connection.connection.isClosed();
+        if (reusable && !connection.connection.getAutoCommit()) {
+          connection.connection.rollback();
+          connection.connection.setAutoCommit(true);
+        }
+      } catch (SQLException ex) {
+        reusable = false;
+      }
+      synchronized (this) {
+        if (reusable && connection.generation == generation) {
+          connection.lastUsed = System.nanoTime();
+          active--;
+          idle.addLast(connection);
+          notifyAll();
+          return;
+        }
+      }
+      discard(connection);
+    }
+
+    private void discard(PooledConnection connection) {
+      closeQuietly(connection);
+      synchronized (this) {
+        active--;
+        notifyAll();
+      }
+    }
+
+    private synchronized void evict(Predicate<PooledConnection> condition) {
+      for (Iterator<PooledConnection> iterator = idle.iterator(); iterator.hasNext();) {
+        PooledConnection connection = iterator.next();
+        if (condition.test(connection)) {
+          iterator.remove();
+          closeQuietly(connection);
+        }
+      }
+    }
+  }
+
+  private class PooledConnection implements InvocationHandler {
+    private final KeyPool pool;
+    private final Connection connection;
+    private final int generation;
+    private long lastUsed = System.nanoTime();
+    private Connection proxy;
+    private boolean released;
+
+    private PooledConnection(KeyPool pool, Connection connection, int generation) {
+      this.pool = pool;
+      this.connection = connection;
+      this.generation = generation;
+    }
+
+    private synchronized Connection proxy() {
+      released = false;
+      proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+          new Class<?>[] { Connection.class }, this);
+      return proxy;
+    }
+
+    @Override
+    public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+      synchronized (this) {
+        if (target != proxy || released) {
+          switch (method.getName()) {
+            case "close":
+              return null;
+            case "isClosed":
+              return true;
+            case "toString":
+              return "Closed pooled connection to " + pool.url;
+            default:
+              throw new SQLException("Connection is closed");
+          }
+        }
+        if (method.getName().equals("close")) {
+          released = true;
+        }
+      }
+      if (method.getName().equals("close")) {
+        pool.release(this);
+        return null;
+      }
+      try {
+        return method.invoke(connection, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+
+}
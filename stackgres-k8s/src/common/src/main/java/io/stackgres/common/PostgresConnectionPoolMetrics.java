@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common;
+
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+
+/**
+ * Gauges of the connections of a {@link PostgresConnectionPool}.
+ */
+public final class PostgresConnectionPoolMetrics {
+
+  private PostgresConnectionPoolMetrics() {}
+
+  /**
+   * Register the gauges of the pool in the registry with names starting with the prefix.
+   */
+  public static void register(MetricRegistry registry, String prefix,
+      PostgresConnectionPool pool) {
+    registerGauge(registry, prefix + "active", "Connections in use",
+        pool::getActiveConnections);
+    registerGauge(registry, prefix + "idle", "Connections available for reuse",
+        pool::getIdleConnections);
+    registerGauge(registry, prefix + "waiting", "Requests waiting for a connection",
+        pool::getWaitingRequests);
+    registerGauge(registry, prefix + "created", "Connections opened",
+        pool::getCreatedConnections);
+    registerGauge(registry, prefix + "closed", "Connections closed",
+        pool::getClosedConnections);
+  }
+
+  private static void registerGauge(MetricRegistry registry, String name, String description,
+      Gauge<? extends Number> gauge) {
+    registry.register(Metadata.builder()
+        .withName(name)
+        .withDescription(description)
+        .withType(MetricType.GAUGE)
+        .withUnit(MetricUnits.NONE)
+        .build(), gauge);
+  }
+
+}
@@ -26,7 +26,12 @@ public enum StackGresProperty implements StackGresPropertyReader {
   SG_IMAGE_FLUENTD("stackgres.imageFluentd"),
   SG_IMAGE_CLUSTER_CONTROLLER("stackgres.imageClusterController"),
   SG_IMAGE_DISTRIBUTEDLOGS_CONTROLLER("stackgres.imageDistributedlogsController"),
-  SG_IMAGE_KUBECTL("stackgres.imageKubectl");
+  SG_IMAGE_KUBECTL("stackgres.imageKubectl"),
+  KUBERNETES_CLIENT_MAX_CONCURRENT_REQUESTS("stackgres.kubernetesClient.maxConcurrentRequests"),
+  KUBERNETES_CLIENT_MAX_IDLE_CONNECTIONS("stackgres.kubernetesClient.maxIdleConnections"),
+  KUBERNETES_CLIENT_KEEP_ALIVE_SECONDS("stackgres.kubernetesClient.keepAliveSeconds"),
+  KUBERNETES_CLIENT_REQUESTS_PER_SECOND("stackgres.kubernetesClient.requestsPerSecond"),
+  KUBERNETES_CLIENT_CONFIG_REFRESH_SECONDS("stackgres.kubernetesClient.configRefreshSeconds");
 
   private static final Properties APPLICATION_PROPERTIES =
       Unchecked.supplier(() -> StackGresPropertyReader
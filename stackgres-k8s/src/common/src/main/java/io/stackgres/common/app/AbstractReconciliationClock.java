@@ -5,25 +5,41 @@
 
 package io.stackgres.common.app;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
 public abstract class AbstractReconciliationClock implements ReconciliationClock {
 
-  private final ScheduledExecutorService scheduledExecutorService =
-      Executors.newScheduledThreadPool(1, r -> new Thread(r, "ReconciliationShceduler"));
+  private static final Duration PERIOD = Duration.ofSeconds(10);
+  private static final Duration MAX_PERIOD = Duration.ofSeconds(60);
+
+  private final ResyncScheduler<Boolean> resyncScheduler = new ResyncScheduler<>(
+      "Reconciliation", PERIOD, MAX_PERIOD, 1,
+      () -> List.of(Boolean.TRUE), key -> reconcileAndMeasure());
 
   @Override
   public void start() {
-    scheduledExecutorService.scheduleAtFixedRate(
-        this::reconcile, 0, 10, TimeUnit.SECONDS);
+    resyncScheduler.start();
   }
 
-  protected abstract void reconcile();
+  /**
+   * Run a reconciliation cycle, an exception is thrown if the cycle failed so that it is retried
+   * sooner.
+   */
+  protected abstract void reconcile() throws Exception;
 
   @Override
   public void stop() {
-    scheduledExecutorService.shutdown();
+    resyncScheduler.stop();
+  }
+
+  private void reconcileAndMeasure() {
+    final long start = System.nanoTime();
+    try {
+      reconcile();
+      resyncScheduler.onSuccess(Boolean.TRUE, System.nanoTime() - start);
+    } catch (Exception ex) {
+      resyncScheduler.onFailure(Boolean.TRUE, ex);
+    }
   }
 }
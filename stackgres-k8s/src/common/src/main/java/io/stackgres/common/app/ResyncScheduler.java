@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.app;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedule the periodic resync of a set of keys, each one with its own period.
+ *
+ * <p>The first resync of each key is spread randomly across the period and following resyncs
+ * are scheduled with a jitter so that keys do not end up synchronized. After each successful
+ * resync the interval of a key is doubled up to the maximum period, while a failed key is
+ * retried with an exponential backoff starting at one second and bounded by the period.
+ *
+ * <p>The period grows with the observed resync duration, so that resyncs do not use more than
+ * half of the parallelism, and is multiplied when the Kubernetes API server throttles requests
+ * (HTTP 429), going back to normal as resyncs succeed.
+ */
+public class ResyncScheduler<K> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResyncScheduler.class);
+
+  private static final long TICK_MILLIS = 1000;
+  private static final long MIN_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int MAX_SHIFT = 16;
+  private static final double JITTER = 0.2;
+  private static final double DURATION_WEIGHT = 0.2;
+  private static final double MAX_THROTTLE_FACTOR = 8;
+  private static final double THROTTLE_DECAY = 0.9;
+
+  private final String name;
+  private final long periodNanos;
+  private final long maxPeriodNanos;
+  private final int parallelism;
+  private final Supplier<? extends Collection<K>> keys;
+  private final Consumer<K> resync;
+  private final LongSupplier clock;
+  private final Map<K, Schedule> schedules = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService executorService;
+
+  private int keyCount = 0;
+  private double averageDurationNanos = 0;
+  private double throttleFactor = 1;
+
+  public ResyncScheduler(String name, Duration period, Duration maxPeriod, int parallelism,
+      Supplier<? extends Collection<K>> keys, Consumer<K> resync) {
+    this(name, period, maxPeriod, parallelism, keys, resync, System::nanoTime);
+  }
+
+  ResyncScheduler(String name, Duration period, Duration maxPeriod, int parallelism,
+      Supplier<? extends Collection<K>> keys, Consumer<K> resync, LongSupplier clock) {
+    this.name = name;
+    this.periodNanos = period.toNanos();
+    this.maxPeriodNanos = Math.max(period.toNanos(), maxPeriod.toNanos());
+    this.parallelism = Math.max(1, parallelism);
+    this.keys = keys;
+    this.resync = resync;
+    this.clock = clock;
+    this.executorService = Executors.newSingleThreadScheduledExecutor(
+        r -> new Thread(r, name + "-ResyncScheduler"));
+  }
+
+  public void start() {
+    executorService.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    executorService.shutdown();
+  }
+
+  /**
+   * Record a successful resync of the key that took the specified time, the next resync of the
+   * key is delayed.
+   */
+  public synchronized void onSuccess(K key, long durationNanos) {
+    final Schedule schedule = schedules.computeIfAbsent(key, k -> new Schedule());
+    schedule.failures = 0;
+    schedule.successes = Math.min(schedule.successes + 1, MAX_SHIFT);
+    averageDurationNanos = averageDurationNanos == 0 ? durationNanos
+        : averageDurationNanos + DURATION_WEIGHT * (durationNanos - averageDurationNanos);
+    throttleFactor = Math.max(1, throttleFactor * THROTTLE_DECAY);
+    schedule.schedule(Math.min(maxPeriodNanos, period() << (schedule.successes - 1)));
+  }
+
+  /**
+   * Record a failed resync of the key, the key is retried with an exponential backoff.
+   */
+  public synchronized void onFailure(K key, Exception ex) {
+    final Schedule schedule = schedules.computeIfAbsent(key, k -> new Schedule());
+    schedule.successes = 0;
+    schedule.failures = Math.min(schedule.failures + 1, MAX_SHIFT);
+    if (isThrottled(ex)) {
+      throttleFactor = Math.min(MAX_THROTTLE_FACTOR, throttleFactor * 2);
+      LOGGER.debug("{} resync throttled, period is now {}s", name,
+          TimeUnit.NANOSECONDS.toSeconds(period()));
+    }
+    schedule.schedule(Math.min(period(), MIN_RETRY_NANOS << (schedule.failures - 1)));
+  }
+
+  /**
+   * Forget the schedule of a key that no longer exists.
+   */
+  public void forget(K key) {
+    schedules.remove(key);
+  }
+
+  /**
+   * Return the current base period, adapted to the resync duration and the API server
+   * throttling.
+   */
+  public synchronized Duration getPeriod() {
+    return Duration.ofNanos(period());
+  }
+
+  synchronized long getNextResync(K key) {
+    return schedules.get(key).nextResync;
+  }
+
+  void tick() {
+    final List<K> dueKeys = new ArrayList<>();
+    try {
+      final Set<K> currentKeys = new HashSet<>(keys.get());
+      synchronized (this) {
+        final long now = clock.getAsLong();
+        keyCount = currentKeys.size();
+        schedules.keySet().retainAll(currentKeys);
+        for (K key : currentKeys) {
+          Schedule schedule = schedules.computeIfAbsent(key, k -> new Schedule());
+          if (schedule.nextResync == Long.MIN_VALUE) {
+            schedule.nextResync = now + (long) (ThreadLocalRandom.current().nextDouble()
+                * period());
+          }
+          if (schedule.inFlight && now - schedule.dispatched > maxPeriodNanos) {
+            schedule.inFlight = false;
+          }
+          if (!schedule.inFlight && now - schedule.nextResync >= 0) {
+            schedule.inFlight = true;
+            schedule.dispatched = now;
+            dueKeys.add(key);
+          }
+        }
+      }
+    } catch (RuntimeException ex) {
+      LOGGER.error("{} resync scheduler failed to retrieve the keys", name, ex);
+      return;
+    }
+    for (K key : dueKeys) {
+      try {
+        resync.accept(key);
+      } catch (RuntimeException ex) {
+        LOGGER.error("{} resync of {} failed", name, key, ex);
+        onFailure(key, ex);
+      }
+    }
+  }
+
+  private long period() {
+    final double adaptivePeriod = averageDurationNanos * keyCount * 2 / parallelism;
+    return (long) Math.min(maxPeriodNanos,
+        Math.max(periodNanos, adaptivePeriod) * throttleFactor);
+  }
+
+  private static boolean isThrottled(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof KubernetesClientException
+          && ((KubernetesClientException) cause).getCode() == 429) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private class Schedule {
+    private long nextResync = Long.MIN_VALUE;
+    private long dispatched;
+    private boolean inFlight;
+    private int successes;
+    private int failures;
+
+    private void schedule(long intervalNanos) {
+      final double jitter = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+      nextResync = clock.getAsLong() + (long) (intervalNanos * jitter);
+      inFlight = false;
+    }
+  }
+
+}
@@ -8,6 +8,7 @@ package io.stackgres.common.crd.sgdbops;
 import java.util.Objects;
 
 import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -30,6 +31,10 @@ public class StackGresDbOpsRestart implements KubernetesResource {
   @JsonProperty("method")
   private String method;
 
+  @JsonProperty("maxUnavailableReplicas")
+  @Min(value = 1, message = "maxUnavailableReplicas must be greather or equals to 1.")
+  private Integer maxUnavailableReplicas;
+
   @JsonProperty("restartPrimaryFirst")
   private Boolean restartPrimaryFirst;
 
@@ -37,11 +42,11 @@ public class StackGresDbOpsRestart implements KubernetesResource {
   interface Method extends FieldReference { }
 
   @JsonIgnore
-  @AssertTrue(message = "method must be InPlace or ReducedImpact",
+  @AssertTrue(message = "method must be InPlace, ReducedImpact or Parallel",
       payload = Method.class)
   public boolean isMethodValid() {
     return method == null
-        || ImmutableList.of("InPlace", "ReducedImpact").contains(method);
+        || ImmutableList.of("InPlace", "ReducedImpact", "Parallel").contains(method);
   }
 
   @JsonIgnore
@@ -57,6 +62,14 @@ public class StackGresDbOpsRestart implements KubernetesResource {
     this.method = method;
   }
 
+  public Integer getMaxUnavailableReplicas() {
+    return maxUnavailableReplicas;
+  }
+
+  public void setMaxUnavailableReplicas(Integer maxUnavailableReplicas) {
+    this.maxUnavailableReplicas = maxUnavailableReplicas;
+  }
+
   public Boolean getRestartPrimaryFirst() {
     return restartPrimaryFirst;
   }
@@ -67,7 +80,7 @@ public class StackGresDbOpsRestart implements KubernetesResource {
 
   @Override
   public int hashCode() {
-    return Objects.hash(method, restartPrimaryFirst);
+    return Objects.hash(method, maxUnavailableReplicas, restartPrimaryFirst);
   }
 
   @Override
@@ -80,6 +93,7 @@ public class StackGresDbOpsRestart implements KubernetesResource {
     }
     StackGresDbOpsRestart other = (StackGresDbOpsRestart) obj;
     return Objects.equals(method, other.method)
+        && Objects.equals(maxUnavailableReplicas, other.maxUnavailableReplicas)
         && Objects.equals(restartPrimaryFirst, other.restartPrimaryFirst);
   }
 
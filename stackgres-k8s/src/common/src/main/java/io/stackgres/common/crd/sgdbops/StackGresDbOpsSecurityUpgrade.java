@@ -8,6 +8,7 @@ package io.stackgres.common.crd.sgdbops;
 import java.util.Objects;
 
 import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -30,15 +31,19 @@ public class StackGresDbOpsSecurityUpgrade implements KubernetesResource {
   @JsonProperty("method")
   private String method;
 
+  @JsonProperty("maxUnavailableReplicas")
+  @Min(value = 1, message = "maxUnavailableReplicas must be greather or equals to 1.")
+  private Integer maxUnavailableReplicas;
+
   @ReferencedField("method")
   interface Method extends FieldReference { }
 
   @JsonIgnore
-  @AssertTrue(message = "method must be InPlace or ReducedImpact",
+  @AssertTrue(message = "method must be InPlace, ReducedImpact or Parallel",
       payload = Method.class)
   public boolean isMethodValid() {
     return method == null
-        || ImmutableList.of("InPlace", "ReducedImpact").contains(method);
+        || ImmutableList.of("InPlace", "ReducedImpact", "Parallel").contains(method);
   }
 
   @JsonIgnore
@@ -54,9 +59,17 @@ public class StackGresDbOpsSecurityUpgrade implements KubernetesResource {
     this.method = method;
   }
 
+  public Integer getMaxUnavailableReplicas() {
+    return maxUnavailableReplicas;
+  }
+
+  public void setMaxUnavailableReplicas(Integer maxUnavailableReplicas) {
+    this.maxUnavailableReplicas = maxUnavailableReplicas;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(method);
+    return Objects.hash(method, maxUnavailableReplicas);
   }
 
   @Override
@@ -68,7 +81,8 @@ public class StackGresDbOpsSecurityUpgrade implements KubernetesResource {
       return false;
     }
     StackGresDbOpsSecurityUpgrade other = (StackGresDbOpsSecurityUpgrade) obj;
-    return Objects.equals(method, other.method);
+    return Objects.equals(method, other.method)
+        && Objects.equals(maxUnavailableReplicas, other.maxUnavailableReplicas);
   }
 
   @Override
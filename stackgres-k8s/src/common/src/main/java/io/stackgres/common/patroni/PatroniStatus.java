@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.patroni;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * The member status that Patroni stores in the {@code status} annotation of its pod when it uses
+ * Kubernetes as DCS.
+ */
+@JsonDeserialize
+@RegisterForReflection
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PatroniStatus {
+
+  private String state;
+
+  private String role;
+
+  private Integer timeline;
+
+  @JsonProperty("pending_restart")
+  private Boolean pendingRestart;
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
+
+  public String getRole() {
+    return role;
+  }
+
+  public void setRole(String role) {
+    this.role = role;
+  }
+
+  public Integer getTimeline() {
+    return timeline;
+  }
+
+  public void setTimeline(Integer timeline) {
+    this.timeline = timeline;
+  }
+
+  public Boolean getPendingRestart() {
+    return pendingRestart;
+  }
+
+  public void setPendingRestart(Boolean pendingRestart) {
+    this.pendingRestart = pendingRestart;
+  }
+
+  public boolean isPendingRestart() {
+    return Boolean.TRUE.equals(pendingRestart);
+  }
+}
@@ -18,18 +18,22 @@ public abstract class AbstractCustomResourceFinder<T extends CustomResource<?, ?
   private final KubernetesClientFactory clientFactory;
   private final Class<T> customResourceClass;
   private final Class<? extends CustomResourceList<T>> customResourceListClass;
+  private final CustomResourceCache cache;
 
   protected AbstractCustomResourceFinder(KubernetesClientFactory clientFactory,
-      Class<T> customResourceClass,
+      CustomResourceCache cache, Class<T> customResourceClass,
       Class<? extends CustomResourceList<T>> customResourceListClass) {
     super();
     this.clientFactory = clientFactory;
+    this.cache = cache;
     this.customResourceClass = customResourceClass;
     this.customResourceListClass = customResourceListClass;
   }
 
   /**
-   * Will look for a customer resource by it's name in the given namespace.
+   * Will look for a customer resource by it's name in the given namespace. If the kind is cached
+   * the resource is taken from the cache. When not found there the Kubernetes API server is queried
+   * anyway since the resource may have been just created and not yet received by the cache.
    *
    * @param name the name of the resource
    * @param namespace the namespace in which the resource should be located
@@ -37,6 +41,11 @@ public abstract class AbstractCustomResourceFinder<T extends CustomResource<?, ?
    */
   @Override
   public Optional<T> findByNameAndNamespace(String name, String namespace) {
+    Optional<T> cachedResource = getIndex()
+        .flatMap(index -> index.find(namespace, name));
+    if (cachedResource.isPresent()) {
+      return cachedResource;
+    }
     try (KubernetesClient client = clientFactory.create()) {
       return Optional.ofNullable(client.customResources(
           customResourceClass, customResourceListClass)
@@ -46,4 +55,10 @@ public abstract class AbstractCustomResourceFinder<T extends CustomResource<?, ?
     }
   }
 
+  private Optional<CustomResourceIndex<T>> getIndex() {
+    return Optional.ofNullable(cache)
+        .flatMap(resourceCache -> resourceCache.getIndex(customResourceClass))
+        .map(CustomResourceIndex::copies);
+  }
+
 }
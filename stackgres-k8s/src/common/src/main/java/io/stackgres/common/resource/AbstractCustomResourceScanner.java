@@ -7,10 +7,17 @@ package io.stackgres.common.resource;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.CustomResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.stackgres.common.KubernetesClientFactory;
 import org.jetbrains.annotations.Nullable;
 
@@ -22,18 +29,24 @@ public abstract class AbstractCustomResourceScanner
 
   private final Class<T> customResourceClass;
   private final Class<L> customResourceListClass;
+  private final CustomResourceCache cache;
 
   protected AbstractCustomResourceScanner(KubernetesClientFactory clientFactory,
-      Class<T> customResourceClass,
+      CustomResourceCache cache, Class<T> customResourceClass,
       Class<L> customResourceListClass) {
     super();
     this.clientFactory = clientFactory;
+    this.cache = cache;
     this.customResourceClass = customResourceClass;
     this.customResourceListClass = customResourceListClass;
   }
 
   @Override
   public Optional<List<T>> findResources() {
+    Optional<CustomResourceIndex<T>> index = getIndex();
+    if (index.isPresent()) {
+      return index.map(CustomResourceIndex::list);
+    }
     String crdName = CustomResource.getCRDName(customResourceClass);
     try (KubernetesClient client = clientFactory.create()) {
       return Optional.ofNullable(client.apiextensions().v1().customResourceDefinitions()
@@ -48,6 +61,10 @@ public abstract class AbstractCustomResourceScanner
 
   @Override
   public Optional<List<T>> findResources(@Nullable String namespace) {
+    Optional<CustomResourceIndex<T>> index = getIndex();
+    if (index.isPresent()) {
+      return index.map(cachedIndex -> list(cachedIndex, namespace));
+    }
     String crdName = CustomResource.getCRDName(customResourceClass);
     try (KubernetesClient client = clientFactory.create()) {
       return Optional.ofNullable(client.apiextensions().v1().customResourceDefinitions()
@@ -62,6 +79,10 @@ public abstract class AbstractCustomResourceScanner
 
   @Override
   public List<T> getResources() {
+    Optional<CustomResourceIndex<T>> index = getIndex();
+    if (index.isPresent()) {
+      return index.get().list();
+    }
     try (KubernetesClient client = clientFactory.create()) {
       return client.customResources(customResourceClass, customResourceListClass)
           .inAnyNamespace()
@@ -72,6 +93,10 @@ public abstract class AbstractCustomResourceScanner
 
   @Override
   public List<T> getResources(@Nullable String namespace) {
+    Optional<CustomResourceIndex<T>> index = getIndex();
+    if (index.isPresent()) {
+      return list(index.get(), namespace);
+    }
     try (KubernetesClient client = clientFactory.create()) {
       return client.customResources(customResourceClass, customResourceListClass)
           .inNamespace(namespace)
@@ -80,4 +105,100 @@ public abstract class AbstractCustomResourceScanner
     }
   }
 
+  /**
+   * Watch the resources with a client that is closed with the returned {@code Watch}. When the
+   * resource version is too old (410 Gone) the watch is restarted with the same client without
+   * resource version instead of being closed, so that a watcher that is notified after the
+   * request that created it has completed does not need to create a new client.
+   */
+  @Override
+  public Watch watch(@Nullable String namespace, @Nullable String resourceVersion,
+      Watcher<T> watcher) {
+    KubernetesClient client = clientFactory.create();
+    try {
+      RestartableWatch watch = new RestartableWatch(client, namespace, watcher);
+      watch.start(resourceVersion);
+      return watch;
+    } catch (RuntimeException ex) {
+      client.close();
+      throw ex;
+    }
+  }
+
+  private Optional<CustomResourceIndex<T>> getIndex() {
+    return Optional.ofNullable(cache)
+        .flatMap(resourceCache -> resourceCache.getIndex(customResourceClass))
+        .map(CustomResourceIndex::copies);
+  }
+
+  private List<T> list(CustomResourceIndex<T> index, @Nullable String namespace) {
+    if (namespace == null) {
+      return index.list();
+    }
+    return index.list(namespace);
+  }
+
+  private class RestartableWatch implements Watch, Watcher<T> {
+
+    private final KubernetesClient client;
+    private final String namespace;
+    private final Watcher<T> watcher;
+    private final AtomicReference<Watch> watch = new AtomicReference<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    RestartableWatch(KubernetesClient client, String namespace, Watcher<T> watcher) {
+      this.client = client;
+      this.namespace = namespace;
+      this.watcher = watcher;
+    }
+
+    void start(@Nullable String resourceVersion) {
+      var resources = client.customResources(customResourceClass, customResourceListClass);
+      ListOptions options = new ListOptionsBuilder()
+          .withResourceVersion(resourceVersion)
+          .build();
+      watch.set(namespace == null
+          ? resources.inAnyNamespace().watch(options, this)
+          : resources.inNamespace(namespace).watch(options, this));
+      if (closed.get()) {
+        Optional.ofNullable(watch.getAndSet(null)).ifPresent(Watch::close);
+      }
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+      watcher.eventReceived(action, resource);
+    }
+
+    @Override
+    public void onClose() {
+      watcher.onClose();
+    }
+
+    @Override
+    public void onClose(WatcherException cause) {
+      if (!cause.isHttpGone() || closed.get()) {
+        watcher.onClose(cause);
+        return;
+      }
+      if (watcher instanceof ResyncWatcher) {
+        ((ResyncWatcher<T>) watcher).onResync();
+      }
+      try {
+        start(null);
+      } catch (RuntimeException ex) {
+        watcher.onClose(new WatcherException(ex.getMessage(), ex));
+      }
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        Optional.ofNullable(watch.getAndSet(null)).ifPresent(Watch::close);
+        client.close();
+      }
+    }
+
+  }
+
 }
@@ -5,11 +5,21 @@
 
 package io.stackgres.common.resource;
 
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import javax.inject.Inject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.CustomResourceList;
@@ -18,14 +28,36 @@ import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.Namespaceable;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import io.stackgres.common.KubernetesClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Base scheduler of custom resources.
+ *
+ * <p>The status last observed for each resource is kept together with its resource version. When
+ * the status of a resource that did not change since then is updated, the update is skipped if
+ * the status is the same, otherwise only the differences are sent as a JSON merge patch to the
+ * status subresource. The observed statuses expire when not used for a while so that the entries
+ * of resources deleted without this scheduler (with kubectl or by deleting their namespace) are
+ * not kept forever; an expired entry only means that the next update is sent as a full update.
+ */
 public abstract class AbstractCustomResourceScheduler
     <T extends CustomResource<?, ?>, L extends CustomResourceList<T>>
     implements CustomResourceScheduler<T> {
 
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AbstractCustomResourceScheduler.class);
+
+  private static final Duration OBSERVED_STATUS_EXPIRATION = Duration.ofHours(1);
+
   private final Class<T> customResourceClass;
   private final Class<L> customResourceListClass;
+  private final Cache<String, ObservedStatus> observedStatuses = CacheBuilder.newBuilder()
+      .expireAfterAccess(OBSERVED_STATUS_EXPIRATION)
+      .build();
+  private final LongAdder skippedStatusUpdates = new LongAdder();
   @Inject
   KubernetesClientFactory clientFactory;
 
@@ -71,7 +103,12 @@ public abstract class AbstractCustomResourceScheduler
             + "." + resource.getMetadata().getName()
             + ": resource not found");
       }
-      statusSetter.accept(resourceOverwrite, statusGetter.apply(resource));
+      S status = statusGetter.apply(resource);
+      if (toJson(statusGetter.apply(resourceOverwrite)).equals(toJson(status))) {
+        skipStatusUpdate(resource);
+        return;
+      }
+      statusSetter.accept(resourceOverwrite, status);
       getCustomResourceEndpoints(client)
           .inNamespace(resource.getMetadata().getNamespace())
           .withName(resource.getMetadata().getName())
@@ -84,16 +121,100 @@ public abstract class AbstractCustomResourceScheduler
 
   @Override
   public T updateStatus(T resource) {
-    try (KubernetesClient client = clientFactory.create()) {
-      return getCustomResourceEndpoints(client)
-          .inNamespace(resource.getMetadata().getNamespace())
-          .withName(resource.getMetadata().getName())
-          .updateStatus(resource);
+    final String uid = resource.getMetadata().getUid();
+    final JsonNode status = getStatus(resource);
+    final ObservedStatus observedStatus = uid != null ? observedStatuses.getIfPresent(uid) : null;
+    final T updatedResource;
+    if (observedStatus != null && Objects.equals(observedStatus.resourceVersion,
+        resource.getMetadata().getResourceVersion())) {
+      if (observedStatus.status.equals(status)) {
+        skipStatusUpdate(resource);
+        return resource;
+      }
+      updatedResource = patchStatus(resource,
+          createMergePatch(observedStatus.status, status));
+    } else {
+      try (KubernetesClient client = clientFactory.create()) {
+        updatedResource = getCustomResourceEndpoints(client)
+            .inNamespace(resource.getMetadata().getNamespace())
+            .withName(resource.getMetadata().getName())
+            .updateStatus(resource);
+      }
+    }
+    if (uid != null && updatedResource != null) {
+      observedStatuses.put(uid, new ObservedStatus(
+          updatedResource.getMetadata().getResourceVersion(), getStatus(updatedResource)));
+    }
+    return updatedResource;
+  }
+
+  @Override
+  public long getSkippedStatusUpdates() {
+    return skippedStatusUpdates.sum();
+  }
+
+  private void skipStatusUpdate(T resource) {
+    skippedStatusUpdates.increment();
+    LOGGER.trace("Skipping status update of {} {}/{} since it did not change",
+        HasMetadata.getKind(customResourceClass), resource.getMetadata().getNamespace(),
+        resource.getMetadata().getName());
+  }
+
+  private T patchStatus(T resource, JsonNode statusPatch) {
+    ObjectNode patch = JsonNodeFactory.instance.objectNode();
+    patch.putObject("metadata")
+        .put("resourceVersion", resource.getMetadata().getResourceVersion());
+    patch.set("status", statusPatch);
+    return clientFactory.withNewClient(client -> ResourcePatchOperation.of(client,
+        customResourceClass, HasMetadata.getApiVersion(customResourceClass),
+        resource.getMetadata().getNamespace(), resource.getMetadata().getName())
+        .mergePatchStatus(patch.toString(), customResourceClass));
+  }
+
+  private JsonNode getStatus(T resource) {
+    return toJson(resource.getStatus());
+  }
+
+  private JsonNode toJson(Object value) {
+    if (value == null) {
+      return JsonNodeFactory.instance.nullNode();
     }
+    return Serialization.jsonMapper().valueToTree(value);
+  }
+
+  /**
+   * Create the JSON merge patch (RFC 7386) that transforms the source into the target.
+   */
+  static JsonNode createMergePatch(JsonNode source, JsonNode target) {
+    if (!source.isObject() || !target.isObject()) {
+      return target;
+    }
+    ObjectNode patch = JsonNodeFactory.instance.objectNode();
+    Iterator<String> sourceFields = source.fieldNames();
+    while (sourceFields.hasNext()) {
+      String field = sourceFields.next();
+      if (!target.has(field)) {
+        patch.putNull(field);
+      }
+    }
+    Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+    while (targetFields.hasNext()) {
+      Map.Entry<String, JsonNode> field = targetFields.next();
+      JsonNode sourceValue = source.get(field.getKey());
+      if (sourceValue == null) {
+        patch.set(field.getKey(), field.getValue());
+      } else if (!sourceValue.equals(field.getValue())) {
+        patch.set(field.getKey(), createMergePatch(sourceValue, field.getValue()));
+      }
+    }
+    return patch;
   }
 
   @Override
   public void delete(T resource) {
+    if (resource.getMetadata().getUid() != null) {
+      observedStatuses.invalidate(resource.getMetadata().getUid());
+    }
     try (KubernetesClient client = clientFactory.create()) {
       getCustomResourceEndpoints(client)
           .inNamespace(resource.getMetadata().getNamespace())
@@ -107,4 +228,17 @@ public abstract class AbstractCustomResourceScheduler
     return client.customResources(customResourceClass, customResourceListClass);
   }
 
+  private static class ObservedStatus {
+
+    private final String resourceVersion;
+
+    private final JsonNode status;
+
+    ObservedStatus(String resourceVersion, JsonNode status) {
+      this.resourceVersion = resourceVersion;
+      this.status = status;
+    }
+
+  }
+
 }
@@ -21,12 +21,13 @@ public class BackupConfigFinder
    * Create a {@code BackupConfigFinder} instance.
    */
   @Inject
-  public BackupConfigFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresBackupConfig.class, StackGresBackupConfigList.class);
+  public BackupConfigFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresBackupConfig.class, StackGresBackupConfigList.class);
   }
 
   public BackupConfigFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
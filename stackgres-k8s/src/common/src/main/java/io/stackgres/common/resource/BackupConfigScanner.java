@@ -21,12 +21,13 @@ public class BackupConfigScanner
    * Create a {@code BackupConfigScanner} instance.
    */
   @Inject
-  public BackupConfigScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresBackupConfig.class, StackGresBackupConfigList.class);
+  public BackupConfigScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresBackupConfig.class, StackGresBackupConfigList.class);
   }
 
   public BackupConfigScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
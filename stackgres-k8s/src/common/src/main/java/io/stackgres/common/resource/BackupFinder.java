@@ -21,12 +21,13 @@ public class BackupFinder
    * Create a {@code BackupFinder} instance.
    */
   @Inject
-  public BackupFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresBackup.class, StackGresBackupList.class);
+  public BackupFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresBackup.class, StackGresBackupList.class);
   }
 
   public BackupFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
@@ -21,12 +21,13 @@ public class BackupScanner
    * Create a {@code BackupScanner} instance.
    */
   @Inject
-  public BackupScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresBackup.class, StackGresBackupList.class);
+  public BackupScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresBackup.class, StackGresBackupList.class);
   }
 
   public BackupScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
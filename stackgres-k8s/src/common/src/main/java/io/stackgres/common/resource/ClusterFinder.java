@@ -5,35 +5,26 @@
 
 package io.stackgres.common.resource;
 
-import java.util.Optional;
-
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.stackgres.common.CdiUtil;
 import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.crd.sgcluster.StackGresClusterList;
 
 @ApplicationScoped
-public class ClusterFinder implements CustomResourceFinder<StackGresCluster> {
-
-  private final KubernetesClientFactory kubernetesClientFactory;
+public class ClusterFinder extends AbstractCustomResourceFinder<StackGresCluster> {
 
   @Inject
-  public ClusterFinder(KubernetesClientFactory kubernetesClientFactory) {
-    this.kubernetesClientFactory = kubernetesClientFactory;
+  public ClusterFinder(KubernetesClientFactory kubernetesClientFactory,
+      CustomResourceCache cache) {
+    super(kubernetesClientFactory, cache, StackGresCluster.class, StackGresClusterList.class);
   }
 
-  @Override
-  public Optional<StackGresCluster> findByNameAndNamespace(String name, String namespace) {
-    try (KubernetesClient client = kubernetesClientFactory.create()) {
-      return Optional.ofNullable(client.customResources(
-          StackGresCluster.class,
-          StackGresClusterList.class)
-          .inNamespace(namespace)
-          .withName(name)
-          .get());
-    }
+  public ClusterFinder() {
+    super(null, null, null, null);
+    CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
+
 }
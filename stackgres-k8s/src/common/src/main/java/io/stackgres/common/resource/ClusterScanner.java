@@ -21,12 +21,13 @@ public class ClusterScanner
    * Create a {@code ClusterScanner} instance.
    */
   @Inject
-  public ClusterScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresCluster.class, StackGresClusterList.class);
+  public ClusterScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresCluster.class, StackGresClusterList.class);
   }
 
   public ClusterScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
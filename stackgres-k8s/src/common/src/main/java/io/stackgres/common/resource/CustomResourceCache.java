@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.OperationContext;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.SharedInformerFactory;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.common.CdiUtil;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.StackGresUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared in memory cache of custom resources fed by informers. Each registered kind is listed once
+ * and then kept up to date through a watch so that finders and scanners do not have to query the
+ * Kubernetes API server on each call.
+ *
+ * <p>The resources of a kind are indexed by namespace, by owner UID and, when an extractor is
+ * provided, by the SGCluster they reference through {@code spec.sgCluster}. SGClusters are also
+ * indexed by the SGDistributedLogs they reference so that the clusters connected to a
+ * distributed logs can be looked up without scanning all of them.
+ *
+ * <p>Kinds of resources owned by the custom resources (StatefulSets, Services, Secrets, ...) can
+ * also be registered with a label selector so that a single cluster-wide watch per kind keeps all
+ * the owned resources indexed by owner UID. A listener can be notified when an owned resource is
+ * deleted or changed by someone else so that its owner is reconciled without waiting for a resync.
+ */
+@ApplicationScoped
+public class CustomResourceCache {
+
+  public static final String NAMESPACE_INDEX = Cache.NAMESPACE_INDEX;
+  public static final String OWNER_INDEX = "owner";
+  public static final String CLUSTER_INDEX = "sgCluster";
+  public static final String DISTRIBUTED_LOGS_INDEX = "sgDistributedLogs";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CustomResourceCache.class);
+
+  private final KubernetesClientFactory clientFactory;
+
+  private final Map<Class<?>, SharedIndexInformer<?>> informers = new ConcurrentHashMap<>();
+  private final Map<Class<?>, CustomResourceIndex<?>> indexes = new ConcurrentHashMap<>();
+  private KubernetesClient client;
+  private SharedInformerFactory informerFactory;
+  private volatile boolean started = false;
+
+  @Inject
+  public CustomResourceCache(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+  }
+
+  public CustomResourceCache() {
+    CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
+    this.clientFactory = null;
+  }
+
+  /**
+   * Register a kind of custom resource to be cached. Must be called before {@link #start()}.
+   */
+  public <T extends CustomResource<?, ?>> void register(Class<T> customResourceClass) {
+    register(customResourceClass, resource -> Optional.empty());
+  }
+
+  /**
+   * Register a kind of custom resource to be cached that will also be indexed by the SGCluster it
+   * references. Must be called before {@link #start()}.
+   */
+  public <T extends CustomResource<?, ?>> void register(Class<T> customResourceClass,
+      Function<T, Optional<String>> clusterNameExtractor) {
+    register(customResourceClass, clusterNameExtractor, resource -> Optional.empty());
+  }
+
+  /**
+   * Register a kind of custom resource to be cached that will also be indexed by the SGCluster and
+   * by the SGDistributedLogs it references. The SGDistributedLogs reference is a relative id that
+   * is resolved against the namespace of the resource. Must be called before {@link #start()}.
+   */
+  public synchronized <T extends CustomResource<?, ?>> void register(Class<T> customResourceClass,
+      Function<T, Optional<String>> clusterNameExtractor,
+      Function<T, Optional<String>> distributedLogsRelativeIdExtractor) {
+    if (!prepareRegistration(customResourceClass)) {
+      return;
+    }
+    SharedIndexInformer<T> informer = informerFactory
+        .sharedIndexInformerForCustomResource(customResourceClass, 0);
+    informer.addIndexers(Map.of(
+        OWNER_INDEX, CustomResourceCache::ownerIndex,
+        CLUSTER_INDEX, resource -> clusterNameExtractor.apply(resource)
+            .map(clusterName -> resource.getMetadata().getNamespace() + "/" + clusterName)
+            .map(List::of)
+            .orElse(List.of()),
+        DISTRIBUTED_LOGS_INDEX, resource -> distributedLogsRelativeIdExtractor.apply(resource)
+            .map(relativeId -> StackGresUtil.getNamespaceFromRelativeId(
+                relativeId, resource.getMetadata().getNamespace())
+                + "/" + StackGresUtil.getNameFromRelativeId(relativeId))
+            .map(List::of)
+            .orElse(List.of())));
+    informers.put(customResourceClass, informer);
+  }
+
+  /**
+   * Register a kind of resource owned by custom resources to be cached. Only resources with a label
+   * whose value is one of the specified values are cached. Must be called before
+   * {@link #start()}.
+   */
+  public <T extends HasMetadata> void registerOwned(Class<T> resourceClass,
+      Map<String, String[]> labelsIn) {
+    registerOwned(resourceClass, labelsIn, resource -> { });
+  }
+
+  /**
+   * Register a kind of resource owned by custom resources to be cached, notifying the listener
+   * when one of them is deleted or when its content, other than the metadata and the status,
+   * changes. Additions are not notified since owned resources are created by their owner's
+   * reconciliation. Must be called before {@link #start()}.
+   */
+  public synchronized <T extends HasMetadata> void registerOwned(Class<T> resourceClass,
+      Map<String, String[]> labelsIn, Consumer<? super T> ownedResourceChangeListener) {
+    if (!prepareRegistration(resourceClass)) {
+      return;
+    }
+    SharedIndexInformer<T> informer = informerFactory.sharedIndexInformerFor(resourceClass,
+        new OperationContext().withLabelsIn(labelsIn), 0);
+    informer.addIndexers(Map.of(OWNER_INDEX, CustomResourceCache::ownerIndex));
+    informer.addEventHandler(new ResourceEventHandler<T>() {
+      @Override
+      public void onAdd(T resource) {
+      }
+
+      @Override
+      public void onUpdate(T oldResource, T newResource) {
+        if (isOwnedContentChanged(oldResource, newResource)) {
+          ownedResourceChangeListener.accept(newResource);
+        }
+      }
+
+      @Override
+      public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+        ownedResourceChangeListener.accept(resource);
+      }
+    });
+    informers.put(resourceClass, informer);
+  }
+
+  /**
+   * Return {@code true} if the content of an owned resource changed. The generation is compared
+   * for resources that have one, otherwise the resources are compared without the metadata and
+   * the status so that the frequent updates of annotations (like the Patroni leader lock) and of
+   * the status are ignored.
+   */
+  static boolean isOwnedContentChanged(HasMetadata oldResource, HasMetadata newResource) {
+    if (Objects.equals(oldResource.getMetadata().getResourceVersion(),
+        newResource.getMetadata().getResourceVersion())) {
+      return false;
+    }
+    if (oldResource.getMetadata().getGeneration() != null
+        && newResource.getMetadata().getGeneration() != null) {
+      return !Objects.equals(oldResource.getMetadata().getGeneration(),
+          newResource.getMetadata().getGeneration());
+    }
+    return !getOwnedContent(oldResource).equals(getOwnedContent(newResource));
+  }
+
+  private static JsonNode getOwnedContent(HasMetadata resource) {
+    ObjectNode content = Serialization.jsonMapper().valueToTree(resource);
+    content.remove(List.of("metadata", "status"));
+    return content;
+  }
+
+  /**
+   * Return {@code false} if the kind is already registered, otherwise create the informer factory
+   * if needed and return {@code true}.
+   */
+  private boolean prepareRegistration(Class<?> resourceClass) {
+    if (started) {
+      throw new IllegalStateException("Can not register "
+          + resourceClass.getSimpleName() + " after the cache has been started");
+    }
+    if (informers.containsKey(resourceClass)) {
+      return false;
+    }
+    if (informerFactory == null) {
+      client = clientFactory.create();
+      informerFactory = client.informers();
+    }
+    return true;
+  }
+
+  public synchronized void start() {
+    if (started || informerFactory == null) {
+      return;
+    }
+    LOGGER.info("Starting custom resource cache for {}", informers.keySet().stream()
+        .map(Class::getSimpleName)
+        .collect(Collectors.joining(", ")));
+    informerFactory.startAllRegisteredInformers();
+    started = true;
+  }
+
+  public synchronized void stop() {
+    if (!started) {
+      return;
+    }
+    informerFactory.stopAllRegisteredInformers();
+    client.close();
+    started = false;
+  }
+
+  /**
+   * Return the index for the specified kind of custom resource. The index is returned only if the
+   * kind has been registered and the initial listing has completed, otherwise callers are expected
+   * to fall back to query the Kubernetes API server. This method does not lock so that it can be
+   * called concurrently by all the reconciliation workers.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends HasMetadata> Optional<CustomResourceIndex<T>> getIndex(
+      Class<T> customResourceClass) {
+    if (!started) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable((SharedIndexInformer<T>) informers.get(customResourceClass))
+        .filter(SharedIndexInformer::hasSynced)
+        .map(informer -> (CustomResourceIndex<T>) indexes.computeIfAbsent(customResourceClass,
+            resourceClass -> new CustomResourceIndex<>(informer)));
+  }
+
+  private static List<String> ownerIndex(HasMetadata resource) {
+    return Optional.ofNullable(resource.getMetadata().getOwnerReferences())
+        .map(ownerReferences -> ownerReferences.stream()
+            .map(OwnerReference::getUid)
+            .collect(Collectors.toList()))
+        .orElse(List.of());
+  }
+
+}
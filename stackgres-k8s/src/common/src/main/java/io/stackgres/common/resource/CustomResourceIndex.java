@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+/**
+ * Read only view of the resources of a kind kept in memory by an informer. Returned resources are
+ * the instances held by the cache and must not be modified, callers that modify them have to use
+ * the view returned by {@link #copies()}.
+ */
+public class CustomResourceIndex<T extends HasMetadata> {
+
+  private final SharedIndexInformer<T> informer;
+  private final UnaryOperator<T> copier;
+
+  CustomResourceIndex(SharedIndexInformer<T> informer) {
+    this(informer, UnaryOperator.identity());
+  }
+
+  private CustomResourceIndex(SharedIndexInformer<T> informer, UnaryOperator<T> copier) {
+    this.informer = informer;
+    this.copier = copier;
+  }
+
+  /**
+   * Return a view of this index that returns copies of the cached resources so that callers can
+   * modify them without altering the cache.
+   */
+  public CustomResourceIndex<T> copies() {
+    return new CustomResourceIndex<>(informer, Serialization::clone);
+  }
+
+  public boolean isSynced() {
+    return informer.hasSynced();
+  }
+
+  public Optional<T> find(String namespace, String name) {
+    return Optional.ofNullable(informer.getIndexer().getByKey(namespace + "/" + name))
+        .map(copier);
+  }
+
+  public List<T> list() {
+    return copy(informer.getIndexer().list());
+  }
+
+  public List<T> list(String namespace) {
+    return copy(informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace));
+  }
+
+  /**
+   * List the resources that have an owner reference to the resource with the specified UID.
+   */
+  public List<T> listByOwner(String ownerUid) {
+    return copy(informer.getIndexer().byIndex(CustomResourceCache.OWNER_INDEX, ownerUid));
+  }
+
+  /**
+   * List the resources that reference the SGCluster with the specified namespace and name through
+   * their {@code spec.sgCluster} field.
+   */
+  public List<T> listByCluster(String namespace, String clusterName) {
+    return copy(informer.getIndexer().byIndex(CustomResourceCache.CLUSTER_INDEX,
+        namespace + "/" + clusterName));
+  }
+
+  /**
+   * List the resources that reference the SGDistributedLogs with the specified namespace and name.
+   */
+  public List<T> listByDistributedLogs(String namespace, String distributedLogsName) {
+    return copy(informer.getIndexer().byIndex(CustomResourceCache.DISTRIBUTED_LOGS_INDEX,
+        namespace + "/" + distributedLogsName));
+  }
+
+  private List<T> copy(List<T> resources) {
+    return resources.stream()
+        .map(copier)
+        .collect(Collectors.toList());
+  }
+
+}
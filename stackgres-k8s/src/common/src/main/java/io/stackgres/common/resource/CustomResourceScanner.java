@@ -8,7 +8,10 @@ package io.stackgres.common.resource;
 import java.util.List;
 import java.util.Optional;
 
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /*
  * Look for resources T in the kubernetes cluster
@@ -45,4 +48,18 @@ public interface CustomResourceScanner<T> {
    */
   @NotNull Optional<List<@NotNull T>> findResources(String namespace);
 
+  /**
+   * watches the changes of resources T in the given namespace.
+   *
+   * @param namespace the namespace to look into or {@code null} to look into all namespaces
+   * @param resourceVersion the resource version after which changes are received or
+   *     {@code null} to receive first an event for each existing resource
+   * @param watcher the watcher that will receive the changes, if it is a {@link ResyncWatcher}
+   *     it is notified when the resource version is too old and the watch starts again from the
+   *     current state
+   * @return {@code Watch} that has to be closed to stop receiving changes
+   */
+  @NotNull Watch watch(@Nullable String namespace, @Nullable String resourceVersion,
+      @NotNull Watcher<T> watcher);
+
 }
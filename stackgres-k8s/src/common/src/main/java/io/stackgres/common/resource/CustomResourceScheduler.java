@@ -24,4 +24,11 @@ public interface CustomResourceScheduler<T extends CustomResource<?, ?>> {
 
   void delete(@NotNull T resource);
 
+  /**
+   * Return the number of status updates that were not sent because the status did not change.
+   */
+  default long getSkippedStatusUpdates() {
+    return 0;
+  }
+
 }
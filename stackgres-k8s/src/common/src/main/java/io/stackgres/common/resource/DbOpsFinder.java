@@ -21,12 +21,13 @@ public class DbOpsFinder
    * Create a {@code DbOpsFinder} instance.
    */
   @Inject
-  public DbOpsFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresDbOps.class, StackGresDbOpsList.class);
+  public DbOpsFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresDbOps.class, StackGresDbOpsList.class);
   }
 
   public DbOpsFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
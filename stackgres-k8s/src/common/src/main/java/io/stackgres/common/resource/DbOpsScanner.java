@@ -18,13 +18,14 @@ public class DbOpsScanner
     extends AbstractCustomResourceScanner<StackGresDbOps, StackGresDbOpsList> {
 
   @Inject
-  public DbOpsScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory,
+  public DbOpsScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache,
         StackGresDbOps.class, StackGresDbOpsList.class);
   }
 
   public DbOpsScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
@@ -21,12 +21,13 @@ public class DistributedLogsFinder
    * Create a {@code DistributedLogsFinder} instance.
    */
   @Inject
-  public DistributedLogsFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresDistributedLogs.class, StackGresDistributedLogsList.class);
+  public DistributedLogsFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresDistributedLogs.class, StackGresDistributedLogsList.class);
   }
 
   public DistributedLogsFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
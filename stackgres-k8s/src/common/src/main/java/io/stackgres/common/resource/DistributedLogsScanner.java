@@ -18,12 +18,13 @@ public class DistributedLogsScanner
     extends AbstractCustomResourceScanner<StackGresDistributedLogs, StackGresDistributedLogsList> {
 
   @Inject
-  public DistributedLogsScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresDistributedLogs.class, StackGresDistributedLogsList.class);
+  public DistributedLogsScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresDistributedLogs.class, StackGresDistributedLogsList.class);
   }
 
   public DistributedLogsScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
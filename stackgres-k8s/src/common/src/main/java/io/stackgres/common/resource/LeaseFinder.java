@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.stackgres.common.KubernetesClientFactory;
+
+@ApplicationScoped
+public class LeaseFinder implements ResourceFinder<Lease> {
+
+  final KubernetesClientFactory kubClientFactory;
+
+  @Inject
+  public LeaseFinder(KubernetesClientFactory kubClientFactory) {
+    this.kubClientFactory = kubClientFactory;
+  }
+
+  @Override
+  public Optional<Lease> findByName(String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Optional<Lease> findByNameAndNamespace(String name, String namespace) {
+    try (KubernetesClient client = kubClientFactory.create()) {
+      return Optional.ofNullable(client.leases().inNamespace(namespace).withName(name).get());
+    }
+  }
+
+}
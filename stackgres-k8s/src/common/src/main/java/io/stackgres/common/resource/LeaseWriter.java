@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.Namespaceable;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.stackgres.common.CdiUtil;
+import io.stackgres.common.KubernetesClientFactory;
+
+@ApplicationScoped
+public class LeaseWriter extends AbstractResourceWriter<Lease, LeaseList> {
+
+  private final KubernetesClientFactory clientFactory;
+
+  @Inject
+  public LeaseWriter(KubernetesClientFactory clientFactory) {
+    super(clientFactory);
+    this.clientFactory = clientFactory;
+  }
+
+  public LeaseWriter() {
+    super(null);
+    CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
+    this.clientFactory = null;
+  }
+
+  /**
+   * Replace the lease only if it was not modified since it was read, a conflict (HTTP 409) is
+   * returned otherwise so that two holders can not acquire the lease at the same time.
+   */
+  @Override
+  public Lease update(Lease resource) {
+    try (KubernetesClient client = clientFactory.create()) {
+      return client.leases()
+          .inNamespace(resource.getMetadata().getNamespace())
+          .withName(resource.getMetadata().getName())
+          .lockResourceVersion(resource.getMetadata().getResourceVersion())
+          .replace(resource);
+    }
+  }
+
+  @Override
+  protected Namespaceable<NonNamespaceOperation<Lease, LeaseList, Resource<Lease>>>
+      getResourceEndpoints(KubernetesClient client) {
+    return client.leases();
+  }
+
+}
@@ -18,12 +18,14 @@ public class PgConfigScanner extends
     AbstractCustomResourceScanner<StackGresPostgresConfig, StackGresPostgresConfigList> {
 
   @Inject
-  public PgConfigScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory,         StackGresPostgresConfig.class, StackGresPostgresConfigList.class);
+  public PgConfigScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache,
+        StackGresPostgresConfig.class, StackGresPostgresConfigList.class);
   }
 
   public PgConfigScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
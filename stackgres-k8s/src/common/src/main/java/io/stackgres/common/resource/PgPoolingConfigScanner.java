@@ -18,12 +18,13 @@ public class PgPoolingConfigScanner
     extends AbstractCustomResourceScanner<StackGresPoolingConfig, StackGresPoolingConfigList> {
 
   @Inject
-  public PgPoolingConfigScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresPoolingConfig.class, StackGresPoolingConfigList.class);
+  public PgPoolingConfigScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresPoolingConfig.class, StackGresPoolingConfigList.class);
   }
 
   public PgPoolingConfigScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
@@ -6,16 +6,22 @@
 package io.stackgres.common.resource;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.UncheckedIOException;
+import java.io.OutputStream;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -27,67 +33,115 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.ExecListener;
 import io.fabric8.kubernetes.client.dsl.ExecWatch;
 import io.fabric8.kubernetes.client.utils.Serialization;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import io.stackgres.common.KubernetesClientFactory;
 import okhttp3.Response;
 
 @ApplicationScoped
 public class PodExecutor {
 
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+  private static final int MAX_ERROR_BYTES = 64 * 1024;
+  private static final ScheduledExecutorService TIMEOUT_EXECUTOR =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "PodExecutorTimeout");
+        thread.setDaemon(true);
+        return thread;
+      });
+
   private KubernetesClientFactory clientFactory;
 
   /**
-   * Execute a command inside a container of a pod.
+   * Execute a command inside a container of a pod and return the lines of its standard output
+   * followed by the lines of its standard error.
    */
   public List<String> exec(Pod pod, String container,
       String... args) {
-    CompletableFuture<Void> completableFuture = new CompletableFuture<>();
-    try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
-        ByteArrayOutputStream errorCodeStream = new ByteArrayOutputStream();
-        KubernetesClient client = clientFactory.create();
-        ExecWatch execWatch = client.pods()
+    return streamExec(pod, container, DEFAULT_TIMEOUT, args)
+        .collect().asList()
+        .await().indefinitely();
+  }
+
+  /**
+   * Execute a command inside a container of a pod and emit the lines of its standard output as
+   * they are received, followed by the lines of its standard error once the command exits.
+   *
+   * <p>Standard output is read on demand from a bounded pipe so that a slow subscriber holds back
+   * the command instead of buffering its output in memory, while standard error is kept up to
+   * 64KiB. The stream fails if the command exits with a non zero code or does not end within the
+   * timeout, and the exec session is closed when the stream terminates or is cancelled.
+   */
+  public Multi<String> streamExec(Pod pod, String container, Duration timeout,
+      String... args) {
+    return Multi.createFrom().resource(
+        () -> new PodExecution(pod, container, timeout, args),
+        execution -> Multi.createFrom().items(execution::readOutput)
+            .onFailure().transform(execution::toFailure)
+            .onCompletion().switchTo(() -> Uni.createFrom().completionStage(execution.exited)
+                .onItem().transformToMulti(Multi.createFrom()::iterable)))
+        .withFinalizer(PodExecution::close);
+  }
+
+  private final class PodExecution implements ExecListener {
+    private final Pod pod;
+    private final String container;
+    private final String[] args;
+    private final BoundedOutputStream errorStream = new BoundedOutputStream(MAX_ERROR_BYTES);
+    private final BoundedOutputStream errorCodeStream = new BoundedOutputStream(MAX_ERROR_BYTES);
+    private final CompletableFuture<List<String>> exited = new CompletableFuture<>();
+    private final KubernetesClient client;
+    private final ExecWatch execWatch;
+    private final ScheduledFuture<?> timeoutFuture;
+
+    private PodExecution(Pod pod, String container, Duration timeout, String[] args) {
+      this.pod = pod;
+      this.container = container;
+      this.args = args;
+      this.client = clientFactory.create();
+      try {
+        this.execWatch = client.pods()
             .inNamespace(pod.getMetadata().getNamespace())
             .withName(pod.getMetadata().getName())
             .inContainer(container)
-            .writingOutput(outputStream)
+            .redirectingOutput()
             .writingError(errorStream)
             .writingErrorChannel(errorCodeStream)
-            .usingListener(new PodExecListener(outputStream, pod, args, completableFuture,
-                errorStream, container, errorCodeStream))
-            .exec(args)) {
-      completableFuture.join();
-
-      try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(
-          outputStream.toByteArray());
-          InputStreamReader inputStreamReader = new InputStreamReader(
-              byteArrayInputStream, StandardCharsets.UTF_8);
-          BufferedReader bufferedReader = new BufferedReader(inputStreamReader)) {
-        return bufferedReader.lines().collect(Collectors.toList());
+            .usingListener(this)
+            .exec(args);
+      } catch (RuntimeException ex) {
+        client.close();
+        throw ex;
       }
-    } catch (IOException ex) {
-      throw new UncheckedIOException(ex);
+      this.timeoutFuture = TIMEOUT_EXECUTOR.schedule(this::timeout,
+          timeout.toMillis(), TimeUnit.MILLISECONDS);
     }
-  }
 
-  private static final class PodExecListener implements ExecListener {
-    private final ByteArrayOutputStream outputStream;
-    private final Pod pod;
-    private final String[] args;
-    private final CompletableFuture<Void> completableFuture;
-    private final ByteArrayOutputStream errorStream;
-    private final String container;
-    private final ByteArrayOutputStream errorCodeStream;
+    private Stream<String> readOutput() {
+      return new BufferedReader(new InputStreamReader(
+          execWatch.getOutput(), StandardCharsets.UTF_8)).lines();
+    }
 
-    private PodExecListener(ByteArrayOutputStream outputStream, Pod pod, String[] args,
-        CompletableFuture<Void> completableFuture, ByteArrayOutputStream errorStream,
-        String container, ByteArrayOutputStream errorCodeStream) {
-      this.outputStream = outputStream;
-      this.pod = pod;
-      this.args = args;
-      this.completableFuture = completableFuture;
-      this.errorStream = errorStream;
-      this.container = container;
-      this.errorCodeStream = errorCodeStream;
+    private Throwable toFailure(Throwable failure) {
+      if (exited.isCompletedExceptionally()) {
+        return exited.handle((lines, ex) -> ex).join();
+      }
+      return failure;
+    }
+
+    private void timeout() {
+      exited.completeExceptionally(new TimeoutException(
+          "Command timed out on container " + container
+          + " of pod " + pod.getMetadata().getName()
+          + " in namespace " + pod.getMetadata().getNamespace()
+          + " with arguments " + Arrays.asList(args)));
+      execWatch.close();
+    }
+
+    private void close() {
+      timeoutFuture.cancel(false);
+      execWatch.close();
+      client.close();
     }
 
     @Override
@@ -95,16 +149,13 @@ public class PodExecutor {
 
     @Override
     public void onFailure(Throwable t, Response response) {
-      completableFuture.completeExceptionally(t);
+      exited.completeExceptionally(t);
     }
 
     @Override
     public void onClose(int code, String reason) {
       try {
-        outputStream.write(errorStream.toByteArray());
-        Status status = Serialization.unmarshal(
-            new String(errorCodeStream.toByteArray(), StandardCharsets.UTF_8),
-            Status.class);
+        Status status = Serialization.unmarshal(errorCodeStream.toString(), Status.class);
 
         int exitCode = status.getStatus().equals("Success") ? 0
             : Integer.parseInt(status.getDetails().getCauses().stream()
@@ -113,31 +164,57 @@ public class PodExecutor {
                 .map(StatusCause::getMessage)
                 .findFirst().orElse("-1"));
         if (exitCode != 0) {
-          try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(
-              outputStream.toByteArray());
-              InputStreamReader inputStreamReader = new InputStreamReader(
-                  byteArrayInputStream, StandardCharsets.UTF_8);
-              BufferedReader bufferedReader = new BufferedReader(inputStreamReader)) {
-            completableFuture.completeExceptionally(new RuntimeException(
-                "Command exited with code " + exitCode + " on container "
-                    + container
-                    + " of pod " + pod.getMetadata().getName()
-                    + " in namespace " + pod.getMetadata().getNamespace()
-                    + " with arguments " + Arrays.asList(args) + ": "
-                    + status.getDetails().getCauses().stream()
-                        .filter(cause -> cause.getMessage() != null)
-                        .map(StatusCause::getMessage)
-                        .findFirst().orElse("Unknown cause")
-                    + "\n"
-                    + bufferedReader.lines().collect(Collectors.joining("\n"))));
-          }
+          exited.completeExceptionally(new RuntimeException(
+              "Command exited with code " + exitCode + " on container "
+                  + container
+                  + " of pod " + pod.getMetadata().getName()
+                  + " in namespace " + pod.getMetadata().getNamespace()
+                  + " with arguments " + Arrays.asList(args) + ": "
+                  + status.getDetails().getCauses().stream()
+                      .filter(cause -> cause.getMessage() != null)
+                      .map(StatusCause::getMessage)
+                      .findFirst().orElse("Unknown cause")
+                  + "\n"
+                  + errorStream.toString()));
+          return;
         }
 
-        completableFuture.complete(null);
-      } catch (IOException ex) {
-        completableFuture.completeExceptionally(ex);
+        exited.complete(new BufferedReader(new StringReader(errorStream.toString()))
+            .lines()
+            .collect(Collectors.toList()));
+      } catch (RuntimeException ex) {
+        exited.completeExceptionally(ex);
+      }
+    }
+  }
+
+  /**
+   * Keep the first bytes written up to a limit and discard the rest.
+   */
+  private static final class BoundedOutputStream extends OutputStream {
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final int limit;
+
+    private BoundedOutputStream(int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (buffer.size() < limit) {
+        buffer.write(b);
       }
     }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      buffer.write(b, off, Math.max(0, Math.min(len, limit - buffer.size())));
+    }
+
+    @Override
+    public synchronized String toString() {
+      return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
   }
 
   @Inject
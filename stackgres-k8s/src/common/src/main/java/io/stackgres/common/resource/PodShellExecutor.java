@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.stackgres.common.KubernetesClientFactory;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execute scripts inside a container of a pod through a long-lived shell, so that the exec
+ * session is opened once per pod instead of once per script.
+ *
+ * <p>Scripts sent to the same shell are serialized. A shell is closed when a script fails or
+ * does not end in time, when the pod is replaced or when it has not been used for a while.
+ */
+@ApplicationScoped
+public class PodShellExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PodShellExecutor.class);
+
+  private static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+  private static final String END_MARKER = "--stackgres-script-end-";
+
+  private final Map<String, PodShell> shells = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService timeoutExecutor =
+      Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "PodShellExecutor"));
+  private final AtomicLong scriptCount = new AtomicLong();
+  private final Duration scriptTimeout;
+  private final Duration idleTimeout;
+
+  private KubernetesClientFactory clientFactory;
+
+  public PodShellExecutor() {
+    this(SCRIPT_TIMEOUT, IDLE_TIMEOUT);
+  }
+
+  PodShellExecutor(Duration scriptTimeout, Duration idleTimeout) {
+    this.scriptTimeout = scriptTimeout;
+    this.idleTimeout = idleTimeout;
+  }
+
+  @PostConstruct
+  public void init() {
+    timeoutExecutor.scheduleWithFixedDelay(this::closeIdleShells,
+        idleTimeout.toMillis(), idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Execute a script inside a container of a pod and return its standard output lines. The
+   * script must not read from the standard input.
+   */
+  public List<String> exec(Pod pod, String container, String script) {
+    final String key = pod.getMetadata().getNamespace() + "/" + pod.getMetadata().getName()
+        + "/" + container;
+    while (true) {
+      final PodShell shell = getShell(key, pod, container);
+      final Optional<List<String>> lines;
+      try {
+        lines = shell.exec(script);
+      } catch (RuntimeException ex) {
+        shells.remove(key, shell);
+        shell.close();
+        throw ex;
+      }
+      if (lines.isPresent()) {
+        return lines.get();
+      }
+    }
+  }
+
+  private PodShell getShell(String key, Pod pod, String container) {
+    while (true) {
+      final PodShell currentShell = shells.get(key);
+      if (currentShell != null && currentShell.isOpenFor(pod)) {
+        return currentShell;
+      }
+      final PodShell newShell = new PodShell(pod, container);
+      final boolean installed = currentShell == null
+          ? shells.putIfAbsent(key, newShell) == null
+          : shells.replace(key, currentShell, newShell);
+      if (installed) {
+        if (currentShell != null) {
+          currentShell.close();
+        }
+        return newShell;
+      }
+      newShell.close();
+    }
+  }
+
+  void closeIdleShells() {
+    final long now = System.nanoTime();
+    shells.forEach((key, shell) -> {
+      if (shell.closeIfIdle(now)) {
+        shells.remove(key, shell);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    timeoutExecutor.shutdownNow();
+    shells.values().forEach(PodShell::close);
+    shells.clear();
+  }
+
+  private class PodShell implements ExecListener {
+    private final String podUid;
+    private final String podId;
+    private final KubernetesClient client;
+    private final ExecWatch execWatch;
+    private final BufferedReader output;
+    private final Writer input;
+    private final Lock lock = new ReentrantLock();
+    private volatile long lastUsed = System.nanoTime();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private PodShell(Pod pod, String container) {
+      this.podUid = pod.getMetadata().getUid();
+      this.podId = pod.getMetadata().getNamespace() + "." + pod.getMetadata().getName();
+      this.client = clientFactory.create();
+      try {
+        this.execWatch = client.pods()
+            .inNamespace(pod.getMetadata().getNamespace())
+            .withName(pod.getMetadata().getName())
+            .inContainer(container)
+            .redirectingInput()
+            .redirectingOutput()
+            .writingError(OutputStream.nullOutputStream())
+            .usingListener(this)
+            .exec("sh");
+      } catch (RuntimeException ex) {
+        client.close();
+        throw ex;
+      }
+      this.output = new BufferedReader(new InputStreamReader(
+          execWatch.getOutput(), StandardCharsets.UTF_8));
+      this.input = new OutputStreamWriter(execWatch.getInput(), StandardCharsets.UTF_8);
+      LOGGER.debug("Opened shell for pod {}", podId);
+    }
+
+    private boolean isOpenFor(Pod pod) {
+      return !closed.get() && (podUid == null || podUid.equals(pod.getMetadata().getUid()));
+    }
+
+    /**
+     * Return the output lines of the script or empty if the shell was closed before the script
+     * was sent.
+     */
+    private Optional<List<String>> exec(String script) {
+      lock.lock();
+      try {
+        if (closed.get()) {
+          return Optional.empty();
+        }
+        lastUsed = System.nanoTime();
+        return Optional.of(execLocked(script));
+      } finally {
+        lastUsed = System.nanoTime();
+        lock.unlock();
+      }
+    }
+
+    private List<String> execLocked(String script) {
+      final String endMarker = END_MARKER + scriptCount.incrementAndGet();
+      final ScheduledFuture<?> timeout = timeoutExecutor.schedule(
+          this::close, scriptTimeout.toMillis(), TimeUnit.MILLISECONDS);
+      try {
+        input.write("{\n" + script + "\n} < /dev/null\necho '" + endMarker + "'\n");
+        input.flush();
+        final List<String> lines = new ArrayList<>();
+        for (String line = output.readLine(); !endMarker.equals(line);
+            line = output.readLine()) {
+          if (line == null) {
+            throw new IOException("Shell for pod " + podId + " was closed");
+          }
+          lines.add(line);
+        }
+        return lines;
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      } finally {
+        timeout.cancel(false);
+      }
+    }
+
+    /**
+     * Close the shell if it was not used during the idle timeout. A shell running a script is
+     * never idle, it is bound by the script timeout instead.
+     */
+    private boolean closeIfIdle(long now) {
+      if (!lock.tryLock()) {
+        return false;
+      }
+      try {
+        if (closed.get() || now - lastUsed > idleTimeout.toNanos()) {
+          close();
+          return true;
+        }
+        return false;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void onOpen(Response response) {}
+
+    @Override
+    public void onFailure(Throwable t, Response response) {
+      LOGGER.debug("Shell for pod {} failed", podId, t);
+      close();
+    }
+
+    @Override
+    public void onClose(int code, String reason) {
+      LOGGER.debug("Shell for pod {} closed: {}", podId, reason);
+    }
+
+    private void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      execWatch.close();
+      client.close();
+    }
+  }
+
+  @Inject
+  public void setClientFactory(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+  }
+}
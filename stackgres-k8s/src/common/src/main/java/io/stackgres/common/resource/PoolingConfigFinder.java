@@ -21,12 +21,13 @@ public class PoolingConfigFinder
    * Create a {@code PoolingConfigFinder} instance.
    */
   @Inject
-  public PoolingConfigFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresPoolingConfig.class, StackGresPoolingConfigList.class);
+  public PoolingConfigFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresPoolingConfig.class, StackGresPoolingConfigList.class);
   }
 
   public PoolingConfigFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
@@ -21,12 +21,13 @@ public class PostgresConfigFinder
    * Create a {@code PostgresConfigFinder} instance.
    */
   @Inject
-  public PostgresConfigFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresPostgresConfig.class, StackGresPostgresConfigList.class);
+  public PostgresConfigFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresPostgresConfig.class, StackGresPostgresConfigList.class);
   }
 
   public PostgresConfigFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
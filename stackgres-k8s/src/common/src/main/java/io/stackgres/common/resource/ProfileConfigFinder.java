@@ -20,12 +20,13 @@ public class ProfileConfigFinder extends AbstractCustomResourceFinder<StackGresP
    * Create a {@code ProfileConfigFinder} instance.
    */
   @Inject
-  public ProfileConfigFinder(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresProfile.class, StackGresProfileList.class);
+  public ProfileConfigFinder(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresProfile.class, StackGresProfileList.class);
   }
 
   public ProfileConfigFinder() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
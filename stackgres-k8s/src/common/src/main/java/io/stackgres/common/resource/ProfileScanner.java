@@ -18,12 +18,13 @@ public class ProfileScanner
     extends AbstractCustomResourceScanner<StackGresProfile, StackGresProfileList> {
 
   @Inject
-  public ProfileScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, StackGresProfile.class, StackGresProfileList.class);
+  public ProfileScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, StackGresProfile.class, StackGresProfileList.class);
   }
 
   public ProfileScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
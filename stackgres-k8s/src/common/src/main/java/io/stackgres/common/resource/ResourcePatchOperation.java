@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.ExecutionException;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.BaseClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.OperationContext;
+import io.fabric8.kubernetes.client.dsl.base.OperationSupport;
+import io.fabric8.kubernetes.client.utils.ApiVersionUtil;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Patch requests that the Kubernetes client in use does not provide: server-side apply and JSON
+ * merge patches of the status subresource. The requests are sent through the client's own
+ * operation support so that the resource URL, the HTTP client with its interceptors (token
+ * refresh, impersonation, ...) and the handling of failed responses are the same used by the
+ * client for any other request.
+ */
+public class ResourcePatchOperation extends OperationSupport {
+
+  private static final MediaType APPLY_PATCH = MediaType.parse("application/apply-patch+yaml");
+
+  private ResourcePatchOperation(OperationContext context) {
+    super(context);
+  }
+
+  /**
+   * Create a patch operation for the named resource of the specified kind.
+   */
+  public static ResourcePatchOperation of(@NotNull KubernetesClient client,
+      @NotNull Class<? extends HasMetadata> resourceClass, @NotNull String apiVersion,
+      String namespace, @NotNull String name) {
+    return new ResourcePatchOperation(new OperationContext()
+        .withOkhttpClient(((BaseClient) client).getHttpClient())
+        .withConfig(client.getConfiguration())
+        .withApiGroupName(ApiVersionUtil.trimGroupOrNull(apiVersion))
+        .withApiGroupVersion(ApiVersionUtil.trimVersion(apiVersion))
+        .withPlural(HasMetadata.getPlural(resourceClass))
+        .withNamespace(namespace)
+        .withName(name));
+  }
+
+  /**
+   * Create a patch operation for the specified resource.
+   */
+  public static ResourcePatchOperation of(@NotNull KubernetesClient client,
+      @NotNull HasMetadata resource) {
+    return of(client, resource.getClass(), resource.getApiVersion(),
+        resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+  }
+
+  /**
+   * Apply the resource with the specified field manager, forcing the ownership of conflicting
+   * fields. The resource is created if it does not exist.
+   */
+  public <T extends HasMetadata> T apply(@NotNull String patch, @NotNull String fieldManager,
+      @NotNull Class<T> resultClass) {
+    return patch(HttpUrl.get(getUrl(false)).newBuilder()
+        .addQueryParameter("fieldManager", fieldManager)
+        .addQueryParameter("force", "true")
+        .build(), APPLY_PATCH, patch, resultClass);
+  }
+
+  /**
+   * Send a JSON merge patch (RFC 7386) to the status subresource.
+   */
+  public <T extends HasMetadata> T mergePatchStatus(@NotNull String patch,
+      @NotNull Class<T> resultClass) {
+    return patch(HttpUrl.get(getUrl(true)), JSON_MERGE_PATCH, patch, resultClass);
+  }
+
+  private <T> T patch(HttpUrl url, MediaType mediaType, String patch, Class<T> resultClass) {
+    Request.Builder requestBuilder = new Request.Builder()
+        .patch(RequestBody.create(mediaType, patch))
+        .url(url);
+    try {
+      return handleResponse(requestBuilder, resultClass);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw KubernetesClientException.launderThrowable(ex);
+    } catch (ExecutionException | IOException ex) {
+      throw KubernetesClientException.launderThrowable(ex);
+    }
+  }
+
+  private URL getUrl(boolean status) {
+    try {
+      return getResourceUrl(getNamespace(), getName(), status);
+    } catch (MalformedURLException ex) {
+      throw KubernetesClientException.launderThrowable(ex);
+    }
+  }
+
+}
@@ -26,6 +26,8 @@ import io.fabric8.kubernetes.api.model.ObjectReference;
 import io.fabric8.kubernetes.api.model.ObjectReferenceBuilder;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodStatus;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.lambda.tuple.Tuple;
@@ -175,6 +177,18 @@ public class ResourceUtil {
         .build();
   }
 
+  /**
+   * Return {@code true} if the pod has the {@code Ready} condition set to {@code True}.
+   */
+  public static boolean isPodReady(Pod pod) {
+    return Optional.ofNullable(pod.getStatus())
+        .map(PodStatus::getConditions)
+        .stream()
+        .flatMap(List::stream)
+        .anyMatch(condition -> "Ready".equals(condition.getType())
+            && "True".equals(condition.getStatus()));
+  }
+
   public static String encodeSecret(String string) {
     return Base64.getEncoder().encodeToString(string.getBytes(StandardCharsets.UTF_8));
   }
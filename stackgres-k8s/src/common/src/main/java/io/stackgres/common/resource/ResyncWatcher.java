@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import io.fabric8.kubernetes.client.Watcher;
+
+/**
+ * A watcher that is notified when a watch has to start again from the current state, because the
+ * resource version it was watching from is too old. After the notification an {@code ADDED}
+ * event is received again for each existing resource, so any previously received state should be
+ * discarded.
+ */
+public interface ResyncWatcher<T> extends Watcher<T> {
+
+  void onResync();
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KubernetesClientPoolTest {
+
+  private KubernetesClientPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new KubernetesClientPool(new ConfigBuilder()
+        .withMasterUrl("https://localhost:6443")
+        .build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  void leasedClients_shouldShareTheSameHttpClient() {
+    try (KubernetesClient client = pool.lease();
+        KubernetesClient otherClient = pool.lease()) {
+      assertSame(getHttpClient(client), getHttpClient(otherClient));
+      assertEquals(2, pool.getLeases());
+    }
+    assertEquals(0, pool.getLeases());
+  }
+
+  @Test
+  void closingALeasedClient_shouldNotCloseTheSharedHttpClient() {
+    KubernetesClient client = pool.lease();
+    OkHttpClient httpClient = getHttpClient(client);
+    client.close();
+    client.close();
+
+    assertEquals(0, pool.getLeases());
+    assertFalse(httpClient.dispatcher().executorService().isShutdown());
+
+    pool.close();
+    assertTrue(httpClient.dispatcher().executorService().isShutdown());
+  }
+
+  @Test
+  void rotatedToken_shouldBeSetInTheSharedConfig() {
+    AtomicReference<String> token = new AtomicReference<>("token");
+    pool.close();
+    pool = new KubernetesClientPool(() -> new ConfigBuilder()
+        .withMasterUrl("https://localhost:6443")
+        .withOauthToken(token.get())
+        .build(), Duration.ZERO);
+
+    try (KubernetesClient client = pool.lease()) {
+      token.set("rotated");
+      try (KubernetesClient otherClient = pool.lease()) {
+        assertSame(getHttpClient(client), getHttpClient(otherClient));
+        assertEquals("rotated", client.getConfiguration().getOauthToken());
+        assertEquals("rotated", otherClient.getConfiguration().getOauthToken());
+      }
+    }
+  }
+
+  @Test
+  void changedMasterUrl_shouldReplaceTheSharedHttpClient() {
+    AtomicReference<String> masterUrl = new AtomicReference<>("https://localhost:6443");
+    pool.close();
+    pool = new KubernetesClientPool(() -> new ConfigBuilder()
+        .withMasterUrl(masterUrl.get())
+        .build(), Duration.ZERO);
+
+    try (KubernetesClient client = pool.lease()) {
+      masterUrl.set("https://127.0.0.1:6443");
+      try (KubernetesClient otherClient = pool.lease()) {
+        assertNotSame(getHttpClient(client), getHttpClient(otherClient));
+        assertEquals("https://127.0.0.1:6443/", otherClient.getMasterUrl().toString());
+      }
+    }
+  }
+
+  @Test
+  void replacedHttpClient_shouldBeShutdownOnceItsClientsAreClosed() {
+    AtomicReference<String> masterUrl = new AtomicReference<>("https://localhost:6443");
+    pool.close();
+    pool = new KubernetesClientPool(() -> new ConfigBuilder()
+        .withMasterUrl(masterUrl.get())
+        .build(), Duration.ZERO);
+
+    KubernetesClient client = pool.lease();
+    OkHttpClient httpClient = getHttpClient(client);
+    masterUrl.set("https://127.0.0.1:6443");
+    try (KubernetesClient otherClient = pool.lease()) {
+      assertNotSame(httpClient, getHttpClient(otherClient));
+      assertFalse(httpClient.dispatcher().executorService().isShutdown());
+
+      client.close();
+      assertTrue(httpClient.dispatcher().executorService().isShutdown());
+      assertFalse(getHttpClient(otherClient).dispatcher().executorService().isShutdown());
+    }
+  }
+
+  private OkHttpClient getHttpClient(KubernetesClient client) {
+    return ((DefaultKubernetesClient) client).getHttpClient();
+  }
+
+}
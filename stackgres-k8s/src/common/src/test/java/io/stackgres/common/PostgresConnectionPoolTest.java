@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PostgresConnectionPoolTest {
+
+  private final List<FakeConnection> connections = new ArrayList<>();
+  private final AtomicInteger initializations = new AtomicInteger(0);
+
+  @Test
+  void returnedConnection_shouldBeReusedWithoutInitializingTheSessionAgain() throws Exception {
+    try (PostgresConnectionPool pool = createPool(2, Duration.ofMinutes(1))) {
+      pool.getConnection("host", "user", "password", "database").close();
+      pool.getConnection("host", "user", "password", "database").close();
+
+      assertEquals(1, connections.size());
+      assertEquals(1, initializations.get());
+      assertEquals(1, pool.getIdleConnections());
+      assertEquals(0, pool.getActiveConnections());
+    }
+  }
+
+  @Test
+  void connectionsToDifferentDatabases_shouldNotBeShared() throws Exception {
+    try (PostgresConnectionPool pool = createPool(2, Duration.ofMinutes(1))) {
+      pool.getConnection("host", "user", "password", "database").close();
+      pool.getConnection("host", "user", "password", "other").close();
+
+      assertEquals(2, connections.size());
+      assertEquals("jdbc:postgresql://host/database", connections.get(0).url);
+      assertEquals("jdbc:postgresql://host/other", connections.get(1).url);
+    }
+  }
+
+  @Test
+  void whenAllConnectionsAreInUse_shouldWaitForOneToBeReturned() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ofMinutes(1))) {
+      Connection connection = pool.getConnection("host", "user", "password", "database");
+      CompletableFuture<Connection> waitingConnection = CompletableFuture.supplyAsync(() -> {
+        try {
+          return pool.getConnection("host", "user", "password", "database");
+        } catch (SQLException ex) {
+          throw new RuntimeException(ex);
+        }
+      });
+      while (pool.getWaitingRequests() == 0) {
+        Thread.sleep(10);
+      }
+      connection.close();
+
+      waitingConnection.join().close();
+      assertEquals(1, connections.size());
+    }
+  }
+
+  @Test
+  void whenAllConnectionsAreInUse_shouldTimeout() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ofMinutes(1))) {
+      Connection connection = pool.getConnection("host", "user", "password", "database");
+      assertThrows(SQLTimeoutException.class,
+          () -> pool.getConnection("host", "user", "password", "database"));
+      connection.close();
+    }
+  }
+
+  @Test
+  void idleConnections_shouldBeClosedAfterTheIdleTimeout() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ZERO)) {
+      pool.getConnection("host", "user", "password", "database").close();
+      pool.getConnection("host", "user", "password", "database").close();
+
+      assertEquals(2, connections.size());
+      assertTrue(connections.get(0).closed);
+      assertEquals(1, pool.getClosedConnections());
+    }
+  }
+
+  @Test
+  void connectionLeftInATransaction_shouldBeRolledBack() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ofMinutes(1))) {
+      Connection connection = pool.getConnection("host", "user", "password", "database");
+      connection.setAutoCommit(false);
+      connection.close();
+
+      assertEquals(1, connections.get(0).rollbacks);
+      assertTrue(connections.get(0).autoCommit);
+    }
+  }
+
+  @Test
+  void returnedConnection_shouldNotBeUsable() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ofMinutes(1))) {
+      Connection connection = pool.getConnection("host", "user", "password", "database");
+      connection.close();
+
+      assertTrue(connection.isClosed());
+      assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+    }
+  }
+
+  @Test
+  void whenThePasswordChanges_shouldNotReuseConnections() throws Exception {
+    try (PostgresConnectionPool pool = createPool(1, Duration.ofMinutes(1))) {
+      pool.getConnection("host", "user", "password", "database").close();
+      pool.getConnection("host", "user", "changed", "database").close();
+
+      assertEquals(2, connections.size());
+      assertTrue(connections.get(0).closed);
+      assertEquals("changed", connections.get(1).properties.getProperty("password"));
+    }
+  }
+
+  private PostgresConnectionPool createPool(int maxConnections, Duration idleTimeout) {
+    return new PostgresConnectionPool(maxConnections, idleTimeout, Duration.ofMillis(100),
+        connection -> initializations.incrementAndGet(), this::createConnection);
+  }
+
+  private synchronized Connection createConnection(String url, Properties properties) {
+    FakeConnection connection = new FakeConnection(url, properties);
+    connections.add(connection);
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              connection.closed = true;
+              return null;
+            case "isClosed":
+              return connection.closed;
+            case "isValid":
+              return !connection.closed;
+            case "getAutoCommit":
+              return connection.autoCommit;
+            case "setAutoCommit":
+              connection.autoCommit = (Boolean) args[0];
+              return null;
+            case "rollback":
+              connection.rollbacks++;
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static class FakeConnection {
+    private final String url;
+    private final Properties properties;
+    private boolean closed;
+    private boolean autoCommit = true;
+    private int rollbacks;
+
+    private FakeConnection(String url, Properties properties) {
+      this.url = url;
+      this.properties = properties;
+    }
+  }
+
+}
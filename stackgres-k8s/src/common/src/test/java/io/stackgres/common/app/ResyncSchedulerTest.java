@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResyncSchedulerTest {
+
+  private static final long PERIOD = TimeUnit.SECONDS.toNanos(10);
+  private static final long MAX_PERIOD = TimeUnit.SECONDS.toNanos(300);
+
+  private final AtomicLong now = new AtomicLong(0);
+  private final List<String> keys = new ArrayList<>();
+  private final List<String> resyncs = new ArrayList<>();
+
+  private ResyncScheduler<String> scheduler;
+
+  @BeforeEach
+  void setUp() {
+    scheduler = new ResyncScheduler<>("test",
+        Duration.ofNanos(PERIOD), Duration.ofNanos(MAX_PERIOD), 1,
+        () -> keys, resyncs::add, now::get);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  void newKeys_shouldBeSpreadAcrossThePeriod() {
+    for (int index = 0; index < 100; index++) {
+      keys.add("key-" + index);
+    }
+    scheduler.tick();
+
+    long distinctResyncs = keys.stream().map(scheduler::getNextResync).distinct().count();
+    assertTrue(distinctResyncs > 1);
+    keys.forEach(key -> assertTrue(scheduler.getNextResync(key) < PERIOD));
+
+    now.set(PERIOD);
+    scheduler.tick();
+    assertEquals(keys, resyncs.stream().sorted(this::compareKeys).collect(Collectors.toList()));
+  }
+
+  @Test
+  void dispatchedKey_shouldNotBeResyncedUntilReported() {
+    keys.add("key");
+    now.set(PERIOD);
+    scheduler.tick();
+    now.set(2 * PERIOD);
+    scheduler.tick();
+
+    assertEquals(List.of("key"), resyncs);
+  }
+
+  @Test
+  void successfulKeys_shouldBeResyncedLessOften() {
+    keys.add("key");
+    scheduler.onSuccess("key", 0);
+    assertBetween(PERIOD, scheduler.getNextResync("key"));
+    scheduler.onSuccess("key", 0);
+    assertBetween(2 * PERIOD, scheduler.getNextResync("key"));
+    for (int index = 0; index < 10; index++) {
+      scheduler.onSuccess("key", 0);
+    }
+    assertBetween(MAX_PERIOD, scheduler.getNextResync("key"));
+  }
+
+  @Test
+  void failedKeys_shouldBeRetriedWithBackoff() {
+    keys.add("key");
+    scheduler.onSuccess("key", 0);
+    scheduler.onSuccess("key", 0);
+    scheduler.onFailure("key", new RuntimeException());
+    assertBetween(TimeUnit.SECONDS.toNanos(1), scheduler.getNextResync("key"));
+    scheduler.onFailure("key", new RuntimeException());
+    assertBetween(TimeUnit.SECONDS.toNanos(2), scheduler.getNextResync("key"));
+    for (int index = 0; index < 10; index++) {
+      scheduler.onFailure("key", new RuntimeException());
+    }
+    assertBetween(PERIOD, scheduler.getNextResync("key"));
+  }
+
+  @Test
+  void period_shouldAdaptToResyncDurationAndThrottling() {
+    for (int index = 0; index < 20; index++) {
+      keys.add("key-" + index);
+    }
+    scheduler.tick();
+    assertEquals(Duration.ofNanos(PERIOD), scheduler.getPeriod());
+
+    scheduler.onSuccess("key-0", TimeUnit.SECONDS.toNanos(1));
+    assertEquals(Duration.ofSeconds(40), scheduler.getPeriod());
+
+    scheduler.onFailure("key-1", new RuntimeException(
+        new KubernetesClientException("Too Many Requests", 429, null)));
+    assertEquals(Duration.ofSeconds(80), scheduler.getPeriod());
+  }
+
+  private void assertBetween(long interval, long nextResync) {
+    assertTrue(nextResync >= interval * 0.8 && nextResync <= interval * 1.2,
+        () -> nextResync + " is not around " + interval);
+  }
+
+  private int compareKeys(String key, String other) {
+    return Integer.compare(keys.indexOf(key), keys.indexOf(other));
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClusterScannerTest {
+
+  private final KubernetesServer server = new KubernetesServer(true, false);
+
+  private final BlockingQueue<String> events = new ArrayBlockingQueue<>(16);
+
+  private ClusterScanner scanner;
+
+  private StackGresCluster cluster;
+
+  private String watchPath;
+
+  @BeforeEach
+  void setUp() {
+    server.before();
+    scanner = new ClusterScanner(server::getClient, null);
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    watchPath = "/apis/stackgres.io/v1/namespaces/" + cluster.getMetadata().getNamespace()
+        + "/sgclusters?";
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.after();
+  }
+
+  @Test
+  void givenATooOldResourceVersion_shouldResyncAndRestartTheWatchFromTheCurrentState()
+      throws Exception {
+    server.expect().withPath(watchPath + "resourceVersion=1&watch=true")
+        .andUpgradeToWebSocket()
+        .open()
+        .waitFor(10).andEmit(new WatchEvent(new StatusBuilder()
+            .withCode(410)
+            .withMessage("too old resource version")
+            .build(), "ERROR"))
+        .done()
+        .once();
+    server.expect().withPath(watchPath + "watch=true")
+        .andUpgradeToWebSocket()
+        .open()
+        .waitFor(10).andEmit(new WatchEvent(cluster, "ADDED"))
+        .done()
+        .once();
+
+    Watch watch = scanner.watch(cluster.getMetadata().getNamespace(), "1",
+        new ResyncWatcher<StackGresCluster>() {
+          @Override
+          public void onResync() {
+            events.add("RESYNC");
+          }
+
+          @Override
+          public void eventReceived(Action action, StackGresCluster resource) {
+            events.add(action + " " + resource.getMetadata().getName());
+          }
+
+          @Override
+          public void onClose(WatcherException cause) {
+            events.add("CLOSED");
+          }
+        });
+    try {
+      assertEquals(List.of("RESYNC", "ADDED " + cluster.getMetadata().getName()),
+          List.of(events.poll(10, TimeUnit.SECONDS), events.poll(10, TimeUnit.SECONDS)));
+    } finally {
+      watch.close();
+    }
+  }
+
+}
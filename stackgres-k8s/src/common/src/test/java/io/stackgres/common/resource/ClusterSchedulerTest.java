@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterCondition;
+import io.stackgres.common.crd.sgcluster.StackGresClusterStatus;
+import io.stackgres.testutil.JsonUtil;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClusterSchedulerTest {
+
+  private final KubernetesServer server = new KubernetesServer(true, false);
+
+  private ClusterScheduler scheduler;
+
+  private StackGresCluster cluster;
+
+  private String statusPath;
+
+  @BeforeEach
+  void setUp() {
+    server.before();
+    scheduler = new ClusterScheduler(server::getClient);
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    cluster.getMetadata().setResourceVersion("1");
+    cluster.setStatus(new StackGresClusterStatus());
+    cluster.getStatus().setConditions(List.of(
+        new StackGresClusterCondition("PendingRestart", "False", "FalsePendingRestart")));
+    statusPath = "/apis/stackgres.io/v1/namespaces/" + cluster.getMetadata().getNamespace()
+        + "/sgclusters/" + cluster.getMetadata().getName() + "/status";
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.after();
+  }
+
+  @Test
+  void givenAnUnchangedStatus_shouldSkipTheUpdate() {
+    StackGresCluster updated = Serialization.clone(cluster);
+    updated.getMetadata().setResourceVersion("2");
+    server.expect().put().withPath(statusPath).andReturn(200, updated).once();
+
+    scheduler.updateStatus(cluster);
+    final int requestCount = server.getMockServer().getRequestCount();
+    scheduler.updateStatus(Serialization.clone(updated));
+
+    assertEquals(1, scheduler.getSkippedStatusUpdates());
+    assertEquals(requestCount, server.getMockServer().getRequestCount());
+  }
+
+  @Test
+  void givenAChangedStatus_shouldSendAMergePatchToTheStatusSubresource() throws Exception {
+    StackGresCluster updated = Serialization.clone(cluster);
+    updated.getMetadata().setResourceVersion("2");
+    server.expect().put().withPath(statusPath).andReturn(200, updated).once();
+    server.expect().patch().withPath(statusPath).andReturn(200, updated).once();
+
+    scheduler.updateStatus(cluster);
+    StackGresCluster changed = Serialization.clone(updated);
+    changed.getStatus().setConditions(List.of(
+        new StackGresClusterCondition("PendingRestart", "True", "PodRequiresRestart")));
+    scheduler.updateStatus(changed);
+
+    RecordedRequest request = server.getLastRequest();
+    assertEquals("PATCH", request.getMethod());
+    assertEquals(statusPath, request.getPath());
+    assertEquals("application/merge-patch+json; charset=utf-8",
+        request.getHeader("Content-Type"));
+    JsonNode patch = Serialization.jsonMapper().readTree(request.getBody().readUtf8());
+    assertEquals("2", patch.get("metadata").get("resourceVersion").asText());
+    assertEquals(List.of("conditions"), ImmutableList.copyOf(patch.get("status").fieldNames()));
+    assertEquals("True", patch.get("status").get("conditions").get(0).get("status").asText());
+    assertEquals(0, scheduler.getSkippedStatusUpdates());
+  }
+
+}
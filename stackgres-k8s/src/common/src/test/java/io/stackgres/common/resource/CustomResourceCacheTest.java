@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CustomResourceCacheTest {
+
+  @Mock
+  private SharedIndexInformer<StackGresCluster> informer;
+
+  @Mock
+  private Indexer<StackGresCluster> indexer;
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private CustomResourceCache cache;
+
+  private StackGresCluster cluster;
+
+  @BeforeEach
+  void setUp() {
+    cluster = new StackGresCluster();
+    cluster.setMetadata(new ObjectMetaBuilder()
+        .withNamespace("test")
+        .withName("cluster")
+        .build());
+    lenient().when(informer.getIndexer()).thenReturn(indexer);
+  }
+
+  @Test
+  void indexedResources_shouldBeTheCachedOnes() {
+    when(indexer.getByKey("test/cluster")).thenReturn(cluster);
+    when(indexer.byIndex(CustomResourceCache.NAMESPACE_INDEX, "test"))
+        .thenReturn(List.of(cluster));
+
+    CustomResourceIndex<StackGresCluster> index = new CustomResourceIndex<>(informer);
+
+    assertSame(cluster, index.find("test", "cluster").orElseThrow());
+    assertSame(cluster, index.list("test").get(0));
+  }
+
+  @Test
+  void copiedResources_shouldBeCopiesOfTheCachedOnes() {
+    when(indexer.getByKey("test/cluster")).thenReturn(cluster);
+    when(indexer.byIndex(CustomResourceCache.NAMESPACE_INDEX, "test"))
+        .thenReturn(List.of(cluster));
+
+    CustomResourceIndex<StackGresCluster> index = new CustomResourceIndex<>(informer).copies();
+
+    StackGresCluster found = index.find("test", "cluster").orElseThrow();
+    assertEquals(cluster, found);
+    assertNotSame(cluster, found);
+    found.getMetadata().setName("changed");
+    assertEquals("cluster", cluster.getMetadata().getName());
+
+    List<StackGresCluster> listed = index.list("test");
+    assertEquals(List.of(cluster), listed);
+    assertNotSame(cluster, listed.get(0));
+  }
+
+  @Test
+  void resourcesReferencingACluster_shouldBeLookedUpByNamespaceAndClusterName() {
+    when(indexer.byIndex(CustomResourceCache.CLUSTER_INDEX, "test/cluster"))
+        .thenReturn(List.of(cluster));
+
+    CustomResourceIndex<StackGresCluster> index = new CustomResourceIndex<>(informer);
+
+    assertEquals(List.of(cluster), index.listByCluster("test", "cluster"));
+  }
+
+  @Test
+  void clustersReferencingADistributedLogs_shouldBeLookedUpByNamespaceAndName() {
+    when(indexer.byIndex(CustomResourceCache.DISTRIBUTED_LOGS_INDEX, "logs/distributedlogs"))
+        .thenReturn(List.of(cluster));
+
+    CustomResourceIndex<StackGresCluster> index = new CustomResourceIndex<>(informer);
+
+    assertEquals(List.of(cluster), index.listByDistributedLogs("logs", "distributedlogs"));
+  }
+
+  @Test
+  void givenACachedResource_finderShouldNotQueryTheApiServer() {
+    when(indexer.getByKey("test/cluster")).thenReturn(cluster);
+    when(cache.getIndex(StackGresCluster.class))
+        .thenReturn(Optional.of(new CustomResourceIndex<>(informer)));
+
+    ClusterFinder finder = new ClusterFinder(clientFactory, cache);
+
+    assertTrue(finder.findByNameAndNamespace("cluster", "test").isPresent());
+    verify(cache).getIndex(any());
+    verifyNoInteractions(clientFactory);
+  }
+
+  @Test
+  void ownedResourceWithGeneration_shouldChangeOnlyWhenTheGenerationChanges() {
+    StatefulSet statefulSet = new StatefulSetBuilder()
+        .withNewMetadata()
+        .withResourceVersion("1")
+        .withGeneration(1L)
+        .endMetadata()
+        .withNewStatus()
+        .withReadyReplicas(1)
+        .endStatus()
+        .build();
+
+    assertFalse(CustomResourceCache.isOwnedContentChanged(statefulSet,
+        new StatefulSetBuilder(statefulSet)
+            .editMetadata().withResourceVersion("2").endMetadata()
+            .editStatus().withReadyReplicas(2).endStatus()
+            .build()));
+    assertTrue(CustomResourceCache.isOwnedContentChanged(statefulSet,
+        new StatefulSetBuilder(statefulSet)
+            .editMetadata().withResourceVersion("2").withGeneration(2L).endMetadata()
+            .build()));
+  }
+
+  @Test
+  void ownedResourceWithoutGeneration_shouldChangeOnlyWhenTheContentChanges() {
+    Service service = new ServiceBuilder()
+        .withNewMetadata()
+        .withResourceVersion("1")
+        .endMetadata()
+        .withNewSpec()
+        .withType("ClusterIP")
+        .endSpec()
+        .build();
+
+    assertFalse(CustomResourceCache.isOwnedContentChanged(service,
+        new ServiceBuilder(service)
+            .editMetadata().withResourceVersion("2").addToAnnotations("leader", "pod-0")
+            .endMetadata()
+            .build()));
+    assertTrue(CustomResourceCache.isOwnedContentChanged(service,
+        new ServiceBuilder(service)
+            .editMetadata().withResourceVersion("2").endMetadata()
+            .editSpec().withType("LoadBalancer").endSpec()
+            .build()));
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ExecListener;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorChannelable;
+import io.fabric8.kubernetes.client.dsl.TtyExecErrorable;
+import io.fabric8.kubernetes.client.dsl.TtyExecable;
+import io.stackgres.common.KubernetesClientFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PodExecutorTest {
+
+  private static final String SUCCESS = "{\"status\":\"Success\"}";
+
+  private static final String FAILURE = "{\"status\":\"Failure\",\"details\":{\"causes\":["
+      + "{\"reason\":\"ExitCode\",\"message\":\"1\"}]}}";
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private KubernetesClient client;
+
+  @Mock
+  private MixedOperation<Pod, PodList, PodResource<Pod>> pods;
+
+  @Mock
+  private NonNamespaceOperation<Pod, PodList, PodResource<Pod>> namespacedPods;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private PodResource<Pod> podResource;
+
+  @Mock
+  private TtyExecErrorChannelable<String, OutputStream, PipedInputStream, ExecWatch> errorChannel;
+
+  @Mock
+  private TtyExecable<String, ExecWatch> execable;
+
+  @Mock
+  private ExecWatch execWatch;
+
+  private OutputStream errorStream;
+
+  private OutputStream errorChannelStream;
+
+  private ExecListener listener;
+
+  private PodExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    when(clientFactory.create()).thenReturn(client);
+    when(client.pods()).thenReturn(pods);
+    when(pods.inNamespace("test")).thenReturn(namespacedPods);
+    when(namespacedPods.withName("pod")).thenReturn(podResource);
+    TtyExecErrorable<String, OutputStream, PipedInputStream, ExecWatch> errorable =
+        podResource.inContainer("patroni").redirectingOutput();
+    when(errorable.writingError(any())).then(invocation -> {
+      errorStream = invocation.getArgument(0);
+      return errorChannel;
+    });
+    when(errorChannel.writingErrorChannel(any())).then(invocation -> {
+      errorChannelStream = invocation.getArgument(0);
+      return execable;
+    });
+    when(execable.usingListener(any())).then(invocation -> {
+      listener = invocation.getArgument(0);
+      return execable;
+    });
+    executor = new PodExecutor();
+    executor.setClientFactory(clientFactory);
+  }
+
+  @Test
+  void standardError_shouldBeEmittedAfterTheStandardOutput() {
+    when(execable.exec("ls")).then(invocation -> exited(SUCCESS, "error\n"));
+    when(execWatch.getOutput()).thenReturn(
+        new ByteArrayInputStream("line 1\nline 2\n".getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(List.of("line 1", "line 2", "error"),
+        executor.exec(pod(), "patroni", "ls"));
+    verify(execWatch).close();
+    verify(client).close();
+  }
+
+  @Test
+  void standardError_shouldBeTruncatedAt64KiB() {
+    when(execable.exec("ls")).then(invocation -> exited(SUCCESS, "x".repeat(100 * 1024)));
+    when(execWatch.getOutput()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+    assertEquals(List.of("x".repeat(64 * 1024)), executor.exec(pod(), "patroni", "ls"));
+  }
+
+  @Test
+  void nonZeroExitCode_shouldFailWithTheStandardError() {
+    when(execable.exec("ls")).then(invocation -> exited(FAILURE, "ls: not found\n"));
+    when(execWatch.getOutput()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+    RuntimeException ex = assertThrows(RuntimeException.class,
+        () -> executor.exec(pod(), "patroni", "ls"));
+
+    assertTrue(ex.getMessage().startsWith("Command exited with code 1 on container patroni"),
+        ex.getMessage());
+    assertTrue(ex.getMessage().endsWith("ls: not found\n"), ex.getMessage());
+  }
+
+  @Test
+  void commandNotEndingInTime_shouldFailWithTimeout() throws IOException {
+    final PipedOutputStream output = new PipedOutputStream();
+    when(execable.exec("sleep")).thenReturn(execWatch);
+    when(execWatch.getOutput()).thenReturn(new PipedInputStream(output));
+    doAnswer(invocation -> {
+      output.close();
+      return null;
+    }).when(execWatch).close();
+
+    RuntimeException ex = assertThrows(RuntimeException.class,
+        () -> executor.streamExec(pod(), "patroni", Duration.ofMillis(100), "sleep")
+            .collect().asList()
+            .await().atMost(Duration.ofSeconds(10)));
+
+    assertTrue(ex.getCause() instanceof TimeoutException, ex.toString());
+  }
+
+  private ExecWatch exited(String status, String error) throws IOException {
+    errorStream.write(error.getBytes(StandardCharsets.UTF_8));
+    errorChannelStream.write(status.getBytes(StandardCharsets.UTF_8));
+    listener.onClose(1000, "");
+    return execWatch;
+  }
+
+  private Pod pod() {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withNamespace("test")
+        .withName("pod")
+        .endMetadata()
+        .build();
+  }
+
+}
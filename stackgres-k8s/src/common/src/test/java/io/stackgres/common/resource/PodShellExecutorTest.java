@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ExecWatch;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.stackgres.common.KubernetesClientFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PodShellExecutorTest {
+
+  private static final Pattern SCRIPT_PATTERN = Pattern.compile(
+      "\\{\n(.*)\n\\} < /dev/null\necho '(--stackgres-script-end-[0-9]+)'\n", Pattern.DOTALL);
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private KubernetesClient client;
+
+  @Mock
+  private MixedOperation<Pod, PodList, PodResource<Pod>> pods;
+
+  @Mock
+  private NonNamespaceOperation<Pod, PodList, PodResource<Pod>> namespacedPods;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private PodResource<Pod> podResource;
+
+  private final Deque<ShellMock> shellMocks = new ArrayDeque<>();
+
+  private PodShellExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    when(clientFactory.create()).thenReturn(client);
+    when(client.pods()).thenReturn(pods);
+    when(pods.inNamespace("test")).thenReturn(namespacedPods);
+    when(namespacedPods.withName("pod")).thenReturn(podResource);
+    when(podResource.inContainer("patroni")
+        .redirectingInput().redirectingOutput().writingError(any()).usingListener(any())
+        .exec("sh"))
+        .then(invocation -> shellMocks.removeFirst().open());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.closeAll();
+  }
+
+  @Test
+  void scriptOutput_shouldBeReadUntilTheEndMarker() {
+    executor = newExecutor(Duration.ofSeconds(10), Duration.ofMinutes(1));
+    ShellMock shell = new ShellMock(script -> List.of(script, "--stackgres-script-end-0"));
+    shellMocks.add(shell);
+
+    assertEquals(List.of("echo 1", "--stackgres-script-end-0"),
+        executor.exec(pod("1"), "patroni", "echo 1"));
+    assertEquals(List.of("echo 2", "--stackgres-script-end-0"),
+        executor.exec(pod("1"), "patroni", "echo 2"));
+
+    assertTrue(shellMocks.isEmpty());
+    verify(shell.watch, never()).close();
+  }
+
+  @Test
+  void scriptNotEndingInTime_shouldCloseTheShell() {
+    executor = newExecutor(Duration.ofMillis(100), Duration.ofMinutes(1));
+    ShellMock shell = new ShellMock(script -> null);
+    ShellMock otherShell = new ShellMock(List::of);
+    shellMocks.add(shell);
+    shellMocks.add(otherShell);
+
+    assertThrows(UncheckedIOException.class,
+        () -> executor.exec(pod("1"), "patroni", "sleep 20"));
+    verify(shell.watch).close();
+
+    assertEquals(List.of("echo 1"), executor.exec(pod("1"), "patroni", "echo 1"));
+    assertTrue(shellMocks.isEmpty());
+  }
+
+  @Test
+  void idleShell_shouldBeClosed() {
+    executor = newExecutor(Duration.ofSeconds(10), Duration.ofMillis(100));
+    executor.init();
+    ShellMock shell = new ShellMock(List::of);
+    ShellMock otherShell = new ShellMock(List::of);
+    shellMocks.add(shell);
+    shellMocks.add(otherShell);
+
+    executor.exec(pod("1"), "patroni", "echo 1");
+    verify(shell.watch, timeout(5000)).close();
+
+    assertEquals(List.of("echo 2"), executor.exec(pod("1"), "patroni", "echo 2"));
+    assertTrue(shellMocks.isEmpty());
+  }
+
+  @Test
+  void failedShell_shouldBeReopened() {
+    executor = newExecutor(Duration.ofSeconds(10), Duration.ofMinutes(1));
+    ShellMock shell = new ShellMock(List::of);
+    ShellMock otherShell = new ShellMock(List::of);
+    shellMocks.add(shell);
+    shellMocks.add(otherShell);
+
+    executor.exec(pod("1"), "patroni", "echo 1");
+    shell.watch.close();
+
+    assertThrows(UncheckedIOException.class,
+        () -> executor.exec(pod("1"), "patroni", "echo 2"));
+    assertEquals(List.of("echo 3"), executor.exec(pod("1"), "patroni", "echo 3"));
+    assertTrue(shellMocks.isEmpty());
+  }
+
+  @Test
+  void replacedPod_shouldCloseThePreviousShell() {
+    executor = newExecutor(Duration.ofSeconds(10), Duration.ofMinutes(1));
+    ShellMock shell = new ShellMock(List::of);
+    ShellMock otherShell = new ShellMock(List::of);
+    shellMocks.add(shell);
+    shellMocks.add(otherShell);
+
+    executor.exec(pod("1"), "patroni", "echo 1");
+    assertEquals(List.of("echo 2"), executor.exec(pod("2"), "patroni", "echo 2"));
+
+    verify(shell.watch).close();
+    verify(otherShell.watch, never()).close();
+  }
+
+  private PodShellExecutor newExecutor(Duration scriptTimeout, Duration idleTimeout) {
+    PodShellExecutor podShellExecutor = new PodShellExecutor(scriptTimeout, idleTimeout);
+    podShellExecutor.setClientFactory(clientFactory);
+    return podShellExecutor;
+  }
+
+  private Pod pod(String uid) {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withNamespace("test")
+        .withName("pod")
+        .withUid(uid)
+        .endMetadata()
+        .build();
+  }
+
+  /**
+   * Emulate a shell that answers each script with the lines returned by the responder followed
+   * by the end marker, or with nothing if the responder returns {@code null}.
+   */
+  private static class ShellMock {
+    private final Function<String, List<String>> responder;
+    private final ExecWatch watch = mock(ExecWatch.class);
+    private final PipedOutputStream output = new PipedOutputStream();
+
+    private ShellMock(Function<String, List<String>> responder) {
+      this.responder = responder;
+    }
+
+    private ExecWatch open() throws IOException {
+      PipedInputStream outputReader = new PipedInputStream(output);
+      when(watch.getOutput()).thenReturn(outputReader);
+      when(watch.getInput()).thenReturn(new ScriptInput());
+      lenient().doAnswer(invocation -> {
+        output.close();
+        return null;
+      }).when(watch).close();
+      return watch;
+    }
+
+    private class ScriptInput extends OutputStream {
+      private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+      @Override
+      public void write(int b) {
+        buffer.write(b);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        Matcher matcher = SCRIPT_PATTERN.matcher(buffer.toString(StandardCharsets.UTF_8));
+        buffer.reset();
+        if (!matcher.matches()) {
+          throw new IOException("Unexpected input " + matcher);
+        }
+        List<String> lines = responder.apply(matcher.group(1));
+        if (lines == null) {
+          return;
+        }
+        for (String line : lines) {
+          output.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        output.write((matcher.group(2) + "\n").getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.common.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResourcePatchOperationTest {
+
+  private final List<Request> requests = new ArrayList<>();
+
+  private int responseCode;
+
+  private String responseBody;
+
+  private KubernetesClient client;
+
+  @BeforeEach
+  void setUp() {
+    OkHttpClient httpClient = new OkHttpClient.Builder()
+        .addInterceptor(chain -> {
+          requests.add(chain.request());
+          return new Response.Builder()
+              .request(chain.request())
+              .protocol(Protocol.HTTP_1_1)
+              .code(responseCode)
+              .message("")
+              .body(ResponseBody.create(MediaType.parse("application/json"), responseBody))
+              .build();
+        })
+        .build();
+    client = new DefaultKubernetesClient(httpClient, new ConfigBuilder()
+        .withMasterUrl("https://localhost:6443")
+        .build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    client.close();
+  }
+
+  @Test
+  void apply_shouldPatchTheResourceWithTheFieldManager() throws Exception {
+    ConfigMap configMap = new ConfigMapBuilder()
+        .withNewMetadata()
+        .withNamespace("test")
+        .withName("config")
+        .endMetadata()
+        .addToData("key", "value")
+        .build();
+    responseCode = 200;
+    responseBody = Serialization.asJson(configMap);
+
+    ConfigMap applied = ResourcePatchOperation.of(client, configMap)
+        .apply(Serialization.asJson(configMap), "stackgres", ConfigMap.class);
+
+    assertEquals("value", applied.getData().get("key"));
+    Request request = requests.get(0);
+    assertEquals("PATCH", request.method());
+    assertEquals("https://localhost:6443/api/v1/namespaces/test/configmaps/config"
+        + "?fieldManager=stackgres&force=true", request.url().toString());
+    assertEquals("application/apply-patch+yaml",
+        request.body().contentType().type() + "/" + request.body().contentType().subtype());
+    assertEquals(Serialization.asJson(configMap), getBody(request));
+  }
+
+  @Test
+  void mergePatchStatus_shouldPatchTheStatusSubresource() throws Exception {
+    StackGresCluster cluster = new StackGresCluster();
+    cluster.getMetadata().setNamespace("test");
+    cluster.getMetadata().setName("cluster");
+    responseCode = 200;
+    responseBody = Serialization.asJson(cluster);
+
+    ResourcePatchOperation.of(client, cluster)
+        .mergePatchStatus("{\"status\":{}}", StackGresCluster.class);
+
+    Request request = requests.get(0);
+    assertEquals("PATCH", request.method());
+    assertEquals("https://localhost:6443/apis/stackgres.io/v1/namespaces/test"
+        + "/sgclusters/cluster/status", request.url().toString());
+    assertEquals("application/merge-patch+json",
+        request.body().contentType().type() + "/" + request.body().contentType().subtype());
+    assertEquals("{\"status\":{}}", getBody(request));
+  }
+
+  @Test
+  void failedPatch_shouldThrowWithTheResponseCode() {
+    StackGresCluster cluster = new StackGresCluster();
+    cluster.getMetadata().setNamespace("test");
+    cluster.getMetadata().setName("cluster");
+    responseCode = 409;
+    responseBody = "{\"kind\":\"Status\",\"apiVersion\":\"v1\",\"status\":\"Failure\","
+        + "\"message\":\"conflict\",\"reason\":\"Conflict\",\"code\":409}";
+
+    KubernetesClientException ex = assertThrows(KubernetesClientException.class,
+        () -> ResourcePatchOperation.of(client, cluster)
+            .mergePatchStatus("{\"status\":{}}", StackGresCluster.class));
+
+    assertEquals(409, ex.getCode());
+  }
+
+  private String getBody(Request request) throws Exception {
+    Buffer buffer = new Buffer();
+    request.body().writeTo(buffer);
+    return buffer.readUtf8();
+  }
+
+}
@@ -14,6 +14,7 @@ import java.math.BigInteger;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
+import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.stackgres.common.StringUtil;
 import org.jooq.lambda.Seq;
 import org.junit.jupiter.api.Assertions;
@@ -120,4 +121,25 @@ class ResourceUtilTest {
         + "cancelled.kingdom.million.resources.com/My-App"));
   }
 
+  @Test
+  void podWithReadyConditionTrue_shouldBeReady() {
+    assertTrue(ResourceUtil.isPodReady(new PodBuilder()
+        .withNewStatus()
+        .addNewCondition().withType("PodScheduled").withStatus("True").endCondition()
+        .addNewCondition().withType("Ready").withStatus("True").endCondition()
+        .endStatus()
+        .build()));
+  }
+
+  @Test
+  void podWithoutReadyConditionTrue_shouldNotBeReady() {
+    assertFalse(ResourceUtil.isPodReady(new PodBuilder()
+        .withNewStatus()
+        .addNewCondition().withType("PodScheduled").withStatus("True").endCondition()
+        .addNewCondition().withType("Ready").withStatus("False").endCondition()
+        .endStatus()
+        .build()));
+    assertFalse(ResourceUtil.isPodReady(new PodBuilder().build()));
+  }
+
 }
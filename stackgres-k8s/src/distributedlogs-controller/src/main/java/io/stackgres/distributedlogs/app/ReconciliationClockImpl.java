@@ -23,7 +23,7 @@ public class ReconciliationClockImpl extends AbstractReconciliationClock {
   }
 
   @Override
-  protected void reconcile() {
-    distributedLogsReconciliationCycle.reconcile();
+  protected void reconcile() throws Exception {
+    distributedLogsReconciliationCycle.reconciliationCycle().throwIfFailed();
   }
 }
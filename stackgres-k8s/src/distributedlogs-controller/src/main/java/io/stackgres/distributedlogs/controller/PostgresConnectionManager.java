@@ -6,23 +6,43 @@
 package io.stackgres.distributedlogs.controller;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
-import org.postgresql.PGProperty;
+import io.stackgres.common.CdiUtil;
+import io.stackgres.common.PostgresConnectionPool;
+import io.stackgres.common.PostgresConnectionPoolMetrics;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
 
 @ApplicationScoped
 public class PostgresConnectionManager {
 
+  private final PostgresConnectionPool pool;
+
+  @Inject
+  public PostgresConnectionManager(@RegistryType(type = MetricRegistry.Type.APPLICATION)
+      MetricRegistry registry) {
+    this.pool = new PostgresConnectionPool(connection -> { });
+    PostgresConnectionPoolMetrics.register(registry, "distributedlogs_connection_pool_", pool);
+  }
+
+  public PostgresConnectionManager() {
+    CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
+    this.pool = null;
+  }
+
   public Connection getConnection(String host, String username, String password, String database)
       throws SQLException {
-    Properties properties = new Properties();
-    PGProperty.USER.set(properties, username);
-    PGProperty.PASSWORD.set(properties, password);
-    return DriverManager.getConnection("jdbc:postgresql://" + host + "/" + database, properties);
+    return pool.getConnection(host, username, password, database);
+  }
+
+  @PreDestroy
+  public void close() {
+    pool.close();
   }
 
 }
@@ -5,14 +5,13 @@
 
 package io.stackgres.jobs.app;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.KubernetesClientPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,58 +20,22 @@ public class KubernetesClientProvider implements KubernetesClientFactory {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(KubernetesClientProvider.class);
 
-  private static final MetricsHolder metricsHolder = new MetricsHolder();
+  private KubernetesClientPool pool;
+
+  @PostConstruct
+  public void postConstruct() {
+    pool = new KubernetesClientPool();
+  }
 
   @Override
   public KubernetesClient create() {
-    if (LOGGER.isDebugEnabled()) {
-      metricsHolder.newConnection();
-      DebugKubernetesClient client = new DebugKubernetesClient();
-      client.setMetricsHolder(metricsHolder);
-      return client;
-    } else {
-      return new DefaultKubernetesClient();
-    }
+    return pool.lease();
   }
 
   @PreDestroy
   public void preDestroy() {
-    LOGGER.debug("Connections open on application stop {}", metricsHolder.openConnections.get());
-  }
-
-  private static class MetricsHolder {
-    AtomicInteger openConnections = new AtomicInteger(0);
-
-    void newConnection() {
-      int connections = openConnections.incrementAndGet();
-      String callerName = Thread.currentThread().getStackTrace()[5].getClassName();
-      LOGGER.debug("New connection requested by class {}, current open connections {}",
-          callerName,
-          connections);
-    }
-
-    void closeConnection() {
-      int connections = openConnections.decrementAndGet();
-      String callerName = Thread.currentThread().getStackTrace()[6].getClassName();
-      LOGGER.debug("Connection closed by class {}, current open connections {}",
-          callerName,
-          connections);
-    }
-  }
-
-  private static class DebugKubernetesClient extends DefaultKubernetesClient {
-
-    private MetricsHolder metricsHolder;
-
-    public void setMetricsHolder(MetricsHolder metricsHolder) {
-      this.metricsHolder = metricsHolder;
-    }
-
-    @Override
-    public void close() {
-      metricsHolder.closeConnection();
-      super.close();
-    }
+    LOGGER.debug("Connections open on application stop {}", pool.getLeases());
+    pool.close();
   }
 
 }
@@ -253,6 +253,8 @@ public abstract class AbstractRestartStateHandler implements ClusterRestartState
 
   protected abstract Optional<String> getRestartMethod(StackGresDbOps op);
 
+  protected abstract Optional<Integer> getMaxUnavailableReplicas(StackGresDbOps op);
+
   private void logEvent(String clusterName, RestartEvent event) {
     switch (event.getEventType()) {
       case POD_CREATED:
@@ -298,6 +300,7 @@ public abstract class AbstractRestartStateHandler implements ClusterRestartState
 
     return ImmutableClusterRestartState.builder()
         .restartMethod(method)
+        .maxUnavailableReplicas(getMaxUnavailableReplicas(dbOp))
         .clusterName(dbOp.getSpec().getSgCluster())
         .namespace(dbOp.getMetadata().getNamespace())
         .primaryInstance(getPrimaryInstance(pods))
@@ -31,4 +31,12 @@ public interface ClusterMember {
   Optional<Integer> getTimeline();
 
   Optional<Integer> getLag();
+
+  /**
+   * If the member is a synchronous replica.
+   */
+  @Value.Default
+  default boolean isSynchronous() {
+    return false;
+  }
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import java.util.List;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public interface ClusterMembersSnapshot {
+
+  /**
+   * The value of {@link System#nanoTime()} when the members were requested.
+   */
+  long getRequestedAt();
+
+  List<ClusterMember> getMembers();
+
+}
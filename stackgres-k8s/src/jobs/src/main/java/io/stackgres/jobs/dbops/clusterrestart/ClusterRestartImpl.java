@@ -5,7 +5,9 @@
 
 package io.stackgres.jobs.dbops.clusterrestart;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -14,6 +16,7 @@ import javax.inject.Inject;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.MultiEmitter;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +25,7 @@ import org.slf4j.LoggerFactory;
 public class ClusterRestartImpl implements ClusterRestart {
 
   public static final String REDUCED_IMPACT_METHOD = "ReducedImpact";
+  public static final String PARALLEL_METHOD = "Parallel";
   private static final Logger LOGGER = LoggerFactory.getLogger(ClusterRestartImpl.class);
   private final PodRestart podRestart;
 
@@ -33,17 +37,21 @@ public class ClusterRestartImpl implements ClusterRestart {
 
   private final PostgresRestart postgresRestart;
 
+  private final PatroniApiHandler patroniApiHandler;
+
   @Inject
   public ClusterRestartImpl(PodRestart podRestart,
                             ClusterSwitchoverHandler switchoverHandler,
                             ClusterInstanceManager clusterInstanceManager,
                             Watcher<StackGresCluster> clusterWatcher,
-                            PostgresRestart postgresRestart) {
+                            PostgresRestart postgresRestart,
+                            PatroniApiHandler patroniApiHandler) {
     this.podRestart = podRestart;
     this.switchoverHandler = switchoverHandler;
     this.clusterInstanceManager = clusterInstanceManager;
     this.clusterWatcher = clusterWatcher;
     this.postgresRestart = postgresRestart;
+    this.patroniApiHandler = patroniApiHandler;
   }
 
   @Override
@@ -102,21 +110,26 @@ public class ClusterRestartImpl implements ClusterRestart {
           .filter(pod -> !clusterState.getRestartedInstances().contains(pod))
           .collect(Collectors.toUnmodifiableList());
 
-      for (Pod replica : replicas) {
+      if (isParallel(clusterState)) {
         restartChain = restartChain
-            .onItem()
-            .invoke(() -> LOGGER.info("Restarting pod {}", replica.getMetadata().getName()))
-            .chain(() -> podRestart.restartPod(replica))
-            .onItem()
-            .invoke(() -> {
-              LOGGER.info("Pod {} restarted", replica.getMetadata().getName());
-              em.emit(ImmutableRestartEvent.builder()
-                  .pod(replica)
-                  .eventType(RestartEventType.POD_RESTART)
-                  .build());
-            });
-
-        restartChain = waitForClusterToBeHealthy(clusterState, restartChain);
+            .chain(() -> restartReplicasInParallel(clusterState, replicas, em));
+      } else {
+        for (Pod replica : replicas) {
+          restartChain = restartChain
+              .onItem()
+              .invoke(() -> LOGGER.info("Restarting pod {}", replica.getMetadata().getName()))
+              .chain(() -> podRestart.restartPod(replica))
+              .onItem()
+              .invoke(() -> {
+                LOGGER.info("Pod {} restarted", replica.getMetadata().getName());
+                em.emit(ImmutableRestartEvent.builder()
+                    .pod(replica)
+                    .eventType(RestartEventType.POD_RESTART)
+                    .build());
+              });
+
+          restartChain = waitForClusterToBeHealthy(clusterState, restartChain);
+        }
       }
 
       if (!clusterState.isSwitchoverInitiated()) {
@@ -171,6 +184,75 @@ public class ClusterRestartImpl implements ClusterRestart {
     });
   }
 
+  /**
+   * Restart the replicas in batches of at most {@code maxUnavailableReplicas} pods, waiting for
+   * the cluster to be healthy after each batch. Synchronous replicas reported by Patroni are
+   * restarted alone so that another replica can take over the synchronous role. The members are
+   * retrieved again before each batch since the synchronous role may move between replicas.
+   */
+  private Uni<?> restartReplicasInParallel(ClusterRestartState clusterState,
+                                           List<Pod> pendingReplicas,
+                                           MultiEmitter<? super RestartEvent> em) {
+    if (pendingReplicas.isEmpty()) {
+      return Uni.createFrom().voidItem();
+    }
+    final String clusterName = clusterState.getClusterName();
+    return Uni.createFrom().deferred(() -> patroniApiHandler.getClusterMembers(clusterName,
+        clusterState.getNamespace()))
+        .onFailure()
+        .retry()
+        .withBackOff(Duration.ofMillis(10), Duration.ofSeconds(5))
+        .atMost(10)
+        .onItem()
+        .transform(members -> getNextReplicasBatch(clusterState, pendingReplicas, members))
+        .chain(batch -> Uni.combine().all()
+            .unis(batch.stream()
+                .map(replica -> restartReplica(replica, em))
+                .collect(Collectors.toUnmodifiableList()))
+            .discardItems()
+            .chain(() -> waitForClusterToBeHealthy(clusterState))
+            .chain(() -> restartReplicasInParallel(clusterState,
+                pendingReplicas.stream()
+                    .filter(replica -> !batch.contains(replica))
+                    .collect(Collectors.toUnmodifiableList()),
+                em)));
+  }
+
+  private List<Pod> getNextReplicasBatch(ClusterRestartState clusterState,
+                                         List<Pod> pendingReplicas,
+                                         List<ClusterMember> members) {
+    final Set<String> synchronousReplicas = members.stream()
+        .filter(ClusterMember::isSynchronous)
+        .map(ClusterMember::getName)
+        .collect(Collectors.toUnmodifiableSet());
+    final Pod nextReplica = pendingReplicas.get(0);
+    if (synchronousReplicas.contains(nextReplica.getMetadata().getName())) {
+      return List.of(nextReplica);
+    }
+    final int maxUnavailableReplicas = clusterState.getMaxUnavailableReplicas()
+        .orElse(Math.max(1, (clusterState.getTotalInstances().size() - 1) / 2));
+    return pendingReplicas.stream()
+        .filter(replica -> !synchronousReplicas.contains(replica.getMetadata().getName()))
+        .limit(maxUnavailableReplicas)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private Uni<Pod> restartReplica(Pod replica, MultiEmitter<? super RestartEvent> em) {
+    final String replicaName = replica.getMetadata().getName();
+    LOGGER.info("Restarting pod {}", replicaName);
+    return podRestart.restartPod(replica)
+        .onItem()
+        .invoke(() -> {
+          LOGGER.info("Pod {} restarted", replicaName);
+          synchronized (em) {
+            em.emit(ImmutableRestartEvent.builder()
+                .pod(replica)
+                .eventType(RestartEventType.POD_RESTART)
+                .build());
+          }
+        });
+  }
+
   private Uni<StackGresCluster> waitForClusterToBeHealthy(ClusterRestartState clusterState) {
     String clusterName = clusterState.getClusterName();
     LOGGER.info("Waiting for cluster {} to be healthy", clusterName);
@@ -206,6 +288,10 @@ public class ClusterRestartImpl implements ClusterRestart {
             && clusterState.getRestartedInstances().isEmpty();
   }
 
+  private boolean isParallel(ClusterRestartState clusterState) {
+    return clusterState.getRestartMethod().equals(PARALLEL_METHOD);
+  }
+
   private boolean isReducedImpact(ClusterRestartState clusterState) {
     return clusterState.getRestartMethod().equals(REDUCED_IMPACT_METHOD);
   }
@@ -6,6 +6,7 @@
 package io.stackgres.jobs.dbops.clusterrestart;
 
 import java.util.List;
+import java.util.Optional;
 
 import io.fabric8.kubernetes.api.model.Pod;
 import org.immutables.value.Value;
@@ -15,6 +16,8 @@ public interface ClusterRestartState {
 
   String getRestartMethod();
 
+  Optional<Integer> getMaxUnavailableReplicas();
+
   String getClusterName();
 
   String getNamespace();
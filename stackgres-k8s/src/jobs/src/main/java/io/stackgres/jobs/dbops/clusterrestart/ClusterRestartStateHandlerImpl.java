@@ -94,5 +94,12 @@ public class ClusterRestartStateHandlerImpl extends AbstractRestartStateHandler
         .map(StackGresDbOpsRestart::getMethod);
   }
 
+  @Override
+  protected Optional<Integer> getMaxUnavailableReplicas(StackGresDbOps op) {
+    return Optional.ofNullable(op.getSpec())
+        .map(StackGresDbOpsSpec::getRestart)
+        .map(StackGresDbOpsRestart::getMaxUnavailableReplicas);
+  }
+
 }
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The state of a SGCluster and its pods, as received from their watches, used to decide if the
+ * cluster is ready given a snapshot of the Patroni members. A snapshot requested before the last
+ * change of the pods or of the number of instances is ignored so that a stale members list never
+ * makes the cluster ready.
+ */
+class ClusterState {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterState.class);
+
+  private final Map<String, Pod> pods = new HashMap<>();
+  private final LongSupplier clock;
+  private StackGresCluster cluster;
+  private long lastChange;
+
+  ClusterState(StackGresCluster cluster) {
+    this(cluster, System::nanoTime);
+  }
+
+  ClusterState(StackGresCluster cluster, LongSupplier clock) {
+    this.cluster = cluster;
+    this.clock = clock;
+    this.lastChange = clock.getAsLong();
+  }
+
+  synchronized void setCluster(StackGresCluster cluster) {
+    if (!Objects.equals(this.cluster.getSpec().getInstances(),
+        cluster.getSpec().getInstances())) {
+      lastChange = clock.getAsLong();
+    }
+    this.cluster = cluster;
+  }
+
+  synchronized void setPods(List<Pod> pods) {
+    pods.forEach(pod -> onPodEvent(Action.ADDED, pod));
+  }
+
+  synchronized void onPodEvent(Action action, Pod pod) {
+    final String podName = pod.getMetadata().getName();
+    final Pod previousPod = action == Action.DELETED
+        ? pods.remove(podName) : pods.put(podName, pod);
+    if (action == Action.DELETED || previousPod == null
+        || !Objects.equals(previousPod.getMetadata().getResourceVersion(),
+            pod.getMetadata().getResourceVersion())) {
+      lastChange = clock.getAsLong();
+    }
+  }
+
+  synchronized Optional<StackGresCluster> getReadyCluster(ClusterMembersSnapshot members) {
+    if (members.getRequestedAt() - lastChange < 0) {
+      LOGGER.debug("Ignoring members of cluster {} requested before the last change",
+          cluster.getMetadata().getName());
+      return Optional.empty();
+    }
+    int expectedInstances = cluster.getSpec().getInstances();
+    if (expectedInstances != pods.size()) {
+      LOGGER.debug("Not all expected pods found, expected {}, actual {}",
+          expectedInstances,
+          pods.size());
+      return Optional.empty();
+    }
+    if (!isAllMembersReady(members.getMembers())) {
+      var podsReady = members.getMembers().stream().filter(ClusterState::isMemberReady)
+          .map(ClusterMember::getName)
+          .collect(Collectors.joining());
+      var podsNotReady = members.getMembers().stream().filter(m -> !isMemberReady(m))
+          .map(ClusterMember::getName)
+          .collect(Collectors.joining());
+      LOGGER.debug("Not all pods are ready. Pods not ready: {}, Pods ready: {}",
+          podsNotReady, podsReady);
+      return Optional.empty();
+    }
+    LOGGER.debug("All members members of cluster {} ready", cluster.getMetadata().getName());
+    return Optional.of(cluster);
+  }
+
+  private static boolean isAllMembersReady(List<ClusterMember> members) {
+    return members.stream().map(ClusterState::isMemberReady)
+        .reduce((first, second) -> first && second)
+        .orElse(true);
+  }
+
+  private static boolean isMemberReady(ClusterMember member) {
+    if (member.getRole() == MemberRole.LEADER) {
+      final boolean ready = member.getState() == MemberState.RUNNING
+          && member.getApiUrl().isPresent()
+          && member.getPort().isPresent()
+          && member.getTimeline().isPresent()
+          && member.getHost().isPresent();
+      if (!ready) {
+        LOGGER.debug("Leader pod not ready, state: {}", member);
+      }
+      return ready;
+    } else {
+      final boolean ready = member.getState() == MemberState.RUNNING
+          && member.getApiUrl().isPresent()
+          && member.getPort().isPresent()
+          && member.getTimeline().isPresent()
+          && member.getHost().isPresent()
+          && member.getLag().isPresent();
+      if (!ready) {
+        LOGGER.debug("Replica pod not ready, state: {}", member);
+      }
+      return ready;
+    }
+  }
+
+}
@@ -7,16 +7,25 @@ package io.stackgres.jobs.dbops.clusterrestart;
 
 import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import com.google.common.base.Joiner;
 import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher.Action;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.LabelFactory;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterList;
 import io.stackgres.common.resource.CustomResourceFinder;
 import io.stackgres.common.resource.ResourceScanner;
 import org.slf4j.Logger;
@@ -26,7 +35,7 @@ import org.slf4j.LoggerFactory;
 public class ClusterWatcher implements Watcher<StackGresCluster> {
   private static final Logger LOGGER = LoggerFactory.getLogger(ClusterWatcher.class);
 
-  private final PatroniApiHandler patroniApiHandler;
+  private final PatroniMembersPoller membersPoller;
 
   private final LabelFactory<StackGresCluster> labelFactory;
 
@@ -34,120 +43,91 @@ public class ClusterWatcher implements Watcher<StackGresCluster> {
 
   private final CustomResourceFinder<StackGresCluster> clusterFinder;
 
+  private final KubernetesClientFactory clientFactory;
+
   @Inject
-  public ClusterWatcher(PatroniApiHandler patroniApiHandler,
+  public ClusterWatcher(PatroniMembersPoller membersPoller,
                         LabelFactory<StackGresCluster> labelFactory,
                         ResourceScanner<Pod> podScanner,
-                        CustomResourceFinder<StackGresCluster> clusterFinder) {
-    this.patroniApiHandler = patroniApiHandler;
+                        CustomResourceFinder<StackGresCluster> clusterFinder,
+                        KubernetesClientFactory clientFactory) {
+    this.membersPoller = membersPoller;
     this.labelFactory = labelFactory;
     this.podScanner = podScanner;
     this.clusterFinder = clusterFinder;
-  }
-
-  private static boolean isAllMembersReady(List<ClusterMember> members) {
-    return members.stream().map(ClusterWatcher::isMemberReady)
-        .reduce((first, second) -> first && second)
-        .orElse(true);
-  }
-
-  private static boolean isMemberReady(ClusterMember member) {
-    if (member.getRole() == MemberRole.LEADER) {
-      final boolean ready = member.getState() == MemberState.RUNNING
-          && member.getApiUrl().isPresent()
-          && member.getPort().isPresent()
-          && member.getTimeline().isPresent()
-          && member.getHost().isPresent();
-      if (!ready) {
-        LOGGER.debug("Leader pod not ready, state: {}", member);
-      }
-      return ready;
-    } else {
-      final boolean ready = member.getState() == MemberState.RUNNING
-          && member.getApiUrl().isPresent()
-          && member.getPort().isPresent()
-          && member.getTimeline().isPresent()
-          && member.getHost().isPresent()
-          && member.getLag().isPresent();
-      if (!ready) {
-        LOGGER.debug("Replica pod not ready, state: {}", member);
-      }
-      return ready;
-    }
+    this.clientFactory = clientFactory;
   }
 
   @Override
   public Uni<StackGresCluster> waitUntilIsReady(String name, String namespace) {
 
-    return Uni.createFrom().emitter(em -> {
-
+    return Uni.createFrom().item(() -> {
       LOGGER.debug("Looking for SGCluster {} in namespace {}", name, namespace);
-      StackGresCluster cluster = clusterFinder.findByNameAndNamespace(name, namespace)
+      return clusterFinder.findByNameAndNamespace(name, namespace)
           .orElseThrow(() -> {
             LOGGER.debug("SGCluster {} in namespace {} not found", name, namespace);
             return new IllegalStateException("cluster not found");
           });
-
-      scanClusterPods(cluster)
-          .chain(() -> getClusterMembers(cluster))
-          .onFailure().retry().withBackOff(Duration.ofMillis(10), Duration.ofSeconds(5))
-          .indefinitely()
-          .subscribe().with(members -> em.complete(cluster));
-
-    });
+    })
+        .chain(cluster -> watchUntilIsReady(cluster)
+            .onFailure().retry().withBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5))
+            .indefinitely());
 
   }
 
-  private Uni<List<Pod>> scanClusterPods(StackGresCluster cluster) {
+  /**
+   * Watch the SGCluster and its pods and wait for the Patroni members to be ready. The state of
+   * the members is pushed by the shared poller and is only taken into account if it was requested
+   * after the last change of the pods or the SGCluster, so that a stale state never makes the
+   * cluster ready.
+   */
+  private Uni<StackGresCluster> watchUntilIsReady(StackGresCluster initialCluster) {
     return Uni.createFrom().emitter(em -> {
+      final String name = initialCluster.getMetadata().getName();
+      final String namespace = initialCluster.getMetadata().getNamespace();
+      final var podsLabels = labelFactory.patroniClusterLabels(initialCluster);
+      final ClusterState state = new ClusterState(initialCluster);
+      final KubernetesClient client = clientFactory.create();
+      final List<Watch> watches = new CopyOnWriteArrayList<>();
+      final AtomicReference<Cancellable> membersSubscription = new AtomicReference<>();
+      final AtomicBoolean terminated = new AtomicBoolean(false);
+      final Runnable close = () -> {
+        Optional.ofNullable(membersSubscription.get()).ifPresent(Cancellable::cancel);
+        watches.forEach(Watch::close);
+        client.close();
+      };
+      em.onTermination(() -> {
+        terminated.set(true);
+        close.run();
+      });
+
+      watches.add(client.customResources(StackGresCluster.class, StackGresClusterList.class)
+          .inNamespace(namespace)
+          .withName(name)
+          .watch(new WatchEventHandler<StackGresCluster>((action, cluster) -> {
+            if (action != Action.DELETED) {
+              state.setCluster(cluster);
+            }
+          }, em::fail)));
+      watches.add(client.pods()
+          .inNamespace(namespace)
+          .withLabels(podsLabels)
+          .watch(new WatchEventHandler<Pod>(state::onPodEvent, em::fail)));
 
-      var podsLabels = labelFactory.patroniClusterLabels(cluster);
       final String labelsAsString = Joiner.on(",").withKeyValueSeparator(":").join(podsLabels);
-      LOGGER.debug("Scanning for pods of cluster {} with labels {}",
-          cluster.getMetadata().getName(), labelsAsString);
-
-      var pods = podScanner
-          .findByLabelsAndNamespace(cluster.getMetadata().getNamespace(), podsLabels);
-
-      int expectedInstances = cluster.getSpec().getInstances();
-
-      if (expectedInstances == pods.size()) {
-        em.complete(pods);
-      } else {
-        LOGGER.debug("Not all expected pods found with labels {}, expected {}, actual {}",
-            labelsAsString,
-            expectedInstances,
-            pods.size());
-        em.fail(new InvalidCluster("No all pods found"));
+      LOGGER.debug("Scanning for pods of cluster {} with labels {}", name, labelsAsString);
+      state.setPods(podScanner.findByLabelsAndNamespace(namespace, podsLabels));
+
+      LOGGER.debug("Looking for cluster members of cluster {}", name);
+      membersSubscription.set(membersPoller.pollClusterMembers(name, namespace)
+          .subscribe().with(members -> state.getReadyCluster(members)
+              .ifPresent(em::complete), em::fail));
+      if (terminated.get()) {
+        close.run();
       }
-
     });
   }
 
-  private Uni<List<ClusterMember>> getClusterMembers(StackGresCluster cluster) {
-
-    final String name = cluster.getMetadata().getName();
-    LOGGER.debug("Looking for cluster members of cluster {}", name);
-    return patroniApiHandler.getClusterMembers(name,
-        cluster.getMetadata().getNamespace())
-        .onItem().transform(members -> {
-          if (isAllMembersReady(members)) {
-            LOGGER.debug("All members members of cluster {} ready", name);
-            return members;
-          } else {
-            var podsReady = members.stream().filter(ClusterWatcher::isMemberReady)
-                .map(ClusterMember::getName)
-                .collect(Collectors.joining());
-            var podsNotReady = members.stream().filter(m -> !isMemberReady(m))
-                .map(ClusterMember::getName)
-                .collect(Collectors.joining());
-            LOGGER.debug("Not all pods are ready. Pods not ready: {}, Pods ready: {}",
-                podsNotReady, podsReady);
-            throw new InvalidCluster("Not all pods are ready");
-          }
-        });
-  }
-
   @Override
   public Uni<Void> waitUntilIsRemoved(String name, String namespace) {
     throw new UnsupportedOperationException();
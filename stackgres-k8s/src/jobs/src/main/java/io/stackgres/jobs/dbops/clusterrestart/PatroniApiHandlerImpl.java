@@ -33,6 +33,8 @@ public class PatroniApiHandlerImpl implements PatroniApiHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PatroniApiHandlerImpl.class);
 
+  private static final String SYNC_STANDBY_ROLE = "sync_standby";
+
   @Inject
   PatroniApiMetadataFinder apiFinder;
   @Inject
@@ -47,7 +49,7 @@ public class PatroniApiHandlerImpl implements PatroniApiHandler {
   private static @NotNull MemberRole toMemberRole(@NotNull String role) {
     if (Objects.equals("leader", role) || Objects.equals("master", role)) {
       return MemberRole.LEADER;
-    } else if (Objects.equals("replica", role)) {
+    } else if (Objects.equals("replica", role) || Objects.equals(SYNC_STANDBY_ROLE, role)) {
       return MemberRole.REPlICA;
     } else {
       throw new IllegalArgumentException("Unknown role " + role);
@@ -97,6 +99,7 @@ public class PatroniApiHandlerImpl implements PatroniApiHandler {
                   .namespace(namespace)
                   .name(member.getString("name"))
                   .role(toMemberRole(member.getString("role")))
+                  .isSynchronous(Objects.equals(SYNC_STANDBY_ROLE, member.getString("role")))
                   .state(toMemberState(member.getString("state")))
                   .apiUrl(member.getString("api_url"))
                   .host(Optional.ofNullable(member.getString("host")))
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll the members of a cluster from the Patroni REST API. A single poller is shared by all the
+ * subscribers of the same cluster and it is stopped and removed when the last subscriber leaves.
+ * Failed requests are skipped since the Patroni API is not available while pods are restarted.
+ */
+@ApplicationScoped
+public class PatroniMembersPoller {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PatroniMembersPoller.class);
+
+  private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+  private final PatroniApiHandler patroniApiHandler;
+
+  private final Map<String, Multi<ClusterMembersSnapshot>> pollers = new ConcurrentHashMap<>();
+
+  @Inject
+  public PatroniMembersPoller(PatroniApiHandler patroniApiHandler) {
+    this.patroniApiHandler = patroniApiHandler;
+  }
+
+  public Multi<ClusterMembersSnapshot> pollClusterMembers(String name, String namespace) {
+    return pollers.computeIfAbsent(namespace + "/" + name,
+        key -> createPoller(key, name, namespace));
+  }
+
+  /**
+   * Create a poller that is removed from the shared pollers when it terminates, that is when its
+   * last subscriber cancels.
+   */
+  private Multi<ClusterMembersSnapshot> createPoller(String key, String name, String namespace) {
+    final AtomicReference<Multi<ClusterMembersSnapshot>> poller = new AtomicReference<>();
+    poller.set(Multi.createFrom().ticks()
+        .every(POLL_INTERVAL)
+        .onOverflow().drop()
+        .onItem().transformToUniAndConcatenate(tick -> getClusterMembers(name, namespace))
+        .onTermination().invoke(() -> pollers.remove(key, poller.get()))
+        .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers());
+    return poller.get();
+  }
+
+  private Uni<ClusterMembersSnapshot> getClusterMembers(String name, String namespace) {
+    return Uni.createFrom().deferred(() -> {
+      final long requestedAt = System.nanoTime();
+      return patroniApiHandler.getClusterMembers(name, namespace)
+          .onItem().transform(members -> (ClusterMembersSnapshot) ImmutableClusterMembersSnapshot
+              .builder()
+              .requestedAt(requestedAt)
+              .members(members)
+              .build());
+    })
+        .onFailure().recoverWithUni(ex -> {
+          LOGGER.debug("Unable to retrieve the members of cluster {}", name, ex);
+          return Uni.createFrom().nullItem();
+        });
+  }
+
+}
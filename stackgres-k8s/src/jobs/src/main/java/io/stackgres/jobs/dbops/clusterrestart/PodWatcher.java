@@ -7,15 +7,22 @@ package io.stackgres.jobs.dbops.clusterrestart;
 
 import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher.Action;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
 import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.resource.ResourceUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +30,9 @@ import org.slf4j.LoggerFactory;
 public class PodWatcher implements Watcher<Pod> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PodWatcher.class);
+
+  private static final Duration CREATION_TIMEOUT = Duration.ofSeconds(30);
+
   private final KubernetesClientFactory clientFactory;
 
   @Inject
@@ -43,47 +53,26 @@ public class PodWatcher implements Watcher<Pod> {
     String podName = pod.getMetadata().getName();
     String namespace = pod.getMetadata().getNamespace();
 
-    final Uni<Pod> podReadyPoll = Uni.createFrom().emitter(em -> {
-      LOGGER.debug("Waiting for pod {} to be ready", podName);
-      try (KubernetesClient client = clientFactory.create()) {
-        var readyPod = client.pods().inNamespace(namespace).withName(podName)
-            .waitUntilReady(30, TimeUnit.MINUTES);
-        em.complete(readyPod);
-      } catch (InterruptedException e) {
-        em.fail(e);
-      }
-    });
-    return podReadyPoll.onFailure().retry().indefinitely();
+    LOGGER.debug("Waiting for pod {} to be ready", podName);
+    return watchPod(podName, namespace,
+        currentPod -> currentPod.map(ResourceUtil::isPodReady).orElse(false))
+        .onItem().transform(Optional::get);
   }
 
   protected Uni<Pod> waitUntilIsCreated(String name, String namespace) {
     LOGGER.debug("Waiting for pod {} to be created", name);
 
-    return getPod(name, namespace)
-        .onItem()
-        .transform(pod -> {
-          if (pod != null) {
-            return pod;
-          } else {
-            throw new RuntimeException("Pod " + name + " not found");
-          }
-        })
-        .onFailure().retry().withBackOff(Duration.ofSeconds(1), Duration.ofSeconds(2))
-        .expireIn(30 * 1000);
+    return watchPod(name, namespace, Optional::isPresent)
+        .onItem().transform(Optional::get)
+        .ifNoItem().after(CREATION_TIMEOUT)
+        .failWith(() -> new RuntimeException("Pod " + name + " not found"));
   }
 
   @Override
   public Uni<Void> waitUntilIsRemoved(String name, String namespace) {
 
-    return getPod(name, namespace)
-        .onItem().transformToUni(pod -> {
-          if (pod != null) {
-            return Uni.createFrom().failure(new RuntimeException("Pod " + name + " not removed"));
-          } else {
-            return Uni.createFrom().voidItem();
-          }
-        }).onFailure().retry().withBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5))
-        .indefinitely();
+    return watchPod(name, namespace, Optional::isEmpty)
+        .onItem().ignore().andContinueWithNull();
 
   }
 
@@ -92,39 +81,70 @@ public class PodWatcher implements Watcher<Pod> {
     String oldCreationTimestamp = oldPod.getMetadata().getCreationTimestamp();
     String podName = oldPod.getMetadata().getName();
     String podNamespace = oldPod.getMetadata().getNamespace();
-    return getPod(podName, podNamespace)
-        .onItem().transform(pod -> {
-          if (pod != null) {
-            return pod;
-          } else {
-            throw new RuntimeException("Pod " + podName + " not found");
-          }
-        })
-        .onItem().transform(newPod -> {
-          String newCreationTimestamp = newPod.getMetadata().getCreationTimestamp();
-          if (Objects.equals(oldCreationTimestamp, newCreationTimestamp)) {
-            throw new RuntimeException("Pod " + podName + " not replaced");
-          } else {
-            return newPod;
-          }
-        }).onFailure()
-        .retry()
-        .withBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5))
-        .indefinitely();
+    return watchPod(podName, podNamespace,
+        currentPod -> currentPod
+            .map(pod -> !Objects.equals(oldCreationTimestamp,
+                pod.getMetadata().getCreationTimestamp()))
+            .orElse(false))
+        .onItem().transform(Optional::get);
   }
 
-  private Uni<Pod> getPod(String name, String namespace) {
-
-    return Uni.createFrom().emitter(em -> {
-      var pod = clientFactory.withNewClient(
-          client -> client.pods().inNamespace(namespace).withName(name).get());
-      if (pod == null) {
-        LOGGER.debug("Pod {} not found in namespace {}", name, namespace);
-      } else {
-        LOGGER.debug("Pod {} found in namespace {}", name, namespace);
+  /**
+   * Watch the pod until the condition is satisfied by its current state or by a received event.
+   * An empty state means that the pod does not exist. If the condition is not satisfied by the
+   * current state the pod is read again after opening the watch so that no change is lost in
+   * between. The watch is opened again if it is closed by the API server.
+   */
+  private Uni<Optional<Pod>> watchPod(String name, String namespace,
+      Predicate<Optional<Pod>> condition) {
+
+    return Uni.createFrom().<Optional<Pod>>emitter(em -> {
+      final KubernetesClient client = clientFactory.create();
+      final AtomicReference<Watch> watch = new AtomicReference<>();
+      final AtomicBoolean terminated = new AtomicBoolean(false);
+      final Runnable close = () -> {
+        Optional.ofNullable(watch.get()).ifPresent(Watch::close);
+        client.close();
+      };
+      em.onTermination(() -> {
+        terminated.set(true);
+        close.run();
+      });
+      if (testPod(client, name, namespace, condition, em)) {
+        return;
+      }
+      watch.set(client.pods().inNamespace(namespace).withName(name)
+          .watch(new WatchEventHandler<Pod>((action, pod) -> {
+            Optional<Pod> currentPod = action == Action.DELETED
+                ? Optional.empty() : Optional.of(pod);
+            if (condition.test(currentPod)) {
+              em.complete(currentPod);
+            }
+          }, em::fail)));
+      if (terminated.get()) {
+        close.run();
+        return;
       }
-      em.complete(pod);
-    });
+      testPod(client, name, namespace, condition, em);
+    })
+        .onFailure().retry().withBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5))
+        .indefinitely();
+  }
+
+  private boolean testPod(KubernetesClient client, String name, String namespace,
+      Predicate<Optional<Pod>> condition, UniEmitter<? super Optional<Pod>> em) {
+    Optional<Pod> currentPod = Optional.ofNullable(
+        client.pods().inNamespace(namespace).withName(name).get());
+    if (currentPod.isEmpty()) {
+      LOGGER.debug("Pod {} not found in namespace {}", name, namespace);
+    } else {
+      LOGGER.debug("Pod {} found in namespace {}", name, namespace);
+    }
+    if (condition.test(currentPod)) {
+      em.complete(currentPod);
+      return true;
+    }
+    return false;
   }
 
 }
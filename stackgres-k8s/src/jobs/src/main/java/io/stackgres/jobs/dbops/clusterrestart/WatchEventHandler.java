@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+
+/**
+ * Adapt the events of a Kubernetes watch to the specified callbacks. The watch is reconnected by
+ * the client, {@code onClose} is only called when it can not be reconnected or when it is closed
+ * without an error (for example when the HTTP client is shut down) so that a wait never hangs on a
+ * watch that will not receive any more events.
+ */
+class WatchEventHandler<T> implements io.fabric8.kubernetes.client.Watcher<T> {
+
+  private final BiConsumer<Action, T> onEvent;
+  private final Consumer<Throwable> onClose;
+
+  WatchEventHandler(BiConsumer<Action, T> onEvent, Consumer<Throwable> onClose) {
+    this.onEvent = onEvent;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public void eventReceived(Action action, T resource) {
+    onEvent.accept(action, resource);
+  }
+
+  @Override
+  public void onClose(WatcherException cause) {
+    onClose.accept(cause);
+  }
+
+  @Override
+  public void onClose() {
+    onClose.accept(new WatcherException("Watch closed"));
+  }
+
+}
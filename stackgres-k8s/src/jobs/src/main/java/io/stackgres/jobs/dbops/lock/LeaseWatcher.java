@@ -0,0 +1,18 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.lock;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.smallrye.mutiny.Uni;
+
+public interface LeaseWatcher {
+
+  /**
+   * Wait until the lease is modified or deleted after the specified version of it was read.
+   */
+  Uni<Void> waitUntilIsChanged(Lease lease);
+
+}
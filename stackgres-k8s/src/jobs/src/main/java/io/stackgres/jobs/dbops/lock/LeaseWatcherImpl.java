@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.lock;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.smallrye.mutiny.Uni;
+import io.stackgres.common.KubernetesClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@ApplicationScoped
+public class LeaseWatcherImpl implements LeaseWatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LeaseWatcherImpl.class);
+
+  private final KubernetesClientFactory clientFactory;
+
+  @Inject
+  public LeaseWatcherImpl(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+  }
+
+  /**
+   * The watch starts from the resource version of the lease so that no change is lost between the
+   * read and the watch. If the watch is closed by the API server the lease is considered changed
+   * so that the caller reads it again.
+   */
+  @Override
+  public Uni<Void> waitUntilIsChanged(Lease lease) {
+    final String name = lease.getMetadata().getName();
+    final String namespace = lease.getMetadata().getNamespace();
+    return Uni.createFrom().emitter(em -> {
+      final KubernetesClient client = clientFactory.create();
+      final AtomicReference<Watch> watch = new AtomicReference<>();
+      final AtomicBoolean terminated = new AtomicBoolean(false);
+      final Runnable close = () -> {
+        Optional.ofNullable(watch.get()).ifPresent(Watch::close);
+        client.close();
+      };
+      em.onTermination(() -> {
+        terminated.set(true);
+        close.run();
+      });
+      watch.set(client.leases().inNamespace(namespace).withName(name)
+          .withResourceVersion(lease.getMetadata().getResourceVersion())
+          .watch(new Watcher<Lease>() {
+            @Override
+            public void eventReceived(Action action, Lease resource) {
+              LOGGER.debug("Lease {} in namespace {} {}", name, namespace, action);
+              em.complete(null);
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+              LOGGER.debug("Watch of lease {} in namespace {} closed", name, namespace, cause);
+              em.complete(null);
+            }
+          }));
+      if (terminated.get()) {
+        close.run();
+      }
+    });
+  }
+
+}
@@ -11,8 +11,7 @@ import io.fabric8.kubernetes.client.CustomResource;
 
 public interface LockAcquirer<T extends CustomResource<?, ?>> {
 
-  String LOCK_POD = "lockPod";
-  String LOCK_TIMESTAMP = "lockTimestamp";
+  String LEASE_SUFFIX = "-dbops-lock";
 
   void lockRun(LockRequest target, Consumer<T> tasks);
 }
@@ -5,7 +5,10 @@
 
 package io.stackgres.jobs.dbops.lock;
 
-import java.util.Map;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -15,13 +18,24 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.smallrye.mutiny.TimeoutException;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.resource.CustomResourceFinder;
-import io.stackgres.common.resource.CustomResourceScheduler;
+import io.stackgres.common.resource.ResourceFinder;
+import io.stackgres.common.resource.ResourceUtil;
+import io.stackgres.common.resource.ResourceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Lock the cluster using a coordination.k8s.io Lease owned by the cluster. The lease is acquired
+ * and renewed with conditional replaces and waiters are woken up by the changes of the lease
+ * instead of polling it, so the cluster itself is never written to hold the lock.
+ */
 @ApplicationScoped
 public class LockAcquirerImpl implements LockAcquirer<StackGresCluster> {
 
@@ -31,12 +45,24 @@ public class LockAcquirerImpl implements LockAcquirer<StackGresCluster> {
       new ThreadFactoryBuilder()
           .setNameFormat("LockAcquirerThread-%d")
           .build());
-  @Inject
-  CustomResourceScheduler<StackGresCluster> clusterScheduler;
+  private static final int CONFLICT = 409;
 
   @Inject
   CustomResourceFinder<StackGresCluster> clusterFinder;
 
+  @Inject
+  ResourceFinder<Lease> leaseFinder;
+
+  @Inject
+  ResourceWriter<Lease> leaseWriter;
+
+  @Inject
+  LeaseWatcher leaseWatcher;
+
+  public static String leaseName(String clusterName) {
+    return clusterName + LEASE_SUFFIX;
+  }
+
   @Override
   public void lockRun(LockRequest target, Consumer<StackGresCluster> tasks) {
 
@@ -44,42 +70,24 @@ public class LockAcquirerImpl implements LockAcquirer<StackGresCluster> {
     String clusterId = targetCluster.getMetadata().getNamespace()
         + "/" + targetCluster.getMetadata().getName();
     LOGGER.info("Acquiring lock for cluster {}", clusterId);
-    if (isLocked(targetCluster, target) && !isLockedByMe(targetCluster, target)) {
-      LOGGER.info("Locked cluster {}, waiting for release", clusterId);
-      while (isLocked(targetCluster, target)) {
-        try {
-          Thread.sleep(target.getPollInterval() * 1000L);
-          targetCluster = getCluster(target);
-        } catch (InterruptedException e) {
-          LOGGER.error("Interrupted while waiting for lock", e);
-        }
-      }
-
-    }
-
-    targetCluster = lock(target, targetCluster);
+    acquire(target, targetCluster, clusterId);
     LOGGER.info("Cluster {} locked", clusterId);
 
     var lockFuture = EXECUTOR.scheduleAtFixedRate(
-        () -> lock(target),
+        () -> renew(target, clusterId),
         target.getPollInterval(),
         target.getPollInterval(),
         TimeUnit.SECONDS);
 
     try {
       LOGGER.info("Executing locked task");
-      tasks.accept(targetCluster);
-      lockFuture.cancel(true);
+      tasks.accept(getCluster(target));
     } catch (Exception e) {
       LOGGER.error("Locked task failed", e);
       throw e;
     } finally {
       lockFuture.cancel(true);
-      targetCluster = getCluster(target);
-
-      targetCluster.getMetadata().getAnnotations().remove(LOCK_POD);
-      targetCluster.getMetadata().getAnnotations().remove(LOCK_TIMESTAMP);
-      clusterScheduler.update(targetCluster);
+      release(target, clusterId);
     }
   }
 
@@ -89,42 +97,133 @@ public class LockAcquirerImpl implements LockAcquirer<StackGresCluster> {
         .orElseThrow();
   }
 
-  private String getLockTimestamp() {
-    return Long.toString(System.currentTimeMillis() / 1000);
+  private Optional<Lease> getLease(LockRequest target) {
+    return leaseFinder.findByNameAndNamespace(
+        leaseName(target.getLockResourceName()), target.getNamespace());
+  }
+
+  private void acquire(LockRequest target, StackGresCluster cluster, String clusterId) {
+    boolean waiting = false;
+    while (true) {
+      Optional<Lease> lease = getLease(target);
+      try {
+        if (lease.isEmpty()) {
+          leaseWriter.create(newLease(target, cluster));
+          return;
+        }
+        if (!isLocked(lease.get(), target) || isLockedByMe(lease.get(), target)) {
+          leaseWriter.update(hold(lease.get(), target));
+          return;
+        }
+      } catch (KubernetesClientException ex) {
+        if (ex.getCode() != CONFLICT) {
+          throw ex;
+        }
+        LOGGER.debug("Lock of cluster {} was modified concurrently, retrying", clusterId);
+        continue;
+      }
+      if (!waiting) {
+        LOGGER.info("Locked cluster {}, waiting for release", clusterId);
+        waiting = true;
+      }
+      waitForRelease(lease.get(), target);
+    }
+  }
+
+  private void waitForRelease(Lease lease, LockRequest target) {
+    Duration untilExpiration = Duration.between(ZonedDateTime.now(ZoneOffset.UTC),
+        getExpiration(lease, target));
+    try {
+      leaseWatcher.waitUntilIsChanged(lease)
+          .await().atMost(untilExpiration.isNegative() || untilExpiration.isZero()
+              ? Duration.ofSeconds(1) : untilExpiration);
+    } catch (TimeoutException ex) {
+      LOGGER.debug("Lock of cluster {} expired", target.getLockResourceName());
+    }
   }
 
-  private StackGresCluster lock(LockRequest target, StackGresCluster targetCluster) {
-    final Map<String, String> annotations = targetCluster.getMetadata().getAnnotations();
+  private void renew(LockRequest target, String clusterId) {
+    try {
+      Lease lease = getLease(target).orElseThrow();
+      if (!isLockedByMe(lease, target)) {
+        LOGGER.error("Lock of cluster {} was lost, it is held by {}", clusterId,
+            lease.getSpec().getHolderIdentity());
+        return;
+      }
+      leaseWriter.update(hold(lease, target));
+    } catch (Exception ex) {
+      LOGGER.warn("Failed to renew the lock of cluster {}", clusterId, ex);
+    }
+  }
+
+  private void release(LockRequest target, String clusterId) {
+    while (true) {
+      Optional<Lease> lease = getLease(target)
+          .filter(currentLease -> isLockedByMe(currentLease, target));
+      if (lease.isEmpty()) {
+        return;
+      }
+      lease.get().getSpec().setHolderIdentity(null);
+      try {
+        leaseWriter.update(lease.get());
+        LOGGER.info("Cluster {} unlocked", clusterId);
+        return;
+      } catch (KubernetesClientException ex) {
+        if (ex.getCode() != CONFLICT) {
+          throw ex;
+        }
+      }
+    }
+  }
 
-    annotations.put(LOCK_POD, target.getPodName());
-    annotations.put(LOCK_TIMESTAMP, getLockTimestamp());
-    return clusterScheduler.update(targetCluster);
+  private Lease newLease(LockRequest target, StackGresCluster cluster) {
+    ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    return new LeaseBuilder()
+        .withNewMetadata()
+        .withName(leaseName(target.getLockResourceName()))
+        .withNamespace(target.getNamespace())
+        .withOwnerReferences(ResourceUtil.getOwnerReference(cluster))
+        .endMetadata()
+        .withNewSpec()
+        .withHolderIdentity(target.getPodName())
+        .withLeaseDurationSeconds(target.getLockTimeout())
+        .withAcquireTime(now)
+        .withRenewTime(now)
+        .withLeaseTransitions(0)
+        .endSpec()
+        .build();
+  }
 
+  private Lease hold(Lease lease, LockRequest target) {
+    ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    LeaseSpec spec = lease.getSpec();
+    if (!isLockedByMe(lease, target)) {
+      spec.setHolderIdentity(target.getPodName());
+      spec.setAcquireTime(now);
+      spec.setLeaseTransitions(Optional.ofNullable(spec.getLeaseTransitions()).orElse(0) + 1);
+    }
+    spec.setLeaseDurationSeconds(target.getLockTimeout());
+    spec.setRenewTime(now);
+    return lease;
   }
 
-  private void lock(LockRequest target) {
-    var targetCluster = getCluster(target);
-    lock(target, targetCluster);
+  private ZonedDateTime getExpiration(Lease lease, LockRequest target) {
+    LeaseSpec spec = lease.getSpec();
+    return Optional.ofNullable(spec.getRenewTime())
+        .or(() -> Optional.ofNullable(spec.getAcquireTime()))
+        .orElse(ZonedDateTime.now(ZoneOffset.UTC))
+        .plusSeconds(Optional.ofNullable(spec.getLeaseDurationSeconds())
+            .orElse(target.getLockTimeout()));
   }
 
-  private boolean isLocked(StackGresCluster cluster, LockRequest lockRequest) {
-    long currentTimeSeconds = System.currentTimeMillis() / 1000;
-    long timedOutLock = currentTimeSeconds - lockRequest.getLockTimeout();
-    return Optional.ofNullable(cluster.getMetadata())
-        .map(ObjectMeta::getAnnotations)
-        .filter(annotation ->
-            annotation.containsKey(LOCK_POD) && annotation.containsKey(LOCK_TIMESTAMP))
-        .map(annotations -> Long.parseLong(annotations.get(LOCK_TIMESTAMP)))
-        .map(lockTimestamp -> lockTimestamp > timedOutLock)
+  private boolean isLocked(Lease lease, LockRequest target) {
+    return Optional.ofNullable(lease.getSpec().getHolderIdentity())
+        .filter(holder -> !holder.isEmpty())
+        .map(holder -> getExpiration(lease, target).isAfter(ZonedDateTime.now(ZoneOffset.UTC)))
         .orElse(false);
   }
 
-  private boolean isLockedByMe(StackGresCluster cluster, LockRequest lockRequest) {
-    return Optional.ofNullable(cluster.getMetadata())
-        .map(ObjectMeta::getAnnotations)
-        .filter(annotation ->
-            annotation.containsKey(LOCK_POD) && annotation.containsKey(LOCK_TIMESTAMP))
-        .map(annotation -> annotation.get(LOCK_POD).equals(lockRequest.getPodName()))
-        .orElse(false);
+  private boolean isLockedByMe(Lease lease, LockRequest target) {
+    return Objects.equals(lease.getSpec().getHolderIdentity(), target.getPodName());
   }
 }
@@ -146,4 +146,11 @@ public class MinorVersionUpgradeRestartStateHandlerImpl extends AbstractRestartS
         .map(StackGresDbOpsMinorVersionUpgrade::getMethod);
   }
 
+  @Override
+  protected Optional<Integer> getMaxUnavailableReplicas(StackGresDbOps op) {
+    return Optional.ofNullable(op.getSpec())
+        .map(StackGresDbOpsSpec::getMinorVersionUpgrade)
+        .map(StackGresDbOpsMinorVersionUpgrade::getMaxUnavailableReplicas);
+  }
+
 }
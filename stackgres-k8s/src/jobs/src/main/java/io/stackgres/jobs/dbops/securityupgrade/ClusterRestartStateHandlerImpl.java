@@ -94,4 +94,11 @@ public class ClusterRestartStateHandlerImpl extends AbstractRestartStateHandler
         .map(StackGresDbOpsSecurityUpgrade::getMethod);
   }
 
+  @Override
+  protected Optional<Integer> getMaxUnavailableReplicas(StackGresDbOps op) {
+    return Optional.ofNullable(op.getSpec())
+        .map(StackGresDbOpsSpec::getSecurityUpgrade)
+        .map(StackGresDbOpsSecurityUpgrade::getMaxUnavailableReplicas);
+  }
+
 }
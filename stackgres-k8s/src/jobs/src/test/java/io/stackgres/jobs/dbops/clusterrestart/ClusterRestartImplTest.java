@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +36,7 @@ class ClusterRestartImplTest {
   private static final String CLUSTER_NAME = "test-cluster";
   private static final String IN_PLACE_METHOD = "InPlace";
   private static final String REDUCED_IMPACT_METHOD = "ReducedImpact";
+  private static final String PARALLEL_METHOD = "Parallel";
 
   @Inject
   ClusterRestartImpl clusterRestart;
@@ -54,6 +56,9 @@ class ClusterRestartImplTest {
   @InjectMock
   PostgresRestart postgresRestart;
 
+  @InjectMock
+  PatroniApiHandlerImpl patroniApiHandler;
+
   Pod primary = new PodBuilder()
       .withNewMetadata()
       .withName(CLUSTER_NAME + "-1")
@@ -565,4 +570,74 @@ class ClusterRestartImplTest {
     verify(postgresRestart, never()).restartPostgres(any(), any(), any());
   }
 
+
+  @Test
+  void givenACleanStateWithParallel_itShouldRestartReplicasInBatches() {
+
+    ClusterRestartState clusterState = ImmutableClusterRestartState.builder()
+        .clusterName(CLUSTER_NAME)
+        .namespace(NAMESPACE)
+        .restartMethod(PARALLEL_METHOD)
+        .maxUnavailableReplicas(2)
+        .primaryInstance(primary)
+        .addInitialInstances(primary, replica1, replica2, additionalPod)
+        .addTotalInstances(primary, replica1, replica2, additionalPod)
+        .isSwitchoverInitiated(false)
+        .build();
+
+    when(podRestart.restartPod(any(Pod.class))).thenAnswer(invocationOnMock -> {
+      Pod pod = invocationOnMock.getArgument(0);
+      return Uni.createFrom().item(pod);
+    });
+
+    final String primaryName = primary.getMetadata().getName();
+    when(postgresRestart.restartPostgres(primaryName, CLUSTER_NAME, NAMESPACE))
+        .thenReturn(Uni.createFrom().voidItem());
+
+    when(switchoverHandler.performSwitchover(primaryName, CLUSTER_NAME, NAMESPACE))
+        .thenReturn(Uni.createFrom().voidItem());
+
+    when(patroniApiHandler.getClusterMembers(CLUSTER_NAME, NAMESPACE))
+        .thenReturn(Uni.createFrom().item(List.of(
+            buildMember(primary, MemberRole.LEADER, false),
+            buildMember(replica1, MemberRole.REPlICA, true),
+            buildMember(replica2, MemberRole.REPlICA, false),
+            buildMember(additionalPod, MemberRole.REPlICA, false))));
+
+    List<RestartEvent> events = clusterRestart.restartCluster(clusterState)
+        .subscribe()
+        .asStream()
+        .collect(Collectors.toUnmodifiableList());
+
+    assertEquals(clusterState.getTotalInstances().size(),
+        events.stream().filter(event -> event.getEventType() == RestartEventType.POD_RESTART)
+            .count(), "it should send an event for every pod restart");
+
+    final InOrder order = inOrder(podRestart, switchoverHandler, clusterWatcher, postgresRestart);
+    order.verify(clusterWatcher).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+    order.verify(postgresRestart).restartPostgres(primaryName, CLUSTER_NAME, NAMESPACE);
+    order.verify(clusterWatcher).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+    order.verify(podRestart).restartPod(replica1);
+    order.verify(clusterWatcher).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+    order.verify(podRestart).restartPod(replica2);
+    order.verify(podRestart).restartPod(additionalPod);
+    order.verify(clusterWatcher).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+    order.verify(switchoverHandler).performSwitchover(primaryName, CLUSTER_NAME, NAMESPACE);
+    order.verify(clusterWatcher).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+    order.verify(podRestart).restartPod(primary);
+
+    verify(clusterWatcher, times(6)).waitUntilIsReady(CLUSTER_NAME, NAMESPACE);
+  }
+
+  private ClusterMember buildMember(Pod pod, MemberRole role, boolean synchronous) {
+    return ImmutableClusterMember.builder()
+        .clusterName(CLUSTER_NAME)
+        .namespace(NAMESPACE)
+        .name(pod.getMetadata().getName())
+        .role(role)
+        .state(MemberState.RUNNING)
+        .isSynchronous(synchronous)
+        .build();
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClusterStateTest {
+
+  private long now;
+
+  private StackGresCluster cluster;
+
+  private ClusterState state;
+
+  @BeforeEach
+  void setUp() {
+    now = 0;
+    cluster = JsonUtil
+        .readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    cluster.getSpec().setInstances(2);
+    state = new ClusterState(cluster, () -> now);
+    state.setPods(List.of(pod("pod-0", "1"), pod("pod-1", "1")));
+  }
+
+  @Test
+  void givenReadyMembersRequestedAfterTheLastChange_shouldBeReady() {
+    now = 10;
+
+    assertEquals(cluster, state.getReadyCluster(readyMembers(10, "pod-0", "pod-1"))
+        .orElseThrow());
+  }
+
+  @Test
+  void givenReadyMembersRequestedBeforeThePodsChanged_shouldNotBeReady() {
+    now = 10;
+    state.onPodEvent(Action.MODIFIED, pod("pod-1", "2"));
+
+    assertTrue(state.getReadyCluster(readyMembers(5, "pod-0", "pod-1")).isEmpty());
+    assertEquals(cluster, state.getReadyCluster(readyMembers(10, "pod-0", "pod-1"))
+        .orElseThrow());
+  }
+
+  @Test
+  void givenAnUnchangedPodEvent_shouldNotDiscardTheMembers() {
+    now = 10;
+    state.onPodEvent(Action.MODIFIED, pod("pod-1", "1"));
+
+    assertEquals(cluster, state.getReadyCluster(readyMembers(5, "pod-0", "pod-1"))
+        .orElseThrow());
+  }
+
+  @Test
+  void givenAPodDeletedDuringTheWait_shouldNotBeReadyUntilItIsRecreated() {
+    now = 10;
+    state.onPodEvent(Action.DELETED, pod("pod-1", "1"));
+
+    assertTrue(state.getReadyCluster(readyMembers(5, "pod-0", "pod-1")).isEmpty());
+    assertTrue(state.getReadyCluster(readyMembers(10, "pod-0")).isEmpty());
+
+    now = 20;
+    state.onPodEvent(Action.ADDED, pod("pod-1", "3"));
+
+    assertTrue(state.getReadyCluster(readyMembers(15, "pod-0", "pod-1")).isEmpty());
+    assertEquals(cluster, state.getReadyCluster(readyMembers(20, "pod-0", "pod-1"))
+        .orElseThrow());
+  }
+
+  @Test
+  void givenTheInstancesChanged_shouldIgnoreTheMembersRequestedBefore() {
+    now = 10;
+    StackGresCluster scaledCluster = JsonUtil
+        .readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    scaledCluster.getSpec().setInstances(1);
+    state.setCluster(scaledCluster);
+    state.onPodEvent(Action.DELETED, pod("pod-1", "1"));
+
+    assertTrue(state.getReadyCluster(readyMembers(5, "pod-0")).isEmpty());
+    assertEquals(scaledCluster, state.getReadyCluster(readyMembers(10, "pod-0"))
+        .orElseThrow());
+  }
+
+  @Test
+  void givenAMemberNotRunning_shouldNotBeReady() {
+    now = 10;
+
+    assertTrue(state.getReadyCluster(ImmutableClusterMembersSnapshot.builder()
+        .requestedAt(10)
+        .addMembers(member("pod-0", MemberRole.LEADER, MemberState.RUNNING))
+        .addMembers(member("pod-1", MemberRole.REPlICA, MemberState.INITIALIZING))
+        .build())
+        .isEmpty());
+  }
+
+  private ClusterMembersSnapshot readyMembers(long requestedAt, String... names) {
+    return ImmutableClusterMembersSnapshot.builder()
+        .requestedAt(requestedAt)
+        .members(Stream.of(names)
+            .map(name -> member(name, name.equals(names[0])
+                ? MemberRole.LEADER : MemberRole.REPlICA, MemberState.RUNNING))
+            .collect(Collectors.toList()))
+        .build();
+  }
+
+  private ClusterMember member(String name, MemberRole role, MemberState state) {
+    return ImmutableClusterMember.builder()
+        .clusterName(cluster.getMetadata().getName())
+        .namespace(cluster.getMetadata().getNamespace())
+        .name(name)
+        .role(role)
+        .state(state)
+        .apiUrl("http://" + name + ":8008/patroni")
+        .host(name)
+        .port(5432)
+        .timeline(1)
+        .lag(0)
+        .build();
+  }
+
+  private Pod pod(String name, String resourceVersion) {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withResourceVersion(resourceVersion)
+        .endMetadata()
+        .build();
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PatroniMembersPollerTest {
+
+  @Mock
+  private PatroniApiHandler patroniApiHandler;
+
+  private PatroniMembersPoller poller;
+
+  @BeforeEach
+  void setUp() {
+    poller = new PatroniMembersPoller(patroniApiHandler);
+  }
+
+  @Test
+  void givenASubscribedPoller_shouldBeSharedBySubscribersOfTheSameCluster() throws Exception {
+    when(patroniApiHandler.getClusterMembers("test", "test-namespace"))
+        .thenReturn(Uni.createFrom().item(List.of()));
+    Multi<ClusterMembersSnapshot> members = poller.pollClusterMembers("test", "test-namespace");
+    BlockingQueue<ClusterMembersSnapshot> snapshots = new ArrayBlockingQueue<>(16);
+    Cancellable subscription = members.subscribe().with(snapshots::offer);
+    try {
+      ClusterMembersSnapshot snapshot = snapshots.poll(10, TimeUnit.SECONDS);
+      assertEquals(List.of(), snapshot.getMembers());
+      assertSame(members, poller.pollClusterMembers("test", "test-namespace"));
+    } finally {
+      subscription.cancel();
+    }
+  }
+
+  @Test
+  void givenTheLastSubscriberCancelled_shouldRemoveThePoller() throws Exception {
+    when(patroniApiHandler.getClusterMembers("test", "test-namespace"))
+        .thenReturn(Uni.createFrom().item(List.of()));
+    Multi<ClusterMembersSnapshot> members = poller.pollClusterMembers("test", "test-namespace");
+    BlockingQueue<ClusterMembersSnapshot> snapshots = new ArrayBlockingQueue<>(16);
+    Cancellable subscription = members.subscribe().with(snapshots::offer);
+    assertTrue(snapshots.poll(10, TimeUnit.SECONDS) != null);
+
+    subscription.cancel();
+
+    assertNotSame(members, poller.pollClusterMembers("test", "test-namespace"));
+  }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.clusterrestart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.WatcherException;
+import org.junit.jupiter.api.Test;
+
+class WatchEventHandlerTest {
+
+  private final List<Throwable> closeCauses = new ArrayList<>();
+
+  private final WatchEventHandler<Pod> handler = new WatchEventHandler<>(
+      (action, pod) -> { }, closeCauses::add);
+
+  @Test
+  void givenAWatchClosedWithAnError_shouldNotifyTheCause() {
+    WatcherException cause = new WatcherException("Gone");
+
+    handler.onClose(cause);
+
+    assertEquals(1, closeCauses.size());
+    assertSame(cause, closeCauses.get(0));
+  }
+
+  @Test
+  void givenAWatchClosedEarlyWithoutAnError_shouldNotifyTheClose() {
+    handler.onClose();
+
+    assertEquals(1, closeCauses.size());
+  }
+
+}
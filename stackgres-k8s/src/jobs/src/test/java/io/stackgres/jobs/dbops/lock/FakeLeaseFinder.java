@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.lock;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.quarkus.test.Mock;
+import io.stackgres.common.resource.ResourceFinder;
+import org.jetbrains.annotations.NotNull;
+
+@Mock
+public class FakeLeaseFinder implements ResourceFinder<Lease> {
+
+  private final MockKubeDb kubeDb;
+
+  @Inject
+  public FakeLeaseFinder(MockKubeDb kubeDb) {
+    this.kubeDb = kubeDb;
+  }
+
+  @Override
+  public @NotNull Optional<Lease> findByName(@NotNull String name) {
+    throw new UnsupportedOperationException("not implemented");
+  }
+
+  @Override
+  public @NotNull Optional<Lease> findByNameAndNamespace(String name, String namespace) {
+    return Optional.ofNullable(kubeDb.getLease(name, namespace));
+  }
+}
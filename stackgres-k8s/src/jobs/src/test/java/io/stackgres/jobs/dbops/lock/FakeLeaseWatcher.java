@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.lock;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.quarkus.test.Mock;
+import io.smallrye.mutiny.Uni;
+
+@Mock
+public class FakeLeaseWatcher implements LeaseWatcher {
+
+  private final MockKubeDb kubeDb;
+
+  @Inject
+  public FakeLeaseWatcher(MockKubeDb kubeDb) {
+    this.kubeDb = kubeDb;
+  }
+
+  @Override
+  public Uni<Void> waitUntilIsChanged(Lease lease) {
+    final String name = lease.getMetadata().getName();
+    final String namespace = lease.getMetadata().getNamespace();
+    return Uni.createFrom().emitter(em -> {
+      synchronized (kubeDb) {
+        String currentVersion = Optional.ofNullable(kubeDb.getLease(name, namespace))
+            .map(currentLease -> currentLease.getMetadata().getResourceVersion())
+            .orElse(null);
+        if (!Objects.equals(currentVersion, lease.getMetadata().getResourceVersion())) {
+          em.complete(null);
+          return;
+        }
+        kubeDb.watchLease(name, namespace, currentLease -> em.complete(null));
+      }
+    });
+  }
+}
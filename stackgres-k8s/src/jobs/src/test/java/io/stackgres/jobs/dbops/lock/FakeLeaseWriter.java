@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.jobs.dbops.lock;
+
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.quarkus.test.Mock;
+import io.stackgres.common.resource.ResourceWriter;
+import org.jetbrains.annotations.NotNull;
+
+@Mock
+public class FakeLeaseWriter implements ResourceWriter<Lease> {
+
+  private final MockKubeDb kubeDb;
+
+  @Inject
+  public FakeLeaseWriter(MockKubeDb kubeDb) {
+    this.kubeDb = kubeDb;
+  }
+
+  @Override
+  public Lease create(@NotNull Lease resource) {
+    return kubeDb.createLease(resource);
+  }
+
+  @Override
+  public Lease update(@NotNull Lease resource) {
+    return kubeDb.addOrReplaceLease(resource);
+  }
+
+  @Override
+  public void delete(@NotNull Lease resource) {
+    kubeDb.delete(resource);
+  }
+}
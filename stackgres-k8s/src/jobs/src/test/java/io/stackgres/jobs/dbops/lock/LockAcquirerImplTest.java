@@ -5,11 +5,10 @@
 
 package io.stackgres.jobs.dbops.lock;
 
-import static io.stackgres.jobs.dbops.lock.LockAcquirer.LOCK_POD;
-import static io.stackgres.jobs.dbops.lock.LockAcquirer.LOCK_TIMESTAMP;
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Map;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -17,6 +16,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
 import io.quarkus.test.junit.QuarkusTest;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.testutil.JsonUtil;
@@ -36,6 +37,7 @@ class LockAcquirerImplTest {
   private StackGresCluster cluster;
   private String clusterName;
   private String clusterNamespace;
+  private String leaseName;
   private LockRequest lockRequest;
   private ExecutorService executorService;
 
@@ -58,6 +60,7 @@ class LockAcquirerImplTest {
     cluster.getMetadata().setName("test-" + clusterNr.incrementAndGet());
     clusterName = cluster.getMetadata().getName();
     clusterNamespace = cluster.getMetadata().getNamespace();
+    leaseName = LockAcquirerImpl.leaseName(clusterName);
     lockRequest = buildLockRequest(cluster);
     executorService = Executors.newSingleThreadExecutor();
 
@@ -67,6 +70,10 @@ class LockAcquirerImplTest {
   void tearDown() {
     executorService.shutdownNow();
     kubeDb.delete(cluster);
+    var lease = kubeDb.getLease(leaseName, clusterNamespace);
+    if (lease != null) {
+      kubeDb.delete(lease);
+    }
   }
 
   @Test
@@ -78,11 +85,12 @@ class LockAcquirerImplTest {
     lockAcquirer.lockRun(lockRequest, (lockedCluster) -> {
       final StackGresCluster storedCluster = kubeDb
           .getCluster(clusterName, clusterNamespace);
-      final Map<String, String> annotations = storedCluster
-          .getMetadata().getAnnotations();
-      assertNotNull(annotations.get(LOCK_POD));
-      assertEquals(lockRequest.getPodName(), annotations.get(LOCK_POD));
-      assertNotNull(annotations.get(LOCK_TIMESTAMP));
+      final Lease lease = kubeDb.getLease(leaseName, clusterNamespace);
+      assertNotNull(lease);
+      assertEquals(lockRequest.getPodName(), lease.getSpec().getHolderIdentity());
+      assertEquals(lockRequest.getLockTimeout(), lease.getSpec().getLeaseDurationSeconds());
+      assertNotNull(lease.getSpec().getRenewTime());
+      assertEquals(clusterName, lease.getMetadata().getOwnerReferences().get(0).getName());
       assertEquals(lockedCluster, storedCluster);
       taskRunned.set(true);
     });
@@ -91,6 +99,20 @@ class LockAcquirerImplTest {
 
   }
 
+  @Test
+  void givenAnUnlockedCluster_itShouldNotUpdateTheClusterToHoldTheLock() {
+
+    prepareUnlockedCLuster();
+    final String resourceVersion = kubeDb.getCluster(clusterName, clusterNamespace)
+        .getMetadata().getResourceVersion();
+
+    runTaskSuccessfully();
+
+    assertEquals(resourceVersion, kubeDb.getCluster(clusterName, clusterNamespace)
+        .getMetadata().getResourceVersion());
+
+  }
+
   @Test
   void givenAnUnlockedCluster_itShouldReleaseTheLockIfTheTaskExitsSuccessfully() {
 
@@ -98,39 +120,34 @@ class LockAcquirerImplTest {
 
     runTaskSuccessfully();
 
-    StackGresCluster lastPatch = kubeDb.getCluster(clusterName, clusterNamespace);
-    assertNull(lastPatch.getMetadata().getAnnotations().get(LOCK_POD));
-    assertNull(lastPatch.getMetadata().getAnnotations().get(LOCK_TIMESTAMP));
+    Lease lease = kubeDb.getLease(leaseName, clusterNamespace);
+    assertNull(lease.getSpec().getHolderIdentity());
 
   }
 
   @Test
-  void givenALockedClusterByMe_itShouldUpdateTheLockTimestampBeforeRunningTheTask() {
+  void givenALockedClusterByMe_itShouldUpdateTheLockRenewTimeBeforeRunningTheTask() {
 
-    final long lockTimestamp = (System.currentTimeMillis() / 1000) - 1;
-    prepareLockedCluster(lockRequest.getPodName(), lockTimestamp);
+    final ZonedDateTime renewTime = now().minusSeconds(1);
+    prepareLockedCluster(lockRequest.getPodName(), renewTime);
 
     AtomicBoolean taskRunned = new AtomicBoolean(false);
 
     lockAcquirer.lockRun(lockRequest, (cluster) -> {
       taskRunned.set(true);
-      StackGresCluster lastPatch = kubeDb.getCluster(clusterName, clusterNamespace);
-      final Map<String, String> annotations = lastPatch.getMetadata().getAnnotations();
-      assertNotNull(annotations.get(LOCK_POD));
-      assertNotNull(annotations.get(LOCK_TIMESTAMP));
-      assertTrue(() -> {
-        long finalTimestamp = Long.parseLong(annotations.get(LOCK_TIMESTAMP));
-        return finalTimestamp > lockTimestamp;
-      });
+      Lease lease = kubeDb.getLease(leaseName, clusterNamespace);
+      assertEquals(lockRequest.getPodName(), lease.getSpec().getHolderIdentity());
+      assertTrue(lease.getSpec().getRenewTime().isAfter(renewTime));
     });
 
+    assertTrue(taskRunned.get());
+
   }
 
   @Test
   void givenALockedCluster_itShouldWaitUntilTheLockIsReleasedBeforeRunningTheTask() {
 
-    final long lockTimestamp = (System.currentTimeMillis() / 1000) - 1;
-    prepareLockedCluster(lockRequest.getLockResourceName(), lockTimestamp);
+    prepareLockedCluster(StringUtils.getRandomString(), now().minusSeconds(1));
 
     AtomicBoolean taskRan = asycRunTaskSuccessfully();
 
@@ -140,7 +157,7 @@ class LockAcquirerImplTest {
 
     removeLock();
 
-    sleep(lockRequest.getPollInterval() + 2);
+    sleep(1);
 
     assertTrue(taskRan.get());
 
@@ -149,9 +166,8 @@ class LockAcquirerImplTest {
   @Test
   void givenATimedoutLockedCluster_itShouldOverrideTheLock() {
 
-    final long lockTimestamp =
-        (System.currentTimeMillis() / 1000) - lockRequest.getLockTimeout() + 1;
-    prepareLockedCluster(lockRequest.getLockResourceName(), lockTimestamp);
+    prepareLockedCluster(StringUtils.getRandomString(),
+        now().minusSeconds(lockRequest.getLockTimeout() - 1));
 
     AtomicBoolean taskRan = asycRunTaskSuccessfully();
 
@@ -164,7 +180,7 @@ class LockAcquirerImplTest {
   }
 
   @Test
-  void givenALongRunningTask_itShouldUpdateTheLockTimestampPeriodically() {
+  void givenALongRunningTask_itShouldUpdateTheLockRenewTimePeriodically() {
     prepareUnlockedCLuster();
 
     AtomicBoolean taskRan = asycRunTaskSuccessfully(3);
@@ -173,12 +189,10 @@ class LockAcquirerImplTest {
 
     sleep(lockRequest.getPollInterval() + 1);
 
-    long lockTimestamp = Long.parseLong(kubeDb.getCluster(clusterName, clusterNamespace)
-        .getMetadata().getAnnotations().get(LOCK_TIMESTAMP));
+    ZonedDateTime renewTime = kubeDb.getLease(leaseName, clusterNamespace)
+        .getSpec().getRenewTime();
 
-    long currentTimestamp = System.currentTimeMillis() / 1000;
-
-    assertTrue(currentTimestamp - lockTimestamp <= lockRequest.getPollInterval());
+    assertFalse(renewTime.isBefore(now().minusSeconds(lockRequest.getPollInterval())));
 
     sleep(lockRequest.getPollInterval() + 3);
 
@@ -187,19 +201,17 @@ class LockAcquirerImplTest {
   }
 
   private void removeLock() {
-    var cluster = kubeDb.getCluster(clusterName, clusterNamespace);
-    cluster.getMetadata().getAnnotations().remove(LOCK_POD);
-    cluster.getMetadata().getAnnotations().remove(LOCK_TIMESTAMP);
-    kubeDb.addOrReplaceCluster(cluster);
+    var lease = kubeDb.getLease(leaseName, clusterNamespace);
+    lease.getSpec().setHolderIdentity(null);
+    kubeDb.addOrReplaceLease(lease);
   }
 
   private void runTaskSuccessfully() {
     AtomicBoolean taskRan = new AtomicBoolean(false);
 
     lockAcquirer.lockRun(lockRequest, (cluster) -> {
-      StackGresCluster lastPatch = kubeDb.getCluster(clusterName, clusterNamespace);
-      final Map<String, String> annotations = lastPatch.getMetadata().getAnnotations();
-      assertEquals(lockRequest.getPodName(), annotations.get(LOCK_POD));
+      Lease lease = kubeDb.getLease(leaseName, clusterNamespace);
+      assertEquals(lockRequest.getPodName(), lease.getSpec().getHolderIdentity());
       taskRan.set(true);
     });
 
@@ -217,10 +229,10 @@ class LockAcquirerImplTest {
       if (delay > 0) {
         sleep(delay);
       }
-      StackGresCluster lastPatch = kubeDb.getCluster(clusterName, clusterNamespace);
-      final Map<String, String> annotations = lastPatch.getMetadata().getAnnotations();
-      assertEquals(lockRequest.getPodName(), annotations.get(LOCK_POD), "Task ran without Lock!!");
-      assertNotNull(annotations.get(LOCK_TIMESTAMP));
+      Lease lease = kubeDb.getLease(leaseName, clusterNamespace);
+      assertEquals(lockRequest.getPodName(), lease.getSpec().getHolderIdentity(),
+          "Task ran without Lock!!");
+      assertNotNull(lease.getSpec().getRenewTime());
       taskRan.set(true);
     }));
 
@@ -229,19 +241,27 @@ class LockAcquirerImplTest {
 
   private void prepareUnlockedCLuster() {
     cluster.setStatus(null);
-    final Map<String, String> annotations = cluster.getMetadata().getAnnotations();
-    annotations.remove(LOCK_POD);
-    annotations.remove(LOCK_TIMESTAMP);
     kubeDb.addOrReplaceCluster(cluster);
   }
 
-  private void prepareLockedCluster(String lockPod, Long lockTimestamp) {
-    cluster.setStatus(null);
-    final Map<String, String> annotations = cluster.getMetadata().getAnnotations();
-    annotations.put(LOCK_POD, lockPod);
-    annotations.put(LOCK_TIMESTAMP, Long.toString(lockTimestamp));
-    kubeDb.addOrReplaceCluster(cluster);
+  private void prepareLockedCluster(String lockPod, ZonedDateTime renewTime) {
+    prepareUnlockedCLuster();
+    kubeDb.addOrReplaceLease(new LeaseBuilder()
+        .withNewMetadata()
+        .withName(leaseName)
+        .withNamespace(clusterNamespace)
+        .endMetadata()
+        .withNewSpec()
+        .withHolderIdentity(lockPod)
+        .withLeaseDurationSeconds(lockRequest.getLockTimeout())
+        .withAcquireTime(renewTime)
+        .withRenewTime(renewTime)
+        .endSpec()
+        .build());
+  }
 
+  private ZonedDateTime now() {
+    return ZonedDateTime.now(ZoneOffset.UTC);
   }
 
   private void sleep(int seconds) {
@@ -251,4 +271,4 @@ class LockAcquirerImplTest {
     }
   }
 
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -19,6 +20,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.crd.sgdbops.StackGresDbOps;
 
@@ -29,12 +33,16 @@ public class MockKubeDb {
   private final Map<String, StackGresCluster> clusterMap;
   private final Map<String, StackGresDbOps> dbOpsMap;
   private final Map<String, List<Consumer<StackGresCluster>>> clusterWatchers;
+  private final Map<String, Lease> leaseMap;
+  private final Map<String, List<Consumer<Lease>>> leaseWatchers;
   String KEY_FORMAT = "%s/%s";
 
   public MockKubeDb() {
     this.clusterMap = new HashMap<>();
     this.dbOpsMap = new HashMap<>();
     clusterWatchers = new HashMap<>();
+    this.leaseMap = new HashMap<>();
+    this.leaseWatchers = new HashMap<>();
     JSON_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     JSON_MAPPER.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
     JSON_MAPPER.configure(DeserializationFeature.ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, true);
@@ -118,6 +126,65 @@ public class MockKubeDb {
 
   }
 
+  public synchronized Lease getLease(String name, String namespace) {
+    String key = getResourceKey(name, namespace);
+    return copyLease(leaseMap.get(key));
+  }
+
+  private Lease copyLease(Lease source) {
+    return Optional.ofNullable(source)
+        .map(lease -> new LeaseBuilder(lease).build())
+        .orElse(null);
+  }
+
+  public synchronized Lease addOrReplaceLease(Lease lease) {
+    final Lease leaseCopy = copyLease(lease);
+    final String leaseKey = getResourceKey(lease);
+    if (leaseMap.containsKey(leaseKey)) {
+      var oldVersion = leaseMap.get(leaseKey).getMetadata().getResourceVersion();
+      var newVersion = leaseCopy.getMetadata().getResourceVersion();
+      if (!oldVersion.equals(newVersion)) {
+        throw new KubernetesClientException("Lease override with data loss", 409, null);
+      }
+      int updatedVersion = Integer.parseInt(oldVersion) + 1;
+      leaseCopy.getMetadata().setResourceVersion(Integer.toString(updatedVersion));
+    } else if (leaseCopy.getMetadata().getResourceVersion() != null) {
+      throw new KubernetesClientException("Lease not found", 404, null);
+    } else {
+      leaseCopy.getMetadata().setResourceVersion("1");
+    }
+    leaseMap.put(leaseKey, leaseCopy);
+    notifyLeaseWatchers(leaseKey);
+    return copyLease(leaseCopy);
+  }
+
+  public synchronized Lease createLease(Lease lease) {
+    if (leaseMap.containsKey(getResourceKey(lease))) {
+      throw new KubernetesClientException("Lease already exists", 409, null);
+    }
+    return addOrReplaceLease(lease);
+  }
+
+  public synchronized void watchLease(String name, String namespace, Consumer<Lease> consumer) {
+    String leaseKey = getResourceKey(name, namespace);
+    if (!leaseWatchers.containsKey(leaseKey)) {
+      leaseWatchers.put(leaseKey, new ArrayList<>());
+    }
+    leaseWatchers.get(leaseKey).add(consumer);
+  }
+
+  public synchronized void delete(Lease lease) {
+    String leaseKey = getResourceKey(lease);
+    leaseMap.remove(leaseKey);
+    notifyLeaseWatchers(leaseKey);
+  }
+
+  private void notifyLeaseWatchers(String leaseKey) {
+    if (leaseWatchers.containsKey(leaseKey)) {
+      final Lease lease = leaseMap.get(leaseKey);
+      List.copyOf(leaseWatchers.remove(leaseKey)).forEach(consumer -> consumer.accept(lease));
+    }
+  }
 
   private String getResourceKey(HasMetadata resource) {
     return getResourceKey(resource.getMetadata().getName(), resource.getMetadata().getNamespace());
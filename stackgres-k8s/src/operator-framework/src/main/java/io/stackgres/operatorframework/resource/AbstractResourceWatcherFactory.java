@@ -5,6 +5,7 @@
 
 package io.stackgres.operatorframework.resource;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
@@ -20,11 +21,22 @@ public abstract class AbstractResourceWatcherFactory {
       LoggerFactory.getLogger(AbstractResourceWatcherFactory.class);
 
   public <T extends HasMetadata> Watcher<T> createWatcher(Consumer<Action> actionConsumer) {
-    return new WatcherInstance<>(actionConsumer, new EmptyWatcherListener<>());
+    return new WatcherInstance<>((action, resource) -> actionConsumer.accept(action),
+        new EmptyWatcherListener<>());
   }
 
   public <T extends HasMetadata> Watcher<T> createWatcher(Consumer<Action> actionConsumer,
       WatcherListener<T> watcherListener) {
+    return new WatcherInstance<>((action, resource) -> actionConsumer.accept(action),
+        watcherListener);
+  }
+
+  /**
+   * Create a watcher that pass to the consumer the resource that generated the event together
+   * with the action.
+   */
+  public <T extends HasMetadata> Watcher<T> createWatcher(
+      BiConsumer<Action, T> actionConsumer, WatcherListener<T> watcherListener) {
     return new WatcherInstance<>(actionConsumer, watcherListener);
   }
 
@@ -34,10 +46,11 @@ public abstract class AbstractResourceWatcherFactory {
 
   private class WatcherInstance<T extends HasMetadata> implements Watcher<T> {
 
-    private final Consumer<Action> actionConsumer;
+    private final BiConsumer<Action, T> actionConsumer;
     private final WatcherListener<T> watcherListener;
 
-    public WatcherInstance(Consumer<Action> actionConsumer, WatcherListener<T> watcherListener) {
+    public WatcherInstance(BiConsumer<Action, T> actionConsumer,
+        WatcherListener<T> watcherListener) {
       super();
       this.actionConsumer = actionConsumer;
       this.watcherListener = watcherListener;
@@ -48,7 +61,7 @@ public abstract class AbstractResourceWatcherFactory {
       LOGGER.debug("Action <{}> on resource: [{}] {}.{}", action, resource.getKind(),
           resource.getMetadata().getNamespace(), resource.getMetadata().getName());
       try {
-        actionConsumer.accept(action);
+        actionConsumer.accept(action, resource);
         watcherListener.eventReceived(action, resource);
       } catch (Exception ex) {
         LOGGER.error("Error while performing action: <{}>", action, ex);
@@ -7,7 +7,11 @@ package io.stackgres.operator.app;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -17,14 +21,19 @@ import io.fabric8.kubernetes.client.CustomResourceList;
 import io.fabric8.kubernetes.client.Watcher.Action;
 import io.quarkus.runtime.Application;
 import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.StackGresUtil;
 import io.stackgres.common.crd.sgbackup.StackGresBackup;
 import io.stackgres.common.crd.sgbackup.StackGresBackupList;
+import io.stackgres.common.crd.sgbackup.StackGresBackupSpec;
 import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
 import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfigList;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterConfiguration;
 import io.stackgres.common.crd.sgcluster.StackGresClusterList;
+import io.stackgres.common.crd.sgcluster.StackGresClusterSpec;
 import io.stackgres.common.crd.sgdbops.StackGresDbOps;
 import io.stackgres.common.crd.sgdbops.StackGresDbOpsList;
+import io.stackgres.common.crd.sgdbops.StackGresDbOpsSpec;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsList;
 import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
@@ -33,31 +42,41 @@ import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
 import io.stackgres.common.crd.sgpooling.StackGresPoolingConfigList;
 import io.stackgres.common.crd.sgprofile.StackGresProfile;
 import io.stackgres.common.crd.sgprofile.StackGresProfileList;
+import io.stackgres.common.resource.CustomResourceScanner;
 import io.stackgres.operator.conciliation.cluster.ClusterReconciliator;
+import io.stackgres.operator.conciliation.distributedlogs.ConnectedClustersScannerImpl;
 import io.stackgres.operator.conciliation.distributedlogs.DistributedLogsReconciliator;
 import io.stackgres.operator.controller.ResourceWatcherFactory;
 import io.stackgres.operatorframework.resource.WatcherMonitor;
 import org.jetbrains.annotations.NotNull;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
 
 @ApplicationScoped
 public class OperatorWatchersHandlerImpl implements OperatorWatcherHandler {
 
   private final List<WatcherMonitor<?>> monitors = new ArrayList<>();
 
+  private final Map<String, Tuple2<String, String>> clustersDistributedLogs =
+      new ConcurrentHashMap<>();
+
   private final KubernetesClientFactory kubeClient;
   private final ClusterReconciliator clusterReconciliationCycle;
   private final DistributedLogsReconciliator distributedLogsReconciliatorCycle;
   private final ResourceWatcherFactory watcherFactory;
+  private final CustomResourceScanner<StackGresCluster> clusterScanner;
 
   @Inject
   public OperatorWatchersHandlerImpl(KubernetesClientFactory kubeClient,
                                      ClusterReconciliator clusterReconciliationCycle,
                                      DistributedLogsReconciliator distributedLogsReconciliatorCycle,
-                                     ResourceWatcherFactory watcherFactory) {
+                                     ResourceWatcherFactory watcherFactory,
+                                     CustomResourceScanner<StackGresCluster> clusterScanner) {
     this.kubeClient = kubeClient;
     this.clusterReconciliationCycle = clusterReconciliationCycle;
     this.distributedLogsReconciliatorCycle = distributedLogsReconciliatorCycle;
     this.watcherFactory = watcherFactory;
+    this.clusterScanner = clusterScanner;
   }
 
   @Override
@@ -66,37 +85,46 @@ public class OperatorWatchersHandlerImpl implements OperatorWatcherHandler {
         StackGresCluster.class,
         StackGresClusterList.class,
         reconcileCluster()
-            .andThen(reconcileDistributedLogs())));
+            .andThen(reconcileClusterDistributedLogs())));
 
     monitors.add(createWatcher(
         StackGresPostgresConfig.class,
         StackGresPostgresConfigList.class,
-        reconcileCluster()));
+        reconcileReferencingClusters(cluster -> Optional.ofNullable(cluster.getSpec())
+            .map(StackGresClusterSpec::getConfiguration)
+            .map(StackGresClusterConfiguration::getPostgresConfig))));
 
     monitors.add(createWatcher(
         StackGresPoolingConfig.class,
         StackGresPoolingConfigList.class,
-        reconcileCluster()));
+        reconcileReferencingClusters(cluster -> Optional.ofNullable(cluster.getSpec())
+            .map(StackGresClusterSpec::getConfiguration)
+            .map(StackGresClusterConfiguration::getConnectionPoolingConfig))));
 
     monitors.add(createWatcher(
         StackGresProfile.class,
         StackGresProfileList.class,
-        reconcileCluster()));
+        reconcileReferencingClusters(cluster -> Optional.ofNullable(cluster.getSpec())
+            .map(StackGresClusterSpec::getResourceProfile))));
 
     monitors.add(createWatcher(
         StackGresBackupConfig.class,
         StackGresBackupConfigList.class,
-        reconcileCluster()));
+        reconcileReferencingClusters(cluster -> Optional.ofNullable(cluster.getSpec())
+            .map(StackGresClusterSpec::getConfiguration)
+            .map(StackGresClusterConfiguration::getBackupConfig))));
 
     monitors.add(createWatcher(
         StackGresBackup.class,
         StackGresBackupList.class,
-        reconcileCluster()));
+        reconcileReferencedCluster(backup -> Optional.ofNullable(backup.getSpec())
+            .map(StackGresBackupSpec::getSgCluster))));
 
     monitors.add(createWatcher(
         StackGresDbOps.class,
         StackGresDbOpsList.class,
-        reconcileCluster()));
+        reconcileReferencedCluster(dbOps -> Optional.ofNullable(dbOps.getSpec())
+            .map(StackGresDbOpsSpec::getSgCluster))));
 
     monitors.add(createWatcher(
         StackGresDistributedLogs.class,
@@ -107,7 +135,8 @@ public class OperatorWatchersHandlerImpl implements OperatorWatcherHandler {
 
   private <T extends CustomResource<?, ?>,
       L extends CustomResourceList<T>> WatcherMonitor<T> createWatcher(
-      @NotNull Class<T> crClass, @NotNull Class<L> listClass, @NotNull Consumer<Action> consumer) {
+      @NotNull Class<T> crClass, @NotNull Class<L> listClass,
+      @NotNull BiConsumer<Action, T> consumer) {
 
     return new WatcherMonitor<>(watcherListener -> kubeClient.create()
         .customResources(crClass, listClass)
@@ -116,12 +145,70 @@ public class OperatorWatchersHandlerImpl implements OperatorWatcherHandler {
         () -> new Thread(() -> Application.currentApplication().stop()).start());
   }
 
-  private Consumer<Action> reconcileCluster() {
-    return action -> clusterReconciliationCycle.reconcile();
+  private BiConsumer<Action, StackGresCluster> reconcileCluster() {
+    return (action, cluster) -> clusterReconciliationCycle.enqueue(
+        cluster.getMetadata().getNamespace(), cluster.getMetadata().getName());
+  }
+
+  /**
+   * Reconcile the SGDistributedLogs referenced by the cluster and, when the reference has changed
+   * or the cluster has been deleted, the SGDistributedLogs it was previously referencing.
+   */
+  BiConsumer<Action, StackGresCluster> reconcileClusterDistributedLogs() {
+    return (action, cluster) -> {
+      final String clusterKey = cluster.getMetadata().getNamespace()
+          + "/" + cluster.getMetadata().getName();
+      final Optional<Tuple2<String, String>> distributedLogs =
+          ConnectedClustersScannerImpl.getDistributedLogsRelativeId(cluster)
+          .map(relativeId -> Tuple.tuple(
+              StackGresUtil.getNamespaceFromRelativeId(
+                  relativeId, cluster.getMetadata().getNamespace()),
+              StackGresUtil.getNameFromRelativeId(relativeId)));
+      final Optional<Tuple2<String, String>> previousDistributedLogs;
+      if (action == Action.DELETED || distributedLogs.isEmpty()) {
+        previousDistributedLogs = Optional.ofNullable(
+            clustersDistributedLogs.remove(clusterKey));
+      } else {
+        previousDistributedLogs = Optional.ofNullable(
+            clustersDistributedLogs.put(clusterKey, distributedLogs.get()));
+      }
+      previousDistributedLogs
+          .filter(previous -> !distributedLogs.equals(Optional.of(previous)))
+          .ifPresent(previous -> distributedLogsReconciliatorCycle.enqueue(
+              previous.v1, previous.v2));
+      distributedLogs.ifPresent(current -> distributedLogsReconciliatorCycle.enqueue(
+          current.v1, current.v2));
+    };
+  }
+
+  /**
+   * Reconcile the clusters in the same namespace of the resource that reference it by name.
+   */
+  private <T extends CustomResource<?, ?>> BiConsumer<Action, T> reconcileReferencingClusters(
+      Function<StackGresCluster, Optional<String>> referenceExtractor) {
+    return (action, resource) -> clusterScanner
+        .getResources(resource.getMetadata().getNamespace())
+        .stream()
+        .filter(cluster -> referenceExtractor.apply(cluster)
+            .map(resource.getMetadata().getName()::equals)
+            .orElse(false))
+        .forEach(cluster -> clusterReconciliationCycle.enqueue(
+            cluster.getMetadata().getNamespace(), cluster.getMetadata().getName()));
+  }
+
+  /**
+   * Reconcile the cluster in the same namespace of the resource that is referenced by it.
+   */
+  private <T extends CustomResource<?, ?>> BiConsumer<Action, T> reconcileReferencedCluster(
+      Function<T, Optional<String>> referenceExtractor) {
+    return (action, resource) -> referenceExtractor.apply(resource)
+        .ifPresent(clusterName -> clusterReconciliationCycle.enqueue(
+            resource.getMetadata().getNamespace(), clusterName));
   }
 
-  private Consumer<Action> reconcileDistributedLogs() {
-    return action -> distributedLogsReconciliatorCycle.reconcile();
+  private BiConsumer<Action, StackGresDistributedLogs> reconcileDistributedLogs() {
+    return (action, distributedLogs) -> distributedLogsReconciliatorCycle.enqueue(
+        distributedLogs.getMetadata().getNamespace(), distributedLogs.getMetadata().getName());
   }
 
   @Override
@@ -8,12 +8,15 @@ package io.stackgres.operator.app;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import io.stackgres.common.app.AbstractReconciliationClock;
+import io.stackgres.common.app.ReconciliationClock;
 import io.stackgres.operator.conciliation.cluster.ClusterReconciliator;
 import io.stackgres.operator.conciliation.distributedlogs.DistributedLogsReconciliator;
 
+/**
+ * Start and stop the reconciliators, each one schedules the resync of its resources.
+ */
 @ApplicationScoped
-public class ReconciliationClockImpl extends AbstractReconciliationClock {
+public class ReconciliationClockImpl implements ReconciliationClock {
 
   private final ClusterReconciliator clusterReconciliationCycle;
   private final DistributedLogsReconciliator distributedLogsReconciliator;
@@ -26,8 +29,14 @@ public class ReconciliationClockImpl extends AbstractReconciliationClock {
   }
 
   @Override
-  protected void reconcile() {
-    clusterReconciliationCycle.reconcile();
-    distributedLogsReconciliator.reconcile();
+  public void start() {
+    clusterReconciliationCycle.start();
+    distributedLogsReconciliator.start();
+  }
+
+  @Override
+  public void stop() {
+    clusterReconciliationCycle.stop();
+    distributedLogsReconciliator.stop();
   }
 }
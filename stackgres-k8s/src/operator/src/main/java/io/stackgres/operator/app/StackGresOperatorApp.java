@@ -5,13 +5,34 @@
 
 package io.stackgres.operator.app;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.StartupEvent;
+import io.stackgres.common.StackGresContext;
 import io.stackgres.common.app.ReconciliationClock;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.crd.sgbackup.StackGresBackupSpec;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgdbops.StackGresDbOps;
+import io.stackgres.common.crd.sgdbops.StackGresDbOpsSpec;
+import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.operator.conciliation.ReconciliationOperations;
+import io.stackgres.operator.conciliation.cluster.ClusterReconciliator;
+import io.stackgres.operator.conciliation.distributedlogs.ConnectedClustersScannerImpl;
+import io.stackgres.operator.conciliation.distributedlogs.DistributedLogsReconciliator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,9 +44,13 @@ public class StackGresOperatorApp {
   private OperatorWatcherHandler operatorWatchersHandler;
   private ReconciliationClock reconciliationClock;
   private OperatorBootstrap operatorBootstrap;
+  private CustomResourceCache customResourceCache;
+  private ClusterReconciliator clusterReconciliator;
+  private DistributedLogsReconciliator distributedLogsReconciliator;
 
   void onStart(@Observes StartupEvent ev) {
     operatorBootstrap.bootstrap();
+    startCustomResourceCache();
     operatorWatchersHandler.startWatchers();
     reconciliationClock.start();
   }
@@ -34,6 +59,53 @@ public class StackGresOperatorApp {
     LOGGER.info("The application is stopping...");
     operatorWatchersHandler.stopWatchers();
     reconciliationClock.stop();
+    customResourceCache.stop();
+  }
+
+  private void startCustomResourceCache() {
+    try {
+      customResourceCache.register(StackGresCluster.class,
+          cluster -> Optional.empty(),
+          ConnectedClustersScannerImpl::getDistributedLogsRelativeId);
+      customResourceCache.register(StackGresPostgresConfig.class);
+      customResourceCache.register(StackGresPoolingConfig.class);
+      customResourceCache.register(StackGresProfile.class);
+      customResourceCache.register(StackGresBackupConfig.class);
+      customResourceCache.register(StackGresDistributedLogs.class);
+      customResourceCache.register(StackGresBackup.class,
+          backup -> Optional.ofNullable(backup.getSpec())
+              .map(StackGresBackupSpec::getSgCluster));
+      customResourceCache.register(StackGresDbOps.class,
+          dbOps -> Optional.ofNullable(dbOps.getSpec())
+              .map(StackGresDbOpsSpec::getSgCluster));
+      final Map<String, String[]> ownedResourcesLabels = Map.of(StackGresContext.APP_KEY,
+          new String[] {StackGresContext.APP_NAME, StackGresContext.DISTRIBUTED_LOGS_APP_NAME});
+      ReconciliationOperations.STACKGRES_CLUSTER_RESOURCE_OPERATIONS.keySet()
+          .forEach(kind -> customResourceCache.registerOwned(kind, ownedResourcesLabels,
+              this::reconcileOwners));
+      customResourceCache.start();
+    } catch (Exception ex) {
+      LOGGER.warn("Unable to start the custom resource cache,"
+          + " resources will be retrieved from the Kubernetes API server", ex);
+    }
+  }
+
+  /**
+   * Reconcile the SGClusters and SGDistributedLogs that own a resource that has been deleted or
+   * changed by someone else.
+   */
+  private void reconcileOwners(HasMetadata resource) {
+    final String namespace = resource.getMetadata().getNamespace();
+    Optional.ofNullable(resource.getMetadata().getOwnerReferences())
+        .stream()
+        .flatMap(List::stream)
+        .forEach(owner -> {
+          if (StackGresCluster.KIND.equals(owner.getKind())) {
+            clusterReconciliator.enqueue(namespace, owner.getName());
+          } else if (StackGresDistributedLogs.KIND.equals(owner.getKind())) {
+            distributedLogsReconciliator.enqueue(namespace, owner.getName());
+          }
+        });
   }
 
   @Inject
@@ -50,4 +122,20 @@ public class StackGresOperatorApp {
   public void setOperatorBootstrap(OperatorBootstrap operatorBootstrap) {
     this.operatorBootstrap = operatorBootstrap;
   }
+
+  @Inject
+  public void setCustomResourceCache(CustomResourceCache customResourceCache) {
+    this.customResourceCache = customResourceCache;
+  }
+
+  @Inject
+  public void setClusterReconciliator(ClusterReconciliator clusterReconciliator) {
+    this.clusterReconciliator = clusterReconciliator;
+  }
+
+  @Inject
+  public void setDistributedLogsReconciliator(
+      DistributedLogsReconciliator distributedLogsReconciliator) {
+    this.distributedLogsReconciliator = distributedLogsReconciliator;
+  }
 }
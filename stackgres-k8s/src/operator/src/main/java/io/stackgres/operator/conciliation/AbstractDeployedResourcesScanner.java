@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.LabelFactory;
+import io.stackgres.common.resource.CustomResourceCache;
+
+/**
+ * Scan the resources owned by a custom resource. Resources are looked up by owner UID in the
+ * shared cache and the Kubernetes API server is queried only for the kinds that are not cached
+ * yet.
+ */
+public abstract class AbstractDeployedResourcesScanner<T extends CustomResource<?, ?>>
+    implements DeployedResourcesScanner<T>, ReconciliationOperations {
+
+  private final KubernetesClientFactory clientFactory;
+  private final CustomResourceCache cache;
+  private final LabelFactory<T> labelFactory;
+
+  protected AbstractDeployedResourcesScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache, LabelFactory<T> labelFactory) {
+    this.clientFactory = clientFactory;
+    this.cache = cache;
+    this.labelFactory = labelFactory;
+  }
+
+  @Override
+  public List<HasMetadata> getDeployedResources(T config) {
+    final Map<String, String> genericLabels = labelFactory.genericClusterLabels(config);
+    final String ownerUid = config.getMetadata().getUid();
+    final List<HasMetadata> resources = new ArrayList<>();
+    final List<Class<? extends HasMetadata>> nonCachedKinds = new ArrayList<>();
+    for (Class<? extends HasMetadata> kind : STACKGRES_CLUSTER_RESOURCE_OPERATIONS.keySet()) {
+      Optional<? extends List<? extends HasMetadata>> cachedResources = cache.getIndex(kind)
+          .map(index -> index.copies().listByOwner(ownerUid));
+      if (cachedResources.isPresent()) {
+        resources.addAll(cachedResources.get());
+      } else {
+        nonCachedKinds.add(kind);
+      }
+    }
+
+    if (!nonCachedKinds.isEmpty()) {
+      try (KubernetesClient client = clientFactory.create()) {
+        for (Class<? extends HasMetadata> kind : nonCachedKinds) {
+          resources.addAll(STACKGRES_CLUSTER_RESOURCE_OPERATIONS.get(kind).apply(client)
+              .inNamespace(config.getMetadata().getNamespace())
+              .withLabels(genericLabels)
+              .list()
+              .getItems());
+        }
+      }
+    }
+
+    return resources.stream()
+        .filter(resource -> hasLabels(resource, genericLabels))
+        .filter(resource -> resource.getMetadata().getOwnerReferences()
+            .stream().anyMatch(ownerReference -> ownerReference.getKind()
+                .equals(config.getKind())
+                && ownerReference.getName().equals(config.getMetadata().getName())))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private boolean hasLabels(HasMetadata resource, Map<String, String> labels) {
+    final Map<String, String> resourceLabels = resource.getMetadata().getLabels();
+    return resourceLabels != null && resourceLabels.entrySet().containsAll(labels.entrySet());
+  }
+
+}
@@ -5,46 +5,78 @@
 
 package io.stackgres.operator.conciliation;
 
+import java.net.HttpURLConnection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.OperatorProperty;
+import io.stackgres.common.resource.ResourcePatchOperation;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public abstract class AbstractReconciliationHandler implements ReconciliationHandler,
     ReconciliationOperations {
 
+  public static final String FIELD_MANAGER = "stackgres";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractReconciliationHandler.class);
+
   private KubernetesClientFactory clientFactory;
 
+  private volatile boolean serverSideApply = OperatorProperty.SERVER_SIDE_APPLY.getBoolean();
+
+  /**
+   * Create the resource using server-side apply when enabled, the same request used to patch and
+   * replace it, so that the fields are owned by the StackGres field manager from the start.
+   */
   @Override
   public HasMetadata create(HasMetadata resource) {
-    return clientFactory.withNewClient(client -> getResourceOperation(client, resource)
-        .inNamespace(resource.getMetadata().getNamespace())
-        .create(resource));
+    return applyOrElse(resource, () -> clientFactory.withNewClient(
+        client -> getResourceOperation(client, resource)
+            .inNamespace(resource.getMetadata().getNamespace())
+            .create(resource)));
   }
 
+  /**
+   * Patch the resource using server-side apply when enabled so that only the fields owned by
+   * StackGres are sent and the fields set by other controllers are preserved.
+   */
   @Override
   public HasMetadata patch(HasMetadata resource, HasMetadata oldResource) {
-    return clientFactory.withNewClient(client -> getResourceOperation(client, resource)
-        .inNamespace(resource.getMetadata().getNamespace())
-        .withName(resource.getMetadata().getName())
-        .patch(resource));
+    return applyOrElse(resource, () -> clientFactory.withNewClient(
+        client -> getResourceOperation(client, resource)
+            .inNamespace(resource.getMetadata().getNamespace())
+            .withName(resource.getMetadata().getName())
+            .patch(resource)));
   }
 
+  /**
+   * Replace the resource, using server-side apply when enabled so that the fields set by other
+   * controllers are not overwritten.
+   */
   @Override
   public HasMetadata replace(HasMetadata resource) {
-    return clientFactory.withNewClient(client -> getResourceOperation(client, resource)
-        .inNamespace(resource.getMetadata().getNamespace())
-        .withName(resource.getMetadata().getName())
-        .lockResourceVersion(resource.getMetadata().getResourceVersion())
-        .replace(resource));
+    return applyOrElse(resource, () -> clientFactory.withNewClient(
+        client -> getResourceOperation(client, resource)
+            .inNamespace(resource.getMetadata().getNamespace())
+            .withName(resource.getMetadata().getName())
+            .lockResourceVersion(resource.getMetadata().getResourceVersion())
+            .replace(resource)));
   }
 
   @Override
@@ -52,6 +84,46 @@ public abstract class AbstractReconciliationHandler implements ReconciliationHan
     clientFactory.withNewClient(client -> client.resource(resource).delete());
   }
 
+  private HasMetadata applyOrElse(HasMetadata resource, Supplier<HasMetadata> fallback) {
+    if (serverSideApply) {
+      Optional<HasMetadata> applied = apply(resource);
+      if (applied.isPresent()) {
+        return applied.get();
+      }
+    }
+    return fallback.get();
+  }
+
+  /**
+   * Apply the resource with the StackGres field manager, forcing the ownership of conflicting
+   * fields. The resource is created if it does not exist. Return empty if the Kubernetes API
+   * server does not support server-side apply.
+   */
+  private Optional<HasMetadata> apply(HasMetadata resource) {
+    try {
+      return Optional.of(clientFactory.withNewClient(
+          client -> ResourcePatchOperation.of(client, resource)
+              .apply(getApplyPatch(resource), FIELD_MANAGER, resource.getClass())));
+    } catch (KubernetesClientException ex) {
+      if (ex.getCode() == HttpURLConnection.HTTP_UNSUPPORTED_TYPE) {
+        LOGGER.warn("Server-side apply is not supported by the Kubernetes API server,"
+            + " falling back to patch");
+        serverSideApply = false;
+        return Optional.empty();
+      }
+      throw ex;
+    }
+  }
+
+  private String getApplyPatch(HasMetadata resource) {
+    final ObjectNode patch = Serialization.jsonMapper().valueToTree(resource);
+    final JsonNode metadata = patch.get("metadata");
+    if (metadata instanceof ObjectNode) {
+      ((ObjectNode) metadata).remove(List.of("resourceVersion", "managedFields"));
+    }
+    return patch.toString();
+  }
+
   @SuppressWarnings("unchecked")
   private <M extends HasMetadata> MixedOperation<M, ? extends KubernetesResourceList<M>,
       ? extends Resource<M>> getResourceOperation(
@@ -5,9 +5,12 @@
 
 package io.stackgres.operator.conciliation;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -15,6 +18,7 @@ import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.CustomResource;
 import org.jooq.lambda.tuple.Tuple;
 import org.jooq.lambda.tuple.Tuple2;
+import org.jooq.lambda.tuple.Tuple3;
 
 public class Conciliator<T extends CustomResource<?, ?>> {
 
@@ -24,32 +28,93 @@ public class Conciliator<T extends CustomResource<?, ?>> {
 
   private ComparisonDelegator<T> resourceComparator;
 
+  private FingerprintCalculator<T> fingerprintCalculator = config -> Optional.empty();
+
+  private final Map<String, Fingerprint> upToDateFingerprints = new ConcurrentHashMap<>();
+
+  /**
+   * Compare the required resources with the deployed ones and return the resources that have to
+   * be created, patched and deleted. Deployed resources are indexed by kind, namespace and name so
+   * that each resource is visited only once. A deployed resource with the same kind, namespace and
+   * name of a required resource that is not the same resource is deleted and created again.
+   *
+   * <p>When the fingerprint of the inputs and of the deployed resources is the same as the last
+   * time the config was found up to date the required resources are not generated and the config
+   * is considered up to date.
+   */
   public ReconciliationResult evalReconciliationState(T config) {
-    var requiredResources = requiredResourceGenerator.getRequiredResources(config);
     var deployedResources = deployedResourcesScanner.getDeployedResources(config);
+    final String configId = configId(config);
+    final Optional<Fingerprint> fingerprint = fingerprintCalculator.calculate(config)
+        .map(inputsFingerprint -> inputsFingerprint.withAllDeployed(deployedResources));
+    if (fingerprint.isPresent()
+        && fingerprint.get().equals(upToDateFingerprints.get(configId))) {
+      return new ReconciliationResult(List.of(), List.of(), List.of());
+    }
+
+    ReconciliationResult result = evalReconciliationState(config, deployedResources);
+    if (result.isUpToDate() && fingerprint.isPresent()) {
+      upToDateFingerprints.put(configId, fingerprint.get());
+    } else {
+      upToDateFingerprints.remove(configId);
+    }
+    return result;
+  }
+
+  private ReconciliationResult evalReconciliationState(T config,
+      List<HasMetadata> deployedResources) {
+    var requiredResources = requiredResourceGenerator.getRequiredResources(config);
 
-    var creations = requiredResources.stream()
-        .filter(requiredResource -> deployedResources.stream()
-            .noneMatch(deployedResource -> isTheSameResource(requiredResource, deployedResource)));
+    Map<Tuple3<String, String, String>, HasMetadata> deployedIndex =
+        new HashMap<>(deployedResources.size() * 2);
+    for (HasMetadata deployedResource : deployedResources) {
+      deployedIndex.putIfAbsent(resourceKey(deployedResource), deployedResource);
+    }
+
+    List<HasMetadata> creations = new ArrayList<>();
+    List<Tuple2<HasMetadata, HasMetadata>> patches = new ArrayList<>();
+    Map<Tuple3<String, String, String>, HasMetadata> requiredIndex =
+        new HashMap<>(requiredResources.size() * 2);
+    for (HasMetadata requiredResource : requiredResources) {
+      var key = resourceKey(requiredResource);
+      requiredIndex.putIfAbsent(key, requiredResource);
+      HasMetadata deployedResource = deployedIndex.get(key);
+      if (deployedResource == null || !isTheSameResource(requiredResource, deployedResource)) {
+        creations.add(requiredResource);
+      } else if (!isResourceContentEqual(requiredResource, deployedResource)) {
+        patches.add(Tuple.tuple(requiredResource, deployedResource));
+      }
+    }
+
+    List<HasMetadata> deletions = new ArrayList<>();
+    for (HasMetadata deployedResource : deployedResources) {
+      HasMetadata requiredResource = requiredIndex.get(resourceKey(deployedResource));
+      if (requiredResource == null || !isTheSameResource(requiredResource, deployedResource)) {
+        deletions.add(deployedResource);
+      }
+    }
+
+    return new ReconciliationResult(List.copyOf(creations),
+        List.copyOf(patches),
+        List.copyOf(deletions));
 
-    var deletions = deployedResources.stream()
-        .filter(deployedResource -> requiredResources.stream()
-            .noneMatch(requiredResource -> isTheSameResource(deployedResource, requiredResource)));
+  }
 
-    Stream<Tuple2<HasMetadata, HasMetadata>> patches = requiredResources.stream()
-        .map(requiredResource -> {
-          Optional<HasMetadata> deployedResource = deployedResources.stream()
-              .filter(dr -> isTheSameResource(requiredResource, dr))
-              .findFirst();
-          return Tuple.tuple(requiredResource, deployedResource);
-        }).filter(resourceTuple -> resourceTuple.v2.isPresent())
-        .map(rt -> rt.map2(Optional::get))
-        .filter(resourceTuple -> !isResourceContentEqual(resourceTuple.v1, resourceTuple.v2));
+  /**
+   * Forget the fingerprint of a config that no longer exists.
+   */
+  public void forget(String namespace, String name) {
+    upToDateFingerprints.remove(namespace + "/" + name);
+  }
 
-    return new ReconciliationResult(creations.collect(Collectors.toUnmodifiableList()),
-        patches.collect(Collectors.toUnmodifiableList()),
-        deletions.collect(Collectors.toUnmodifiableList()));
+  private static String configId(HasMetadata config) {
+    return config.getMetadata().getNamespace() + "/" + config.getMetadata().getName();
+  }
 
+  private static Tuple3<String, String, String> resourceKey(HasMetadata resource) {
+    return Tuple.tuple(resource.getKind(),
+        resource.getMetadata().getNamespace(),
+        resource.getMetadata().getName());
   }
 
   protected boolean isResourceContentEqual(HasMetadata r1, HasMetadata r2) {
@@ -74,4 +139,9 @@ public class Conciliator<T extends CustomResource<?, ?>> {
   public void setResourceComparator(ComparisonDelegator<T> resourceComparator) {
     this.resourceComparator = resourceComparator;
   }
+
+  @Inject
+  public void setFingerprintCalculator(FingerprintCalculator<T> fingerprintCalculator) {
+    this.fingerprintCalculator = fingerprintCalculator;
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.stackgres.common.crd.sgcluster.StackGresClusterPodStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The versions of the resources used to reconcile a custom resource. When the fingerprint of a
+ * custom resource did not change since it was found up to date there is no need to generate its
+ * required resources and compare them with the deployed ones.
+ */
+public class Fingerprint {
+
+  private final Map<String, String> versions = new TreeMap<>();
+
+  /**
+   * Create a fingerprint for the specified source. The generation of the source is used so that
+   * updates to its status do not change the fingerprint. The parts of the status that are read to
+   * generate the required resources have to be added with {@link #withValue(String, Object)}.
+   */
+  public static Fingerprint of(HasMetadata source) {
+    return new Fingerprint().withGeneration(source);
+  }
+
+  /**
+   * Add the version of the specified input resource.
+   */
+  public Fingerprint with(HasMetadata resource) {
+    versions.put(key(resource), resource.getMetadata().getResourceVersion());
+    return this;
+  }
+
+  public Fingerprint with(Optional<? extends HasMetadata> resource) {
+    resource.ifPresent(this::with);
+    return this;
+  }
+
+  public Fingerprint withAll(Collection<? extends HasMetadata> resources) {
+    resources.forEach(this::with);
+    return this;
+  }
+
+  /**
+   * Add the versions of the specified deployed resources. Resources with a generation contribute
+   * their generation, labels and annotations so that updates to their status are not taken into
+   * account. Endpoints are updated by Patroni on every loop in parts that are ignored when
+   * comparing them, so only their identity is taken into account.
+   */
+  public Fingerprint withAllDeployed(Collection<? extends HasMetadata> resources) {
+    for (HasMetadata resource : resources) {
+      if (resource instanceof Endpoints) {
+        versions.put(key(resource), resource.getMetadata().getUid());
+      } else if (resource.getMetadata().getGeneration() != null) {
+        withGeneration(resource);
+      } else {
+        with(resource);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Add the generation, labels and annotations of the specified input resource, to be used for
+   * resources whose status is updated often.
+   */
+  public Fingerprint withGeneration(HasMetadata resource) {
+    final ObjectMeta metadata = resource.getMetadata();
+    versions.put(key(resource), metadata.getUid() + ":" + metadata.getGeneration()
+        + ":" + sorted(metadata.getLabels()) + ":" + sorted(metadata.getAnnotations()));
+    return this;
+  }
+
+  /**
+   * Add a value, typically a part of the status of the source, that is read to generate the
+   * required resources. The value is compared through its JSON representation.
+   */
+  public Fingerprint withValue(String name, @Nullable Object value) {
+    versions.put(name, Serialization.asJson(value));
+    return this;
+  }
+
+  /**
+   * Add the extensions installed in each pod, as reported in the pod statuses of the source.
+   */
+  public Fingerprint withInstalledExtensions(
+      @Nullable List<StackGresClusterPodStatus> podStatuses) {
+    return withValue("status.podStatuses.installedPostgresExtensions",
+        Optional.ofNullable(podStatuses)
+            .map(statuses -> statuses.stream()
+                .collect(Collectors.toMap(
+                    podStatus -> String.valueOf(podStatus.getName()),
+                    podStatus -> Optional.ofNullable(podStatus.getInstalledPostgresExtensions())
+                        .orElse(List.of()),
+                    (first, second) -> first,
+                    TreeMap::new)))
+            .orElse(null));
+  }
+
+  private static String key(HasMetadata resource) {
+    return resource.getKind() + "/" + resource.getMetadata().getNamespace()
+        + "/" + resource.getMetadata().getName();
+  }
+
+  private static Map<String, String> sorted(Map<String, String> map) {
+    return map == null ? Map.of() : new TreeMap<>(map);
+  }
+
+  @Override
+  public int hashCode() {
+    return versions.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Fingerprint)) {
+      return false;
+    }
+    return Objects.equals(versions, ((Fingerprint) obj).versions);
+  }
+
+  @Override
+  public String toString() {
+    return versions.toString();
+  }
+
+}
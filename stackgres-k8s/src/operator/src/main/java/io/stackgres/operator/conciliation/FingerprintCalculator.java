@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.Optional;
+
+import io.fabric8.kubernetes.client.CustomResource;
+
+public interface FingerprintCalculator<T extends CustomResource<?, ?>> {
+
+  /**
+   * Return the fingerprint of the source and of the resources used to generate its required
+   * resources or empty if it can not be calculated.
+   */
+  Optional<Fingerprint> calculate(T config);
+
+}
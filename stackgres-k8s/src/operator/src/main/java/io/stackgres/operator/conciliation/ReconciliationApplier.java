@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1beta1.CronJob;
+
+/**
+ * Apply changes to independent resources concurrently. Workloads (StatefulSets, Jobs and
+ * CronJobs) may reference any other resource so they are applied only after all the other
+ * resources of the same batch have been applied.
+ */
+class ReconciliationApplier {
+
+  private static final Set<Class<? extends HasMetadata>> WORKLOAD_KINDS = Set.of(
+      StatefulSet.class, Job.class, CronJob.class);
+
+  private final String name;
+  private final int concurrency;
+
+  private ExecutorService executorService;
+
+  ReconciliationApplier(String name, int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be at least 1, got " + concurrency);
+    }
+    this.name = name;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Apply the action to all the resources and wait for them to complete. If any action fails
+   * the first failure is rethrown once all the actions of the same batch have completed.
+   */
+  <R> void apply(List<R> resources, Function<R, HasMetadata> resourceMapper,
+      Consumer<R> action) {
+    if (resources.isEmpty()) {
+      return;
+    }
+    Map<Boolean, List<R>> batches = resources.stream()
+        .collect(Collectors.partitioningBy(
+            resource -> WORKLOAD_KINDS.contains(resourceMapper.apply(resource).getClass())));
+    applyBatch(batches.get(false), action);
+    applyBatch(batches.get(true), action);
+  }
+
+  private <R> void applyBatch(List<R> batch, Consumer<R> action) {
+    if (concurrency == 1 || batch.size() <= 1) {
+      batch.forEach(action);
+      return;
+    }
+    final ExecutorService executor = getExecutorService();
+    final CompletableFuture<?>[] futures = batch.stream()
+        .map(resource -> CompletableFuture.runAsync(() -> action.accept(resource), executor))
+        .toArray(CompletableFuture[]::new);
+    RuntimeException failure = null;
+    for (CompletableFuture<?> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException ex) {
+        if (failure == null) {
+          failure = ex.getCause() instanceof RuntimeException
+              ? (RuntimeException) ex.getCause() : ex;
+        } else {
+          failure.addSuppressed(ex.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private synchronized ExecutorService getExecutorService() {
+    if (executorService == null) {
+      final AtomicInteger threadIndex = new AtomicInteger(0);
+      executorService = Executors.newFixedThreadPool(concurrency, r -> {
+        Thread thread = new Thread(r, name + "-ReconciliationApplier-"
+            + threadIndex.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return executorService;
+  }
+
+  synchronized void stop() {
+    if (executorService != null) {
+      executorService.shutdown();
+      executorService = null;
+    }
+  }
+
+}
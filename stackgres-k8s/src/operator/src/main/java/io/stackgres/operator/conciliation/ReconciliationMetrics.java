@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.stackgres.common.app.ResyncScheduler;
+import io.stackgres.common.resource.CustomResourceScheduler;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+@ApplicationScoped
+public class ReconciliationMetrics {
+
+  private static final String QUEUE_DEPTH = "reconciliation_queue_depth";
+  private static final String IN_FLIGHT = "reconciliation_in_flight";
+  private static final String LATENCY = "reconciliation_latency";
+  private static final String SKIPPED_STATUS_UPDATES = "reconciliation_skipped_status_updates";
+  private static final String RESYNC_PERIOD = "reconciliation_resync_period";
+
+  private static final Metadata QUEUE_DEPTH_METADATA = Metadata.builder()
+      .withName(QUEUE_DEPTH)
+      .withDescription("Reconciliation requests waiting for a worker")
+      .withType(MetricType.GAUGE)
+      .withUnit(MetricUnits.NONE)
+      .build();
+
+  private static final Metadata IN_FLIGHT_METADATA = Metadata.builder()
+      .withName(IN_FLIGHT)
+      .withDescription("Reconciliation requests being processed by a worker")
+      .withType(MetricType.GAUGE)
+      .withUnit(MetricUnits.NONE)
+      .build();
+
+  private static final Metadata LATENCY_METADATA = Metadata.builder()
+      .withName(LATENCY)
+      .withDescription("Time spent reconciling a resource")
+      .withType(MetricType.TIMER)
+      .withUnit(MetricUnits.NANOSECONDS)
+      .build();
+
+  private static final Metadata SKIPPED_STATUS_UPDATES_METADATA = Metadata.builder()
+      .withName(SKIPPED_STATUS_UPDATES)
+      .withDescription("Status updates not sent since the status did not change")
+      .withType(MetricType.GAUGE)
+      .withUnit(MetricUnits.NONE)
+      .build();
+
+  private static final Metadata RESYNC_PERIOD_METADATA = Metadata.builder()
+      .withName(RESYNC_PERIOD)
+      .withDescription("Base period between resyncs of a resource that is reconciled successfully")
+      .withType(MetricType.GAUGE)
+      .withUnit(MetricUnits.SECONDS)
+      .build();
+
+  private final MetricRegistry registry;
+
+  @Inject
+  public ReconciliationMetrics(@RegistryType(type = MetricRegistry.Type.APPLICATION)
+      MetricRegistry registry) {
+    this.registry = registry;
+  }
+
+  public void registerQueue(String kind, ReconciliationQueue queue) {
+    final Tag kindTag = new Tag("kind", kind);
+    registry.register(QUEUE_DEPTH_METADATA, (Gauge<Integer>) queue::size, kindTag);
+    registry.register(IN_FLIGHT_METADATA, (Gauge<Integer>) queue::inFlight, kindTag);
+  }
+
+  public void registerStatusScheduler(String kind, CustomResourceScheduler<?> scheduler) {
+    registry.register(SKIPPED_STATUS_UPDATES_METADATA,
+        (Gauge<Long>) scheduler::getSkippedStatusUpdates, new Tag("kind", kind));
+  }
+
+  public void registerResyncScheduler(String kind, ResyncScheduler<?> resyncScheduler) {
+    registry.register(RESYNC_PERIOD_METADATA,
+        (Gauge<Long>) () -> resyncScheduler.getPeriod().toSeconds(), new Tag("kind", kind));
+  }
+
+  public void recordLatency(String kind, String namespace, String name, long nanos) {
+    registry.timer(LATENCY_METADATA, latencyTags(kind, namespace, name))
+        .update(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Remove the latency metric of a resource that no longer exists.
+   */
+  public void removeLatency(String kind, String namespace, String name) {
+    registry.remove(new MetricID(LATENCY, latencyTags(kind, namespace, name)));
+  }
+
+  private Tag[] latencyTags(String kind, String namespace, String name) {
+    return new Tag[] {
+        new Tag("kind", kind),
+        new Tag("namespace", namespace),
+        new Tag("name", name)
+    };
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * De-duplicating queue of reconciliation requests keyed by namespace and name. A key that is
+ * already pending is not enqueued twice.
+ *
+ * <p>Keys are processed by a pool of workers. Different keys are reconciled concurrently but a key
+ * is never taken by a worker while another worker is still reconciling it. If the key is enqueued
+ * again in the meantime it will be reconciled once more after the running reconciliation ends.
+ */
+public class ReconciliationQueue {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReconciliationQueue.class);
+
+  private final String name;
+  private final int workers;
+  private final BiConsumer<String, String> keyReconciler;
+
+  private final Object lock = new Object();
+  private final Set<Tuple2<String, String>> pendingKeys = new LinkedHashSet<>();
+  private final Set<Tuple2<String, String>> inFlightKeys = new HashSet<>();
+  private boolean closed = false;
+
+  private final AtomicInteger runningWorkers = new AtomicInteger(0);
+  private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+  private ExecutorService executorService;
+
+  public ReconciliationQueue(String name, int workers,
+      BiConsumer<String, String> keyReconciler) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("At least one worker is required, got " + workers);
+    }
+    this.name = name;
+    this.workers = workers;
+    this.keyReconciler = keyReconciler;
+  }
+
+  public synchronized void start() {
+    if (executorService != null) {
+      return;
+    }
+    final AtomicInteger workerIndex = new AtomicInteger(0);
+    executorService = Executors.newFixedThreadPool(workers,
+        r -> new Thread(r, name + "-ReconciliationWorker-" + workerIndex.getAndIncrement()));
+    runningWorkers.set(workers);
+    IntStream.range(0, workers)
+        .forEach(worker -> executorService.execute(this::reconciliationLoop));
+  }
+
+  public synchronized void stop() {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+    if (executorService != null) {
+      executorService.shutdown();
+      stopped.join();
+    }
+  }
+
+  /**
+   * Request the reconciliation of the resource with the specified namespace and name.
+   */
+  public void enqueue(String namespace, String resourceName) {
+    synchronized (lock) {
+      if (!pendingKeys.add(Tuple.tuple(namespace, resourceName))) {
+        return;
+      }
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Number of requests waiting to be taken by a worker.
+   */
+  public int size() {
+    synchronized (lock) {
+      return pendingKeys.size();
+    }
+  }
+
+  /**
+   * Number of requests that are being reconciled by a worker.
+   */
+  public int inFlight() {
+    synchronized (lock) {
+      return inFlightKeys.size();
+    }
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  private void reconciliationLoop() {
+    LOGGER.info("{} reconciliation worker started", name);
+    while (true) {
+      Tuple2<String, String> key = null;
+      try {
+        key = take();
+        if (key == null) {
+          break;
+        }
+        keyReconciler.accept(key.v1, key.v2);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception ex) {
+        LOGGER.error(name + " reconciliation worker was interrupted", ex);
+      } finally {
+        if (key != null) {
+          release(key);
+        }
+      }
+    }
+    LOGGER.info("{} reconciliation worker stopped", name);
+    if (runningWorkers.decrementAndGet() == 0) {
+      stopped.complete(null);
+    }
+  }
+
+  /**
+   * Wait for the next key of the queue that is not being reconciled by another worker. Returns
+   * {@code null} if the queue was closed.
+   */
+  private Tuple2<String, String> take() throws InterruptedException {
+    synchronized (lock) {
+      while (!closed) {
+        Iterator<Tuple2<String, String>> iterator = pendingKeys.iterator();
+        while (iterator.hasNext()) {
+          Tuple2<String, String> key = iterator.next();
+          if (!inFlightKeys.contains(key)) {
+            iterator.remove();
+            inFlightKeys.add(key);
+            return key;
+          }
+        }
+        lock.wait();
+      }
+      return null;
+    }
+  }
+
+  private void release(Tuple2<String, String> key) {
+    synchronized (lock) {
+      inFlightKeys.remove(key);
+      lock.notifyAll();
+    }
+  }
+
+}
@@ -5,15 +5,26 @@
 
 package io.stackgres.operator.conciliation;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.stackgres.common.OperatorProperty;
+import io.stackgres.common.app.ResyncScheduler;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.common.resource.CustomResourceFinder;
+import io.stackgres.common.resource.CustomResourceIndex;
 import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.common.resource.CustomResourceScheduler;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,84 +34,184 @@ public abstract class StackGresReconciliator<T extends CustomResource<?, ?>> {
 
   private static final String STACKGRES_IO_RECONCILIATION = "stackgres.io/reconciliation-pause";
 
+  private final ReconciliationQueue queue = new ReconciliationQueue(
+      getClass().getSimpleName(),
+      Integer.parseInt(OperatorProperty.RECONCILIATION_WORKERS.getString()),
+      this::reconcileAndMeasure);
+
+  private final ResyncScheduler<Tuple2<String, String>> resyncScheduler = new ResyncScheduler<>(
+      getClass().getSimpleName(),
+      Duration.ofSeconds(
+          Long.parseLong(OperatorProperty.RECONCILIATION_RESYNC_SECONDS.getString())),
+      Duration.ofSeconds(
+          Long.parseLong(OperatorProperty.RECONCILIATION_MAX_RESYNC_SECONDS.getString())),
+      Integer.parseInt(OperatorProperty.RECONCILIATION_WORKERS.getString()),
+      this::getExistentSourceKeys, key -> queue.enqueue(key.v1, key.v2));
+
+  private final ReconciliationApplier applier = new ReconciliationApplier(
+      getClass().getSimpleName(),
+      Integer.parseInt(OperatorProperty.RECONCILIATION_APPLY_CONCURRENCY.getString()));
+
+  private CustomResourceCache cache;
+
   private CustomResourceScanner<T> clusterScanner;
 
+  private CustomResourceFinder<T> clusterFinder;
+
   private Conciliator<T> clusterConciliator;
 
   private HandlerDelegator<T> handlerDelegator;
 
-  public synchronized void reconcile() {
-    getExistentSources().forEach(cluster -> {
-      final ObjectMeta metadata = cluster.getMetadata();
-      final String clusterId = metadata.getNamespace() + "/" + metadata.getName();
+  private ReconciliationMetrics reconciliationMetrics;
 
-      try {
-        onPreReconciliation(cluster);
-        LOGGER.info("Checking reconciliation status of cluster {}", clusterId);
-        ReconciliationResult result = clusterConciliator.evalReconciliationState(cluster);
-        if (!result.isUpToDate()) {
-          LOGGER.info("Cluster {} it's not up to date. Reconciling", clusterId);
-
-          result.getCreations()
-              .forEach(resource -> {
-                LOGGER.info("Creating resource {} of kind: {}",
-                    resource.getMetadata().getName(), resource.getKind());
-                try {
-                  handlerDelegator.create(resource);
-                } catch (KubernetesClientException ex) {
-                  if (ex.getCode() == 409) {
-                    handlerDelegator.replace(resource);
-                  } else {
-                    throw ex;
-                  }
-                }
-              });
-
-          result.getPatches()
-              .forEach(resource -> {
-                LOGGER.info("Patching resource {} of kind: {}", resource.v2.getMetadata().getName(),
-                    resource.v2.getKind());
-                handlerDelegator.patch(resource.v1, resource.v2);
-              });
-
-          result.getDeletions()
-              .forEach(resource -> {
-                LOGGER.info("Deleting resource {} of kind: {}", resource.getMetadata().getName(),
-                    resource.getKind());
-                handlerDelegator.delete(resource);
-              });
-          if (result.getDeletions().size() == 0 && result.getPatches().size() == 0) {
-            onConfigCreated(cluster);
-          } else {
-            onConfigUpdated(cluster);
+  public void start() {
+    reconciliationMetrics.registerQueue(getClass().getSimpleName(), queue);
+    reconciliationMetrics.registerStatusScheduler(getClass().getSimpleName(), getScheduler());
+    reconciliationMetrics.registerResyncScheduler(getClass().getSimpleName(), resyncScheduler);
+    queue.start();
+    resyncScheduler.start();
+  }
+
+  public void stop() {
+    resyncScheduler.stop();
+    queue.stop();
+    applier.stop();
+  }
+
+  /**
+   * Request the reconciliation of the resource with the specified namespace and name. Requests
+   * for a resource that is already waiting to be reconciled are merged.
+   */
+  public void enqueue(String namespace, String name) {
+    queue.enqueue(namespace, name);
+  }
+
+  /**
+   * Reconcile the resource with the specified namespace and name. Callers are responsible of not
+   * reconciling the same resource concurrently, the queue guarantees it for enqueued requests.
+   */
+  public void reconcile(String namespace, String name) {
+    findExistentSource(namespace, name)
+        .ifPresentOrElse(this::reconcile,
+            () -> LOGGER.debug("Skipping reconciliation of {}/{}", namespace, name));
+  }
+
+  private void reconcile(T cluster) {
+    final ObjectMeta metadata = cluster.getMetadata();
+    final String clusterId = metadata.getNamespace() + "/" + metadata.getName();
+    final Tuple2<String, String> key = Tuple.tuple(metadata.getNamespace(), metadata.getName());
+    final long start = System.nanoTime();
+
+    try {
+      onPreReconciliation(cluster);
+      LOGGER.info("Checking reconciliation status of cluster {}", clusterId);
+      ReconciliationResult result = clusterConciliator.evalReconciliationState(cluster);
+      if (!result.isUpToDate()) {
+        LOGGER.info("Cluster {} it's not up to date. Reconciling", clusterId);
+
+        applier.apply(result.getCreations(), Function.identity(), resource -> {
+          LOGGER.info("Creating resource {} of kind: {}",
+              resource.getMetadata().getName(), resource.getKind());
+          try {
+            handlerDelegator.create(resource);
+          } catch (KubernetesClientException ex) {
+            if (ex.getCode() == 409) {
+              handlerDelegator.replace(resource);
+            } else {
+              throw ex;
+            }
           }
+        });
+
+        applier.apply(result.getPatches(), Tuple2::v2, resource -> {
+          LOGGER.info("Patching resource {} of kind: {}", resource.v2.getMetadata().getName(),
+              resource.v2.getKind());
+          handlerDelegator.patch(resource.v1, resource.v2);
+        });
+
+        applier.apply(result.getDeletions(), Function.identity(), resource -> {
+          LOGGER.info("Deleting resource {} of kind: {}", resource.getMetadata().getName(),
+              resource.getKind());
+          handlerDelegator.delete(resource);
+        });
+        if (result.getDeletions().size() == 0 && result.getPatches().size() == 0) {
+          onConfigCreated(cluster);
         } else {
-          LOGGER.info("Cluster " + clusterId + " it's up to date");
+          onConfigUpdated(cluster);
         }
+      } else {
+        LOGGER.info("Cluster " + clusterId + " it's up to date");
+      }
 
-        onPostReconciliation(cluster);
+      onPostReconciliation(cluster);
+      resyncScheduler.onSuccess(key, System.nanoTime() - start);
 
-      } catch (Exception e) {
-        LOGGER.error("Reconciliation of cluster {} failed", clusterId, e);
-        try {
-          onError(e, cluster);
-        } catch (Exception onErrorEx) {
-          LOGGER.error("Failed of executing on error event of cluster {}", clusterId, onErrorEx);
-        }
+    } catch (Exception e) {
+      LOGGER.error("Reconciliation of cluster {} failed", clusterId, e);
+      resyncScheduler.onFailure(key, e);
+      try {
+        onError(e, cluster);
+      } catch (Exception onErrorEx) {
+        LOGGER.error("Failed of executing on error event of cluster {}", clusterId, onErrorEx);
       }
-    });
+    }
+  }
+
+  private void reconcileAndMeasure(String namespace, String name) {
+    final String kind = getClass().getSimpleName();
+    final long start = System.nanoTime();
+    Optional<T> cluster = findExistentSource(namespace, name);
+    if (cluster.isEmpty()) {
+      LOGGER.debug("Skipping reconciliation of {}/{}", namespace, name);
+      reconciliationMetrics.removeLatency(kind, namespace, name);
+      clusterConciliator.forget(namespace, name);
+      resyncScheduler.forget(Tuple.tuple(namespace, name));
+      return;
+    }
+    reconcile(cluster.get());
+    reconciliationMetrics.recordLatency(kind, namespace, name, System.nanoTime() - start);
+  }
+
+  private Optional<T> findExistentSource(String namespace, String name) {
+    return clusterFinder.findByNameAndNamespace(name, namespace)
+        .filter(this::isReconciliationEnabled);
+  }
 
+  /**
+   * Return the keys of the resources to resync. Only the metadata is read so the resources are
+   * taken from the cache index without copying them, falling back to the scanner when the kind is
+   * not cached.
+   */
+  private List<Tuple2<String, String>> getExistentSourceKeys() {
+    return Optional.ofNullable(cache)
+        .flatMap(resourceCache -> resourceCache.getIndex(getResourceClass()))
+        .map(CustomResourceIndex::list)
+        .orElseGet(clusterScanner::getResources)
+        .stream()
+        .filter(this::isReconciliationEnabled)
+        .map(CustomResource::getMetadata)
+        .map(metadata -> Tuple.tuple(metadata.getNamespace(), metadata.getName()))
+        .collect(Collectors.toUnmodifiableList());
   }
 
-  private Stream<T> getExistentSources() {
-    return clusterScanner.getResources().stream()
-        .filter(r -> Optional.ofNullable(r.getMetadata().getAnnotations())
-            .map(annotations -> annotations.get(STACKGRES_IO_RECONCILIATION))
-            .map(Boolean::parseBoolean)
-            .map(b -> !b)
-            .orElse(true));
+  private boolean isReconciliationEnabled(T resource) {
+    return Optional.ofNullable(resource.getMetadata().getAnnotations())
+        .map(annotations -> annotations.get(STACKGRES_IO_RECONCILIATION))
+        .map(Boolean::parseBoolean)
+        .map(b -> !b)
+        .orElse(true);
   }
 
+  /**
+   * Return the class of the reconciled resources.
+   */
+  protected abstract Class<T> getResourceClass();
+
+  /**
+   * Return the scheduler used to update the status of the reconciled resources.
+   */
+  protected abstract CustomResourceScheduler<T> getScheduler();
+
   public abstract void onPreReconciliation(T config);
 
   public abstract void onPostReconciliation(T config);
@@ -112,10 +223,20 @@ public abstract class StackGresReconciliator<T extends CustomResource<?, ?>> {
   public abstract void onError(Exception e, T context);
 
   @Inject
-  public synchronized void setClusterScanner(CustomResourceScanner<T> clusterScanner) {
+  public void setCache(CustomResourceCache cache) {
+    this.cache = cache;
+  }
+
+  @Inject
+  public void setClusterScanner(CustomResourceScanner<T> clusterScanner) {
     this.clusterScanner = clusterScanner;
   }
 
+  @Inject
+  public void setClusterFinder(CustomResourceFinder<T> clusterFinder) {
+    this.clusterFinder = clusterFinder;
+  }
+
   @Inject
   public void setClusterConciliator(Conciliator<T> clusterConciliator) {
     this.clusterConciliator = clusterConciliator;
@@ -126,4 +247,9 @@ public abstract class StackGresReconciliator<T extends CustomResource<?, ?>> {
     this.handlerDelegator = handlerDelegator;
   }
 
+  @Inject
+  public void setReconciliationMetrics(ReconciliationMetrics reconciliationMetrics) {
+    this.reconciliationMetrics = reconciliationMetrics;
+  }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
+import io.stackgres.common.PatroniUtil;
+import io.stackgres.common.patroni.PatroniStatus;
+
+/**
+ * The StatefulSet of a custom resource and its pods as they were read at the same time, so that
+ * all the status conditions are computed from the same state.
+ */
+public class StatefulSetSnapshot {
+
+  private static final String CONTROLLER_REVISION_HASH_KEY = "controller-revision-hash";
+
+  private final Optional<StatefulSet> statefulSet;
+
+  private final List<Pod> pods;
+
+  public StatefulSetSnapshot(Optional<StatefulSet> statefulSet, List<Pod> pods) {
+    this.statefulSet = statefulSet;
+    this.pods = List.copyOf(pods);
+  }
+
+  public Optional<StatefulSet> getStatefulSet() {
+    return statefulSet;
+  }
+
+  public List<Pod> getPods() {
+    return pods;
+  }
+
+  /**
+   * Check if the pod was not created from the current revision of the StatefulSet pod template.
+   */
+  public boolean isPodOutdated(Pod pod) {
+    return statefulSet
+        .map(StatefulSet::getStatus)
+        .map(StatefulSetStatus::getUpdateRevision)
+        .map(updateRevision -> !Objects.equals(updateRevision,
+            Optional.ofNullable(pod.getMetadata())
+                .map(ObjectMeta::getLabels)
+                .map(labels -> labels.get(CONTROLLER_REVISION_HASH_KEY))
+                .orElse(null)))
+        .orElse(false);
+  }
+
+  /**
+   * Check if Patroni indicates that the postgres instance of the pod needs a restart to apply its
+   * configuration.
+   */
+  public static boolean isPatroniPendingRestart(Pod pod) {
+    return PatroniUtil.getPatroniStatus(pod)
+        .map(PatroniStatus::isPendingRestart)
+        .orElse(false);
+  }
+
+}
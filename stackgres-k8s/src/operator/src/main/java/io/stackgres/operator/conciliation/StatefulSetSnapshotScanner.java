@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.common.resource.CustomResourceIndex;
+
+/**
+ * Read the StatefulSet owned by a custom resource together with its pods. Both are looked up by
+ * owner UID in the shared cache and the Kubernetes API server is queried, with a single client,
+ * only when they are not cached yet.
+ */
+@ApplicationScoped
+public class StatefulSetSnapshotScanner {
+
+  private final KubernetesClientFactory clientFactory;
+
+  private final CustomResourceCache cache;
+
+  @Inject
+  public StatefulSetSnapshotScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    this.clientFactory = clientFactory;
+    this.cache = cache;
+  }
+
+  /**
+   * Take a snapshot of the StatefulSet owned by the specified resource with the specified labels
+   * and of its pods with the specified labels.
+   */
+  public StatefulSetSnapshot scan(HasMetadata owner,
+      Map<String, String> statefulSetLabels, Map<String, String> podLabels) {
+    Optional<CustomResourceIndex<StatefulSet>> statefulSetIndex =
+        cache.getIndex(StatefulSet.class);
+    Optional<CustomResourceIndex<Pod>> podIndex = cache.getIndex(Pod.class);
+    if (statefulSetIndex.isPresent() && podIndex.isPresent()) {
+      Optional<StatefulSet> statefulSet = findStatefulSet(owner, statefulSetLabels,
+          statefulSetIndex.get().listByOwner(owner.getMetadata().getUid()));
+      return new StatefulSetSnapshot(statefulSet, statefulSet
+          .map(sts -> findPods(sts, podLabels,
+              podIndex.get().listByOwner(sts.getMetadata().getUid())))
+          .orElse(List.of()));
+    }
+
+    try (KubernetesClient client = clientFactory.create()) {
+      Optional<StatefulSet> statefulSet = findStatefulSet(owner, statefulSetLabels,
+          client.apps().statefulSets().inNamespace(owner.getMetadata().getNamespace())
+              .withLabels(statefulSetLabels)
+              .list()
+              .getItems());
+      return new StatefulSetSnapshot(statefulSet, statefulSet
+          .map(sts -> findPods(sts, podLabels,
+              client.pods().inNamespace(sts.getMetadata().getNamespace())
+                  .withLabels(podLabels)
+                  .list()
+                  .getItems()))
+          .orElse(List.of()));
+    }
+  }
+
+  private Optional<StatefulSet> findStatefulSet(HasMetadata owner,
+      Map<String, String> statefulSetLabels, List<StatefulSet> statefulSets) {
+    return statefulSets.stream()
+        .filter(sts -> hasLabels(sts.getMetadata(), statefulSetLabels))
+        .filter(sts -> sts.getMetadata().getOwnerReferences()
+            .stream().anyMatch(ownerReference -> ownerReference.getKind()
+                .equals(owner.getKind())
+                && ownerReference.getName().equals(owner.getMetadata().getName())))
+        .findFirst();
+  }
+
+  private List<Pod> findPods(StatefulSet sts, Map<String, String> podLabels, List<Pod> pods) {
+    return pods.stream()
+        .filter(pod -> hasLabels(pod.getMetadata(), podLabels))
+        .filter(pod -> pod.getMetadata().getOwnerReferences().stream()
+            .anyMatch(ownerReference -> ownerReference.getKind().equals("StatefulSet")
+                && ownerReference.getName().equals(sts.getMetadata().getName())))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private boolean hasLabels(ObjectMeta metadata, Map<String, String> labels) {
+    return metadata.getLabels() != null
+        && metadata.getLabels().entrySet().containsAll(labels.entrySet());
+  }
+
+}
@@ -6,7 +6,6 @@
 package io.stackgres.operator.conciliation.cluster;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Any;
@@ -14,62 +13,42 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.LabelFactory;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.operator.conciliation.AbstractDeployedResourcesScanner;
 import io.stackgres.operator.conciliation.DeployedResourceDecorator;
-import io.stackgres.operator.conciliation.DeployedResourcesScanner;
-import io.stackgres.operator.conciliation.ReconciliationOperations;
 import io.stackgres.operator.conciliation.ReconciliationScopeLiteral;
 
 @ApplicationScoped
-public class ClusterDeployedResourceScanner implements DeployedResourcesScanner<StackGresCluster>,
-    ReconciliationOperations {
+public class ClusterDeployedResourceScanner
+    extends AbstractDeployedResourcesScanner<StackGresCluster> {
 
-  private final KubernetesClientFactory clientFactory;
-  private final LabelFactory<StackGresCluster> labelFactory;
   private final Instance<DeployedResourceDecorator> decorators;
 
   @Inject
   public ClusterDeployedResourceScanner(
       KubernetesClientFactory clientFactory,
+      CustomResourceCache cache,
       LabelFactory<StackGresCluster> labelFactory,
       @Any Instance<DeployedResourceDecorator> decorators) {
-    this.clientFactory = clientFactory;
-    this.labelFactory = labelFactory;
+    super(clientFactory, cache, labelFactory);
     this.decorators = decorators;
   }
 
   @Override
   public List<HasMetadata> getDeployedResources(StackGresCluster config) {
+    List<HasMetadata> deployedResources = super.getDeployedResources(config);
 
-    try (KubernetesClient client = clientFactory.create()) {
-
-      List<HasMetadata> deployedResources = STACKGRES_CLUSTER_RESOURCE_OPERATIONS.values()
-          .stream()
-          .flatMap(resourceOperationGetter -> resourceOperationGetter.apply(client)
-              .inNamespace(config.getMetadata().getNamespace())
-              .withLabels(labelFactory.genericClusterLabels(config))
-              .list()
-              .getItems()
-              .stream())
-          .filter(resource -> resource.getMetadata().getOwnerReferences()
-              .stream().anyMatch(ownerReference -> ownerReference.getKind()
-                  .equals(StackGresCluster.KIND)
-                  && ownerReference.getName().equals(config.getMetadata().getName())))
-          .collect(Collectors.toUnmodifiableList());
-
-      deployedResources.forEach(resource -> {
-        Instance<DeployedResourceDecorator> decorator = decorators
-            .select(new ReconciliationScopeLiteral(StackGresCluster.class, resource.getKind()));
-        if (decorator.isResolvable()) {
-          decorator.get().decorate(resource);
-        }
-      });
-
-      return deployedResources;
-    }
+    deployedResources.forEach(resource -> {
+      Instance<DeployedResourceDecorator> decorator = decorators
+          .select(new ReconciliationScopeLiteral(StackGresCluster.class, resource.getKind()));
+      if (decorator.isResolvable()) {
+        decorator.get().decorate(resource);
+      }
+    });
 
+    return deployedResources;
   }
 }
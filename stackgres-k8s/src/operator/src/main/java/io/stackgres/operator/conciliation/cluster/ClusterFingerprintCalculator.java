@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.cluster;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.stackgres.common.OperatorProperty;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterConfiguration;
+import io.stackgres.common.crd.sgcluster.StackGresClusterDbOpsStatus;
+import io.stackgres.common.crd.sgcluster.StackGresClusterInitData;
+import io.stackgres.common.crd.sgcluster.StackGresClusterRestore;
+import io.stackgres.common.crd.sgcluster.StackGresClusterSpec;
+import io.stackgres.common.crd.sgcluster.StackGresClusterStatus;
+import io.stackgres.common.crd.sgdbops.StackGresDbOps;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import io.stackgres.common.resource.CustomResourceFinder;
+import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.operator.conciliation.Fingerprint;
+import io.stackgres.operator.conciliation.FingerprintCalculator;
+import io.stackgres.operator.configuration.OperatorPropertyContext;
+import io.stackgres.operator.customresource.prometheus.PrometheusConfig;
+
+/**
+ * Calculate the fingerprint of the resources that {@link ClusterRequiredResourcesGenerator} reads
+ * to generate the required resources of a cluster.
+ */
+@ApplicationScoped
+public class ClusterFingerprintCalculator implements FingerprintCalculator<StackGresCluster> {
+
+  private final CustomResourceFinder<StackGresBackupConfig> backupConfigFinder;
+
+  private final CustomResourceFinder<StackGresPostgresConfig> postgresConfigFinder;
+
+  private final CustomResourceFinder<StackGresPoolingConfig> poolingConfigFinder;
+
+  private final CustomResourceFinder<StackGresProfile> profileFinder;
+
+  private final CustomResourceScanner<StackGresBackup> backupScanner;
+
+  private final CustomResourceScanner<StackGresDbOps> dbOpsScanner;
+
+  private final CustomResourceScanner<PrometheusConfig> prometheusScanner;
+
+  private final OperatorPropertyContext operatorContext;
+
+  @Inject
+  public ClusterFingerprintCalculator(
+      CustomResourceFinder<StackGresBackupConfig> backupConfigFinder,
+      CustomResourceFinder<StackGresPostgresConfig> postgresConfigFinder,
+      CustomResourceFinder<StackGresPoolingConfig> poolingConfigFinder,
+      CustomResourceFinder<StackGresProfile> profileFinder,
+      CustomResourceScanner<StackGresBackup> backupScanner,
+      CustomResourceScanner<StackGresDbOps> dbOpsScanner,
+      CustomResourceScanner<PrometheusConfig> prometheusScanner,
+      OperatorPropertyContext operatorContext) {
+    this.backupConfigFinder = backupConfigFinder;
+    this.postgresConfigFinder = postgresConfigFinder;
+    this.poolingConfigFinder = poolingConfigFinder;
+    this.profileFinder = profileFinder;
+    this.backupScanner = backupScanner;
+    this.dbOpsScanner = dbOpsScanner;
+    this.prometheusScanner = prometheusScanner;
+    this.operatorContext = operatorContext;
+  }
+
+  @Override
+  public Optional<Fingerprint> calculate(StackGresCluster config) {
+    final String clusterName = config.getMetadata().getName();
+    final String clusterNamespace = config.getMetadata().getNamespace();
+    final StackGresClusterSpec spec = config.getSpec();
+    final StackGresClusterConfiguration clusterConfiguration = spec.getConfiguration();
+
+    final Optional<StackGresPostgresConfig> clusterPgConfig = postgresConfigFinder
+        .findByNameAndNamespace(clusterConfiguration.getPostgresConfig(), clusterNamespace);
+    final Optional<StackGresProfile> clusterProfile = profileFinder
+        .findByNameAndNamespace(spec.getResourceProfile(), clusterNamespace);
+    if (clusterPgConfig.isEmpty() || clusterProfile.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final Optional<StackGresClusterStatus> status = Optional.ofNullable(config.getStatus());
+    final Fingerprint fingerprint = Fingerprint.of(config)
+        .withValue("status.dbOps.majorVersionUpgrade", status
+            .map(StackGresClusterStatus::getDbOps)
+            .map(StackGresClusterDbOpsStatus::getMajorVersionUpgrade)
+            .orElse(null))
+        .withInstalledExtensions(status
+            .map(StackGresClusterStatus::getPodStatuses)
+            .orElse(null))
+        .with(clusterPgConfig)
+        .with(clusterProfile)
+        .with(Optional.ofNullable(clusterConfiguration.getBackupConfig())
+            .flatMap(backupConfigName -> backupConfigFinder
+                .findByNameAndNamespace(backupConfigName, clusterNamespace)))
+        .with(Optional.ofNullable(clusterConfiguration.getConnectionPoolingConfig())
+            .flatMap(poolingConfigName -> poolingConfigFinder
+                .findByNameAndNamespace(poolingConfigName, clusterNamespace)))
+        .withAll(backupScanner.getResources(clusterNamespace)
+            .stream()
+            .filter(backup -> backup.getSpec().getSgCluster().equals(clusterName))
+            .collect(Collectors.toUnmodifiableList()))
+        .withAll(dbOpsScanner.getResources(clusterNamespace)
+            .stream()
+            .filter(dbOps -> dbOps.getSpec().getSgCluster().equals(clusterName))
+            .collect(Collectors.toUnmodifiableList()));
+
+    Optional.ofNullable(spec.getInitData())
+        .map(StackGresClusterInitData::getRestore)
+        .map(StackGresClusterRestore::getFromBackup)
+        .ifPresent(fromBackup -> fingerprint.withAll(backupScanner.getResources()
+            .stream()
+            .filter(backup -> backup.getMetadata().getUid().equals(fromBackup.getUid()))
+            .collect(Collectors.toUnmodifiableList())));
+
+    if (operatorContext.getBoolean(OperatorProperty.PROMETHEUS_AUTOBIND)
+        && Optional.ofNullable(spec.getPrometheusAutobind()).orElse(false)) {
+      fingerprint.withAll(prometheusScanner.findResources().orElse(List.of()));
+    }
+
+    return Optional.of(fingerprint);
+  }
+
+}
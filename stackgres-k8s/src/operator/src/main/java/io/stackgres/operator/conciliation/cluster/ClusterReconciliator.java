@@ -49,6 +49,16 @@ public class ClusterReconciliator
 
   private CustomResourceFinder<StackGresBackupConfig> backupConfigFinder;
 
+  @Override
+  protected Class<StackGresCluster> getResourceClass() {
+    return StackGresCluster.class;
+  }
+
+  @Override
+  protected CustomResourceScheduler<StackGresCluster> getScheduler() {
+    return clusterScheduler;
+  }
+
   @Override
   public void onPreReconciliation(StackGresCluster config) {
     String namespace = config.getMetadata().getNamespace();
@@ -12,7 +12,6 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.internal.patchmixins.ObjectMetaMixIn;
-import io.fabric8.zjsonpatch.JsonDiff;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +39,6 @@ public class DefaultComparator implements ResourceComparator {
   public boolean isResourceContentEqual(HasMetadata required, HasMetadata deployed) {
     final JsonNode source = PATCH_MAPPER.valueToTree(required);
     final JsonNode target = PATCH_MAPPER.valueToTree(deployed);
-    JsonNode diff = JsonDiff.asJson(source, target);
-    return diff.size() == 0;
+    return source.equals(target);
   }
 }
@@ -9,10 +9,6 @@ import java.util.Objects;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.zjsonpatch.JsonDiff;
-
 public class EndpointComparator extends StackGresAbstractComparator {
 
   private static final IgnorePatch[] IGNORE_PATCH_PATTERNS = {
@@ -33,16 +29,6 @@ public class EndpointComparator extends StackGresAbstractComparator {
     return IGNORE_PATCH_PATTERNS;
   }
 
-  @Override
-  public boolean isResourceContentEqual(HasMetadata required, HasMetadata deployed) {
-    JsonNode diff = JsonDiff.asJson(PATCH_MAPPER.valueToTree(required),
-        PATCH_MAPPER.valueToTree(deployed));
-
-    int ignore = countPatchesToIgnore(diff);
-
-    return diff.size() - ignore == 0;
-  }
-
   private static class FunctionValuePattern extends PatchPattern {
 
     private final Function<String, Boolean> valueCheck;
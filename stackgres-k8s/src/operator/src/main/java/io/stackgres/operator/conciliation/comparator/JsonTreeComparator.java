@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.comparator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.stackgres.operator.conciliation.comparator.StackGresAbstractComparator.IgnorePatch;
+import io.stackgres.operator.conciliation.comparator.StackGresAbstractComparator.JsonPatch;
+import io.stackgres.operator.conciliation.comparator.StackGresAbstractComparator.PatchPattern;
+import io.stackgres.operator.conciliation.comparator.StackGresAbstractComparator.SimpleIgnorePatch;
+
+/**
+ * Walks the JSON tree of a required resource together with the one of the deployed resource and
+ * tells if all their differences would be ignored by the {@link IgnorePatch}es, giving the same
+ * answer as computing the whole {@code JsonDiff} and filtering its patches.
+ *
+ * <p>Paths of the ignore patches are precompiled in a trie so that subtrees that no patch can
+ * match are compared with {@link JsonNode#equals(Object)} and the walk stops at the first relevant
+ * difference. Only when a difference falls in a path that a patch may ignore the patch is built
+ * and matched against the ignore patches.
+ *
+ * <p>When the outcome of {@code JsonDiff} can not be predicted without computing it (arrays of
+ * different sizes, elements that moved inside an array or additions and removals of the same
+ * value that {@code JsonDiff} would merge into a move) the result is {@link Result#UNKNOWN} and
+ * callers must fall back to compute the {@code JsonDiff}.
+ */
+class JsonTreeComparator {
+
+  enum Result {
+    EQUAL,
+    DIFFERENT,
+    UNKNOWN
+  }
+
+  private static final String ADD = "add";
+  private static final String REMOVE = "remove";
+  private static final String REPLACE = "replace";
+
+  private static final Set<String> SUPPORTED_OPS = Set.of(ADD, REMOVE, REPLACE);
+
+  private static final Pattern REGEX_META_CHARS = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+  private final IgnorePatch[] ignorePatches;
+  private final Node root;
+
+  JsonTreeComparator(IgnorePatch[] ignorePatches) {
+    this.ignorePatches = ignorePatches;
+    this.root = buildTrie(ignorePatches);
+  }
+
+  Result compare(JsonNode source, JsonNode target) {
+    if (root == null) {
+      return Result.UNKNOWN;
+    }
+    Walk walk = new Walk();
+    walk.compareNodes(source, target, root, false);
+    return walk.result;
+  }
+
+  /**
+   * Return the root of the trie or {@code null} if any ignore patch is not supported.
+   */
+  private static Node buildTrie(IgnorePatch[] ignorePatches) {
+    Node root = new Node();
+    for (IgnorePatch ignorePatch : ignorePatches) {
+      if (!(ignorePatch instanceof SimpleIgnorePatch)
+          || !SUPPORTED_OPS.contains(((SimpleIgnorePatch) ignorePatch).op)) {
+        return null;
+      }
+      if (ignorePatch instanceof PatchPattern) {
+        addPattern(root, ((PatchPattern) ignorePatch).pathPattern.pattern());
+      } else {
+        addPath(root, ((SimpleIgnorePatch) ignorePatch).path);
+      }
+    }
+    root.finish();
+    return root;
+  }
+
+  private static void addPath(Node root, String path) {
+    Node node = root;
+    for (String segment : path.substring(1).split("/", -1)) {
+      node = node.literals.computeIfAbsent(
+          segment.replace("~1", "/").replace("~0", "~"), key -> new Node());
+    }
+    node.terminal = true;
+  }
+
+  /**
+   * Add a path regular expression. Segments matching an array index are added as wildcards,
+   * literal segments as is and any other regular expression makes the parent node match any
+   * descendant path, so the trie never misses a path the regular expression could match.
+   */
+  private static void addPattern(Node root, String pattern) {
+    if (!pattern.startsWith("/")) {
+      root.anyDescendant = true;
+      return;
+    }
+    Node node = root;
+    for (String segment : pattern.substring(1).split("/", -1)) {
+      if (segment.equals("\\d+")) {
+        if (node.index == null) {
+          node.index = new Node();
+        }
+        node = node.index;
+      } else if (!REGEX_META_CHARS.matcher(segment).find()) {
+        node = node.literals.computeIfAbsent(
+            segment.replace("~1", "/").replace("~0", "~"), key -> new Node());
+      } else {
+        node.anyDescendant = true;
+        return;
+      }
+    }
+    node.terminal = true;
+  }
+
+  private static class Node {
+    private final Map<String, Node> literals = new HashMap<>();
+    private Node index;
+    private boolean terminal;
+    private boolean anyDescendant;
+
+    Node child(String key) {
+      return literals.getOrDefault(key, index);
+    }
+
+    Node child(int position) {
+      if (literals.isEmpty()) {
+        return index;
+      }
+      return literals.getOrDefault(String.valueOf(position), index);
+    }
+
+    /**
+     * Copy the index wildcard subtree into every literal sibling so that a single child lookup
+     * returns a node that accounts for both.
+     */
+    void finish() {
+      if (index != null) {
+        for (Node literal : literals.values()) {
+          literal.merge(index);
+        }
+        index.finish();
+      }
+      for (Node literal : literals.values()) {
+        literal.finish();
+      }
+    }
+
+    private void merge(Node other) {
+      terminal |= other.terminal;
+      anyDescendant |= other.anyDescendant;
+      for (Map.Entry<String, Node> entry : other.literals.entrySet()) {
+        literals.computeIfAbsent(entry.getKey(), key -> new Node()).merge(entry.getValue());
+      }
+      if (other.index != null) {
+        if (index == null) {
+          index = new Node();
+        }
+        index.merge(other.index);
+      }
+    }
+  }
+
+  private class Walk {
+    private final List<Object> path = new ArrayList<>();
+    private Result result = Result.EQUAL;
+    private final List<JsonNode> addedValues = new ArrayList<>();
+    private final List<JsonNode> removedValues = new ArrayList<>();
+
+    /**
+     * Compare two nodes. Return {@code false} when the walk has to stop since the result is known.
+     *
+     * @param node the trie node for the current path, or {@code null} if no patch has a path
+     *     starting with the current path
+     * @param covered {@code true} if a patch may match any path below an ancestor of the current
+     *     path
+     */
+    boolean compareNodes(JsonNode source, JsonNode target, Node node, boolean covered) {
+      if (node == null && !covered) {
+        if (source.equals(target)) {
+          return true;
+        }
+        result = Result.DIFFERENT;
+        return false;
+      }
+      if (source.isObject() && target.isObject()) {
+        return compareObjects(source, target, node, covered);
+      }
+      if (source.isArray() && target.isArray()) {
+        return compareArrays(source, target, node, covered);
+      }
+      if (source.equals(target)) {
+        return true;
+      }
+      return difference(REPLACE, target, node, covered);
+    }
+
+    private boolean compareObjects(JsonNode source, JsonNode target, Node node,
+        boolean covered) {
+      final boolean childCovered = isChildCovered(node, covered);
+      Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+      while (sourceFields.hasNext()) {
+        Map.Entry<String, JsonNode> sourceField = sourceFields.next();
+        String key = sourceField.getKey();
+        JsonNode targetValue = target.get(key);
+        Node childNode = node == null ? null : node.child(key);
+        path.add(key);
+        boolean proceed = targetValue == null
+            ? difference(REMOVE, sourceField.getValue(), childNode, childCovered)
+            : compareNodes(sourceField.getValue(), targetValue, childNode, childCovered);
+        path.remove(path.size() - 1);
+        if (!proceed) {
+          return false;
+        }
+      }
+      Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+      while (targetFields.hasNext()) {
+        Map.Entry<String, JsonNode> targetField = targetFields.next();
+        String key = targetField.getKey();
+        if (source.has(key)) {
+          continue;
+        }
+        Node childNode = node == null ? null : node.child(key);
+        path.add(key);
+        boolean proceed = difference(ADD, targetField.getValue(), childNode, childCovered);
+        path.remove(path.size() - 1);
+        if (!proceed) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Elements of arrays with the same size are compared one by one as {@code JsonDiff} does as
+     * long as no different element is equal to another element of the other array. Otherwise the
+     * longest common subsequence computed by {@code JsonDiff} could align elements differently.
+     */
+    private boolean compareArrays(JsonNode source, JsonNode target, Node node,
+        boolean covered) {
+      final int size = source.size();
+      if (size != target.size()) {
+        return unknown();
+      }
+      final boolean childCovered = isChildCovered(node, covered);
+      for (int position = 0; position < size; position++) {
+        JsonNode sourceElement = source.get(position);
+        JsonNode targetElement = target.get(position);
+        if (sourceElement.equals(targetElement)) {
+          continue;
+        }
+        if (contains(target, sourceElement) || contains(source, targetElement)) {
+          return unknown();
+        }
+        path.add(position);
+        boolean proceed = compareNodes(sourceElement, targetElement,
+            node == null ? null : node.child(position), childCovered);
+        path.remove(path.size() - 1);
+        if (!proceed) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean difference(String op, JsonNode value, Node node, boolean covered) {
+      if (!covered && (node == null || !node.terminal)) {
+        result = Result.DIFFERENT;
+        return false;
+      }
+      JsonPatch patch = new JsonPatch(op, pathAsString(), REMOVE.equals(op) ? null
+          : value.isObject() ? value.toString() : value.asText());
+      boolean ignored = false;
+      for (IgnorePatch ignorePatch : ignorePatches) {
+        if (ignorePatch.matches(patch)) {
+          ignored = true;
+          break;
+        }
+      }
+      if (!ignored) {
+        result = Result.DIFFERENT;
+        return false;
+      }
+      if (ADD.equals(op)) {
+        return track(value, addedValues, removedValues);
+      }
+      if (REMOVE.equals(op)) {
+        return track(value, removedValues, addedValues);
+      }
+      return true;
+    }
+
+    /**
+     * {@code JsonDiff} merges an addition and a removal of the same value into a move, that no
+     * ignore patch would match.
+     */
+    private boolean track(JsonNode value, List<JsonNode> values, List<JsonNode> oppositeValues) {
+      if (oppositeValues.contains(value)) {
+        return unknown();
+      }
+      values.add(value);
+      return true;
+    }
+
+    private boolean unknown() {
+      result = Result.UNKNOWN;
+      return false;
+    }
+
+    private boolean isChildCovered(Node node, boolean covered) {
+      return covered || (node != null && node.anyDescendant);
+    }
+
+    private boolean contains(JsonNode array, JsonNode element) {
+      for (JsonNode arrayElement : array) {
+        if (arrayElement.equals(element)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private String pathAsString() {
+      StringBuilder builder = new StringBuilder();
+      for (Object segment : path) {
+        builder.append('/').append(segment.toString().replace("~", "~0").replace("/", "~1"));
+      }
+      return builder.toString();
+    }
+  }
+
+}
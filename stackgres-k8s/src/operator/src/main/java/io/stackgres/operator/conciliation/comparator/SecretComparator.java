@@ -11,7 +11,6 @@ import java.util.Map;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Secret;
-import io.fabric8.zjsonpatch.JsonDiff;
 import io.stackgres.operatorframework.resource.ResourceUtil;
 
 public class SecretComparator extends DefaultComparator {
@@ -37,10 +36,10 @@ public class SecretComparator extends DefaultComparator {
     }
     Secret s1 = (Secret) required;
     Secret s2 = (Secret) deployed;
-    JsonNode metadataDiff = JsonDiff.asJson(PATCH_MAPPER.valueToTree(required.getMetadata()),
-        PATCH_MAPPER.valueToTree(deployed.getMetadata()));
+    JsonNode requiredMetadata = PATCH_MAPPER.valueToTree(required.getMetadata());
+    JsonNode deployedMetadata = PATCH_MAPPER.valueToTree(deployed.getMetadata());
 
-    if (metadataDiff.size() > 0) {
+    if (!requiredMetadata.equals(deployedMetadata)) {
       return false;
     }
     return isDataEqual(s1, s2);
@@ -7,7 +7,6 @@ package io.stackgres.operator.conciliation.comparator;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.zjsonpatch.JsonDiff;
 
 public class ServiceAccountComparator extends DefaultComparator {
 
@@ -17,8 +16,6 @@ public class ServiceAccountComparator extends DefaultComparator {
     final JsonNode source = PATCH_MAPPER.valueToTree(required.getMetadata());
     final JsonNode target = PATCH_MAPPER.valueToTree(deployed.getMetadata());
 
-    JsonNode diff = JsonDiff.asJson(source, target);
-
-    return diff.size() == 0;
+    return source.equals(target);
   }
 }
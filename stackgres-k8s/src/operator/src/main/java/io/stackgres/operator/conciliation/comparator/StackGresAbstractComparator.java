@@ -17,10 +17,29 @@ import io.fabric8.zjsonpatch.JsonDiff;
 public abstract class StackGresAbstractComparator
     extends DefaultComparator {
 
+  private volatile JsonTreeComparator treeComparator;
+
+  /**
+   * Compare the resources walking both JSON trees at once and fall back to compute the whole
+   * {@code JsonDiff} only when the walk can not tell the result or when debug is enabled and there
+   * are differences to log.
+   */
   @Override
   public boolean isResourceContentEqual(HasMetadata required, HasMetadata deployed) {
-    JsonNode diff = JsonDiff.asJson(PATCH_MAPPER.valueToTree(required),
-        PATCH_MAPPER.valueToTree(deployed));
+    final JsonNode source = PATCH_MAPPER.valueToTree(required);
+    final JsonNode target = PATCH_MAPPER.valueToTree(deployed);
+    final JsonTreeComparator.Result result = getTreeComparator().compare(source, target);
+    if (result == JsonTreeComparator.Result.EQUAL) {
+      return true;
+    }
+    if (result == JsonTreeComparator.Result.DIFFERENT && !LOGGER.isDebugEnabled()) {
+      return false;
+    }
+    return isJsonDiffEqual(required.getKind(), source, target);
+  }
+
+  protected boolean isJsonDiffEqual(String kind, JsonNode source, JsonNode target) {
+    JsonNode diff = JsonDiff.asJson(source, target);
 
     int ignore = countPatchesToIgnore(diff);
 
@@ -30,12 +49,19 @@ public abstract class StackGresAbstractComparator
         JsonPatch patch = new JsonPatch(jsonPatch);
         if (Arrays.stream(getPatchPattersToIgnore())
             .noneMatch(patchPattern -> patchPattern.matches(patch))) {
-          LOGGER.debug("{} diff {}", required.getKind(), jsonPatch.toPrettyString());
+          LOGGER.debug("{} diff {}", kind, jsonPatch.toPrettyString());
         }
       }
     }
 
-    return diff.size() - ignore == 0;
+    return actualDifferences == 0;
+  }
+
+  private JsonTreeComparator getTreeComparator() {
+    if (treeComparator == null) {
+      treeComparator = new JsonTreeComparator(getPatchPattersToIgnore());
+    }
+    return treeComparator;
   }
 
   protected abstract IgnorePatch[] getPatchPattersToIgnore();
@@ -52,6 +78,11 @@ public abstract class StackGresAbstractComparator
     return diffToIgnore;
   }
 
+  /**
+   * A patch to ignore. Implementations must extend {@link SimpleIgnorePatch} and match only patches
+   * whose path is matched by its {@code path} or {@code pathPattern} for the comparison to be
+   * able to skip the computation of the whole {@code JsonDiff}.
+   */
   protected interface IgnorePatch {
 
     boolean matches(JsonPatch patch);
@@ -119,6 +150,12 @@ public abstract class StackGresAbstractComparator
     private final String path;
     private final String value;
 
+    public JsonPatch(String op, String path, String value) {
+      this.op = op;
+      this.path = path;
+      this.value = value;
+    }
+
     public JsonPatch(JsonNode jsonPatch) {
       this.op = jsonPatch.get("op").asText();
       this.path = jsonPatch.get("path").asText();
@@ -15,33 +15,50 @@ import javax.inject.Inject;
 import io.stackgres.common.StackGresUtil;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
 import io.stackgres.common.crd.sgcluster.StackGresClusterDistributedLogs;
+import io.stackgres.common.crd.sgcluster.StackGresClusterSpec;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
+import io.stackgres.common.resource.CustomResourceCache;
 import io.stackgres.common.resource.CustomResourceScanner;
 
 @ApplicationScoped
 public class ConnectedClustersScannerImpl implements ConnectedClustersScanner {
 
   private final CustomResourceScanner<StackGresCluster> clusterScanner;
+  private final CustomResourceCache cache;
 
   @Inject
-  public ConnectedClustersScannerImpl(CustomResourceScanner<StackGresCluster> clusterScanner) {
+  public ConnectedClustersScannerImpl(CustomResourceScanner<StackGresCluster> clusterScanner,
+      CustomResourceCache cache) {
     this.clusterScanner = clusterScanner;
+    this.cache = cache;
+  }
+
+  /**
+   * Return the relative id of the SGDistributedLogs referenced by the cluster, if any. Used to
+   * index the cached SGClusters by the SGDistributedLogs they are connected to.
+   */
+  public static Optional<String> getDistributedLogsRelativeId(StackGresCluster cluster) {
+    return Optional.ofNullable(cluster.getSpec())
+        .map(StackGresClusterSpec::getDistributedLogs)
+        .map(StackGresClusterDistributedLogs::getDistributedLogs);
   }
 
   @Override
   public List<StackGresCluster> getConnectedClusters(StackGresDistributedLogs config) {
     final String namespace = config.getMetadata().getNamespace();
     final String name = config.getMetadata().getName();
-    return clusterScanner.getResources()
-        .stream()
-        .filter(cluster -> Optional.ofNullable(cluster.getSpec().getDistributedLogs())
-            .map(StackGresClusterDistributedLogs::getDistributedLogs)
-            .map(distributedLogsRelativeId -> StackGresUtil.getNamespaceFromRelativeId(
-                distributedLogsRelativeId,
-                cluster.getMetadata().getNamespace()).equals(namespace)
-                && StackGresUtil.getNameFromRelativeId(
-                distributedLogsRelativeId).equals(name))
-            .orElse(false))
-        .collect(Collectors.toUnmodifiableList());
+    return cache.getIndex(StackGresCluster.class)
+        .map(index -> index.copies().listByDistributedLogs(namespace, name))
+        .map(List::copyOf)
+        .orElseGet(() -> clusterScanner.getResources()
+            .stream()
+            .filter(cluster -> getDistributedLogsRelativeId(cluster)
+                .map(distributedLogsRelativeId -> StackGresUtil.getNamespaceFromRelativeId(
+                    distributedLogsRelativeId,
+                    cluster.getMetadata().getNamespace()).equals(namespace)
+                    && StackGresUtil.getNameFromRelativeId(
+                    distributedLogsRelativeId).equals(name))
+                .orElse(false))
+            .collect(Collectors.toUnmodifiableList()));
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.distributedlogs;
+
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
+import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsStatus;
+import io.stackgres.operator.conciliation.Fingerprint;
+import io.stackgres.operator.conciliation.FingerprintCalculator;
+
+/**
+ * Calculate the fingerprint of the resources that {@link DistributedLogsRequiredResourcesGenerator}
+ * reads to generate the required resources of a distributed logs.
+ */
+@ApplicationScoped
+public class DistributedLogsFingerprintCalculator
+    implements FingerprintCalculator<StackGresDistributedLogs> {
+
+  private final ConnectedClustersScanner connectedClustersScanner;
+
+  @Inject
+  public DistributedLogsFingerprintCalculator(
+      ConnectedClustersScanner connectedClustersScanner) {
+    this.connectedClustersScanner = connectedClustersScanner;
+  }
+
+  @Override
+  public Optional<Fingerprint> calculate(StackGresDistributedLogs config) {
+    final Fingerprint fingerprint = Fingerprint.of(config)
+        .withInstalledExtensions(Optional.ofNullable(config.getStatus())
+            .map(StackGresDistributedLogsStatus::getPodStatuses)
+            .orElse(null));
+    connectedClustersScanner.getConnectedClusters(config)
+        .forEach(fingerprint::withGeneration);
+    return Optional.of(fingerprint);
+  }
+
+}
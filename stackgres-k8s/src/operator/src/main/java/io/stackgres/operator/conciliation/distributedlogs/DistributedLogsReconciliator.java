@@ -19,6 +19,7 @@ import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsConditi
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsStatus;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsStatusCluster;
 import io.stackgres.common.event.EventEmitter;
+import io.stackgres.common.resource.CustomResourceScheduler;
 import io.stackgres.common.resource.DistributedLogsScheduler;
 import io.stackgres.operator.conciliation.StackGresReconciliator;
 import io.stackgres.operator.conciliation.StatusManager;
@@ -35,6 +36,16 @@ public class DistributedLogsReconciliator extends StackGresReconciliator<StackGr
 
   private EventEmitter<StackGresDistributedLogs> eventController;
 
+  @Override
+  protected Class<StackGresDistributedLogs> getResourceClass() {
+    return StackGresDistributedLogs.class;
+  }
+
+  @Override
+  protected CustomResourceScheduler<StackGresDistributedLogs> getScheduler() {
+    return distributedLogsScheduler;
+  }
+
   @Override
   public void onPreReconciliation(StackGresDistributedLogs config) {
 
@@ -5,56 +5,24 @@
 
 package io.stackgres.operator.conciliation.distributedlogs;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.LabelFactory;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
-import io.stackgres.operator.conciliation.DeployedResourcesScanner;
-import io.stackgres.operator.conciliation.ReconciliationOperations;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.operator.conciliation.AbstractDeployedResourcesScanner;
 
 @ApplicationScoped
 public class DistributedLogsResourceScanner
-    implements DeployedResourcesScanner<StackGresDistributedLogs>,
-    ReconciliationOperations {
-
-  private final KubernetesClientFactory clientFactory;
-  private final LabelFactory<StackGresDistributedLogs> labelFactory;
+    extends AbstractDeployedResourcesScanner<StackGresDistributedLogs> {
 
   @Inject
   public DistributedLogsResourceScanner(KubernetesClientFactory clientFactory,
+                                        CustomResourceCache cache,
                                         LabelFactory<StackGresDistributedLogs> labelFactory) {
-    this.clientFactory = clientFactory;
-    this.labelFactory = labelFactory;
+    super(clientFactory, cache, labelFactory);
   }
 
-  @Override
-  public List<HasMetadata> getDeployedResources(StackGresDistributedLogs config) {
-    try (KubernetesClient client = clientFactory.create()) {
-
-      final String namespace = config.getMetadata().getNamespace();
-      List<HasMetadata> resources = STACKGRES_CLUSTER_RESOURCE_OPERATIONS.values()
-          .stream()
-          .flatMap(resourceOperationGetter -> resourceOperationGetter.apply(client)
-              .inNamespace(namespace)
-              .withLabels(labelFactory.genericClusterLabels(config))
-              .list()
-              .getItems()
-              .stream())
-          .filter(resource -> resource.getMetadata().getOwnerReferences()
-              .stream().anyMatch(ownerReference -> ownerReference.getKind()
-                  .equals(StackGresDistributedLogs.KIND)
-                  && ownerReference.getName().equals(config.getMetadata().getName())))
-          .collect(Collectors.toUnmodifiableList());
-
-      return resources;
-
-    }
-  }
 }
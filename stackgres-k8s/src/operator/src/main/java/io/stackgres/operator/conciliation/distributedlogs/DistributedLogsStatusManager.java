@@ -7,25 +7,18 @@ package io.stackgres.operator.conciliation.distributedlogs;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.apps.StatefulSet;
-import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
-import io.fabric8.kubernetes.client.KubernetesClient;
-import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.LabelFactory;
 import io.stackgres.common.crd.sgdistributedlogs.DistributedLogsStatusCondition;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogs;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsCondition;
 import io.stackgres.common.crd.sgdistributedlogs.StackGresDistributedLogsStatus;
+import io.stackgres.operator.conciliation.StatefulSetSnapshot;
+import io.stackgres.operator.conciliation.StatefulSetSnapshotScanner;
 import io.stackgres.operator.conciliation.StatusManager;
 import io.stackgres.operatorframework.resource.ConditionUpdater;
 
@@ -34,13 +27,13 @@ public class DistributedLogsStatusManager
     extends ConditionUpdater<StackGresDistributedLogs, StackGresDistributedLogsCondition>
     implements StatusManager<StackGresDistributedLogs, StackGresDistributedLogsCondition> {
 
-  private final KubernetesClientFactory clientFactory;
+  private final StatefulSetSnapshotScanner statefulSetSnapshotScanner;
   private final LabelFactory<StackGresDistributedLogs> labelFactory;
 
   @Inject
-  public DistributedLogsStatusManager(KubernetesClientFactory clientFactory,
+  public DistributedLogsStatusManager(StatefulSetSnapshotScanner statefulSetSnapshotScanner,
                                       LabelFactory<StackGresDistributedLogs> labelFactory) {
-    this.clientFactory = clientFactory;
+    this.statefulSetSnapshotScanner = statefulSetSnapshotScanner;
     this.labelFactory = labelFactory;
   }
 
@@ -55,75 +48,15 @@ public class DistributedLogsStatusManager
   }
 
   /**
-   * Check pending restart status condition.
+   * Check pending restart status condition. The StatefulSet and its pods are read once and all
+   * the pods are checked in a single pass.
    */
   public boolean isPendingRestart(StackGresDistributedLogs source) {
-    return isStatefulSetPendingRestart(source)
-        || isPatroniPendingRestart(source);
-  }
-
-  private boolean isStatefulSetPendingRestart(StackGresDistributedLogs source) {
-
-    return getClusterStatefulSet(source)
-        .filter(sts -> Optional.ofNullable(sts.getStatus())
-            .map(StatefulSetStatus::getUpdateRevision).isPresent())
-        .map(sts -> {
-          String statefulSetUpdateRevision = sts.getStatus().getUpdateRevision();
-
-          List<Pod> pods = getStsPods(sts, source);
-
-          return pods.stream()
-              .map(pod -> pod.getMetadata().getLabels().get("controller-revision-hash"))
-              .anyMatch(controllerRevisionHash ->
-                  Objects.equals(statefulSetUpdateRevision, controllerRevisionHash));
-        })
-        .orElse(false);
-
-  }
-
-  private boolean isPatroniPendingRestart(StackGresDistributedLogs cluster) {
-    return getClusterStatefulSet(cluster)
-        .map(sts -> getStsPods(sts, cluster))
-        .map(pods -> pods.stream()
-            .map(Pod::getMetadata).filter(Objects::nonNull)
-            .map(ObjectMeta::getAnnotations).filter(Objects::nonNull)
-            .map(Map::entrySet)
-            .anyMatch(p -> p.stream()
-                .map(Map.Entry::getValue).filter(Objects::nonNull)
-                .anyMatch(r -> r.contains("\"pending_restart\":true")))
-        )
-        .orElse(false);
-  }
-
-  private Optional<StatefulSet> getClusterStatefulSet(StackGresDistributedLogs cluster) {
-    try (KubernetesClient client = clientFactory.create()) {
-      return client.apps().statefulSets().inNamespace(cluster.getMetadata().getNamespace())
-          .withLabels(labelFactory.genericClusterLabels(cluster))
-          .list()
-          .getItems().stream()
-          .filter(sts -> sts.getMetadata().getOwnerReferences()
-              .stream().anyMatch(ownerReference -> ownerReference.getKind()
-                  .equals(StackGresDistributedLogs.KIND)
-                  && ownerReference.getName().equals(cluster.getMetadata().getName())))
-          .findFirst();
-
-    }
-  }
-
-  private List<Pod> getStsPods(StatefulSet sts, StackGresDistributedLogs cluster) {
-    final Map<String, String> podClusterLabels =
-        labelFactory.patroniClusterLabels(cluster);
-
-    try (KubernetesClient client = clientFactory.create()) {
-      return client.pods().inNamespace(sts.getMetadata().getNamespace())
-          .withLabels(podClusterLabels)
-          .list()
-          .getItems().stream()
-          .filter(pod -> pod.getMetadata().getOwnerReferences().stream()
-              .anyMatch(ownerReference -> ownerReference.getKind().equals("StatefulSet")
-                  && ownerReference.getName().equals(sts.getMetadata().getName())))
-          .collect(Collectors.toUnmodifiableList());
-    }
+    final StatefulSetSnapshot snapshot = statefulSetSnapshotScanner.scan(source,
+        labelFactory.genericClusterLabels(source), labelFactory.patroniClusterLabels(source));
+    return snapshot.getPods().stream()
+        .anyMatch(pod -> snapshot.isPodOutdated(pod)
+            || StatefulSetSnapshot.isPatroniPendingRestart(pod));
   }
 
   @Override
@@ -127,6 +127,11 @@ public class DbOpsRole implements ResourceGenerator<StackGresClusterContext> {
             .withResources("events")
             .withVerbs("get", "list", "create", "patch", "update")
             .build())
+        .addToRules(new PolicyRuleBuilder()
+            .withApiGroups("coordination.k8s.io")
+            .withResources("leases")
+            .withVerbs("get", "watch", "create", "update", "patch")
+            .build())
 
         .addToRules(new PolicyRuleBuilder()
             .withApiGroups(CommonDefinition.GROUP)
@@ -142,7 +147,7 @@ public class DbOpsRole implements ResourceGenerator<StackGresClusterContext> {
             .withApiGroups(CommonDefinition.GROUP)
             .withResources(
                 HasMetadata.getPlural(StackGresCluster.class) + "/status")
-            .withVerbs("update")
+            .withVerbs("update", "patch")
             .build())
         .build();
   }
@@ -150,7 +150,7 @@ public class PatroniRoleGenerator implements
             .withApiGroups(CommonDefinition.GROUP)
             .withResources(
                 HasMetadata.getPlural(StackGresCluster.class) + "/status")
-            .withVerbs("update")
+            .withVerbs("update", "patch")
             .build())
         .build();
   }
@@ -157,13 +157,13 @@ public class PatroniRole implements
             .withApiGroups(CommonDefinition.GROUP)
             .withResources(
                 HasMetadata.getPlural(StackGresDistributedLogs.class) + "/status")
-            .withVerbs("update")
+            .withVerbs("update", "patch")
             .build())
         .addToRules(new PolicyRuleBuilder()
             .withApiGroups(CommonDefinition.GROUP)
             .withResources(
                 HasMetadata.getPlural(StackGresCluster.class) + "/status")
-            .withVerbs("update")
+            .withVerbs("update", "patch")
             .build())
         .build();
   }
@@ -11,6 +11,7 @@ import javax.inject.Inject;
 import io.stackgres.common.CdiUtil;
 import io.stackgres.common.KubernetesClientFactory;
 import io.stackgres.common.resource.AbstractCustomResourceScanner;
+import io.stackgres.common.resource.CustomResourceCache;
 import io.stackgres.operator.customresource.prometheus.PrometheusConfig;
 import io.stackgres.operator.customresource.prometheus.PrometheusConfigList;
 
@@ -22,12 +23,13 @@ public class PrometheusScanner
    * Create a {@code PrometheusScanner} instance.
    */
   @Inject
-  public PrometheusScanner(KubernetesClientFactory clientFactory) {
-    super(clientFactory, PrometheusConfig.class, PrometheusConfigList.class);
+  public PrometheusScanner(KubernetesClientFactory clientFactory,
+      CustomResourceCache cache) {
+    super(clientFactory, cache, PrometheusConfig.class, PrometheusConfigList.class);
   }
 
   public PrometheusScanner() {
-    super(null, null, null);
+    super(null, null, null, null);
     CdiUtil.checkPublicNoArgsConstructorIsCalledToCreateProxy();
   }
 
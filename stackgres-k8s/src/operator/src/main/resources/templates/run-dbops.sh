@@ -1,7 +1,9 @@
 #!/bin/sh
 
-LOCK_RESOURCE="$CLUSTER_CRD_NAME"
-LOCK_RESOURCE_NAME="$CLUSTER_NAME"
+LOCK_RESOURCE="lease.coordination.k8s.io"
+LOCK_RESOURCE_NAME="$CLUSTER_NAME-dbops-lock"
+LOCK_OWNER_RESOURCE="$CLUSTER_CRD_NAME"
+LOCK_OWNER_NAME="$CLUSTER_NAME"
 
 . "$LOCAL_BIN_SHELL_UTILS_PATH"
 
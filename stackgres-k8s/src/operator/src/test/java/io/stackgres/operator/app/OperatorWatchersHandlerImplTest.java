@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.app;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.function.BiConsumer;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterDistributedLogs;
+import io.stackgres.common.crd.sgcluster.StackGresClusterSpec;
+import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.operator.conciliation.cluster.ClusterReconciliator;
+import io.stackgres.operator.conciliation.distributedlogs.DistributedLogsReconciliator;
+import io.stackgres.operator.controller.ResourceWatcherFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OperatorWatchersHandlerImplTest {
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private ClusterReconciliator clusterReconciliator;
+
+  @Mock
+  private DistributedLogsReconciliator distributedLogsReconciliator;
+
+  @Mock
+  private ResourceWatcherFactory watcherFactory;
+
+  @Mock
+  private CustomResourceScanner<StackGresCluster> clusterScanner;
+
+  private BiConsumer<Action, StackGresCluster> reconcileClusterDistributedLogs;
+
+  @BeforeEach
+  void setUp() {
+    reconcileClusterDistributedLogs = new OperatorWatchersHandlerImpl(clientFactory,
+        clusterReconciliator, distributedLogsReconciliator, watcherFactory, clusterScanner)
+        .reconcileClusterDistributedLogs();
+  }
+
+  @Test
+  void clusterEvent_shouldReconcileTheReferencedDistributedLogs() {
+    reconcileClusterDistributedLogs.accept(Action.ADDED, cluster("logs.distributedlogs"));
+    reconcileClusterDistributedLogs.accept(Action.MODIFIED, cluster("logs.distributedlogs"));
+
+    verify(distributedLogsReconciliator, times(2)).enqueue("logs", "distributedlogs");
+    verifyNoMoreInteractions(distributedLogsReconciliator);
+  }
+
+  @Test
+  void changedReference_shouldReconcileBothPreviousAndCurrentDistributedLogs() {
+    reconcileClusterDistributedLogs.accept(Action.ADDED, cluster("distributedlogs"));
+    reconcileClusterDistributedLogs.accept(Action.MODIFIED, cluster("logs.distributedlogs"));
+
+    verify(distributedLogsReconciliator, times(2)).enqueue("test", "distributedlogs");
+    verify(distributedLogsReconciliator).enqueue("logs", "distributedlogs");
+    verifyNoMoreInteractions(distributedLogsReconciliator);
+  }
+
+  @Test
+  void removedReference_shouldReconcileThePreviousDistributedLogs() {
+    reconcileClusterDistributedLogs.accept(Action.ADDED, cluster("distributedlogs"));
+    reconcileClusterDistributedLogs.accept(Action.MODIFIED, cluster(null));
+    reconcileClusterDistributedLogs.accept(Action.MODIFIED, cluster(null));
+
+    verify(distributedLogsReconciliator, times(2)).enqueue("test", "distributedlogs");
+    verifyNoMoreInteractions(distributedLogsReconciliator);
+  }
+
+  @Test
+  void deletedCluster_shouldReconcileTheReferencedDistributedLogs() {
+    reconcileClusterDistributedLogs.accept(Action.ADDED, cluster("distributedlogs"));
+    reconcileClusterDistributedLogs.accept(Action.DELETED, cluster("distributedlogs"));
+
+    verify(distributedLogsReconciliator, times(2)).enqueue("test", "distributedlogs");
+    verifyNoMoreInteractions(distributedLogsReconciliator);
+  }
+
+  private StackGresCluster cluster(String distributedLogs) {
+    StackGresCluster cluster = new StackGresCluster();
+    cluster.setMetadata(new ObjectMetaBuilder()
+        .withNamespace("test")
+        .withName("cluster")
+        .build());
+    cluster.setSpec(new StackGresClusterSpec());
+    if (distributedLogs != null) {
+      cluster.getSpec().setDistributedLogs(new StackGresClusterDistributedLogs());
+      cluster.getSpec().getDistributedLogs().setDistributedLogs(distributedLogs);
+    }
+    return cluster;
+  }
+
+}
@@ -5,14 +5,22 @@
 
 package io.stackgres.operator.conciliation;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.operator.cluster.factory.KubernetessMockResourceGenerationUtil;
 import io.stackgres.operator.conciliation.cluster.ClusterConciliator;
 import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -29,6 +37,42 @@ class ClusterConciliatorTest extends ConciliatorTest<StackGresCluster> {
   @Mock
   private DeployedResourcesScanner<StackGresCluster> deployedResourcesScanner;
 
+  @Test
+  void unchangedFingerprint_shouldSkipTheGenerationOfRequiredResources() {
+    final List<HasMetadata> requiredResources = KubernetessMockResourceGenerationUtil
+        .buildResources("test", "test");
+
+    Conciliator<StackGresCluster> conciliator = buildConciliator(requiredResources,
+        deepCopy(requiredResources));
+    conciliator.setFingerprintCalculator(config -> Optional.of(Fingerprint.of(config)));
+
+    assertTrue(conciliator.evalReconciliationState(cluster).isUpToDate());
+    assertTrue(conciliator.evalReconciliationState(cluster).isUpToDate());
+
+    verify(requiredResourceGenerator, times(1)).getRequiredResources(cluster);
+    verify(deployedResourcesScanner, times(2)).getDeployedResources(cluster);
+  }
+
+  @Test
+  void changedDeployedResource_shouldGenerateTheRequiredResourcesAgain() {
+    final List<HasMetadata> requiredResources = KubernetessMockResourceGenerationUtil
+        .buildResources("test", "test");
+    final List<HasMetadata> deployedResources = deepCopy(requiredResources);
+
+    Conciliator<StackGresCluster> conciliator = buildConciliator(requiredResources,
+        deployedResources);
+    conciliator.setFingerprintCalculator(config -> Optional.of(Fingerprint.of(config)));
+
+    assertTrue(conciliator.evalReconciliationState(cluster).isUpToDate());
+
+    deployedResources.get(0).getMetadata().setLabels(Map.of("changed", "true"));
+    deployedResources.get(0).getMetadata().setResourceVersion("changed");
+
+    assertFalse(conciliator.evalReconciliationState(cluster).isUpToDate());
+
+    verify(requiredResourceGenerator, times(2)).getRequiredResources(cluster);
+  }
+
   @Override
   protected Conciliator<StackGresCluster> buildConciliator(List<HasMetadata> required,
                                                            List<HasMetadata> deployed) {
@@ -5,11 +5,100 @@
 
 package io.stackgres.operator.conciliation;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.enterprise.inject.Instance;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.stackgres.common.ClusterLabelFactory;
+import io.stackgres.common.ClusterLabelMapper;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.LabelFactory;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.common.resource.CustomResourceIndex;
+import io.stackgres.operator.conciliation.cluster.ClusterDeployedResourceScanner;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
+@ExtendWith(MockitoExtension.class)
 class ClusterDeployedResourceScannerTest {
 
+  private final LabelFactory<StackGresCluster> labelFactory = new ClusterLabelFactory(
+      new ClusterLabelMapper());
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private CustomResourceCache cache;
+
+  @Mock
+  private CustomResourceIndex<HasMetadata> index;
+
+  @Mock
+  private Instance<DeployedResourceDecorator> decorators;
+
+  @Mock
+  private Instance<DeployedResourceDecorator> decorator;
+
+  private StackGresCluster cluster;
+
+  private ClusterDeployedResourceScanner scanner;
+
+  @BeforeEach
+  void setUp() {
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    scanner = new ClusterDeployedResourceScanner(clientFactory, cache, labelFactory, decorators);
+  }
+
   @Test
-  void getDeployedResources() {
+  void givenCachedResources_shouldNotQueryTheApiServer() {
+    Service owned = buildService("owned", labelFactory.genericClusterLabels(cluster),
+        cluster.getMetadata().getName());
+    Service notLabeled = buildService("not-labeled", Map.of(),
+        cluster.getMetadata().getName());
+    Service otherOwner = buildService("other-owner", labelFactory.genericClusterLabels(cluster),
+        "other");
+    when(cache.getIndex(any())).thenReturn(Optional.of(index));
+    when(index.copies()).thenReturn(index);
+    when(index.listByOwner(cluster.getMetadata().getUid()))
+        .thenReturn(List.of(owned, notLabeled, otherOwner))
+        .thenReturn(List.of());
+    when(decorators.select(any())).thenReturn(decorator);
+
+    List<HasMetadata> deployedResources = scanner.getDeployedResources(cluster);
+
+    assertEquals(List.of(owned), deployedResources);
+    verifyNoInteractions(clientFactory);
+  }
+
+  private Service buildService(String name, Map<String, String> labels, String ownerName) {
+    return new ServiceBuilder()
+        .withNewMetadata()
+        .withNamespace(cluster.getMetadata().getNamespace())
+        .withName(name)
+        .withLabels(labels)
+        .withOwnerReferences(new OwnerReferenceBuilder()
+            .withKind(StackGresCluster.KIND)
+            .withName(ownerName)
+            .build())
+        .endMetadata()
+        .build();
   }
-}
\ No newline at end of file
+
+}
@@ -5,20 +5,17 @@
 
 package io.stackgres.operator.conciliation;
 
-import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
@@ -33,15 +30,12 @@ import io.stackgres.common.resource.CustomResourceScheduler;
 import io.stackgres.operator.cluster.factory.KubernetessMockResourceGenerationUtil;
 import io.stackgres.operator.conciliation.cluster.ClusterReconciliator;
 import io.stackgres.testutil.JsonUtil;
-import org.hamcrest.MatcherAssert;
 import org.jooq.lambda.tuple.Tuple;
 import org.jooq.lambda.tuple.Tuple2;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.internal.stubbing.answers.AnswersWithDelay;
-import org.mockito.internal.stubbing.answers.Returns;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +46,8 @@ class ClusterReconciliatorTest {
   @Mock
   CustomResourceScanner<StackGresCluster> clusterScanner;
   @Mock
+  CustomResourceFinder<StackGresCluster> clusterFinder;
+  @Mock
   Conciliator<StackGresCluster> clusterConciliator;
   @Mock
   HandlerDelegator<StackGresCluster> handlerDelegator;
@@ -70,12 +66,16 @@ class ClusterReconciliatorTest {
   @Mock
   EventEmitter<StackGresBackup> backupEventEmitter;
 
+  private final String namespace = cluster.getMetadata().getNamespace();
+  private final String name = cluster.getMetadata().getName();
+
   private ClusterReconciliator reconciliator;
 
   @BeforeEach
   void setUp() {
     reconciliator = new ClusterReconciliator();
     reconciliator.setClusterScanner(clusterScanner);
+    reconciliator.setClusterFinder(clusterFinder);
     reconciliator.setClusterConciliator(clusterConciliator);
     reconciliator.setHandlerDelegator(handlerDelegator);
     reconciliator.setEventController(eventController);
@@ -86,12 +86,13 @@ class ClusterReconciliatorTest {
     reconciliator.setBackupScheduler(backupScheduler);
     reconciliator.setBackupEventEmitter(backupEventEmitter);
     lenient().when(backupScanner.getResources(anyString())).thenReturn(List.of());
-    when(clusterScheduler.updateStatus(cluster)).thenReturn(cluster);
+    lenient().when(clusterScheduler.updateStatus(cluster)).thenReturn(cluster);
   }
 
   @Test
   void allCreations_shouldBePerformed() {
-    when(clusterScanner.getResources()).thenReturn(Collections.singletonList(cluster));
+    when(clusterFinder.findByNameAndNamespace(name, namespace))
+        .thenReturn(Optional.of(cluster));
 
     final List<HasMetadata> creations = KubernetessMockResourceGenerationUtil
         .buildResources("test", "test");
@@ -104,16 +105,16 @@ class ClusterReconciliatorTest {
             Collections.emptyList(),
             Collections.emptyList()));
 
-    reconciliator.reconcile();
+    reconciliator.reconcile(namespace, name);
 
-    verify(clusterScanner).getResources();
     verify(clusterConciliator).evalReconciliationState(cluster);
     creations.forEach(resource -> verify(handlerDelegator).create(resource));
   }
 
   @Test
   void allPatches_shouldBePerformed() {
-    when(clusterScanner.getResources()).thenReturn(Collections.singletonList(cluster));
+    when(clusterFinder.findByNameAndNamespace(name, namespace))
+        .thenReturn(Optional.of(cluster));
 
     final List<Tuple2<HasMetadata, HasMetadata>> patches = KubernetessMockResourceGenerationUtil
         .buildResources("test", "test")
@@ -129,16 +130,16 @@ class ClusterReconciliatorTest {
             patches,
             Collections.emptyList()));
 
-    reconciliator.reconcile();
+    reconciliator.reconcile(namespace, name);
 
-    verify(clusterScanner).getResources();
     verify(clusterConciliator).evalReconciliationState(cluster);
     patches.forEach(resource -> verify(handlerDelegator).patch(resource.v1, resource.v2));
   }
 
   @Test
   void allDeletions_shouldBePerformed() {
-    when(clusterScanner.getResources()).thenReturn(Collections.singletonList(cluster));
+    when(clusterFinder.findByNameAndNamespace(name, namespace))
+        .thenReturn(Optional.of(cluster));
 
     final List<HasMetadata> deletions = KubernetessMockResourceGenerationUtil
         .buildResources("test", "test");
@@ -151,44 +152,44 @@ class ClusterReconciliatorTest {
             Collections.emptyList(),
             deletions));
 
-    reconciliator.reconcile();
+    reconciliator.reconcile(namespace, name);
 
-    verify(clusterScanner).getResources();
     verify(clusterConciliator).evalReconciliationState(cluster);
     deletions.forEach(resource -> verify(handlerDelegator).delete(resource));
   }
 
   @Test
-  void reconciliator_shouldPreventTheConcurrentExecution() throws InterruptedException {
+  void reconciliationOfASingleCluster_shouldNotScanAllClusters() {
+    when(clusterFinder.findByNameAndNamespace(name, namespace))
+        .thenReturn(Optional.of(cluster));
 
-    long delay = 100;
-    int concurrentExecutions = new Random().nextInt(2) + 2;
+    final List<HasMetadata> creations = KubernetessMockResourceGenerationUtil
+        .buildResources("test", "test");
 
-    doAnswer(new AnswersWithDelay(delay, new Returns(Collections.singletonList(cluster))))
-        .when(clusterScanner).getResources();
+    creations.forEach(resource -> when(handlerDelegator.create(resource)).thenReturn(resource));
 
     when(clusterConciliator.evalReconciliationState(cluster))
         .thenReturn(new ReconciliationResult(
-            Collections.emptyList(),
+            creations,
             Collections.emptyList(),
             Collections.emptyList()));
 
-    var pool = ForkJoinPool.commonPool();
-    long start = System.currentTimeMillis();
-    for (int i = 0; i < concurrentExecutions; i++) {
-      pool.execute(() -> reconciliator.reconcile());
-    }
+    reconciliator.reconcile(namespace, name);
 
-    pool.awaitTermination(delay * concurrentExecutions, TimeUnit.SECONDS);
-    long end = System.currentTimeMillis();
+    verify(clusterScanner, never()).getResources();
+    verify(clusterFinder).findByNameAndNamespace(name, namespace);
+    verify(clusterConciliator).evalReconciliationState(cluster);
+    creations.forEach(resource -> verify(handlerDelegator).create(resource));
+  }
 
-    MatcherAssert
-        .assertThat("Is being executed concurrently",
-            end - start,
-            greaterThanOrEqualTo(delay * concurrentExecutions));
+  @Test
+  void reconciliationOfAMissingCluster_shouldDoNothing() {
+    when(clusterFinder.findByNameAndNamespace("missing", "test"))
+        .thenReturn(Optional.empty());
 
-    verify(clusterScanner, times(concurrentExecutions)).getResources();
-    verify(clusterConciliator, times(concurrentExecutions)).evalReconciliationState(cluster);
+    reconciliator.reconcile("test", "missing");
 
+    verify(clusterConciliator, never()).evalReconciliationState(any());
+    verify(clusterScheduler, never()).updateStatus(any());
   }
 }
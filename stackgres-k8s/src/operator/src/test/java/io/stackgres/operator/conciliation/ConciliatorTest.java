@@ -91,6 +91,38 @@ public abstract class ConciliatorTest<T extends CustomResource<?, ?>> {
     assertFalse(result.isUpToDate());
   }
 
+  @Test
+  void deployedResourceThatIsNotTheSameResource_shouldBeDeletedAndCreated() {
+
+    final List<HasMetadata> requiredResources = KubernetessMockResourceGenerationUtil
+        .buildResources("test", "test");
+    final List<HasMetadata> deployedResources = deepCopy(requiredResources);
+
+    int indexToReplace = new Random().nextInt(requiredResources.size());
+    HasMetadata staleResource = deployedResources.get(indexToReplace);
+
+    Conciliator<T> conciliator = buildConciliator(requiredResources, deployedResources);
+    conciliator.setResourceComparator(new ComparisonDelegator<>() {
+      @Override
+      public boolean isTheSameResource(HasMetadata required, HasMetadata deployed) {
+        return deployed != staleResource
+            && resourceComparator.isTheSameResource(required, deployed);
+      }
+
+      @Override
+      public boolean isResourceContentEqual(HasMetadata required, HasMetadata deployed) {
+        return resourceComparator.isResourceContentEqual(required, deployed);
+      }
+    });
+
+    ReconciliationResult result = conciliator.evalReconciliationState(getConciliationResource());
+    assertEquals(List.of(requiredResources.get(indexToReplace)), result.getCreations());
+    assertEquals(List.of(staleResource), result.getDeletions());
+    assertEquals(0, result.getPatches().size());
+
+    assertFalse(result.isUpToDate());
+  }
+
   @Test
   void whenThereIsNoChanges_allResourcesShouldBeEmpty() {
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ReconciliationApplierTest {
+
+  private final ReconciliationApplier applier = new ReconciliationApplier("test", 4);
+
+  @AfterEach
+  void tearDown() {
+    applier.stop();
+  }
+
+  @Test
+  void givenIndependentResources_shouldApplyThemConcurrently() {
+    List<HasMetadata> resources = List.of(
+        new ConfigMapBuilder().withNewMetadata().withName("config").endMetadata().build(),
+        new SecretBuilder().withNewMetadata().withName("secret").endMetadata().build(),
+        new ServiceBuilder().withNewMetadata().withName("service").endMetadata().build());
+    CountDownLatch latch = new CountDownLatch(resources.size());
+    Set<String> applied = ConcurrentHashMap.newKeySet();
+
+    applier.apply(resources, Function.identity(), resource -> {
+      latch.countDown();
+      try {
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(ex);
+      }
+      applied.add(resource.getMetadata().getName());
+    });
+
+    assertEquals(Set.of("config", "secret", "service"), applied);
+  }
+
+  @Test
+  void givenWorkloads_shouldApplyThemAfterTheOtherResources() {
+    List<HasMetadata> resources = List.of(
+        new StatefulSetBuilder().withNewMetadata().withName("sts").endMetadata().build(),
+        new ConfigMapBuilder().withNewMetadata().withName("config").endMetadata().build(),
+        new SecretBuilder().withNewMetadata().withName("secret").endMetadata().build());
+    List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+    applier.apply(resources, Function.identity(),
+        resource -> applied.add(resource.getMetadata().getName()));
+
+    assertEquals(3, applied.size());
+    assertEquals("sts", applied.get(2));
+  }
+
+  @Test
+  void givenAFailure_shouldApplyTheOtherResourcesAndRethrowIt() {
+    List<HasMetadata> resources = List.of(
+        new ConfigMapBuilder().withNewMetadata().withName("config").endMetadata().build(),
+        new SecretBuilder().withNewMetadata().withName("secret").endMetadata().build());
+    Set<String> applied = ConcurrentHashMap.newKeySet();
+
+    IllegalStateException ex = assertThrows(IllegalStateException.class,
+        () -> applier.apply(resources, Function.identity(), resource -> {
+          if (resource.getMetadata().getName().equals("config")) {
+            throw new IllegalStateException("config failed");
+          }
+          applied.add(resource.getMetadata().getName());
+        }));
+
+    assertEquals("config failed", ex.getMessage());
+    assertEquals(Set.of("secret"), applied);
+  }
+
+}
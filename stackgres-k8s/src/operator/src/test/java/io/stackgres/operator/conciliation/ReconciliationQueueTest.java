@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReconciliationQueueTest {
+
+  private final List<String> reconciledKeys = new CopyOnWriteArrayList<>();
+  private final CountDownLatch blocker = new CountDownLatch(1);
+
+  private ReconciliationQueue queue;
+
+  @BeforeEach
+  void setUp() {
+    queue = new ReconciliationQueue("test", 1,
+        (namespace, name) -> reconciledKeys.add(namespace + "/" + name));
+  }
+
+  @AfterEach
+  void tearDown() {
+    blocker.countDown();
+    queue.stop();
+  }
+
+  @Test
+  void givenTheSameKeyEnqueuedManyTimes_shouldReconcileItOnce() throws Exception {
+    queue.enqueue("test", "cluster");
+    queue.enqueue("test", "cluster");
+    queue.enqueue("test", "other");
+    queue.enqueue("test", "cluster");
+
+    assertEquals(2, queue.size());
+
+    queue.start();
+    awaitEmpty();
+
+    assertEquals(List.of("test/cluster", "test/other"), reconciledKeys);
+  }
+
+  @Test
+  void givenAKeyEnqueuedWhileReconciling_shouldReconcileItAgain() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    queue = new ReconciliationQueue("test", 1,
+        (namespace, name) -> {
+          reconciledKeys.add(namespace + "/" + name);
+          started.countDown();
+          try {
+            blocker.await();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    queue.start();
+    queue.enqueue("test", "cluster");
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    queue.enqueue("test", "cluster");
+    assertEquals(1, queue.size());
+    blocker.countDown();
+    awaitEmpty();
+
+    assertEquals(List.of("test/cluster", "test/cluster"), reconciledKeys);
+  }
+
+  @Test
+  void givenManyWorkers_differentKeysShouldBeReconciledConcurrently() throws Exception {
+    CountDownLatch started = new CountDownLatch(2);
+    queue = new ReconciliationQueue("test", 2,
+        (namespace, name) -> {
+          started.countDown();
+          try {
+            blocker.await();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    queue.start();
+    queue.enqueue("test", "cluster");
+    queue.enqueue("test", "other");
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals(2, queue.inFlight());
+  }
+
+  @Test
+  void givenManyWorkers_theSameKeyShouldNeverBeReconciledConcurrently() throws Exception {
+    AtomicInteger concurrent = new AtomicInteger(0);
+    AtomicInteger maxConcurrent = new AtomicInteger(0);
+    AtomicInteger reconciliations = new AtomicInteger(0);
+    queue = new ReconciliationQueue("test", 4,
+        (namespace, name) -> {
+          maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          concurrent.decrementAndGet();
+          reconciliations.incrementAndGet();
+        });
+
+    queue.start();
+    for (int i = 0; i < 10; i++) {
+      queue.enqueue("test", "cluster");
+      Thread.sleep(5);
+    }
+    awaitEmpty();
+
+    assertEquals(1, maxConcurrent.get());
+    assertTrue(reconciliations.get() >= 2);
+  }
+
+  private void awaitEmpty() throws InterruptedException {
+    long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while ((queue.size() > 0 || queue.inFlight() > 0)
+        && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    queue.stop();
+  }
+
+}
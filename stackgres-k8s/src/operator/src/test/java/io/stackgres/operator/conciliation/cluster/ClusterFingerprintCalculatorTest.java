@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.stackgres.common.crd.sgbackup.StackGresBackup;
+import io.stackgres.common.crd.sgbackupconfig.StackGresBackupConfig;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.crd.sgcluster.StackGresClusterDbOpsMajorVersionUpgradeStatus;
+import io.stackgres.common.crd.sgcluster.StackGresClusterDbOpsStatus;
+import io.stackgres.common.crd.sgcluster.StackGresClusterInstalledExtension;
+import io.stackgres.common.crd.sgcluster.StackGresClusterPodStatus;
+import io.stackgres.common.crd.sgcluster.StackGresClusterStatus;
+import io.stackgres.common.crd.sgdbops.StackGresDbOps;
+import io.stackgres.common.crd.sgpgconfig.StackGresPostgresConfig;
+import io.stackgres.common.crd.sgpooling.StackGresPoolingConfig;
+import io.stackgres.common.crd.sgprofile.StackGresProfile;
+import io.stackgres.common.resource.CustomResourceFinder;
+import io.stackgres.common.resource.CustomResourceScanner;
+import io.stackgres.operator.conciliation.Fingerprint;
+import io.stackgres.operator.configuration.OperatorPropertyContext;
+import io.stackgres.operator.customresource.prometheus.PrometheusConfig;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterFingerprintCalculatorTest {
+
+  @Mock
+  private CustomResourceFinder<StackGresBackupConfig> backupConfigFinder;
+
+  @Mock
+  private CustomResourceFinder<StackGresPostgresConfig> postgresConfigFinder;
+
+  @Mock
+  private CustomResourceFinder<StackGresPoolingConfig> poolingConfigFinder;
+
+  @Mock
+  private CustomResourceFinder<StackGresProfile> profileFinder;
+
+  @Mock
+  private CustomResourceScanner<StackGresBackup> backupScanner;
+
+  @Mock
+  private CustomResourceScanner<StackGresDbOps> dbOpsScanner;
+
+  @Mock
+  private CustomResourceScanner<PrometheusConfig> prometheusScanner;
+
+  @Mock
+  private OperatorPropertyContext operatorContext;
+
+  private StackGresCluster cluster;
+
+  private ClusterFingerprintCalculator calculator;
+
+  @BeforeEach
+  void setUp() {
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    cluster.setStatus(new StackGresClusterStatus());
+    StackGresPostgresConfig postgresConfig = new StackGresPostgresConfig();
+    postgresConfig.setMetadata(new ObjectMetaBuilder()
+        .withNamespace(cluster.getMetadata().getNamespace())
+        .withName("postgresconf")
+        .withResourceVersion("1")
+        .build());
+    StackGresProfile profile = new StackGresProfile();
+    profile.setMetadata(new ObjectMetaBuilder()
+        .withNamespace(cluster.getMetadata().getNamespace())
+        .withName("size-xs")
+        .withResourceVersion("1")
+        .build());
+    when(postgresConfigFinder.findByNameAndNamespace(any(), any()))
+        .thenReturn(Optional.of(postgresConfig));
+    when(profileFinder.findByNameAndNamespace(any(), any()))
+        .thenReturn(Optional.of(profile));
+    calculator = new ClusterFingerprintCalculator(backupConfigFinder, postgresConfigFinder,
+        poolingConfigFinder, profileFinder, backupScanner, dbOpsScanner, prometheusScanner,
+        operatorContext);
+  }
+
+  @Test
+  void unchangedCluster_shouldHaveTheSameFingerprint() {
+    assertEquals(calculate(), calculate());
+  }
+
+  @Test
+  void changedInstalledExtensions_shouldChangeTheFingerprint() {
+    StackGresClusterPodStatus podStatus = new StackGresClusterPodStatus();
+    podStatus.setName("stackgres-0");
+    podStatus.setInstalledPostgresExtensions(List.of());
+    cluster.getStatus().setPodStatuses(List.of(podStatus));
+    Fingerprint fingerprint = calculate();
+
+    StackGresClusterInstalledExtension installedExtension =
+        new StackGresClusterInstalledExtension();
+    installedExtension.setName("timescaledb");
+    podStatus.setInstalledPostgresExtensions(List.of(installedExtension));
+
+    assertNotEquals(fingerprint, calculate());
+  }
+
+  @Test
+  void changedMajorVersionUpgradeStatus_shouldChangeTheFingerprint() {
+    Fingerprint fingerprint = calculate();
+
+    StackGresClusterDbOpsMajorVersionUpgradeStatus majorVersionUpgrade =
+        new StackGresClusterDbOpsMajorVersionUpgradeStatus();
+    majorVersionUpgrade.setSourcePostgresVersion("11.6");
+    majorVersionUpgrade.setTargetPostgresVersion("12.4");
+    cluster.getStatus().setDbOps(new StackGresClusterDbOpsStatus());
+    cluster.getStatus().getDbOps().setMajorVersionUpgrade(majorVersionUpgrade);
+    Fingerprint upgradingFingerprint = calculate();
+
+    assertNotEquals(fingerprint, upgradingFingerprint);
+
+    majorVersionUpgrade.setPrimaryInstance("stackgres-0");
+
+    assertNotEquals(upgradingFingerprint, calculate());
+  }
+
+  private Fingerprint calculate() {
+    return calculator.calculate(cluster).orElseThrow();
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.stackgres.common.ClusterLabelFactory;
+import io.stackgres.common.ClusterLabelMapper;
+import io.stackgres.common.KubernetesClientFactory;
+import io.stackgres.common.LabelFactory;
+import io.stackgres.common.PatroniUtil;
+import io.stackgres.common.StackGresContext;
+import io.stackgres.common.StackGresProperty;
+import io.stackgres.common.crd.sgcluster.StackGresCluster;
+import io.stackgres.common.resource.CustomResourceCache;
+import io.stackgres.common.resource.CustomResourceIndex;
+import io.stackgres.operator.conciliation.StatefulSetSnapshotScanner;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterStatusManagerTest {
+
+  private static final String UPDATE_REVISION = "test-1";
+
+  private final LabelFactory<StackGresCluster> labelFactory = new ClusterLabelFactory(
+      new ClusterLabelMapper());
+
+  @Mock
+  private KubernetesClientFactory clientFactory;
+
+  @Mock
+  private CustomResourceCache cache;
+
+  @Mock
+  private CustomResourceIndex<StatefulSet> statefulSetIndex;
+
+  @Mock
+  private CustomResourceIndex<Pod> podIndex;
+
+  private StackGresCluster cluster;
+
+  private StatefulSet statefulSet;
+
+  private ClusterStatusManager statusManager;
+
+  @BeforeEach
+  void setUp() {
+    cluster = JsonUtil.readFromJson("stackgres_cluster/default.json", StackGresCluster.class);
+    statefulSet = new StatefulSetBuilder()
+        .withNewMetadata()
+        .withNamespace(cluster.getMetadata().getNamespace())
+        .withName(cluster.getMetadata().getName())
+        .withUid("sts-uid")
+        .withLabels(labelFactory.genericClusterLabels(cluster))
+        .withOwnerReferences(new OwnerReferenceBuilder()
+            .withKind(StackGresCluster.KIND)
+            .withName(cluster.getMetadata().getName())
+            .withUid(cluster.getMetadata().getUid())
+            .build())
+        .endMetadata()
+        .withNewStatus()
+        .withUpdateRevision(UPDATE_REVISION)
+        .endStatus()
+        .build();
+    statusManager = new ClusterStatusManager(labelFactory,
+        new StatefulSetSnapshotScanner(clientFactory, cache));
+    when(cache.getIndex(StatefulSet.class)).thenReturn(Optional.of(statefulSetIndex));
+    when(cache.getIndex(Pod.class)).thenReturn(Optional.of(podIndex));
+    when(statefulSetIndex.listByOwner(cluster.getMetadata().getUid()))
+        .thenReturn(List.of(statefulSet));
+  }
+
+  @Test
+  void givenUpToDatePods_shouldNotBePendingRestart() {
+    when(podIndex.listByOwner("sts-uid")).thenReturn(List.of(
+        buildPod(UPDATE_REVISION, "{\"state\":\"running\",\"role\":\"master\"}")));
+
+    assertFalse(statusManager.isPendingRestart(cluster));
+    verifyNoInteractions(clientFactory);
+  }
+
+  @Test
+  void givenAPodFromAPreviousRevision_shouldBePendingRestart() {
+    when(podIndex.listByOwner("sts-uid")).thenReturn(List.of(
+        buildPod(UPDATE_REVISION, null),
+        buildPod("test-0", null)));
+
+    assertTrue(statusManager.isPendingRestart(cluster));
+  }
+
+  @Test
+  void givenPatroniPendingRestart_shouldBePendingRestart() {
+    when(podIndex.listByOwner("sts-uid")).thenReturn(List.of(
+        buildPod(UPDATE_REVISION,
+            "{\"state\":\"running\",\"role\":\"replica\",\"pending_restart\":true}")));
+
+    assertTrue(statusManager.isPendingRestart(cluster));
+  }
+
+  @Test
+  void givenPendingRestartInAnotherAnnotation_shouldNotBePendingRestart() {
+    Pod pod = buildPod(UPDATE_REVISION, "{\"state\":\"running\"}");
+    pod.getMetadata().getAnnotations().put("other", "{\"pending_restart\":true}");
+    when(podIndex.listByOwner("sts-uid")).thenReturn(List.of(pod));
+
+    assertFalse(statusManager.isPendingRestart(cluster));
+  }
+
+  private Pod buildPod(String revision, String patroniStatus) {
+    PodBuilder builder = new PodBuilder()
+        .withNewMetadata()
+        .withNamespace(cluster.getMetadata().getNamespace())
+        .withName(cluster.getMetadata().getName() + "-0")
+        .withLabels(labelFactory.patroniClusterLabels(cluster))
+        .addToLabels("controller-revision-hash", revision)
+        .withAnnotations(Map.of(StackGresContext.VERSION_KEY,
+            StackGresProperty.OPERATOR_VERSION.getString()))
+        .withOwnerReferences(new OwnerReferenceBuilder()
+            .withKind("StatefulSet")
+            .withName(statefulSet.getMetadata().getName())
+            .withUid(statefulSet.getMetadata().getUid())
+            .build())
+        .endMetadata();
+    if (patroniStatus != null) {
+      builder.editMetadata()
+          .addToAnnotations(PatroniUtil.STATUS_ANNOTATION, patroniStatus)
+          .endMetadata();
+    }
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 OnGres, Inc.
+ * SPDX-License-Identifier: AGPL-3.0-or-later
+ */
+
+package io.stackgres.operator.conciliation.comparator;
+
+import static io.stackgres.operator.conciliation.comparator.DefaultComparator.PATCH_MAPPER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarBuilder;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.stackgres.testutil.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JsonTreeComparatorTest {
+
+  private final StatefulSetComparator comparator = new StatefulSetComparator();
+
+  private final JsonTreeComparator treeComparator =
+      new JsonTreeComparator(comparator.getPatchPattersToIgnore());
+
+  private StatefulSet required;
+  private StatefulSet deployed;
+
+  @BeforeEach
+  void setUp() {
+    required = JsonUtil.readFromJson("statefulset/required.json",
+        StatefulSet.class);
+    deployed = JsonUtil.readFromJson("statefulset/deployed.json",
+        StatefulSet.class);
+  }
+
+  @Test
+  void ignoredDifferences_shouldBeEqualWithoutComputingTheJsonDiff() {
+    assertEquals(JsonTreeComparator.Result.EQUAL, compare());
+    assertSameAsJsonDiff();
+  }
+
+  @Test
+  void containerImageChanges_shouldBeDifferentWithoutComputingTheJsonDiff() {
+    required.getSpec().getTemplate().getSpec().getContainers().get(0).setImage("changed");
+
+    assertEquals(JsonTreeComparator.Result.DIFFERENT, compare());
+    assertSameAsJsonDiff();
+  }
+
+  @Test
+  void annotationChanges_shouldGiveTheSameResultAsJsonDiff() {
+    assertSameAsJsonDiff(statefulSet -> statefulSet.getMetadata()
+        .setAnnotations(Map.of("test", "value")));
+  }
+
+  @Test
+  void volumeClaimAnnotationChanges_shouldGiveTheSameResultAsJsonDiff() {
+    assertSameAsJsonDiff(statefulSet -> statefulSet.getSpec().getVolumeClaimTemplates()
+        .forEach(vct -> vct.getMetadata().setAnnotations(Map.of("test", "value"))));
+  }
+
+  @Test
+  void volumeClaimSizeChanges_shouldGiveTheSameResultAsJsonDiff() {
+    assertSameAsJsonDiff(statefulSet -> statefulSet.getSpec().getVolumeClaimTemplates()
+        .forEach(vct -> vct.getSpec().getResources()
+            .setRequests(Map.of("storage", new Quantity("10Gi")))));
+  }
+
+  @Test
+  void replicasChanges_shouldGiveTheSameResultAsJsonDiff() {
+    assertSameAsJsonDiff(statefulSet -> statefulSet.getSpec().setReplicas(5));
+  }
+
+  @Test
+  void addedEnvVar_shouldGiveTheSameResultAsJsonDiff() {
+    EnvVar envVar = new EnvVarBuilder()
+        .withName("TEST")
+        .withValue("value")
+        .build();
+    assertSameAsJsonDiff(statefulSet -> statefulSet.getSpec().getTemplate().getSpec()
+        .getContainers().get(0).getEnv().add(envVar));
+  }
+
+  @Test
+  void movedContainers_shouldGiveTheSameResultAsJsonDiff() {
+    deployed = JsonUtil.readFromJson("statefulset/required.json",
+        StatefulSet.class);
+    deployed.getSpec().getTemplate().getSpec().setContainers(
+        reverse(deployed.getSpec().getTemplate().getSpec().getContainers()));
+
+    assertEquals(JsonTreeComparator.Result.UNKNOWN, compare());
+    assertSameAsJsonDiff();
+  }
+
+  @Test
+  void unsupportedIgnorePatches_shouldAlwaysBeUnknown() {
+    JsonTreeComparator unsupportedComparator = new JsonTreeComparator(
+        new StackGresAbstractComparator.IgnorePatch[] {
+            patch -> patch.getPath().startsWith("/status")
+        });
+
+    assertEquals(JsonTreeComparator.Result.UNKNOWN, unsupportedComparator
+        .compare(PATCH_MAPPER.valueToTree(required), PATCH_MAPPER.valueToTree(required)));
+  }
+
+  private <T> List<T> reverse(List<T> list) {
+    List<T> reversed = new ArrayList<>(list);
+    Collections.reverse(reversed);
+    return reversed;
+  }
+
+  private void assertSameAsJsonDiff(Consumer<StatefulSet> mutation) {
+    mutation.accept(required);
+    assertSameAsJsonDiff();
+    mutation.accept(deployed);
+    assertSameAsJsonDiff();
+  }
+
+  private void assertSameAsJsonDiff() {
+    JsonNode source = PATCH_MAPPER.valueToTree(required);
+    JsonNode target = PATCH_MAPPER.valueToTree(deployed);
+    assertEquals(comparator.isJsonDiffEqual(required.getKind(), source, target),
+        comparator.isResourceContentEqual(required, deployed));
+    assertEquals(comparator.isJsonDiffEqual(deployed.getKind(), target, source),
+        comparator.isResourceContentEqual(deployed, required));
+  }
+
+  private JsonTreeComparator.Result compare() {
+    return treeComparator.compare(PATCH_MAPPER.valueToTree(required),
+        PATCH_MAPPER.valueToTree(deployed));
+  }
+
+}